@@ -4,5 +4,8 @@ if [ -z "$SERVICE_PATH" ]; then
   echo "Error: Service path not provided"
   exit 1
 fi
+# Bibliotheque partagee (verification JWT, ...) requise par les services
+REPO_ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+mvn -B -f "$REPO_ROOT/common-lib/pom.xml" install -DskipTests || exit 1
 cd "$SERVICE_PATH" || exit 1
 mvn verify
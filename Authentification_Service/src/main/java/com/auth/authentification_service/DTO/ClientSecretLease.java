@@ -0,0 +1,21 @@
+package com.auth.authentification_service.DTO;
+
+public class ClientSecretLease {
+        private final String secret;
+        private final long leaseDurationSeconds;
+
+        public ClientSecretLease(String secret, long leaseDurationSeconds) {
+            this.secret = secret;
+            this.leaseDurationSeconds = leaseDurationSeconds;
+        }
+
+        // Getters
+        public String getSecret() {
+            return secret;
+        }
+
+        // Durée du bail renvoyée par Vault (0 si le moteur de secrets n'en fournit pas)
+        public long getLeaseDurationSeconds() {
+            return leaseDurationSeconds;
+        }
+    }
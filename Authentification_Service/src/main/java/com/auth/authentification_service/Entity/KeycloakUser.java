@@ -0,0 +1,53 @@
+package com.auth.authentification_service.Entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Copie locale d'un utilisateur du realm Keycloak (réplica maintenu par KeycloakUserReplica).
+ */
+@Entity
+@Table(name = "keycloak_users")
+public class KeycloakUser {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private boolean enabled;
+
+    // Instant (epoch ms) de la dernière synchronisation de cette ligne
+    private long syncedAt;
+
+    // Constructeurs
+    public KeycloakUser() {}
+
+    public KeycloakUser(String id, String username, String email, String firstName, String lastName, boolean enabled, long syncedAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.enabled = enabled;
+        this.syncedAt = syncedAt;
+    }
+
+    // Getters et setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getSyncedAt() { return syncedAt; }
+    public void setSyncedAt(long syncedAt) { this.syncedAt = syncedAt; }
+}
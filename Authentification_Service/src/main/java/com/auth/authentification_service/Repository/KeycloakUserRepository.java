@@ -0,0 +1,7 @@
+package com.auth.authentification_service.Repository;
+
+import com.auth.authentification_service.Entity.KeycloakUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface KeycloakUserRepository extends JpaRepository<KeycloakUser, String> {
+}
@@ -0,0 +1,262 @@
+package com.auth.authentification_service.Service;
+
+import com.auth.authentification_service.DTO.ClientSecretLease;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Session d'administration Keycloak partagée par tout le service.
+ * <ul>
+ *   <li>token admin (client_credentials) gardé en mémoire et renouvelé refresh-skew-ms avant son expires_in ;
+ *       un seul appel de renouvellement à la fois, les appelants concurrents attendent et réutilisent son résultat ;</li>
+ *   <li>secret client lu dans Vault gardé jusqu'à la fin de son bail (plafonné à secret-max-ttl-ms) ;</li>
+ *   <li>correspondance nom de rôle → id du realm gardée role-cache-ttl-ms, invalidable.</li>
+ * </ul>
+ * Métriques : keycloak.admin.token.refreshes{result}, keycloak.admin.token.age, keycloak.admin.secret.age,
+ * keycloak.admin.roles.refreshes, keycloak.admin.roles.age.
+ */
+@Service
+public class KeycloakAdminSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeycloakAdminSession.class);
+
+    @Value("${keycloak.auth-server-url}")
+    private String keycloakUrl;
+
+    @Value("${keycloak.realm}")
+    private String keycloakRealm;
+
+    @Value("${keycloak.resource}")
+    private String keycloakClientId;
+
+    @Value("${keycloak.admin-session.refresh-skew-ms:30000}")
+    private long refreshSkewMs = 30_000;
+
+    @Value("${keycloak.admin-session.secret-max-ttl-ms:3600000}")
+    private long secretMaxTtlMs = 3_600_000;
+
+    @Value("${keycloak.admin-session.role-cache-ttl-ms:600000}")
+    private long roleCacheTtlMs = 600_000;
+
+    private final VaultService vaultService;
+    private final RestTemplate restTemplate;
+
+    private final ReentrantLock tokenLock = new ReentrantLock();
+    private final ReentrantLock secretLock = new ReentrantLock();
+    private final ReentrantLock rolesLock = new ReentrantLock();
+
+    private volatile String adminToken;
+    private volatile long tokenFetchedAt;
+    private volatile long tokenExpiresAt;
+
+    private volatile String clientSecret;
+    private volatile long secretFetchedAt;
+    private volatile long secretExpiresAt;
+
+    private volatile Map<String, String> roleIdsByName = Collections.emptyMap();
+    private volatile long rolesFetchedAt;
+
+    private final Counter tokenRefreshSuccess;
+    private final Counter tokenRefreshFailure;
+    private final Counter roleRefreshes;
+
+    public KeycloakAdminSession(VaultService vaultService, RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.vaultService = vaultService;
+        this.restTemplate = restTemplate;
+
+        this.tokenRefreshSuccess = Counter.builder("keycloak.admin.token.refreshes").tag("result", "success").register(meterRegistry);
+        this.tokenRefreshFailure = Counter.builder("keycloak.admin.token.refreshes").tag("result", "failure").register(meterRegistry);
+        this.roleRefreshes = Counter.builder("keycloak.admin.roles.refreshes").register(meterRegistry);
+        TimeGauge.builder("keycloak.admin.token.age", this, TimeUnit.MILLISECONDS, s -> age(s.tokenFetchedAt))
+                .register(meterRegistry);
+        TimeGauge.builder("keycloak.admin.secret.age", this, TimeUnit.MILLISECONDS, s -> age(s.secretFetchedAt))
+                .register(meterRegistry);
+        TimeGauge.builder("keycloak.admin.roles.age", this, TimeUnit.MILLISECONDS, s -> age(s.rolesFetchedAt))
+                .register(meterRegistry);
+    }
+
+    // ---------------------------------------------------------------- token admin
+
+    public String getAdminToken() {
+        String token = adminToken;
+        if (token != null && System.currentTimeMillis() < tokenExpiresAt - refreshSkewMs) {
+            return token;
+        }
+        tokenLock.lock();
+        try {
+            // Un autre appelant a peut-être renouvelé le token pendant l'attente du verrou
+            if (adminToken != null && System.currentTimeMillis() < tokenExpiresAt - refreshSkewMs) {
+                return adminToken;
+            }
+            return refreshAdminToken();
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    /** À appeler quand Keycloak répond 401 avec le token courant (session révoquée côté Keycloak). */
+    public void invalidateToken() {
+        adminToken = null;
+        tokenExpiresAt = 0;
+    }
+
+    private String refreshAdminToken() {
+        try {
+            Map<String, Object> body;
+            try {
+                body = requestAdminToken(getClientSecret());
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() != HttpStatus.UNAUTHORIZED && e.getStatusCode() != HttpStatus.BAD_REQUEST) {
+                    throw e;
+                }
+                // Secret refusé : il a peut-être été changé dans Vault avant la fin du bail
+                logger.warn("Secret client refusé par Keycloak, relecture depuis Vault");
+                invalidateClientSecret();
+                body = requestAdminToken(getClientSecret());
+            }
+            if (body == null || body.get("access_token") == null) {
+                throw new RuntimeException("Impossible de récupérer le token d'admin Keycloak");
+            }
+
+            long now = System.currentTimeMillis();
+            long expiresInSeconds = body.get("expires_in") instanceof Number expiresIn ? expiresIn.longValue() : 60;
+            adminToken = body.get("access_token").toString();
+            tokenFetchedAt = now;
+            tokenExpiresAt = now + TimeUnit.SECONDS.toMillis(expiresInSeconds);
+            tokenRefreshSuccess.increment();
+            return adminToken;
+        } catch (RuntimeException e) {
+            tokenRefreshFailure.increment();
+            throw e;
+        }
+    }
+
+    private Map<String, Object> requestAdminToken(String secret) {
+        String tokenUrl = keycloakUrl + "/realms/" + keycloakRealm + "/protocol/openid-connect/token";
+
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "client_credentials");
+        params.add("client_id", keycloakClientId);
+        params.add("client_secret", secret);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(tokenUrl, request, Map.class);
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new RuntimeException("Impossible de récupérer le token d'admin Keycloak");
+        }
+        return response.getBody();
+    }
+
+    // ---------------------------------------------------------------- secret client (Vault)
+
+    public String getClientSecret() {
+        String secret = clientSecret;
+        if (secret != null && System.currentTimeMillis() < secretExpiresAt) {
+            return secret;
+        }
+        secretLock.lock();
+        try {
+            if (clientSecret != null && System.currentTimeMillis() < secretExpiresAt) {
+                return clientSecret;
+            }
+            ClientSecretLease lease = vaultService.getClientSecretLease();
+            long now = System.currentTimeMillis();
+            long leaseMs = TimeUnit.SECONDS.toMillis(lease.getLeaseDurationSeconds());
+            clientSecret = lease.getSecret();
+            secretFetchedAt = now;
+            secretExpiresAt = now + (leaseMs > 0 ? Math.min(leaseMs, secretMaxTtlMs) : secretMaxTtlMs);
+            return clientSecret;
+        } finally {
+            secretLock.unlock();
+        }
+    }
+
+    public void invalidateClientSecret() {
+        clientSecret = null;
+        secretExpiresAt = 0;
+    }
+
+    // ---------------------------------------------------------------- rôles du realm
+
+    /**
+     * Id du rôle de realm portant ce nom, ou null s'il n'existe pas.
+     * Un nom inconnu du cache provoque une relecture (rôle créé depuis), au plus une fois par appel.
+     */
+    public String getRoleId(String roleName) {
+        Map<String, String> roles = roleIdsByName;
+        boolean fresh = rolesFetchedAt > 0 && System.currentTimeMillis() - rolesFetchedAt < roleCacheTtlMs;
+        if (fresh && roles.containsKey(roleName)) {
+            return roles.get(roleName);
+        }
+        rolesLock.lock();
+        try {
+            long fetchedBefore = rolesFetchedAt;
+            fresh = fetchedBefore > 0 && System.currentTimeMillis() - fetchedBefore < roleCacheTtlMs;
+            if (!fresh || !roleIdsByName.containsKey(roleName)) {
+                refreshRoles();
+            }
+            return roleIdsByName.get(roleName);
+        } finally {
+            rolesLock.unlock();
+        }
+    }
+
+    public void invalidateRoles() {
+        rolesFetchedAt = 0;
+    }
+
+    private void refreshRoles() {
+        String rolesUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/roles";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(getAdminToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> rolesResponse = restTemplate.exchange(rolesUrl, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        if (rolesResponse.getStatusCode() != HttpStatus.OK) {
+            logger.error("Erreur lors de la récupération des rôles : {}", rolesResponse.getBody());
+            throw new RuntimeException("Erreur lors de la récupération des rôles.");
+        }
+
+        Map<String, String> roles = new HashMap<>();
+        try {
+            JsonNode nodes = new ObjectMapper().readTree(rolesResponse.getBody());
+            for (JsonNode role : nodes) {
+                if (role.hasNonNull("name") && role.hasNonNull("id")) {
+                    roles.put(role.get("name").asText(), role.get("id").asText());
+                }
+            }
+        } catch (Exception e) {
+            // Réponse illisible : le cache précédent et sa date sont conservés, l'appel suivant relira les rôles
+            logger.error("Erreur lors de l'extraction des rôles : {}", e.getMessage());
+            return;
+        }
+        roleIdsByName = roles;
+        rolesFetchedAt = System.currentTimeMillis();
+        roleRefreshes.increment();
+    }
+
+    private static double age(long fetchedAt) {
+        return fetchedAt > 0 ? System.currentTimeMillis() - fetchedAt : 0;
+    }
+}
@@ -5,13 +5,12 @@ import com.auth.authentification_service.DTO.ProjectMemberDTO;
 import com.auth.authentification_service.DTO.TokenDto;
 import com.auth.authentification_service.DTO.UserDto;
 import com.auth.authentification_service.Entity.Invitation;
+import com.auth.authentification_service.Entity.KeycloakUser;
 import com.auth.authentification_service.Entity.ProjectMember;
 import com.auth.authentification_service.Repository.InvitationRepository;
 import com.auth.authentification_service.Repository.ProjectMemberRepository;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -29,6 +28,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,73 +42,26 @@ public class KeycloakService {
     @Value("${keycloak.resource}")
     private String keycloakClientId;
 
-    private final VaultService vaultService;
+    private final KeycloakAdminSession adminSession;
     private final RestTemplate restTemplate;
     private final InvitationRepository invitationRepository;
     private final ProjectMemberRepository projectMemberRepository;
+    private final KeycloakUserReplica userReplica;
     private final String projectServiceUrl = "http://localhost:8085"; // Ajoute cette ligne pour l'URL de project-service
 
-    public KeycloakService(VaultService vaultService, RestTemplate restTemplate, InvitationRepository invitationRepository, ProjectMemberRepository projectMemberRepository) {
-        this.vaultService = vaultService;
+    public KeycloakService(KeycloakAdminSession adminSession, RestTemplate restTemplate, InvitationRepository invitationRepository, ProjectMemberRepository projectMemberRepository, KeycloakUserReplica userReplica) {
+        this.adminSession = adminSession;
         this.restTemplate = restTemplate;
         this.invitationRepository = invitationRepository;
         this.projectMemberRepository = projectMemberRepository;
+        this.userReplica = userReplica;
     }
 
-    @RateLimiter(name = "KeycloakServiceLimiter", fallbackMethod = "getAdminTokenRateLimiterFallback")
-    @Bulkhead(name = "KeycloakServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "getAdminTokenBulkheadFallback")
-    @Retry(name = "KeycloakServiceRetry", fallbackMethod = "getAdminTokenRetryFallback")
+    // Token admin mis en cache et renouvelé avant expiration par la session d'administration
     public String getAdminToken() {
-        String clientSecret = vaultService.getClientSecret();
-        System.out.println("Client Secret utilisé : " + clientSecret);
-        String tokenUrl = keycloakUrl + "/realms/" + keycloakRealm + "/protocol/openid-connect/token";
-
-        System.out.println("URL pour récupérer le token : " + tokenUrl);
-
-        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("grant_type", "client_credentials");
-        params.add("client_id", keycloakClientId);
-        params.add("client_secret", clientSecret);
-        System.out.println("Paramètres envoyés : " + params);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.forEach((key, value) -> System.out.println("Header : " + key + " = " + value));
-
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        System.out.println("Headers envoyés après ajout : " + headers);
-        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
-
-        System.out.println("Envoi de la requête pour récupérer le token...");
-
-        ResponseEntity<Map> response = restTemplate.postForEntity(tokenUrl, request, Map.class);
-
-        System.out.println("Statut de la réponse : " + response.getStatusCode());
-
-        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-            System.out.println("Token récupéré avec succès !");
-            return response.getBody().get("access_token").toString();
-        }
-
-        System.out.println("Erreur lors de la récupération du token !");
-        throw new RuntimeException("Impossible de récupérer le token d'admin Keycloak");
-    }
-
-    public String getAdminTokenRateLimiterFallback(Throwable t) {
-        System.out.println("RateLimiter fallback for getAdminToken: " + t.getMessage());
-        throw new RuntimeException("Rate limit exceeded for admin token retrieval");
+        return adminSession.getAdminToken();
     }
 
-    public String getAdminTokenBulkheadFallback(Throwable t) {
-        System.out.println("Bulkhead fallback for getAdminToken: " + t.getMessage());
-        throw new RuntimeException("Too many concurrent admin token requests");
-    }
-
-    public String getAdminTokenRetryFallback(Throwable t) {
-        System.out.println("Retry fallback for getAdminToken: " + t.getMessage());
-        throw new RuntimeException("Failed to retrieve admin token after retries");
-    }
-
-
     @RateLimiter(name = "KeycloakServiceLimiter", fallbackMethod = "createUserRateLimiterFallback")
     @Bulkhead(name = "KeycloakServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "createUserBulkheadFallback")
     @Retry(name = "KeycloakServiceRetry", fallbackMethod = "createUserRetryFallback")
@@ -181,6 +134,9 @@ public class KeycloakService {
             // Attribuer le rôle dans Keycloak
             assignRoleToUser(userId, roleToAssign, accessToken);
 
+            // Rendre le nouvel utilisateur visible tout de suite dans le réplica local
+            userReplica.refreshUser(userId);
+
             // Si un jeton est présent, marquer l'invitation comme utilisée
             if (userDto.getToken() != null) {
                 System.out.println("Marquage de l'invitation comme utilisée...");
@@ -246,57 +202,48 @@ public class KeycloakService {
     private void assignRoleToUser(String userId, String roleName, String accessToken) {
         System.out.println("Attribution du rôle " + roleName + " à l'utilisateur : " + userId);
 
-        // URL pour récupérer la liste des rôles dans le realm
-        String rolesUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/roles";
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(accessToken);
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        // Requête pour récupérer la liste des rôles
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        System.out.println("Récupération des rôles depuis : " + rolesUrl);
-        ResponseEntity<String> rolesResponse = restTemplate.exchange(rolesUrl, HttpMethod.GET, entity, String.class);
-
-        System.out.println("Réponse de Keycloak pour les rôles : " + rolesResponse.getStatusCode() + " - " + rolesResponse.getBody());
-
-        if (rolesResponse.getStatusCode() == HttpStatus.OK) {
-            // Extraire l'ID du rôle
-            String roleId = extractRoleIdFromResponse(rolesResponse.getBody(), roleName);
-
-            if (roleId != null) {
-                System.out.println("ID du rôle " + roleName + " : " + roleId);
+        // ID du rôle lu depuis la table des rôles du realm gardée en cache par la session
+        String roleId = adminSession.getRoleId(roleName);
+        if (roleId == null) {
+            System.out.println("Le rôle " + roleName + " n'a pas été trouvé.");
+            throw new RuntimeException("Rôle " + roleName + " non trouvé.");
+        }
+        System.out.println("ID du rôle " + roleName + " : " + roleId);
 
-                // URL de l'API Keycloak pour affecter un rôle à l'utilisateur
-                String roleMappingUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId + "/role-mappings/realm";
+        // URL de l'API Keycloak pour affecter un rôle à l'utilisateur
+        String roleMappingUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId + "/role-mappings/realm";
 
-                // Définir le rôle en utilisant l'ID obtenu dynamiquement
-                String roleJson = "[{\"id\": \"" + roleId + "\", \"name\": \"" + roleName + "\"}]";
-                System.out.println("Requête d'attribution du rôle : " + roleJson);
-                HttpEntity<String> roleMappingEntity = new HttpEntity<>(roleJson, headers);
+        // Définir le rôle en utilisant l'ID obtenu dynamiquement
+        String roleJson = "[{\"id\": \"" + roleId + "\", \"name\": \"" + roleName + "\"}]";
+        System.out.println("Requête d'attribution du rôle : " + roleJson);
+        HttpEntity<String> roleMappingEntity = new HttpEntity<>(roleJson, headers);
 
-                // Effectuer la requête pour attribuer le rôle
-                ResponseEntity<String> response = restTemplate.exchange(
-                        roleMappingUrl,
-                        HttpMethod.POST,
-                        roleMappingEntity,
-                        String.class
-                );
+        // Effectuer la requête pour attribuer le rôle
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(
+                    roleMappingUrl,
+                    HttpMethod.POST,
+                    roleMappingEntity,
+                    String.class
+            );
+        } catch (HttpClientErrorException.NotFound e) {
+            // Rôle supprimé/recréé côté Keycloak : l'ID en cache n'est plus valide
+            adminSession.invalidateRoles();
+            throw e;
+        }
 
-                System.out.println("Réponse de Keycloak pour l'attribution du rôle : " + response.getStatusCode() + " - " + response.getBody());
+        System.out.println("Réponse de Keycloak pour l'attribution du rôle : " + response.getStatusCode() + " - " + response.getBody());
 
-                if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
-                    System.out.println("Rôle " + roleName + " attribué avec succès !");
-                } else {
-                    System.out.println("Échec de l'attribution du rôle " + roleName + " : " + response.getBody());
-                    throw new RuntimeException("Échec de l'attribution du rôle : " + roleName);
-                }
-            } else {
-                System.out.println("Le rôle " + roleName + " n'a pas été trouvé.");
-                throw new RuntimeException("Rôle " + roleName + " non trouvé.");
-            }
+        if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
+            System.out.println("Rôle " + roleName + " attribué avec succès !");
         } else {
-            System.out.println("Erreur lors de la récupération des rôles : " + rolesResponse.getBody());
-            throw new RuntimeException("Erreur lors de la récupération des rôles.");
+            System.out.println("Échec de l'attribution du rôle " + roleName + " : " + response.getBody());
+            throw new RuntimeException("Échec de l'attribution du rôle : " + roleName);
         }
     }
     public void assignRoleToUserRateLimiterFallback(String userId, String roleName, String accessToken, Throwable t) {
@@ -314,22 +261,6 @@ public class KeycloakService {
         throw new RuntimeException("Failed to assign role after retries");
     }
 
-    public String extractRoleIdFromResponse(String responseBody, String roleName) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode roles = mapper.readTree(responseBody);
-            for (JsonNode role : roles) {
-                if (role.get("name").asText().equals(roleName)) {
-                    return role.get("id").asText();
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            System.out.println("Erreur lors de l'extraction de l'ID du rôle : " + e.getMessage());
-            return null;
-        }
-    }
-
     @RateLimiter(name = "KeycloakServiceLimiter", fallbackMethod = "getTeamMembersRateLimiterFallback")
     @Bulkhead(name = "KeycloakServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "getTeamMembersBulkheadFallback")
     @Retry(name = "KeycloakServiceRetry", fallbackMethod = "getTeamMembersRetryFallback")
@@ -342,33 +273,11 @@ public class KeycloakService {
         List<ProjectMember> projectMembers = projectMemberRepository.findAll();
         List<Map<String, Object>> teamMembers = new ArrayList<>();
 
-        // Obtenir un token admin pour interroger Keycloak
-        String adminToken = getAdminToken();
-
-        // Récupérer tous les utilisateurs de Keycloak en une seule requête
-        String usersUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(adminToken);
-        HttpEntity<String> request = new HttpEntity<>(headers);
-
         try {
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    usersUrl, HttpMethod.GET, request, new ParameterizedTypeReference<List<Map<String, Object>>>() {
-                    }
-            );
-            List<Map<String, Object>> allUsers = response.getBody();
-
-            if (allUsers == null) {
-                System.out.println("Aucune information d'utilisateur trouvée dans Keycloak");
-                return teamMembers;
-            }
-
-            // Créer une map pour un accès rapide aux informations des utilisateurs
-            Map<String, Map<String, Object>> userInfoMap = new HashMap<>();
-            for (Map<String, Object> user : allUsers) {
-                String userIdFromKeycloak = (String) user.get("id");
-                userInfoMap.put(userIdFromKeycloak, user);
-            }
+            // Informations des utilisateurs servies par le réplica local (tout le realm, sans limite de page)
+            Map<String, KeycloakUser> userInfoMap = userReplica.getUsers(projectMembers.stream()
+                    .map(member -> member.getId().getUserId())
+                    .collect(Collectors.toSet()));
 
             // Traiter chaque membre de ProjectMember
             for (ProjectMember member : projectMembers) {
@@ -378,14 +287,14 @@ public class KeycloakService {
                 }
 
                 // Récupérer les informations de l'utilisateur depuis la map
-                Map<String, Object> userInfo = userInfoMap.get(member.getId().getUserId());
+                KeycloakUser userInfo = userInfoMap.get(member.getId().getUserId());
                 if (userInfo == null) {
                     System.out.println("Utilisateur non trouvé dans Keycloak : " + member.getId().getUserId());
                     continue;
                 }
 
-                String firstName = (String) userInfo.get("firstName");
-                String lastName = (String) userInfo.get("lastName");
+                String firstName = userInfo.getFirstName();
+                String lastName = userInfo.getLastName();
 
                 // Vérifier que firstName et lastName ne sont pas null
                 if (firstName == null || lastName == null) {
@@ -465,8 +374,10 @@ public class KeycloakService {
             return teamMembers;
         }
 
-        // Obtenir un token admin pour interroger Keycloak
-        String adminToken = getAdminToken();
+        // Informations des utilisateurs servies par le réplica local
+        Map<String, KeycloakUser> userInfoMap = userReplica.getUsers(projectMembers.stream()
+                .map(member -> member.getId().getUserId())
+                .collect(Collectors.toSet()));
 
         // Traiter chaque membre de ProjectMember
         for (ProjectMember member : projectMembers) {
@@ -475,26 +386,16 @@ public class KeycloakService {
                 continue;
             }
 
-            // Récupérer les informations de l'utilisateur depuis Keycloak
-            String userUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + member.getId().getUserId();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(adminToken);
-            HttpEntity<String> request = new HttpEntity<>(headers);
-
             try {
-                ResponseEntity<Map<String, Object>> userResponse = restTemplate.exchange(
-                        userUrl, HttpMethod.GET, request, new ParameterizedTypeReference<Map<String, Object>>() {
-                        }
-                );
-                Map<String, Object> userInfo = userResponse.getBody();
+                KeycloakUser userInfo = userInfoMap.get(member.getId().getUserId());
 
                 if (userInfo == null) {
                     System.out.println("⚠️ Utilisateur non trouvé dans Keycloak : " + member.getId().getUserId());
                     continue;
                 }
 
-                String firstName = (String) userInfo.get("firstName");
-                String lastName = (String) userInfo.get("lastName");
+                String firstName = userInfo.getFirstName();
+                String lastName = userInfo.getLastName();
 
                 // Vérifier que firstName et lastName ne sont pas null
                 if (firstName == null || lastName == null) {
@@ -560,6 +461,12 @@ public class KeycloakService {
     @Bulkhead(name = "KeycloakServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "getUserDetailsByAuthIdBulkheadFallback")
     @Retry(name = "KeycloakServiceRetry", fallbackMethod = "getUserDetailsByAuthIdRetryFallback")
     public Map<String, Object> getUserDetailsByAuthId(String authId, String userToken) {
+        Optional<KeycloakUser> replicated = userReplica.getUser(authId);
+        if (replicated.isPresent()) {
+            return toUserDetails(replicated.get());
+        }
+
+        // Absent du réplica (utilisateur créé depuis la dernière synchronisation) : lecture directe
         String adminToken = getAdminToken(); // Remplace le token utilisateur par un token admin
         String userUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + authId;
         HttpHeaders headers = new HttpHeaders();
@@ -629,7 +536,6 @@ public class KeycloakService {
     @Bulkhead(name = "KeycloakServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "getUsersByIdsBulkheadFallback")
     @Retry(name = "KeycloakServiceRetry", fallbackMethod = "getUsersByIdsRetryFallback")
     public List<UserDto> getUsersByIds(List<String> userIds) {
-        String adminToken = getAdminToken();
         List<UserDto> users = new ArrayList<>();
 
         if (userIds == null || userIds.isEmpty()) {
@@ -637,43 +543,25 @@ public class KeycloakService {
             return users;
         }
 
+        Map<String, KeycloakUser> userInfoMap = userReplica.getUsers(userIds);
         for (String userId : userIds) {
-            String userUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId;
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(adminToken);
-            HttpEntity<String> request = new HttpEntity<>(headers);
-
-            try {
-                ResponseEntity<Map<String, Object>> userResponse = restTemplate.exchange(
-                        userUrl,
-                        HttpMethod.GET,
-                        request,
-                        new ParameterizedTypeReference<Map<String, Object>>() {}
-                );
-                Map<String, Object> userInfo = userResponse.getBody();
-
-                if (userInfo == null) {
-                    System.out.println("⚠️ Utilisateur non trouvé dans Keycloak : " + userId);
-                    continue;
-                }
+            KeycloakUser userInfo = userInfoMap.get(userId);
 
-                String firstName = (String) userInfo.get("firstName");
-                String lastName = (String) userInfo.get("lastName");
+            if (userInfo == null) {
+                System.out.println("⚠️ Utilisateur non trouvé dans Keycloak : " + userId);
+                continue;
+            }
 
-                // Gérer les cas où firstName ou lastName sont null
-                firstName = firstName != null ? firstName : "Inconnu";
-                lastName = lastName != null ? lastName : "Inconnu";
+            // Gérer les cas où firstName ou lastName sont null
+            String firstName = userInfo.getFirstName() != null ? userInfo.getFirstName() : "Inconnu";
+            String lastName = userInfo.getLastName() != null ? userInfo.getLastName() : "Inconnu";
 
-                UserDto userDTO = new UserDto();
-                userDTO.setId(userId);
-                userDTO.setFirstName(firstName);
-                userDTO.setLastName(lastName);
+            UserDto userDTO = new UserDto();
+            userDTO.setId(userId);
+            userDTO.setFirstName(firstName);
+            userDTO.setLastName(lastName);
 
-                users.add(userDTO);
-            } catch (Exception e) {
-                System.out.println("❌ Erreur lors de la récupération de l'utilisateur " + userId +
-                        " depuis Keycloak : " + e.getMessage());
-            }
+            users.add(userDTO);
         }
 
         return users;
@@ -725,6 +613,7 @@ public class KeycloakService {
 
             if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
                 System.out.println("✅ Utilisateur mis à jour dans Kernel : " + userId);
+                userReplica.refreshUser(userId);
                 return ResponseEntity.ok("Profil mis à jour avec succès");
             } else {
                 System.out.println("❌ Échec de la mise à jour de l'utilisateur : " + response.getBody());
@@ -830,7 +719,7 @@ public class KeycloakService {
     @Retry(name = "KeycloakServiceRetry", fallbackMethod = "authenticateUserRetryFallback")
     public TokenDto authenticateUser(String email, String password) throws Exception {
         System.out.println("Récupération du client secret depuis Vault...");
-        String keycloakClientSecret = vaultService.getClientSecret();
+        String keycloakClientSecret = adminSession.getClientSecret();
         System.out.println("Client Secret from Vault: " + keycloakClientSecret);
         String tokenUrl = keycloakUrl + "/realms/" + keycloakRealm + "/protocol/openid-connect/token";
         System.out.println("URL de token : " + tokenUrl);
@@ -877,50 +766,34 @@ public class KeycloakService {
     }
 
 
-    private Map<String, Object> fetchUserDetails(String authId, String adminToken) {
-        String userUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + authId;
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(adminToken);
-        HttpEntity<String> request = new HttpEntity<>(headers);
+    private Map<String, Object> toUserDetails(KeycloakUser user) {
+        String firstName = user.getFirstName() != null ? user.getFirstName() : "Inconnu";
+        String lastName = user.getLastName() != null ? user.getLastName() : "Inconnu";
 
-        try {
-            ResponseEntity<Map<String, Object>> userResponse = restTemplate.exchange(
-                    userUrl, HttpMethod.GET, request, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-            Map<String, Object> userInfo = userResponse.getBody();
-            if (userInfo == null) {
-                throw new RuntimeException("Utilisateur non trouvé dans Keycloak");
-            }
-
-            String firstName = (String) userInfo.getOrDefault("firstName", "Inconnu");
-            String lastName = (String) userInfo.getOrDefault("lastName", "Inconnu");
-
-            Map<String, Object> userDetails = new HashMap<>();
-            userDetails.put("firstName", firstName);
-            userDetails.put("lastName", lastName);
-            userDetails.put("avatar", "https://ui-avatars.com/api/?name=" +
-                    firstName.charAt(0) + "+" + lastName.charAt(0));
-            return userDetails;
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur lors de la récupération de l'utilisateur depuis Keycloak", e);
-        }
+        Map<String, Object> userDetails = new HashMap<>();
+        userDetails.put("firstName", firstName);
+        userDetails.put("lastName", lastName);
+        userDetails.put("avatar", "https://ui-avatars.com/api/?name=" +
+                firstName.charAt(0) + "+" + lastName.charAt(0));
+        return userDetails;
     }
 
     public Map<String, Map<String, Object>> getUserDetailsByIds(List<String> authIds) {
-        String adminToken = getAdminToken();
+        Map<String, KeycloakUser> users = userReplica.getUsers(authIds);
         return authIds.stream()
+                .distinct()
                 .collect(Collectors.toMap(
                         id -> id,
                         id -> {
-                            try {
-                                return fetchUserDetails(id, adminToken);
-                            } catch (Exception e) {
+                            KeycloakUser user = users.get(id);
+                            if (user == null) {
                                 return Map.of(
                                         "firstName", "Inconnu",
                                         "lastName", "Inconnu",
                                         "avatar", ""
                                 );
                             }
+                            return toUserDetails(user);
                         }
                 ));
     }
@@ -932,33 +805,19 @@ public class KeycloakService {
     public Map<String, Object> searchUserByName(String firstName, String lastName) {
         System.out.println("Recherche d'utilisateur avec firstName: " + firstName + ", lastName: " + lastName);
 
-        String adminToken = getAdminToken();
-        String searchUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users?firstName=" + firstName + "&lastName=" + lastName;
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(adminToken);
-        HttpEntity<String> request = new HttpEntity<>(headers);
-
         try {
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    searchUrl,
-                    HttpMethod.GET,
-                    request,
-                    new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-            );
-
-            List<Map<String, Object>> users = response.getBody();
-            if (users == null || users.isEmpty()) {
+            Optional<KeycloakUser> found = userReplica.findByName(firstName, lastName);
+            if (found.isEmpty()) {
                 System.out.println("Aucun utilisateur trouvé pour firstName: " + firstName + ", lastName: " + lastName);
                 throw new RuntimeException("Utilisateur non trouvé dans Keycloak");
             }
 
             // Retourner le premier utilisateur trouvé (supposons une correspondance unique)
-            Map<String, Object> user = users.get(0);
+            KeycloakUser user = found.get();
             Map<String, Object> userDetails = new HashMap<>();
-            userDetails.put("id", user.get("id"));
-            userDetails.put("firstName", user.getOrDefault("firstName", "Inconnu"));
-            userDetails.put("lastName", user.getOrDefault("lastName", "Inconnu"));
+            userDetails.put("id", user.getId());
+            userDetails.put("firstName", user.getFirstName() != null ? user.getFirstName() : "Inconnu");
+            userDetails.put("lastName", user.getLastName() != null ? user.getLastName() : "Inconnu");
             return userDetails;
 
         } catch (Exception e) {
@@ -0,0 +1,434 @@
+package com.auth.authentification_service.Service;
+
+import com.auth.authentification_service.Entity.KeycloakUser;
+import com.auth.authentification_service.Repository.KeycloakUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Réplica local des utilisateurs du realm Keycloak.
+ * <ul>
+ *   <li>index en mémoire (par id et par nom) servi sans appel réseau, recopié dans la table keycloak_users
+ *       pour redémarrer même si Keycloak est indisponible ;</li>
+ *   <li>synchronisation complète paginée (first/max) au démarrage puis toutes les full-sync-interval-ms ;</li>
+ *   <li>entre deux synchronisations complètes, lecture incrémentale des admin events USER
+ *       (les admin events doivent être activés sur le realm) ;</li>
+ *   <li>borne de fraîcheur : au-delà de max-staleness-ms sans synchronisation réussie, une lecture
+ *       déclenche une synchronisation avant de répondre (les données en place sont servies si Keycloak est KO).</li>
+ * </ul>
+ * Métriques : keycloak.replica.sync.lag, keycloak.replica.users, keycloak.replica.sync{type},
+ * keycloak.replica.sync.failures{type}, keycloak.replica.stale.reads.
+ */
+@Service
+public class KeycloakUserReplica {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeycloakUserReplica.class);
+    private static final DateTimeFormatter EVENT_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneOffset.UTC);
+
+    @Value("${keycloak.auth-server-url}")
+    private String keycloakUrl;
+
+    @Value("${keycloak.realm}")
+    private String keycloakRealm;
+
+    @Value("${keycloak.replica.page-size:100}")
+    private int pageSize = 100;
+
+    @Value("${keycloak.replica.full-sync-interval-ms:900000}")
+    private long fullSyncIntervalMs = 900_000;
+
+    @Value("${keycloak.replica.max-staleness-ms:1200000}")
+    private long maxStalenessMs = 1_200_000;
+
+    private final KeycloakAdminSession adminSession;
+    private final RestTemplate restTemplate;
+    private final KeycloakUserRepository keycloakUserRepository;
+
+    private final Map<String, KeycloakUser> usersById = new ConcurrentHashMap<>();
+    private final Map<String, List<KeycloakUser>> usersByName = new ConcurrentHashMap<>();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final long createdAt = System.currentTimeMillis();
+
+    private volatile long lastSyncAt;
+    private volatile long lastFullSyncAt;
+    private volatile long lastEventTime;
+
+    private final Timer fullSyncTimer;
+    private final Timer incrementalSyncTimer;
+    private final Counter fullSyncFailures;
+    private final Counter incrementalSyncFailures;
+    private final Counter staleReads;
+
+    public KeycloakUserReplica(KeycloakAdminSession adminSession, RestTemplate restTemplate,
+                               KeycloakUserRepository keycloakUserRepository, MeterRegistry meterRegistry) {
+        this.adminSession = adminSession;
+        this.restTemplate = restTemplate;
+        this.keycloakUserRepository = keycloakUserRepository;
+
+        this.fullSyncTimer = Timer.builder("keycloak.replica.sync").tag("type", "full").register(meterRegistry);
+        this.incrementalSyncTimer = Timer.builder("keycloak.replica.sync").tag("type", "incremental").register(meterRegistry);
+        this.fullSyncFailures = Counter.builder("keycloak.replica.sync.failures").tag("type", "full").register(meterRegistry);
+        this.incrementalSyncFailures = Counter.builder("keycloak.replica.sync.failures").tag("type", "incremental").register(meterRegistry);
+        this.staleReads = Counter.builder("keycloak.replica.stale.reads").register(meterRegistry);
+        TimeGauge.builder("keycloak.replica.sync.lag", this, TimeUnit.MILLISECONDS, KeycloakUserReplica::syncLagMillis)
+                .description("Temps écoulé depuis la dernière synchronisation réussie avec Keycloak")
+                .register(meterRegistry);
+        Gauge.builder("keycloak.replica.users", usersById, Map::size).register(meterRegistry);
+    }
+
+    /** Recharge la dernière copie persistée : le réplica répond même si Keycloak est injoignable au démarrage. */
+    @PostConstruct
+    public void loadFromDatabase() {
+        try {
+            List<KeycloakUser> persisted = keycloakUserRepository.findAll();
+            persisted.forEach(this::index);
+            logger.info("Réplica Keycloak : {} utilisateur(s) rechargé(s) depuis la base", persisted.size());
+        } catch (Exception e) {
+            logger.warn("Réplica Keycloak : impossible de recharger la table keycloak_users : {}", e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------- lectures
+
+    public Optional<KeycloakUser> getUser(String userId) {
+        ensureFresh();
+        return userId == null ? Optional.empty() : Optional.ofNullable(usersById.get(userId));
+    }
+
+    /** Utilisateurs connus parmi les ids demandés (les ids absents du realm sont ignorés). */
+    public Map<String, KeycloakUser> getUsers(Collection<String> userIds) {
+        ensureFresh();
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, KeycloakUser> users = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            KeycloakUser user = userId != null ? usersById.get(userId) : null;
+            if (user != null) {
+                users.put(userId, user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Recherche par prénom et nom : correspondance exacte (insensible à la casse) d'abord,
+     * puis correspondance partielle comme le paramètre firstName/lastName de l'API admin.
+     */
+    public Optional<KeycloakUser> findByName(String firstName, String lastName) {
+        ensureFresh();
+        List<KeycloakUser> exact = usersByName.get(nameKey(firstName, lastName));
+        if (exact != null && !exact.isEmpty()) {
+            return Optional.of(exact.get(0));
+        }
+        String first = normalize(firstName);
+        String last = normalize(lastName);
+        return usersById.values().stream()
+                .filter(user -> normalize(user.getFirstName()).contains(first) && normalize(user.getLastName()).contains(last))
+                .findFirst();
+    }
+
+    public long syncLagMillis() {
+        long reference = lastSyncAt > 0 ? lastSyncAt : createdAt;
+        return System.currentTimeMillis() - reference;
+    }
+
+    // ---------------------------------------------------------------- synchronisation
+
+    @Scheduled(initialDelayString = "${keycloak.replica.initial-delay-ms:0}", fixedDelayString = "${keycloak.replica.sync-interval-ms:30000}")
+    public void scheduledSync() {
+        syncLock.lock();
+        try {
+            sync();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Relit un utilisateur juste après une écriture faite par ce service (création, mise à jour du profil). */
+    public void refreshUser(String userId) {
+        try {
+            refreshUser(userId, adminHeaders());
+        } catch (Exception e) {
+            logger.warn("Réplica Keycloak : rafraîchissement de l'utilisateur {} impossible : {}", userId, e.getMessage());
+        }
+    }
+
+    private void ensureFresh() {
+        if (syncLagMillis() <= maxStalenessMs) {
+            return;
+        }
+        // Une synchronisation est déjà en cours : on sert les données en place plutôt que d'attendre
+        if (!syncLock.tryLock()) {
+            staleReads.increment();
+            return;
+        }
+        try {
+            if (syncLagMillis() > maxStalenessMs) {
+                sync();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+        if (syncLagMillis() > maxStalenessMs) {
+            staleReads.increment();
+        }
+    }
+
+    private void sync() {
+        if (lastFullSyncAt == 0 || System.currentTimeMillis() - lastFullSyncAt >= fullSyncIntervalMs) {
+            fullSync();
+        } else {
+            incrementalSync();
+        }
+    }
+
+    public void fullSync() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            fullSyncTimer.record(() -> {
+                HttpEntity<String> request = new HttpEntity<>(adminHeaders());
+                Map<String, KeycloakUser> fetched = new HashMap<>();
+                int first = 0;
+                while (true) {
+                    String usersUrl = keycloakUrl + "/admin/realms/" + keycloakRealm
+                            + "/users?briefRepresentation=true&first=" + first + "&max=" + pageSize;
+                    ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                            usersUrl, HttpMethod.GET, request, new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                    );
+                    List<Map<String, Object>> page = response.getBody();
+                    if (page == null || page.isEmpty()) {
+                        break;
+                    }
+                    for (Map<String, Object> representation : page) {
+                        KeycloakUser user = toUser(representation, startedAt);
+                        fetched.put(user.getId(), user);
+                    }
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    first += pageSize;
+                }
+
+                Set<String> removed = new HashSet<>(usersById.keySet());
+                removed.removeAll(fetched.keySet());
+                removed.forEach(this::unindex);
+                fetched.values().forEach(this::index);
+
+                keycloakUserRepository.saveAll(fetched.values());
+                if (!removed.isEmpty()) {
+                    keycloakUserRepository.deleteAllById(removed);
+                }
+                logger.info("Réplica Keycloak : synchronisation complète de {} utilisateur(s), {} supprimé(s)",
+                        fetched.size(), removed.size());
+            });
+            // Les admin events antérieurs au début de la synchronisation complète sont déjà couverts
+            lastEventTime = Math.max(lastEventTime, startedAt);
+            lastFullSyncAt = startedAt;
+            lastSyncAt = startedAt;
+        } catch (Exception e) {
+            invalidateTokenIfRejected(e);
+            fullSyncFailures.increment();
+            logger.error("Réplica Keycloak : échec de la synchronisation complète : {}", e.getMessage());
+        }
+    }
+
+    public void incrementalSync() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            incrementalSyncTimer.record(() -> {
+                HttpHeaders headers = adminHeaders();
+                HttpEntity<String> request = new HttpEntity<>(headers);
+                // operationType par id : le dernier événement l'emporte (les événements arrivent du plus récent au plus ancien)
+                Map<String, String> changes = new LinkedHashMap<>();
+                long newestEventTime = lastEventTime;
+                int first = 0;
+                boolean reachedKnownEvents = false;
+                while (!reachedKnownEvents) {
+                    String eventsUrl = keycloakUrl + "/admin/realms/" + keycloakRealm
+                            + "/admin-events?resourceTypes=USER&dateFrom=" + EVENT_DATE.format(Instant.ofEpochMilli(lastEventTime))
+                            + "&first=" + first + "&max=" + pageSize;
+                    ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                            eventsUrl, HttpMethod.GET, request, new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                    );
+                    List<Map<String, Object>> page = response.getBody();
+                    if (page == null || page.isEmpty()) {
+                        break;
+                    }
+                    for (Map<String, Object> event : page) {
+                        long time = ((Number) event.getOrDefault("time", 0L)).longValue();
+                        if (time <= lastEventTime) {
+                            reachedKnownEvents = true;
+                            break;
+                        }
+                        newestEventTime = Math.max(newestEventTime, time);
+                        String userId = userIdFromResourcePath((String) event.get("resourcePath"));
+                        if (userId != null) {
+                            String operation = (String) event.get("operationType");
+                            boolean userDeleted = "DELETE".equals(operation) && ("users/" + userId).equals(event.get("resourcePath"));
+                            changes.putIfAbsent(userId, userDeleted ? "DELETE" : "UPDATE");
+                        }
+                    }
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    first += pageSize;
+                }
+
+                for (Map.Entry<String, String> change : changes.entrySet()) {
+                    if ("DELETE".equals(change.getValue())) {
+                        remove(change.getKey());
+                    } else {
+                        refreshUser(change.getKey(), headers);
+                    }
+                }
+                lastEventTime = newestEventTime;
+                if (!changes.isEmpty()) {
+                    logger.info("Réplica Keycloak : {} utilisateur(s) mis à jour depuis les admin events", changes.size());
+                }
+            });
+            lastSyncAt = startedAt;
+        } catch (Exception e) {
+            invalidateTokenIfRejected(e);
+            incrementalSyncFailures.increment();
+            logger.error("Réplica Keycloak : échec de la synchronisation incrémentale : {}", e.getMessage());
+        }
+    }
+
+    private void refreshUser(String userId, HttpHeaders headers) {
+        String userUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId;
+        try {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                    userUrl, HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+            if (response.getBody() == null) {
+                remove(userId);
+                return;
+            }
+            KeycloakUser user = toUser(response.getBody(), System.currentTimeMillis());
+            index(user);
+            keycloakUserRepository.save(user);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                remove(userId);
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    // Token admin révoqué côté Keycloak avant son expiration : le prochain cycle en redemandera un
+    private void invalidateTokenIfRejected(Exception e) {
+        if (e instanceof HttpClientErrorException clientError && clientError.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+            adminSession.invalidateToken();
+        }
+    }
+
+    private HttpHeaders adminHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(adminSession.getAdminToken());
+        return headers;
+    }
+
+    // ---------------------------------------------------------------- index en mémoire
+
+    private void index(KeycloakUser user) {
+        KeycloakUser previous = usersById.put(user.getId(), user);
+        if (previous != null) {
+            removeFromNameIndex(previous);
+        }
+        usersByName.compute(nameKey(user.getFirstName(), user.getLastName()), (key, users) -> {
+            List<KeycloakUser> updated = users != null ? new ArrayList<>(users) : new ArrayList<>();
+            updated.add(user);
+            return updated;
+        });
+    }
+
+    private void unindex(String userId) {
+        KeycloakUser previous = usersById.remove(userId);
+        if (previous != null) {
+            removeFromNameIndex(previous);
+        }
+    }
+
+    private void remove(String userId) {
+        unindex(userId);
+        if (keycloakUserRepository.existsById(userId)) {
+            keycloakUserRepository.deleteById(userId);
+        }
+    }
+
+    private void removeFromNameIndex(KeycloakUser user) {
+        usersByName.computeIfPresent(nameKey(user.getFirstName(), user.getLastName()), (key, users) -> {
+            List<KeycloakUser> updated = new ArrayList<>(users);
+            updated.removeIf(candidate -> candidate.getId().equals(user.getId()));
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    private static KeycloakUser toUser(Map<String, Object> representation, long syncedAt) {
+        return new KeycloakUser(
+                (String) representation.get("id"),
+                (String) representation.get("username"),
+                (String) representation.get("email"),
+                (String) representation.get("firstName"),
+                (String) representation.get("lastName"),
+                !Boolean.FALSE.equals(representation.get("enabled")),
+                syncedAt
+        );
+    }
+
+    // resourcePath des admin events : "users/{id}" ou "users/{id}/role-mappings/realm", etc.
+    private static String userIdFromResourcePath(String resourcePath) {
+        if (resourcePath == null || !resourcePath.startsWith("users/")) {
+            return null;
+        }
+        String rest = resourcePath.substring("users/".length());
+        int slash = rest.indexOf('/');
+        String userId = slash >= 0 ? rest.substring(0, slash) : rest;
+        return userId.isEmpty() ? null : userId;
+    }
+
+    private static String nameKey(String firstName, String lastName) {
+        return normalize(firstName) + "|" + normalize(lastName);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
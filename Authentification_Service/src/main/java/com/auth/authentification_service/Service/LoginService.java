@@ -5,9 +5,6 @@ import com.auth.authentification_service.DTO.TokenDto;
 import com.auth.authentification_service.DTO.UserInfoDto;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -18,6 +15,7 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @Service
@@ -33,19 +31,17 @@ public class LoginService {
     private String keycloakClientId;
 
     private final RestTemplate restTemplate;
-    private final  VaultService vaultService;
-    private final KeycloakService keycloakService;
+    private final KeycloakAdminSession adminSession;
 
-    public LoginService(RestTemplate restTemplate , VaultService vaultService ,KeycloakService keycloakService) {
+    public LoginService(RestTemplate restTemplate , KeycloakAdminSession adminSession) {
         this.restTemplate = restTemplate;
-        this.vaultService = vaultService;
-        this.keycloakService= keycloakService;
+        this.adminSession = adminSession;
     }
 
 
     public TokenDto authenticateUser(String email, String password) throws Exception {
-        logger.info("Récupération du client secret depuis Vault...");
-        String keycloakClientSecret = vaultService.getClientSecret();
+        logger.info("Récupération du client secret (cache de session, Vault à expiration du bail)...");
+        String keycloakClientSecret = adminSession.getClientSecret();
         logger.info("Client Secret from Vault: {}", keycloakClientSecret);
         String tokenUrl = keycloakUrl + "/realms/" + keycloakRealm + "/protocol/openid-connect/token";
         logger.info("URL de token : {}", tokenUrl);
@@ -85,7 +81,7 @@ public class LoginService {
 
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
         params.add("client_id", keycloakClientId);
-        params.add("client_secret", vaultService.getClientSecret());
+        params.add("client_secret", adminSession.getClientSecret());
         params.add("refresh_token", refreshToken);
         params.add("grant_type", "refresh_token");
 
@@ -169,47 +165,41 @@ public class LoginService {
     public void assignManagerRoleToUser(String userId) throws Exception {
         System.out.println("🔄 Attribution du rôle MANAGER à l'utilisateur : " + userId);
 
-        // Obtenir le token d'administration
-        String adminToken = keycloakService.getAdminToken();
-
-        // URL pour récupérer la liste des rôles dans le realm
-        String rolesUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/roles";
+        // Obtenir le token d'administration (mis en cache par la session)
+        String adminToken = adminSession.getAdminToken();
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(adminToken);
         headers.setContentType(MediaType.APPLICATION_JSON);  // Définir le type de contenu à JSON
 
-        // Requête pour récupérer la liste des rôles
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<String> rolesResponse = restTemplate.exchange(rolesUrl, HttpMethod.GET, entity, String.class);
-
-        if (rolesResponse.getStatusCode() == HttpStatus.OK) {
-            // Extraire l'ID du rôle MANAGER
-            String roleId = extractRoleIdFromResponse(rolesResponse.getBody(), "MANAGER");
-
-            if (roleId != null) {
-                // URL de l'API Keycloak pour affecter un rôle à l'utilisateur
-                String roleMappingUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId + "/role-mappings/realm";
-
-                // Définir le rôle MANAGER en utilisant l'ID obtenu dynamiquement
-                String roleJson = "[{\"id\": \"" + roleId + "\", \"name\": \"MANAGER\"}]";
-                HttpEntity<String> roleMappingEntity = new HttpEntity<>(roleJson, headers);
-
-                // Effectuer la requête pour attribuer le rôle
-                ResponseEntity<String> response = restTemplate.exchange(roleMappingUrl, HttpMethod.POST, roleMappingEntity, String.class);
-
-                if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
-                    System.out.println("✅ Rôle MANAGER attribué avec succès !");
-                } else {
-                    System.out.println("❌ Échec de l'attribution du rôle MANAGER : " + response.getBody());
-                    throw new Exception("Erreur lors de l'attribution du rôle.");
-                }
-            } else {
-                System.out.println("❌ Le rôle MANAGER n'a pas été trouvé.");
-                throw new Exception("Rôle MANAGER non trouvé.");
-            }
+        // ID du rôle MANAGER lu depuis la table des rôles du realm en cache
+        String roleId = adminSession.getRoleId("MANAGER");
+        if (roleId == null) {
+            System.out.println("❌ Le rôle MANAGER n'a pas été trouvé.");
+            throw new Exception("Rôle MANAGER non trouvé.");
+        }
+
+        // URL de l'API Keycloak pour affecter un rôle à l'utilisateur
+        String roleMappingUrl = keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId + "/role-mappings/realm";
+
+        // Définir le rôle MANAGER en utilisant l'ID obtenu dynamiquement
+        String roleJson = "[{\"id\": \"" + roleId + "\", \"name\": \"MANAGER\"}]";
+        HttpEntity<String> roleMappingEntity = new HttpEntity<>(roleJson, headers);
+
+        // Effectuer la requête pour attribuer le rôle
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(roleMappingUrl, HttpMethod.POST, roleMappingEntity, String.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            // L'ID en cache ne correspond plus à un rôle existant
+            adminSession.invalidateRoles();
+            throw e;
+        }
+
+        if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
+            System.out.println("✅ Rôle MANAGER attribué avec succès !");
         } else {
-            System.out.println("❌ Erreur lors de la récupération des rôles : " + rolesResponse.getBody());
-            throw new Exception("Erreur lors de la récupération des rôles.");
+            System.out.println("❌ Échec de l'attribution du rôle MANAGER : " + response.getBody());
+            throw new Exception("Erreur lors de l'attribution du rôle.");
         }
     }
 
@@ -225,23 +215,6 @@ public class LoginService {
     public void assignManagerRoleRetryFallback(String userId, Throwable t) {
         System.out.println("Retry fallback for assignManagerRole: " + t.getMessage());
     }
-    // Fonction pour extraire dynamiquement l'ID du rôle MANAGER
-    public  String extractRoleIdFromResponse(String jsonResponse, String roleName) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode roles = objectMapper.readTree(jsonResponse);
-
-            // Chercher le rôle avec le nom spécifié (MANAGER)
-            for (JsonNode role : roles) {
-                if (role.get("name").asText().equals(roleName)) {
-                    return role.get("id").asText();  // Retourner l'ID du rôle
-                }
-            }
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
-        return null;  // Si le rôle n'a pas été trouvé
-    }
 
 
     @RateLimiter(name = "LoginServiceLimiter", fallbackMethod = "logoutRateLimiterFallback")
@@ -252,7 +225,7 @@ public class LoginService {
 
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
         params.add("client_id", keycloakClientId);
-        params.add("client_secret", vaultService.getClientSecret());
+        params.add("client_secret", adminSession.getClientSecret());
         params.add("refresh_token", refreshToken);
 
         HttpHeaders headers = new HttpHeaders();
@@ -1,5 +1,6 @@
 package com.auth.authentification_service.Service;
 
+import com.auth.authentification_service.DTO.ClientSecretLease;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -45,6 +46,33 @@ public class VaultService {
         return "Failed to retrieve secret from Vault after retries.";
     }
 
+    // Secret client avec la durée de son bail : utilisé par KeycloakAdminSession pour le garder en cache
+    @RateLimiter(name = "VaultServiceLimiter", fallbackMethod = "clientSecretLeaseRateLimiterFallback")
+    @Bulkhead(name = "VaultServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "clientSecretLeaseBulkheadFallback")
+    @Retry(name = "VaultServiceRetry", fallbackMethod = "clientSecretLeaseRetryFallback")
+    public ClientSecretLease getClientSecretLease() {
+        VaultResponse response = vaultTemplate.read("secret/keycloak");
+        if (response != null && response.getData() != null && response.getData().get("credentials.secret") != null) {
+            String secret = (String) response.getData().get("credentials.secret");
+            return new ClientSecretLease(secret, response.getLeaseDuration());
+        }
+        throw new IllegalStateException("Aucun secret trouvé dans Vault.");
+    }
+    public ClientSecretLease clientSecretLeaseRateLimiterFallback(Throwable t) {
+        System.out.println("RateLimiter fallback for getClientSecretLease: " + t.getMessage());
+        throw new RuntimeException("Rate limit exceeded for Vault access.", t);
+    }
+
+    public ClientSecretLease clientSecretLeaseBulkheadFallback(Throwable t) {
+        System.out.println("Bulkhead fallback for getClientSecretLease: " + t.getMessage());
+        throw new RuntimeException("Too many concurrent Vault requests.", t);
+    }
+
+    public ClientSecretLease clientSecretLeaseRetryFallback(Throwable t) {
+        System.out.println("Retry fallback for getClientSecretLease: " + t.getMessage());
+        throw new RuntimeException("Failed to retrieve secret from Vault after retries.", t);
+    }
+
     @RateLimiter(name = "VaultServiceLimiter", fallbackMethod = "testClientSecretRateLimiterFallback")
     @Bulkhead(name = "VaultServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "testClientSecretBulkheadFallback")
     @Retry(name = "VaultServiceRetry", fallbackMethod = "testClientSecretRetryFallback")
@@ -0,0 +1,246 @@
+package com.auth.authentification_service.unit.Service;
+
+import com.auth.authentification_service.DTO.ClientSecretLease;
+import com.auth.authentification_service.Service.KeycloakAdminSession;
+import com.auth.authentification_service.Service.VaultService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KeycloakAdminSessionTest {
+
+    private static final String TOKEN_URL = "http://keycloak/realms/my-realm/protocol/openid-connect/token";
+    private static final String ROLES_URL = "http://keycloak/admin/realms/my-realm/roles";
+
+    @Mock
+    private VaultService vaultService;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KeycloakAdminSession adminSession;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adminSession = new KeycloakAdminSession(vaultService, restTemplate, meterRegistry);
+        ReflectionTestUtils.setField(adminSession, "keycloakUrl", "http://keycloak");
+        ReflectionTestUtils.setField(adminSession, "keycloakRealm", "my-realm");
+        ReflectionTestUtils.setField(adminSession, "keycloakClientId", "my-client");
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease("secret123", 3600));
+    }
+
+    private ResponseEntity<Map> tokenResponse(String token, int expiresIn) {
+        return new ResponseEntity<>(Map.of("access_token", token, "expires_in", expiresIn), HttpStatus.OK);
+    }
+
+    @SafeVarargs
+    private final void stubToken(ResponseEntity<Map> first, ResponseEntity<Map>... next) {
+        when(restTemplate.postForEntity(eq(TOKEN_URL), any(HttpEntity.class), eq(Map.class))).thenReturn(first, next);
+    }
+
+    private void stubRoles(String rolesJson) {
+        when(restTemplate.exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(rolesJson, HttpStatus.OK));
+    }
+
+    @Test
+    void testGetAdminToken_ReusedUntilCloseToExpiry() {
+        stubToken(tokenResponse("token-1", 300));
+
+        assertEquals("token-1", adminSession.getAdminToken());
+        assertEquals("token-1", adminSession.getAdminToken());
+        assertEquals("token-1", adminSession.getAdminToken());
+
+        verify(restTemplate, times(1)).postForEntity(eq(TOKEN_URL), any(HttpEntity.class), eq(Map.class));
+        verify(vaultService, times(1)).getClientSecretLease();
+        assertEquals(1.0, meterRegistry.get("keycloak.admin.token.refreshes").tag("result", "success").counter().count());
+    }
+
+    @Test
+    void testGetAdminToken_RefreshedWithinSkewWindow() {
+        // expires_in inférieur à la marge de renouvellement : chaque appel redemande un token
+        stubToken(tokenResponse("token-1", 10), tokenResponse("token-2", 300));
+
+        assertEquals("token-1", adminSession.getAdminToken());
+        assertEquals("token-2", adminSession.getAdminToken());
+        assertEquals("token-2", adminSession.getAdminToken());
+
+        verify(restTemplate, times(2)).postForEntity(eq(TOKEN_URL), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void testGetAdminToken_ConcurrentCallersShareOneRefresh() throws Exception {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        when(restTemplate.postForEntity(eq(TOKEN_URL), any(HttpEntity.class), eq(Map.class))).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            releaseRefresh.await(5, TimeUnit.SECONDS);
+            return tokenResponse("token-1", 300);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(adminSession::getAdminToken));
+            }
+            assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+            releaseRefresh.countDown();
+            for (Future<String> result : results) {
+                assertEquals("token-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(restTemplate, times(1)).postForEntity(eq(TOKEN_URL), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void testGetAdminToken_InvalidateForcesRefresh() {
+        stubToken(tokenResponse("token-1", 300), tokenResponse("token-2", 300));
+
+        adminSession.getAdminToken();
+        adminSession.invalidateToken();
+
+        assertEquals("token-2", adminSession.getAdminToken());
+    }
+
+    @Test
+    void testGetAdminToken_RejectedSecret_ReloadedFromVault() {
+        when(vaultService.getClientSecretLease()).thenReturn(
+                new ClientSecretLease("old-secret", 3600), new ClientSecretLease("new-secret", 3600));
+        when(restTemplate.postForEntity(eq(TOKEN_URL), any(HttpEntity.class), eq(Map.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null))
+                .thenReturn(tokenResponse("token-1", 300));
+
+        assertEquals("token-1", adminSession.getAdminToken());
+
+        verify(vaultService, times(2)).getClientSecretLease();
+        assertEquals("new-secret", adminSession.getClientSecret());
+    }
+
+    @Test
+    void testGetAdminToken_Failure_CountedAndNotCached() {
+        stubToken(new ResponseEntity<>(null, HttpStatus.OK), tokenResponse("token-1", 300));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> adminSession.getAdminToken());
+
+        assertEquals("Impossible de récupérer le token d'admin Keycloak", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get("keycloak.admin.token.refreshes").tag("result", "failure").counter().count());
+        assertEquals("token-1", adminSession.getAdminToken());
+    }
+
+    @Test
+    void testGetClientSecret_CachedForLeaseDuration() {
+        assertEquals("secret123", adminSession.getClientSecret());
+        assertEquals("secret123", adminSession.getClientSecret());
+
+        verify(vaultService, times(1)).getClientSecretLease();
+    }
+
+    @Test
+    void testGetClientSecret_ExpiredLease_ReadAgain() {
+        when(vaultService.getClientSecretLease()).thenReturn(
+                new ClientSecretLease("secret-1", 3600), new ClientSecretLease("secret-2", 3600));
+        ReflectionTestUtils.setField(adminSession, "secretMaxTtlMs", 0L);
+
+        assertEquals("secret-1", adminSession.getClientSecret());
+        assertEquals("secret-2", adminSession.getClientSecret());
+    }
+
+    @Test
+    void testGetRoleId_RolesDownloadedOnce() {
+        stubToken(tokenResponse("token-1", 300));
+        stubRoles("[{\"id\": \"id-manager\", \"name\": \"MANAGER\"}, {\"id\": \"id-dev\", \"name\": \"DEVELOPER\"}]");
+
+        assertEquals("id-manager", adminSession.getRoleId("MANAGER"));
+        assertEquals("id-dev", adminSession.getRoleId("DEVELOPER"));
+        assertEquals("id-manager", adminSession.getRoleId("MANAGER"));
+
+        verify(restTemplate, times(1)).exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        assertEquals(1.0, meterRegistry.get("keycloak.admin.roles.refreshes").counter().count());
+    }
+
+    @Test
+    void testGetRoleId_UnknownRole_RefreshedOnceThenNull() {
+        stubToken(tokenResponse("token-1", 300));
+        stubRoles("[{\"id\": \"id-manager\", \"name\": \"MANAGER\"}]");
+        adminSession.getRoleId("MANAGER");
+
+        assertNull(adminSession.getRoleId("UNKNOWN"));
+
+        verify(restTemplate, times(2)).exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+    }
+
+    @Test
+    void testGetRoleId_InvalidateRoles_Reloads() {
+        stubToken(tokenResponse("token-1", 300));
+        when(restTemplate.exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("[{\"id\": \"id-old\", \"name\": \"MANAGER\"}]", HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>("[{\"id\": \"id-new\", \"name\": \"MANAGER\"}]", HttpStatus.OK));
+
+        assertEquals("id-old", adminSession.getRoleId("MANAGER"));
+        adminSession.invalidateRoles();
+
+        assertEquals("id-new", adminSession.getRoleId("MANAGER"));
+    }
+
+    @Test
+    void testGetRoleId_KeycloakError_Throws() {
+        stubToken(tokenResponse("token-1", 300));
+        when(restTemplate.exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("error", HttpStatus.INTERNAL_SERVER_ERROR));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> adminSession.getRoleId("MANAGER"));
+
+        assertEquals("Erreur lors de la récupération des rôles.", exception.getMessage());
+    }
+
+    @Test
+    void testGetRoleId_UnreadableResponse_KeepsPreviousRoles() {
+        stubToken(tokenResponse("token-1", 300));
+        when(restTemplate.exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("[{\"id\": \"id-manager\", \"name\": \"MANAGER\"}]", HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>("<html>proxy error</html>", HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>("[{\"id\": \"id-manager\", \"name\": \"MANAGER\"}]", HttpStatus.OK));
+        adminSession.getRoleId("MANAGER");
+        adminSession.invalidateRoles();
+
+        // Réponse illisible : les rôles déjà connus restent servis
+        assertEquals("id-manager", adminSession.getRoleId("MANAGER"));
+
+        // L'échec n'est pas mis en cache : l'appel suivant relit les rôles
+        assertEquals("id-manager", adminSession.getRoleId("MANAGER"));
+        verify(restTemplate, times(3)).exchange(eq(ROLES_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+    }
+}
@@ -1,18 +1,23 @@
 package com.auth.authentification_service.unit.Service;
 
+import com.auth.authentification_service.DTO.ClientSecretLease;
 import com.auth.authentification_service.DTO.KeycloakTokenResponse;
 import com.auth.authentification_service.DTO.TokenDto;
 import com.auth.authentification_service.DTO.UserDto;
 import com.auth.authentification_service.Entity.Invitation;
+import com.auth.authentification_service.Entity.KeycloakUser;
 import com.auth.authentification_service.Entity.ProjectMember;
 import com.auth.authentification_service.Entity.ProjectMemberId;
 import com.auth.authentification_service.Repository.InvitationRepository;
 import com.auth.authentification_service.Repository.ProjectMemberRepository;
+import com.auth.authentification_service.Service.KeycloakAdminSession;
 import com.auth.authentification_service.Service.KeycloakService;
+import com.auth.authentification_service.Service.KeycloakUserReplica;
 import com.auth.authentification_service.Service.VaultService;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,6 +56,11 @@ public class KeycloakServiceTest {
     @Mock
     private ProjectMemberRepository projectMemberRepository;
 
+    @Mock
+    private KeycloakUserReplica userReplica;
+
+    private KeycloakAdminSession adminSession;
+
     @InjectMocks
     private KeycloakService keycloakService;
 
@@ -60,7 +70,11 @@ public class KeycloakServiceTest {
 
     @BeforeEach
     public void setUp() {
-        keycloakService = new KeycloakService(vaultService, restTemplate, invitationRepository, projectMemberRepository);
+        adminSession = new KeycloakAdminSession(vaultService, restTemplate, new SimpleMeterRegistry());
+        setField(adminSession, "keycloakUrl", "http://keycloak");
+        setField(adminSession, "keycloakRealm", "my-realm");
+        setField(adminSession, "keycloakClientId", "my-client");
+        keycloakService = new KeycloakService(adminSession, restTemplate, invitationRepository, projectMemberRepository, userReplica);
         keycloakServiceSpy = spy(keycloakService);
         setField(keycloakService, "keycloakUrl", "http://keycloak");
         setField(keycloakService, "keycloakRealm", "my-realm");
@@ -82,7 +96,7 @@ public class KeycloakServiceTest {
     }
 
     private void setupAdminTokenMock(String clientSecret, String accessToken) {
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease(clientSecret, 3600));
         Map<String, Object> tokenMap = new HashMap<>();
         tokenMap.put("access_token", accessToken);
         when(restTemplate.postForEntity(
@@ -136,7 +150,7 @@ public class KeycloakServiceTest {
         String clientSecret = "secret123";
         String expectedToken = "admin-token-123";
 
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease(clientSecret, 3600));
         Map<String, Object> responseBody = new HashMap<>();
         responseBody.put("access_token", expectedToken);
         ResponseEntity<Map> responseEntity = new ResponseEntity<>(responseBody, HttpStatus.OK);
@@ -150,7 +164,7 @@ public class KeycloakServiceTest {
         String actualToken = keycloakService.getAdminToken();
 
         assertEquals(expectedToken, actualToken, "Le token retourné doit correspondre au token attendu");
-        verify(vaultService, times(1)).getClientSecret();
+        verify(vaultService, times(1)).getClientSecretLease();
         verify(restTemplate, times(1)).postForEntity(
                 anyString(),
                 any(HttpEntity.class),
@@ -162,7 +176,7 @@ public class KeycloakServiceTest {
     public void testGetAdminToken_Failure_Non200Status() {
         String clientSecret = "secret123";
 
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease(clientSecret, 3600));
         ResponseEntity<Map> responseEntity = new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         when(restTemplate.postForEntity(
                 eq("http://keycloak/realms/my-realm/protocol/openid-connect/token"),
@@ -176,7 +190,7 @@ public class KeycloakServiceTest {
                 "Une exception doit être levée si la requête échoue"
         );
         assertEquals("Impossible de récupérer le token d'admin Keycloak", exception.getMessage());
-        verify(vaultService, times(1)).getClientSecret();
+        verify(vaultService, times(1)).getClientSecretLease();
         verify(restTemplate, times(1)).postForEntity(
                 anyString(),
                 any(HttpEntity.class),
@@ -188,7 +202,7 @@ public class KeycloakServiceTest {
     public void testGetAdminToken_Failure_NullResponseBody() {
         String clientSecret = "secret123";
 
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease(clientSecret, 3600));
         ResponseEntity<Map> responseEntity = new ResponseEntity<>(null, HttpStatus.OK);
         when(restTemplate.postForEntity(
                 eq("http://keycloak/realms/my-realm/protocol/openid-connect/token"),
@@ -202,7 +216,7 @@ public class KeycloakServiceTest {
                 "Une exception doit être levée si la réponse est vide"
         );
         assertEquals("Impossible de récupérer le token d'admin Keycloak", exception.getMessage());
-        verify(vaultService, times(1)).getClientSecret();
+        verify(vaultService, times(1)).getClientSecretLease();
         verify(restTemplate, times(1)).postForEntity(
                 anyString(),
                 any(HttpEntity.class),
@@ -589,8 +603,6 @@ public class KeycloakServiceTest {
 
         setupAssignRoleToUserMock(userId, roleName, accessToken, rolesJson, HttpStatus.OK, HttpStatus.NO_CONTENT);
 
-        doReturn(null).when(keycloakServiceSpy).extractRoleIdFromResponse(anyString(), eq(roleName));
-
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
                 () -> invokeAssignRoleToUser(userId, roleName, accessToken),
@@ -954,7 +966,7 @@ public class KeycloakServiceTest {
         tokenResponse.setAccessToken("access-token");
         tokenResponse.setRefreshToken("refresh-token");
 
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease(clientSecret, 3600));
 
         when(restTemplate.exchange(
                 eq(tokenUrl),
@@ -983,7 +995,7 @@ public class KeycloakServiceTest {
         String clientSecret = "secret123";
         String tokenUrl = "http://keycloak/realms/my-realm/protocol/openid-connect/token";
 
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(vaultService.getClientSecretLease()).thenReturn(new ClientSecretLease(clientSecret, 3600));
 
         when(restTemplate.exchange(
                 eq(tokenUrl),
@@ -1009,18 +1021,15 @@ public class KeycloakServiceTest {
 
 
     @Test
-    void testGetTeamMembers_KeycloakError() {
+    void testGetTeamMembers_ServedFromReplica() {
         String accessToken = "fake-access-token";
         String userId = "user-123";
-        String adminToken = "fake-admin-token";
 
         try (MockedStatic<JWT> jwtMock = Mockito.mockStatic(JWT.class)) {
             DecodedJWT decodedJWT = mock(DecodedJWT.class);
             when(decodedJWT.getSubject()).thenReturn(userId);
             jwtMock.when(() -> JWT.decode(accessToken)).thenReturn(decodedJWT);
 
-            doReturn(adminToken).when(keycloakServiceSpy).getAdminToken();
-
             ProjectMemberId memberId1 = new ProjectMemberId(1L,"user-456");
             ProjectMember member1 = new ProjectMember();
             member1.setId(memberId1);
@@ -1028,28 +1037,48 @@ public class KeycloakServiceTest {
 
             List<ProjectMember> members = List.of(member1);
             when(projectMemberRepository.findAll()).thenReturn(members);
+            when(userReplica.getUsers(Set.of("user-456"))).thenReturn(Map.of(
+                    "user-456", new KeycloakUser("user-456", "jdoe", "jdoe@test.com", "John", "Doe", true, 0L)));
+            when(restTemplate.getForEntity(eq("http://localhost:8085/api/projects/1"), eq(Map.class)))
+                    .thenReturn(new ResponseEntity<>(Map.of("name", "Projet A"), HttpStatus.OK));
+
+            List<Map<String, Object>> result = keycloakServiceSpy.getTeamMembers(accessToken);
+
+            assertEquals(1, result.size());
+            assertEquals("John", result.get(0).get("firstName"));
+            assertEquals("Doe", result.get(0).get("lastName"));
+            assertEquals("Projet A", result.get(0).get("project"));
+            verify(keycloakServiceSpy, never()).getAdminToken();
+            verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        }
+    }
 
-            when(restTemplate.exchange(
-                    eq("http://keycloak/admin/realms/my-realm/users"),
-                    eq(HttpMethod.GET),
-                    any(HttpEntity.class),
-                    any(ParameterizedTypeReference.class)
-            )).thenThrow(new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Keycloak error"));
+    @Test
+    void testGetTeamMembers_ReplicaError() {
+        String accessToken = "fake-access-token";
+        String userId = "user-123";
+
+        try (MockedStatic<JWT> jwtMock = Mockito.mockStatic(JWT.class)) {
+            DecodedJWT decodedJWT = mock(DecodedJWT.class);
+            when(decodedJWT.getSubject()).thenReturn(userId);
+            jwtMock.when(() -> JWT.decode(accessToken)).thenReturn(decodedJWT);
+
+            ProjectMemberId memberId1 = new ProjectMemberId(1L,"user-456");
+            ProjectMember member1 = new ProjectMember();
+            member1.setId(memberId1);
+            member1.setRoleInProject("DEVELOPER");
+
+            when(projectMemberRepository.findAll()).thenReturn(List.of(member1));
+            when(userReplica.getUsers(anyCollection())).thenThrow(new IllegalStateException("replica error"));
 
             RuntimeException exception = assertThrows(
                     RuntimeException.class,
                     () -> keycloakServiceSpy.getTeamMembers(accessToken),
-                    "Une RuntimeException doit être levée si Keycloak échoue"
+                    "Une RuntimeException doit être levée si le réplica échoue"
             );
 
             assertEquals("Erreur lors de la récupération des utilisateurs depuis Keycloak", exception.getMessage());
             verify(projectMemberRepository, times(1)).findAll();
-            verify(restTemplate, times(1)).exchange(
-                    eq("http://keycloak/admin/realms/my-realm/users"),
-                    eq(HttpMethod.GET),
-                    any(HttpEntity.class),
-                    any(ParameterizedTypeReference.class)
-            );
             verify(restTemplate, never()).getForEntity(anyString(), any());
         }
     }
@@ -1076,19 +1105,16 @@ public class KeycloakServiceTest {
     }
 
     @Test
-    void testGetTeamMembersbyProject_NullUserInfo() {
+    void testGetTeamMembersbyProject_UserMissingFromReplica() {
         String accessToken = "fake-access-token";
         String userId = "user-123";
         String projectId = "1";
-        String adminToken = "fake-admin-token";
 
         try (MockedStatic<JWT> jwtMock = Mockito.mockStatic(JWT.class)) {
             DecodedJWT decodedJWT = mock(DecodedJWT.class);
             when(decodedJWT.getSubject()).thenReturn(userId);
             jwtMock.when(() -> JWT.decode(accessToken)).thenReturn(decodedJWT);
 
-            doReturn(adminToken).when(keycloakServiceSpy).getAdminToken();
-
             ProjectMemberId memberId1 = new ProjectMemberId(1L,"user-456");
             ProjectMember member1 = new ProjectMember();
             member1.setId(memberId1);
@@ -1096,68 +1122,55 @@ public class KeycloakServiceTest {
 
             List<ProjectMember> members = List.of(member1);
             when(projectMemberRepository.findByIdProjectId(1L)).thenReturn(members);
-
-            when(restTemplate.exchange(
-                    eq("http://keycloak/admin/realms/my-realm/users/user-456"),
-                    eq(HttpMethod.GET),
-                    any(HttpEntity.class),
-                    any(ParameterizedTypeReference.class)
-            )).thenReturn(new ResponseEntity<>(null, HttpStatus.OK));
+            when(userReplica.getUsers(Set.of("user-456"))).thenReturn(Collections.emptyMap());
 
             List<Map<String, Object>> result = keycloakServiceSpy.getTeamMembersbyProject(accessToken, projectId);
 
-            assertTrue(result.isEmpty(), "La liste des membres doit être vide si les infos utilisateurs sont null");
+            assertTrue(result.isEmpty(), "La liste des membres doit être vide si l'utilisateur est absent du réplica");
             verify(projectMemberRepository, times(1)).findByIdProjectId(1L);
-            verify(restTemplate, times(1)).exchange(
-                    eq("http://keycloak/admin/realms/my-realm/users/user-456"),
-                    eq(HttpMethod.GET),
-                    any(HttpEntity.class),
-                    any(ParameterizedTypeReference.class)
-            );
+            verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), any(ParameterizedTypeReference.class));
             verify(restTemplate, never()).getForEntity(anyString(), any());
         }
     }
-    @Test
-    void testGetTeamMembersbyProject_KeycloakUserError() {
-        String accessToken = "fake-access-token";
-        String userId = "user-123";
-        String projectId = "1";
-        String adminToken = "fake-admin-token";
 
-        try (MockedStatic<JWT> jwtMock = Mockito.mockStatic(JWT.class)) {
-            DecodedJWT decodedJWT = mock(DecodedJWT.class);
-            when(decodedJWT.getSubject()).thenReturn(userId);
-            jwtMock.when(() -> JWT.decode(accessToken)).thenReturn(decodedJWT);
+    @Test
+    void testGetUsersByIds_ServedFromReplica() {
+        when(userReplica.getUsers(List.of("user-1", "user-2", "ghost"))).thenReturn(Map.of(
+                "user-1", new KeycloakUser("user-1", "u1", "u1@test.com", "Alice", "Martin", true, 0L),
+                "user-2", new KeycloakUser("user-2", "u2", "u2@test.com", null, "Durand", true, 0L)));
+
+        List<UserDto> result = keycloakService.getUsersByIds(List.of("user-1", "user-2", "ghost"));
+
+        assertEquals(2, result.size());
+        assertEquals("Alice", result.get(0).getFirstName());
+        assertEquals("Inconnu", result.get(1).getFirstName());
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        verify(restTemplate, never()).postForEntity(anyString(), any(), any());
+    }
 
-            doReturn(adminToken).when(keycloakServiceSpy).getAdminToken();
+    @Test
+    void testGetUserDetailsByIds_UnknownIdGetsPlaceholder() {
+        when(userReplica.getUsers(List.of("user-1", "ghost"))).thenReturn(Map.of(
+                "user-1", new KeycloakUser("user-1", "u1", "u1@test.com", "Alice", "Martin", true, 0L)));
 
-            ProjectMemberId memberId1 = new ProjectMemberId(1L,"user-456");
-            ProjectMember member1 = new ProjectMember();
-            member1.setId(memberId1);
-            member1.setRoleInProject("DEVELOPER");
+        Map<String, Map<String, Object>> result = keycloakService.getUserDetailsByIds(List.of("user-1", "ghost"));
 
-            List<ProjectMember> members = List.of(member1);
-            when(projectMemberRepository.findByIdProjectId(1L)).thenReturn(members);
+        assertEquals("Alice", result.get("user-1").get("firstName"));
+        assertEquals("https://ui-avatars.com/api/?name=A+M", result.get("user-1").get("avatar"));
+        assertEquals("Inconnu", result.get("ghost").get("firstName"));
+        assertEquals("", result.get("ghost").get("avatar"));
+    }
 
-            when(restTemplate.exchange(
-                    eq("http://keycloak/admin/realms/my-realm/users/user-456"),
-                    eq(HttpMethod.GET),
-                    any(HttpEntity.class),
-                    any(ParameterizedTypeReference.class)
-            )).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, "User not found"));
+    @Test
+    void testSearchUserByName_NotFound() {
+        when(userReplica.findByName("Jane", "Unknown")).thenReturn(Optional.empty());
 
-            List<Map<String, Object>> result = keycloakServiceSpy.getTeamMembersbyProject(accessToken, projectId);
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> keycloakService.searchUserByName("Jane", "Unknown")
+        );
 
-            assertTrue(result.isEmpty(), "La liste des membres doit être vide si la récupération de l'utilisateur échoue");
-            verify(projectMemberRepository, times(1)).findByIdProjectId(1L);
-            verify(restTemplate, times(1)).exchange(
-                    eq("http://keycloak/admin/realms/my-realm/users/user-456"),
-                    eq(HttpMethod.GET),
-                    any(HttpEntity.class),
-                    any(ParameterizedTypeReference.class)
-            );
-            verify(restTemplate, never()).getForEntity(anyString(), any());
-        }
+        assertEquals("Erreur lors de la recherche d'utilisateur dans Keycloak", exception.getMessage());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.auth.authentification_service.unit.Service;
+
+import com.auth.authentification_service.Entity.KeycloakUser;
+import com.auth.authentification_service.Repository.KeycloakUserRepository;
+import com.auth.authentification_service.Service.KeycloakAdminSession;
+import com.auth.authentification_service.Service.KeycloakUserReplica;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KeycloakUserReplicaTest {
+
+    private static final String USERS_URL = "http://keycloak/admin/realms/my-realm/users?briefRepresentation=true&first=";
+
+    @Mock
+    private KeycloakAdminSession adminSession;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private KeycloakUserRepository keycloakUserRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KeycloakUserReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica = new KeycloakUserReplica(adminSession, restTemplate, keycloakUserRepository, meterRegistry);
+        ReflectionTestUtils.setField(replica, "keycloakUrl", "http://keycloak");
+        ReflectionTestUtils.setField(replica, "keycloakRealm", "my-realm");
+        ReflectionTestUtils.setField(replica, "pageSize", 2);
+        when(adminSession.getAdminToken()).thenReturn("fake-admin-token");
+    }
+
+    private Map<String, Object> representation(String id, String firstName, String lastName) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", id);
+        user.put("username", id);
+        user.put("email", id + "@test.com");
+        user.put("firstName", firstName);
+        user.put("lastName", lastName);
+        user.put("enabled", true);
+        return user;
+    }
+
+    private void stubUsersPage(int first, List<Map<String, Object>> page) {
+        when(restTemplate.exchange(
+                eq(USERS_URL + first + "&max=2"),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(page, HttpStatus.OK));
+    }
+
+    @Test
+    void testFullSync_PaginatesThroughWholeRealm() {
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin"), representation("u2", "Bob", "Durand")));
+        stubUsersPage(2, List.of(representation("u3", "Chloé", "Petit")));
+
+        replica.fullSync();
+
+        Map<String, KeycloakUser> users = replica.getUsers(List.of("u1", "u2", "u3", "ghost"));
+        assertEquals(3, users.size());
+        assertEquals("Chloé", users.get("u3").getFirstName());
+        verify(restTemplate, times(2)).exchange(startsWith(USERS_URL), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        verify(keycloakUserRepository, times(1)).saveAll(anyCollection());
+        assertEquals(3.0, meterRegistry.get("keycloak.replica.users").gauge().value());
+    }
+
+    @Test
+    void testFullSync_RemovesUsersDeletedFromRealm() {
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin"), representation("u2", "Bob", "Durand")));
+        stubUsersPage(2, Collections.emptyList());
+        replica.fullSync();
+
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin")));
+        replica.fullSync();
+
+        assertTrue(replica.getUser("u2").isEmpty());
+        assertTrue(replica.getUser("u1").isPresent());
+        verify(keycloakUserRepository, times(1)).deleteAllById(Set.of("u2"));
+    }
+
+    @Test
+    void testIncrementalSync_AppliesUserAdminEvents() {
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin"), representation("u2", "Bob", "Durand")));
+        stubUsersPage(2, Collections.emptyList());
+        replica.fullSync();
+
+        long now = System.currentTimeMillis() + 1_000;
+        List<Map<String, Object>> events = List.of(
+                Map.of("time", now + 2, "operationType", "UPDATE", "resourcePath", "users/u1"),
+                Map.of("time", now + 1, "operationType", "DELETE", "resourcePath", "users/u2")
+        );
+        when(restTemplate.exchange(
+                startsWith("http://keycloak/admin/realms/my-realm/admin-events?resourceTypes=USER"),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(events, HttpStatus.OK), new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
+        when(restTemplate.exchange(
+                eq("http://keycloak/admin/realms/my-realm/users/u1"),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(representation("u1", "Alice", "Bernard"), HttpStatus.OK));
+        when(keycloakUserRepository.existsById("u2")).thenReturn(true);
+
+        replica.incrementalSync();
+
+        assertEquals("Bernard", replica.getUser("u1").get().getLastName());
+        assertTrue(replica.getUser("u2").isEmpty());
+        verify(keycloakUserRepository, times(1)).deleteById("u2");
+    }
+
+    @Test
+    void testFindByName_ExactThenPartialMatch() {
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin"), representation("u2", "Alicia", "Martinez")));
+        stubUsersPage(2, Collections.emptyList());
+        replica.fullSync();
+
+        assertEquals("u2", replica.findByName("alicia", "MARTINEZ").get().getId());
+        assertEquals("u1", replica.findByName("lice", "artin").get().getId());
+        assertTrue(replica.findByName("Zoé", "Martin").isEmpty());
+    }
+
+    @Test
+    void testStaleReplica_ReadTriggersSync() {
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin")));
+        ReflectionTestUtils.setField(replica, "maxStalenessMs", 1_000L);
+        ReflectionTestUtils.setField(replica, "lastSyncAt", System.currentTimeMillis() - 60_000);
+
+        Optional<KeycloakUser> user = replica.getUser("u1");
+
+        assertTrue(user.isPresent());
+        assertTrue(replica.syncLagMillis() < 1_000);
+        assertTrue(meterRegistry.get("keycloak.replica.sync.lag").timeGauge().value(TimeUnit.MILLISECONDS) < 1_000);
+    }
+
+    @Test
+    void testFullSync_KeycloakDown_KeepsServingCurrentData() {
+        stubUsersPage(0, List.of(representation("u1", "Alice", "Martin")));
+        replica.fullSync();
+        when(restTemplate.exchange(startsWith(USERS_URL), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenThrow(new IllegalStateException("Keycloak down"));
+
+        replica.fullSync();
+
+        assertTrue(replica.getUser("u1").isPresent());
+        assertEquals(1.0, meterRegistry.get("keycloak.replica.sync.failures").tag("type", "full").counter().count());
+    }
+
+    @Test
+    void testFullSync_AdminTokenRejected_InvalidatesSessionToken() {
+        when(restTemplate.exchange(startsWith(USERS_URL), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null));
+
+        replica.fullSync();
+
+        verify(adminSession, times(1)).invalidateToken();
+    }
+}
@@ -3,9 +3,8 @@ package com.auth.authentification_service.unit.Service;
 import com.auth.authentification_service.DTO.KeycloakTokenResponse;
 import com.auth.authentification_service.DTO.TokenDto;
 import com.auth.authentification_service.DTO.UserInfoDto;
-import com.auth.authentification_service.Service.KeycloakService;
+import com.auth.authentification_service.Service.KeycloakAdminSession;
 import com.auth.authentification_service.Service.LoginService;
-import com.auth.authentification_service.Service.VaultService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,10 +30,7 @@ class LoginServiceTest {
     private RestTemplate restTemplate;
 
     @Mock
-    private VaultService vaultService;
-
-    @Mock
-    private KeycloakService keycloakService;
+    private KeycloakAdminSession adminSession;
 
     @InjectMocks
     private LoginService loginService;
@@ -45,7 +42,7 @@ class LoginServiceTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        loginService = new LoginService(restTemplate, vaultService, keycloakService);
+        loginService = new LoginService(restTemplate, adminSession);
         setField(loginService, "keycloakUrl", keycloakUrl);
         setField(loginService, "keycloakRealm", keycloakRealm);
         setField(loginService, "keycloakClientId", keycloakClientId);
@@ -61,7 +58,7 @@ class LoginServiceTest {
     @DisplayName("Should authenticate user successfully and return tokens")
     void authenticateUser_success() throws Exception {
         // Arrange
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(adminSession.getClientSecret()).thenReturn(clientSecret);
         String email = "test@example.com";
         String password = "password";
         KeycloakTokenResponse tokenResponse = new KeycloakTokenResponse();
@@ -85,14 +82,14 @@ class LoginServiceTest {
                 any(HttpEntity.class),
                 eq(KeycloakTokenResponse.class)
         );
-        verify(vaultService).getClientSecret();
+        verify(adminSession).getClientSecret();
     }
 
     @Test
     @DisplayName("Should throw exception when authentication fails")
     void authenticateUser_failure_throwsException() throws Exception {
         // Arrange
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(adminSession.getClientSecret()).thenReturn(clientSecret);
         String email = "test@example.com";
         String password = "password";
         ResponseEntity<KeycloakTokenResponse> responseEntity = new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -102,14 +99,14 @@ class LoginServiceTest {
         // Act & Assert
         Exception exception = assertThrows(Exception.class, () -> loginService.authenticateUser(email, password));
         assertEquals("Échec de l'authentification avec Keycloak", exception.getMessage());
-        verify(vaultService).getClientSecret();
+        verify(adminSession).getClientSecret();
     }
 
     @Test
     @DisplayName("Should refresh token successfully and return new tokens")
     void refreshToken_success() throws Exception {
         // Arrange
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(adminSession.getClientSecret()).thenReturn(clientSecret);
         String refreshToken = "refresh-token";
         KeycloakTokenResponse tokenResponse = new KeycloakTokenResponse();
         tokenResponse.setAccessToken("new-access-token");
@@ -132,14 +129,14 @@ class LoginServiceTest {
                 any(HttpEntity.class),
                 eq(KeycloakTokenResponse.class)
         );
-        verify(vaultService).getClientSecret();
+        verify(adminSession).getClientSecret();
     }
 
     @Test
     @DisplayName("Should throw exception when token refresh fails")
     void refreshToken_failure_throwsException() throws Exception {
         // Arrange
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(adminSession.getClientSecret()).thenReturn(clientSecret);
         String refreshToken = "refresh-token";
         ResponseEntity<KeycloakTokenResponse> responseEntity = new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(KeycloakTokenResponse.class)))
@@ -148,7 +145,7 @@ class LoginServiceTest {
         // Act & Assert
         Exception exception = assertThrows(Exception.class, () -> loginService.refreshToken(refreshToken));
         assertEquals("Échec du rafraîchissement du token", exception.getMessage());
-        verify(vaultService).getClientSecret();
+        verify(adminSession).getClientSecret();
     }
 
     @Test
@@ -212,15 +209,9 @@ class LoginServiceTest {
         String userId = "user-123";
         String adminToken = "admin-token";
         String roleId = "role-456";
-        String rolesResponseJson = "[{\"id\": \"" + roleId + "\", \"name\": \"MANAGER\"}]";
 
-        when(keycloakService.getAdminToken()).thenReturn(adminToken);
-        when(restTemplate.exchange(
-                eq(keycloakUrl + "/admin/realms/" + keycloakRealm + "/roles"),
-                eq(HttpMethod.GET),
-                any(HttpEntity.class),
-                eq(String.class)
-        )).thenReturn(new ResponseEntity<>(rolesResponseJson, HttpStatus.OK));
+        when(adminSession.getAdminToken()).thenReturn(adminToken);
+        when(adminSession.getRoleId("MANAGER")).thenReturn(roleId);
         when(restTemplate.exchange(
                 eq(keycloakUrl + "/admin/realms/" + keycloakRealm + "/users/" + userId + "/role-mappings/realm"),
                 eq(HttpMethod.POST),
@@ -231,9 +222,9 @@ class LoginServiceTest {
         // Act
         loginService.assignManagerRoleToUser(userId);
 
-        // Assert
-        verify(keycloakService).getAdminToken();
-        verify(restTemplate, times(2)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class));
+        // Assert : les rôles viennent du cache de la session, seul l'appel d'attribution part vers Keycloak
+        verify(adminSession).getAdminToken();
+        verify(restTemplate, times(1)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class));
     }
 
     @Test
@@ -241,28 +232,36 @@ class LoginServiceTest {
     void assignManagerRoleToUser_roleNotFound_throwsException() throws Exception {
         // Arrange
         String userId = "user-123";
-        String adminToken = "admin-token";
-        String rolesResponseJson = "[{\"id\": \"role-789\", \"name\": \"OTHER_ROLE\"}]";
 
-        when(keycloakService.getAdminToken()).thenReturn(adminToken);
-        when(restTemplate.exchange(
-                eq(keycloakUrl + "/admin/realms/" + keycloakRealm + "/roles"),
-                eq(HttpMethod.GET),
-                any(HttpEntity.class),
-                eq(String.class)
-        )).thenReturn(new ResponseEntity<>(rolesResponseJson, HttpStatus.OK));
+        when(adminSession.getAdminToken()).thenReturn("admin-token");
+        when(adminSession.getRoleId("MANAGER")).thenReturn(null);
 
         // Act & Assert
         Exception exception = assertThrows(Exception.class, () -> loginService.assignManagerRoleToUser(userId));
         assertEquals("Rôle MANAGER non trouvé.", exception.getMessage());
-        verify(keycloakService).getAdminToken();
-        verify(restTemplate).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class));
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached roles when Keycloak no longer knows the role id")
+    void assignManagerRoleToUser_staleRoleId_invalidatesRoleCache() {
+        // Arrange
+        String userId = "user-123";
+
+        when(adminSession.getAdminToken()).thenReturn("admin-token");
+        when(adminSession.getRoleId("MANAGER")).thenReturn("deleted-role-id");
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // Act & Assert
+        assertThrows(HttpClientErrorException.NotFound.class, () -> loginService.assignManagerRoleToUser(userId));
+        verify(adminSession).invalidateRoles();
     }
     @Test
     @DisplayName("Should logout successfully")
     void logout_success() throws Exception {
         // Arrange
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(adminSession.getClientSecret()).thenReturn(clientSecret);
         String refreshToken = "refresh-token";
         ResponseEntity<String> responseEntity = new ResponseEntity<>(HttpStatus.NO_CONTENT);
         when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
@@ -278,14 +277,14 @@ class LoginServiceTest {
                 any(HttpEntity.class),
                 eq(String.class)
         );
-        verify(vaultService).getClientSecret();
+        verify(adminSession).getClientSecret();
     }
 
     @Test
     @DisplayName("Should throw exception when logout fails")
     void logout_failure_throwsException() throws Exception {
         // Arrange
-        when(vaultService.getClientSecret()).thenReturn(clientSecret);
+        when(adminSession.getClientSecret()).thenReturn(clientSecret);
         String refreshToken = "refresh-token";
         ResponseEntity<String> responseEntity = new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
@@ -294,6 +293,6 @@ class LoginServiceTest {
         // Act & Assert
         Exception exception = assertThrows(Exception.class, () -> loginService.logout(refreshToken));
         assertEquals("Échec de la déconnexion auprès de Keycloak", exception.getMessage());
-        verify(vaultService).getClientSecret();
+        verify(adminSession).getClientSecret();
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.auth.authentification_service.unit.Service;
 
+import com.auth.authentification_service.DTO.ClientSecretLease;
 import com.auth.authentification_service.Service.VaultService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -84,4 +85,34 @@ class VaultServiceTest {
         verify(vaultTemplate).read(VAULT_PATH);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return client secret with its lease duration")
+    void getClientSecretLease_success() {
+        // Arrange
+        VaultResponse vaultResponse = new VaultResponse();
+        Map<String, Object> data = new HashMap<>();
+        data.put(SECRET_KEY, EXPECTED_SECRET);
+        vaultResponse.setData(data);
+        vaultResponse.setLeaseDuration(1800);
+        when(vaultTemplate.read(VAULT_PATH)).thenReturn(vaultResponse);
+
+        // Act
+        ClientSecretLease lease = vaultService.getClientSecretLease();
+
+        // Assert
+        assertEquals(EXPECTED_SECRET, lease.getSecret());
+        assertEquals(1800, lease.getLeaseDurationSeconds());
+    }
+
+    @Test
+    @DisplayName("Should throw when Vault has no client secret to lease")
+    void getClientSecretLease_nullResponse() {
+        // Arrange
+        when(vaultTemplate.read(VAULT_PATH)).thenReturn(null);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> vaultService.getClientSecretLease());
+        assertEquals(NO_SECRET_MESSAGE, exception.getMessage());
+    }
+}
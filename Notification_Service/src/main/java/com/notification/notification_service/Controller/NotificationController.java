@@ -0,0 +1,113 @@
+package com.notification.notification_service.Controller;
+
+import com.common.security.JwtTokenVerifier;
+import com.notification.notification_service.DTO.CursorPageDTO;
+import com.notification.notification_service.DTO.NotificationDTO;
+import com.notification.notification_service.Enumeration.DigestFrequency;
+import com.notification.notification_service.Service.DigestService;
+import com.notification.notification_service.Service.NotificationInboxService;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
+
+    @Autowired
+    private NotificationInboxService inboxService;
+    @Autowired
+    private DigestService digestService;
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    // Notifications de l'utilisateur du token, plus récentes d'abord, par pages de curseur
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader("Authorization") String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+        }
+        try {
+            return ResponseEntity.ok(inboxService.list(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid notification page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    // Badge : lu dans le compteur de l'utilisateur, sans COUNT
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Integer>> getUnreadCount(@RequestHeader("Authorization") String token) {
+        JWTClaimsSet claims = jwtTokenVerifier.verify(token);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+        }
+        // Appelé à chaque chargement de page : seul endroit où l'adresse des digests est connue
+        digestService.rememberContact(claims.getSubject(), stringClaim(claims, "email"), stringClaim(claims, "name"));
+        return ResponseEntity.ok(Map.of("unreadCount", inboxService.unreadCount(claims.getSubject())));
+    }
+
+    // Fréquence des digests e-mail de l'utilisateur (NONE, HOURLY ou DAILY)
+    @PutMapping("/digest")
+    public ResponseEntity<Void> updateDigestFrequency(@RequestParam DigestFrequency frequency,
+                                                      @RequestHeader("Authorization") String token) {
+        JWTClaimsSet claims = jwtTokenVerifier.verify(token);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            digestService.updateFrequency(claims.getSubject(), stringClaim(claims, "email"),
+                    stringClaim(claims, "name"), frequency);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid digest request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<Map<String, Integer>> markRead(@RequestBody List<Long> notificationIds,
+                                                         @RequestHeader("Authorization") String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+        }
+        try {
+            return ResponseEntity.ok(Map.of("unreadCount", inboxService.markRead(userId, notificationIds)));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid mark-read request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllRead(@RequestHeader("Authorization") String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+        }
+        return ResponseEntity.ok(Map.of("unreadCount", inboxService.markAllRead(userId)));
+    }
+
+    private static String stringClaim(JWTClaimsSet claims, String name) {
+        try {
+            return claims.getStringClaim(name);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
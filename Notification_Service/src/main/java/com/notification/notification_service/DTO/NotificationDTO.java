@@ -0,0 +1,79 @@
+package com.notification.notification_service.DTO;
+
+import com.notification.notification_service.Entity.Notification;
+import com.notification.notification_service.Enumeration.NotificationType;
+
+import java.time.LocalDateTime;
+
+// Immuable : les mêmes instances sont partagées par la fenêtre récente gardée en mémoire
+public class NotificationDTO {
+    private final Long id;
+    private final NotificationType type;
+    private final Long taskId;
+    private final Long projectId;
+    private final String title;
+    private final String message;
+    private final int taskCount;
+    private final int eventCount;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final boolean read;
+
+    public NotificationDTO(Notification notification) {
+        this.id = notification.getId();
+        this.type = notification.getType();
+        this.taskId = notification.getTaskId();
+        this.projectId = notification.getProjectId();
+        this.title = notification.getTitle();
+        this.message = notification.getMessage();
+        this.taskCount = notification.getTaskCount();
+        this.eventCount = notification.getEventCount();
+        this.createdAt = notification.getCreatedAt();
+        this.updatedAt = notification.getUpdatedAt();
+        this.read = notification.isRead();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+}
@@ -0,0 +1,120 @@
+package com.notification.notification_service.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activité d'un utilisateur pendant une heure, résumée en compteurs : un digest horaire lit un seau,
+ * un digest quotidien en additionne 24. Quelques titres de tâches sont gardés pour illustrer le digest.
+ * Version : deux lots concurrents qui enrichissent le même seau font échouer l'un, rejoué par le conteneur.
+ */
+@Entity
+@Table(name = "digest_buckets", uniqueConstraints = @UniqueConstraint(
+        name = "uk_digest_buckets_user_start", columnNames = {"user_id", "bucket_start"}))
+public class DigestBucket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "assigned_count", nullable = false)
+    private int assignedCount;
+
+    @Column(name = "status_changed_count", nullable = false)
+    private int statusChangedCount;
+
+    @Column(name = "deleted_count", nullable = false)
+    private int deletedCount;
+
+    // Titres séparés par des retours à la ligne, au plus notifications.digest.sample-titles
+    @Column(name = "sample_titles", length = 1024)
+    private String sampleTitles;
+
+    @Version
+    private long version;
+
+    public DigestBucket() {
+    }
+
+    public DigestBucket(String userId, LocalDateTime bucketStart) {
+        this.userId = userId;
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public int getAssignedCount() {
+        return assignedCount;
+    }
+
+    public void setAssignedCount(int assignedCount) {
+        this.assignedCount = assignedCount;
+    }
+
+    public int getStatusChangedCount() {
+        return statusChangedCount;
+    }
+
+    public void setStatusChangedCount(int statusChangedCount) {
+        this.statusChangedCount = statusChangedCount;
+    }
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    public void setDeletedCount(int deletedCount) {
+        this.deletedCount = deletedCount;
+    }
+
+    public String getSampleTitles() {
+        return sampleTitles;
+    }
+
+    public void setSampleTitles(String sampleTitles) {
+        this.sampleTitles = sampleTitles;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,89 @@
+package com.notification.notification_service.Entity;
+
+import com.notification.notification_service.Enumeration.DigestFrequency;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Destinataire des digests : adresse reprise du token de l'utilisateur, fréquence choisie et fin de la
+ * dernière fenêtre envoyée (sentUntil). Les fenêtres se suivent sans trou ni recouvrement.
+ */
+@Entity
+@Table(name = "digest_subscriptions", indexes = @Index(name = "idx_digest_subscriptions_due", columnList = "frequency, sent_until"))
+public class DigestSubscription {
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(nullable = false, length = 320)
+    private String email;
+
+    @Column(name = "display_name")
+    private String displayName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DigestFrequency frequency;
+
+    @Column(name = "sent_until", nullable = false)
+    private LocalDateTime sentUntil;
+
+    public DigestSubscription() {
+    }
+
+    public DigestSubscription(String userId, String email, String displayName, DigestFrequency frequency,
+                              LocalDateTime sentUntil) {
+        this.userId = userId;
+        this.email = email;
+        this.displayName = displayName;
+        this.frequency = frequency;
+        this.sentUntil = sentUntil;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public DigestFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(DigestFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public LocalDateTime getSentUntil() {
+        return sentUntil;
+    }
+
+    public void setSentUntil(LocalDateTime sentUntil) {
+        this.sentUntil = sentUntil;
+    }
+}
@@ -0,0 +1,178 @@
+package com.notification.notification_service.Entity;
+
+import com.notification.notification_service.Enumeration.NotificationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification d'un utilisateur. Une rafale d'événements du même type pour le même utilisateur est
+ * regroupée dans une seule ligne : taskId renseigné si elle ne concerne qu'une tâche, null sinon
+ * (taskCount tâches, eventCount événements).
+ * Mise à jour limitée aux colonnes modifiées : un regroupement n'écrase pas un is_read passé à true entre-temps.
+ * Version : deux lots concurrents qui enrichissent la même notification font échouer l'un, rejoué par
+ * TaskEventConsumer (le passage à lue, en UPDATE groupé, ne change pas la version).
+ */
+@Entity
+@DynamicUpdate
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_type_created", columnList = "user_id, type, created_at"),
+        // Boîte de réception : pages par clé (created_at, id) décroissante pour un utilisateur
+        @Index(name = "idx_notifications_user_created_id", columnList = "user_id, created_at, id")
+})
+public class Notification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private NotificationType type;
+
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    private String title;
+
+    @Column(nullable = false, length = 512)
+    private String message;
+
+    @Column(name = "task_count", nullable = false)
+    private int taskCount;
+
+    @Column(name = "event_count", nullable = false)
+    private int eventCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // "read" est un mot réservé MySQL
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    @Version
+    private long version;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public NotificationType getType() {
+        return type;
+    }
+
+    public void setType(NotificationType type) {
+        this.type = type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,45 @@
+package com.notification.notification_service.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+// eventId déjà traité : un événement relivré (rejeu après échec, doublon du relais) est ignoré
+@Entity
+@Table(name = "processed_events", indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processed_at"))
+public class ProcessedEvent {
+    @Id
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    public ProcessedEvent() {
+    }
+
+    public ProcessedEvent(String eventId, LocalDateTime processedAt) {
+        this.eventId = eventId;
+        this.processedAt = processedAt;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.notification.notification_service.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Nombre de notifications non lues d'un utilisateur, tenu à jour à chaque création et lecture :
+ * le badge est lu par clé primaire, sans COUNT sur la table notifications.
+ */
+@Entity
+@Table(name = "notification_unread_counters")
+public class UnreadCounter {
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    public UnreadCounter() {
+    }
+
+    public UnreadCounter(String userId, int unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,7 @@
+package com.notification.notification_service.Enumeration;
+
+public enum DigestFrequency {
+    NONE,
+    HOURLY,
+    DAILY
+}
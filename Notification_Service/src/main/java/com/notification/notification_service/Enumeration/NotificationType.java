@@ -0,0 +1,7 @@
+package com.notification.notification_service.Enumeration;
+
+public enum NotificationType {
+    TASK_ASSIGNED,
+    TASK_STATUS_CHANGED,
+    TASK_DELETED
+}
@@ -0,0 +1,23 @@
+package com.notification.notification_service.Repository;
+
+import com.notification.notification_service.Entity.DigestBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface DigestBucketRepository extends JpaRepository<DigestBucket, Long> {
+    // Seaux de l'heure en cours pour tout un lot d'utilisateurs
+    @Query("SELECT b FROM DigestBucket b WHERE b.userId IN :userIds AND b.bucketStart = :bucketStart")
+    List<DigestBucket> findForUsers(Collection<String> userIds, LocalDateTime bucketStart);
+
+    @Query("SELECT b FROM DigestBucket b WHERE b.userId IN :userIds AND b.bucketStart >= :from AND b.bucketStart < :to")
+    List<DigestBucket> findInWindow(Collection<String> userIds, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM DigestBucket b WHERE b.bucketStart < :before")
+    int deleteBucketsBefore(LocalDateTime before);
+}
@@ -0,0 +1,23 @@
+package com.notification.notification_service.Repository;
+
+import com.notification.notification_service.Entity.DigestSubscription;
+import com.notification.notification_service.Enumeration.DigestFrequency;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DigestSubscriptionRepository extends JpaRepository<DigestSubscription, String> {
+    // Abonnés dont la fenêtre se termine au plus tard à windowEnd, parcourus par userId croissant
+    @Query("SELECT s FROM DigestSubscription s WHERE s.frequency = :frequency AND s.sentUntil < :windowEnd " +
+            "AND s.userId > :afterUserId ORDER BY s.userId")
+    List<DigestSubscription> findDue(DigestFrequency frequency, LocalDateTime windowEnd, String afterUserId, Pageable pageable);
+
+    // Réservation d'une fenêtre : 0 si une autre instance l'a déjà prise
+    @Modifying
+    @Query("UPDATE DigestSubscription s SET s.sentUntil = :to WHERE s.userId = :userId AND s.sentUntil = :from")
+    int moveSentUntil(String userId, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,36 @@
+package com.notification.notification_service.Repository;
+
+import com.notification.notification_service.Entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    // Notifications non lues encore ouvertes au regroupement (créées dans la fenêtre), pour tout un lot d'utilisateurs
+    @Query("SELECT n FROM Notification n WHERE n.userId IN :userIds AND n.read = false AND n.createdAt >= :since")
+    List<Notification> findOpenForCoalescing(Collection<String> userIds, LocalDateTime since);
+
+    // Boîte de réception, plus récentes d'abord (index user_id, created_at, id)
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findRecent(String userId, Pageable pageable);
+
+    // Page suivante : notifications strictement plus anciennes que la clé (createdAt, id) du curseur
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(String userId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    // Retourne le nombre de notifications réellement passées de non lue à lue
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.id IN :ids AND n.read = false")
+    int markRead(String userId, Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.read = false")
+    int markAllRead(String userId);
+}
@@ -0,0 +1,20 @@
+package com.notification.notification_service.Repository;
+
+import com.notification.notification_service.Entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+    // Vérification groupée : eventIds déjà traités parmi ceux d'un lot
+    @Query("SELECT p.eventId FROM ProcessedEvent p WHERE p.eventId IN :eventIds")
+    List<String> findProcessedIds(Collection<String> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < :before")
+    int deleteProcessedBefore(LocalDateTime before);
+}
@@ -0,0 +1,18 @@
+package com.notification.notification_service.Repository;
+
+import com.notification.notification_service.Entity.UnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface UnreadCounterRepository extends JpaRepository<UnreadCounter, String> {
+    // Incrément atomique en base ; 0 ligne modifiée si le compteur de l'utilisateur n'existe pas encore
+    @Modifying
+    @Query("UPDATE UnreadCounter c SET c.unreadCount = c.unreadCount + :delta WHERE c.userId = :userId")
+    int increment(String userId, int delta);
+
+    @Modifying
+    @Query("UPDATE UnreadCounter c SET c.unreadCount = CASE WHEN c.unreadCount > :delta THEN c.unreadCount - :delta ELSE 0 END " +
+            "WHERE c.userId = :userId")
+    int decrement(String userId, int delta);
+}
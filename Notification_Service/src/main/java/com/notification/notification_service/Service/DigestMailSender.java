@@ -0,0 +1,119 @@
+package com.notification.notification_service.Service;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envoi asynchrone des digests : un pool de pool-size threads partage le JavaMailSender, chaque envoi
+ * passe par le RateLimiter digestMail (plafond du relais SMTP) puis le Retry digestMail.
+ * File bornée : quand elle est pleine, l'appelant (le planificateur) envoie lui-même et ralentit.
+ */
+@Service
+public class DigestMailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigestMailSender.class);
+
+    public record DigestMail(String to, String subject, String html) {
+    }
+
+    private final JavaMailSender mailSender;
+    private final RateLimiter rateLimiter;
+    private final Retry retry;
+    private final String from;
+    private final ThreadPoolExecutor executor;
+    private final Timer sendTimer;
+    private final Counter sent;
+    private final Counter failed;
+
+    public DigestMailSender(JavaMailSender mailSender,
+                            RateLimiterRegistry rateLimiterRegistry,
+                            RetryRegistry retryRegistry,
+                            MeterRegistry meterRegistry,
+                            @Value("${notifications.digest.from:noreply@agilia.com}") String from,
+                            @Value("${notifications.digest.mail.pool-size:4}") int poolSize,
+                            @Value("${notifications.digest.mail.queue-capacity:1000}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.rateLimiter = rateLimiterRegistry.rateLimiter("digestMail");
+        this.retry = retryRegistry.retry("digestMail");
+        this.from = from;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "digest-mail-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.sendTimer = Timer.builder("notifications.digest.mail.send").register(meterRegistry);
+        this.sent = Counter.builder("notifications.digest.mail.sent").register(meterRegistry);
+        this.failed = Counter.builder("notifications.digest.mail.failed").register(meterRegistry);
+    }
+
+    /**
+     * Termine normalement une fois le message accepté par le serveur SMTP, en erreur après épuisement des
+     * tentatives. Chaque tentative consomme une autorisation du RateLimiter.
+     */
+    public CompletableFuture<Void> send(DigestMail mail) {
+        Supplier<Void> attempt = RateLimiter.decorateSupplier(rateLimiter, () -> {
+            sendTimer.record(() -> mailSender.send(toMimeMessage(mail)));
+            return null;
+        });
+        Supplier<Void> withRetry = Retry.decorateSupplier(retry, attempt);
+        return CompletableFuture.supplyAsync(withRetry, executor)
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        sent.increment();
+                    } else {
+                        failed.increment();
+                        logger.error("Digest non envoyé à {} : {}", mail.to(), error.getMessage());
+                    }
+                });
+    }
+
+    private MimeMessage toMimeMessage(DigestMail mail) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, StandardCharsets.UTF_8.name());
+            helper.setFrom(from);
+            helper.setTo(mail.to());
+            helper.setSubject(mail.subject());
+            helper.setText(mail.html(), true);
+            return message;
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Digest invalide pour " + mail.to(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("{} digest(s) encore en file à l'arrêt", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+}
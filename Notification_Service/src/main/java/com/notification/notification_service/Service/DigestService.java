@@ -0,0 +1,283 @@
+package com.notification.notification_service.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.notification_service.Entity.DigestBucket;
+import com.notification.notification_service.Entity.DigestSubscription;
+import com.notification.notification_service.Enumeration.DigestFrequency;
+import com.notification.notification_service.Enumeration.NotificationType;
+import com.notification.notification_service.Repository.DigestBucketRepository;
+import com.notification.notification_service.Repository.DigestSubscriptionRepository;
+import com.notification.notification_service.event.TaskEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Digests par e-mail de l'activité des tâches.
+ * <ul>
+ *   <li>TaskEventConsumer ajoute les événements de chaque lot aux seaux horaires de leurs destinataires
+ *       (digest_buckets : une ligne de compteurs par utilisateur et par heure) ;</li>
+ *   <li>le planificateur réserve la fenêtre de chaque abonné dû (sentUntil -> fin de fenêtre, UPDATE
+ *       conditionnel : une seule instance l'envoie), additionne ses seaux et envoie un seul e-mail
+ *       par DigestMailSender ; en cas d'échec définitif la fenêtre est rendue pour le passage suivant ;</li>
+ *   <li>l'adresse vient du token de l'utilisateur (claim email), enregistrée à son passage sur
+ *       /api/notifications avec la fréquence par défaut.</li>
+ * </ul>
+ * Une équipe de 50 personnes et 2 000 événements par jour reçoit 50 digests quotidiens.
+ */
+@Service
+public class DigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigestService.class);
+    private static final String TITLE_SEPARATOR = "\n";
+
+    private final DigestBucketRepository bucketRepository;
+    private final DigestSubscriptionRepository subscriptionRepository;
+    private final DigestMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final DigestFrequency defaultFrequency;
+    private final int dailyHour;
+    private final int sampleTitles;
+    private final int batchSize;
+    private final int bucketRetentionHours;
+    private final String appUrl;
+    // Contacts déjà enregistrés : évite une écriture à chaque appel de l'utilisateur
+    private final Cache<String, String> knownContacts;
+
+    public DigestService(DigestBucketRepository bucketRepository,
+                         DigestSubscriptionRepository subscriptionRepository,
+                         DigestMailSender mailSender,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${notifications.digest.default-frequency:DAILY}") DigestFrequency defaultFrequency,
+                         @Value("${notifications.digest.daily-hour:8}") int dailyHour,
+                         @Value("${notifications.digest.sample-titles:5}") int sampleTitles,
+                         @Value("${notifications.digest.batch-size:200}") int batchSize,
+                         @Value("${notifications.digest.bucket-retention-hours:48}") int bucketRetentionHours,
+                         @Value("${notifications.digest.app-url:http://localhost:3000}") String appUrl) {
+        this.bucketRepository = bucketRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultFrequency = defaultFrequency;
+        this.dailyHour = dailyHour;
+        this.sampleTitles = sampleTitles;
+        this.batchSize = batchSize;
+        this.bucketRetentionHours = bucketRetentionHours;
+        this.appUrl = appUrl;
+        this.knownContacts = Caffeine.newBuilder().maximumSize(100_000).build();
+    }
+
+    /**
+     * Appelé par TaskEventConsumer dans la transaction du lot : une lecture des seaux de l'heure pour tous
+     * les destinataires, puis un saveAll.
+     */
+    public void recordEvents(Map<String, Map<NotificationType, List<TaskEvent>>> eventsByUser, LocalDateTime now) {
+        if (eventsByUser.isEmpty()) {
+            return;
+        }
+        LocalDateTime bucketStart = now.truncatedTo(ChronoUnit.HOURS);
+        Map<String, DigestBucket> buckets = bucketRepository.findForUsers(eventsByUser.keySet(), bucketStart).stream()
+                .collect(Collectors.toMap(DigestBucket::getUserId, b -> b));
+        List<DigestBucket> toSave = new ArrayList<>(eventsByUser.size());
+        for (Map.Entry<String, Map<NotificationType, List<TaskEvent>>> entry : eventsByUser.entrySet()) {
+            DigestBucket bucket = buckets.computeIfAbsent(entry.getKey(), userId -> new DigestBucket(userId, bucketStart));
+            for (Map.Entry<NotificationType, List<TaskEvent>> byType : entry.getValue().entrySet()) {
+                int count = byType.getValue().size();
+                switch (byType.getKey()) {
+                    case TASK_ASSIGNED -> bucket.setAssignedCount(bucket.getAssignedCount() + count);
+                    case TASK_STATUS_CHANGED -> bucket.setStatusChangedCount(bucket.getStatusChangedCount() + count);
+                    case TASK_DELETED -> bucket.setDeletedCount(bucket.getDeletedCount() + count);
+                }
+                addSampleTitles(bucket, byType.getValue());
+            }
+            toSave.add(bucket);
+        }
+        bucketRepository.saveAll(toSave);
+    }
+
+    private void addSampleTitles(DigestBucket bucket, List<TaskEvent> events) {
+        Set<String> titles = new LinkedHashSet<>(titles(bucket.getSampleTitles()));
+        for (TaskEvent event : events) {
+            if (titles.size() >= sampleTitles) {
+                break;
+            }
+            if (event.getTitle() != null && !event.getTitle().isBlank()) {
+                titles.add(event.getTitle().replace(TITLE_SEPARATOR, " ").strip());
+            }
+        }
+        String joined = String.join(TITLE_SEPARATOR, titles);
+        bucket.setSampleTitles(joined.length() > 1024 ? joined.substring(0, 1024) : joined);
+    }
+
+    private static List<String> titles(String sampleTitles) {
+        return sampleTitles == null || sampleTitles.isEmpty() ? List.of() : Arrays.asList(sampleTitles.split(TITLE_SEPARATOR));
+    }
+
+    /**
+     * Enregistre l'adresse de l'utilisateur (abonné avec la fréquence par défaut la première fois) ;
+     * ne fait rien si elle est déjà connue.
+     */
+    public void rememberContact(String userId, String email, String displayName) {
+        if (userId == null || email == null || email.isBlank() || email.equals(knownContacts.getIfPresent(userId))) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            DigestSubscription subscription = subscriptionRepository.findById(userId)
+                    .orElseGet(() -> new DigestSubscription(userId, email, displayName, defaultFrequency,
+                            LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)));
+            subscription.setEmail(email);
+            subscription.setDisplayName(displayName);
+            subscriptionRepository.save(subscription);
+        });
+        knownContacts.put(userId, email);
+    }
+
+    public void updateFrequency(String userId, String email, String displayName, DigestFrequency frequency) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("An email address is required to receive digests");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+            DigestSubscription subscription = subscriptionRepository.findById(userId)
+                    .orElseGet(() -> new DigestSubscription(userId, email, displayName, frequency, now));
+            if (subscription.getFrequency() == DigestFrequency.NONE && frequency != DigestFrequency.NONE) {
+                // Pas de rattrapage de la période sans digest
+                subscription.setSentUntil(now);
+            }
+            subscription.setEmail(email);
+            subscription.setDisplayName(displayName);
+            subscription.setFrequency(frequency);
+            subscriptionRepository.save(subscription);
+        });
+        knownContacts.put(userId, email);
+    }
+
+    @Scheduled(cron = "${notifications.digest.cron:0 5 * * * *}")
+    public void sendDueDigests() {
+        LocalDateTime now = LocalDateTime.now();
+        sendDigests(DigestFrequency.HOURLY, now.truncatedTo(ChronoUnit.HOURS));
+        LocalDateTime dailyEnd = now.truncatedTo(ChronoUnit.DAYS).plusHours(dailyHour);
+        sendDigests(DigestFrequency.DAILY, now.isBefore(dailyEnd) ? dailyEnd.minusDays(1) : dailyEnd);
+    }
+
+    /**
+     * Envoie les digests de tous les abonnés de cette fréquence dont la fenêtre se termine à windowEnd.
+     * Retourne le nombre de digests transmis au DigestMailSender.
+     */
+    public int sendDigests(DigestFrequency frequency, LocalDateTime windowEnd) {
+        int queued = 0;
+        String afterUserId = "";
+        List<DigestSubscription> due;
+        do {
+            due = subscriptionRepository.findDue(frequency, windowEnd, afterUserId, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            afterUserId = due.get(due.size() - 1).getUserId();
+            LocalDateTime from = due.stream().map(DigestSubscription::getSentUntil).min(LocalDateTime::compareTo).get();
+            Map<String, List<DigestBucket>> bucketsByUser = bucketRepository
+                    .findInWindow(due.stream().map(DigestSubscription::getUserId).toList(), from, windowEnd).stream()
+                    .collect(Collectors.groupingBy(DigestBucket::getUserId));
+            for (DigestSubscription subscription : due) {
+                List<DigestBucket> buckets = bucketsByUser.getOrDefault(subscription.getUserId(), List.of()).stream()
+                        .filter(b -> !b.getBucketStart().isBefore(subscription.getSentUntil()))
+                        .toList();
+                if (send(subscription, buckets, windowEnd)) {
+                    queued++;
+                }
+            }
+        } while (due.size() == batchSize);
+        if (queued > 0) {
+            logger.info("{} digest(s) {} jusqu'à {} transmis à l'envoi", queued, frequency, windowEnd);
+        }
+        return queued;
+    }
+
+    private boolean send(DigestSubscription subscription, List<DigestBucket> buckets, LocalDateTime windowEnd) {
+        String userId = subscription.getUserId();
+        LocalDateTime from = subscription.getSentUntil();
+        if (!moveSentUntil(userId, from, windowEnd)) {
+            return false;
+        }
+        int assigned = buckets.stream().mapToInt(DigestBucket::getAssignedCount).sum();
+        int statusChanged = buckets.stream().mapToInt(DigestBucket::getStatusChangedCount).sum();
+        int deleted = buckets.stream().mapToInt(DigestBucket::getDeletedCount).sum();
+        if (assigned + statusChanged + deleted == 0) {
+            // Fenêtre sans activité : réservée sans e-mail
+            return false;
+        }
+        List<String> titles = buckets.stream()
+                .flatMap(b -> titles(b.getSampleTitles()).stream())
+                .distinct()
+                .limit(sampleTitles)
+                .toList();
+        DigestMailSender.DigestMail mail = render(subscription, assigned, statusChanged, deleted, titles);
+        CompletableFuture<Void> delivery = mailSender.send(mail);
+        delivery.exceptionally(error -> {
+            // Fenêtre rendue : elle sera renvoyée, élargie, au prochain passage
+            moveSentUntil(userId, windowEnd, from);
+            return null;
+        });
+        return true;
+    }
+
+    private boolean moveSentUntil(String userId, LocalDateTime from, LocalDateTime to) {
+        Integer moved = transactionTemplate.execute(status -> subscriptionRepository.moveSentUntil(userId, from, to));
+        return moved != null && moved == 1;
+    }
+
+    private DigestMailSender.DigestMail render(DigestSubscription subscription, int assigned, int statusChanged,
+                                               int deleted, List<String> titles) {
+        int total = assigned + statusChanged + deleted;
+        String subject = "Votre résumé AGILIA : " + total + (total > 1 ? " mises à jour" : " mise à jour") + " sur vos tâches";
+        StringBuilder html = new StringBuilder();
+        String name = subscription.getDisplayName();
+        html.append("<p>Bonjour").append(name != null && !name.isBlank() ? " " + HtmlUtils.htmlEscape(name) : "").append(",</p>");
+        html.append("<p>Voici l'activité sur vos tâches depuis votre dernier résumé :</p><ul>");
+        if (assigned > 0) {
+            html.append("<li><strong>").append(assigned).append("</strong> assignation(s)</li>");
+        }
+        if (statusChanged > 0) {
+            html.append("<li><strong>").append(statusChanged).append("</strong> changement(s) de statut</li>");
+        }
+        if (deleted > 0) {
+            html.append("<li><strong>").append(deleted).append("</strong> suppression(s)</li>");
+        }
+        html.append("</ul>");
+        if (!titles.isEmpty()) {
+            html.append("<p>Tâches concernées, entre autres :</p><ul>");
+            titles.forEach(title -> html.append("<li>").append(HtmlUtils.htmlEscape(title)).append("</li>"));
+            html.append("</ul>");
+        }
+        html.append("<p><a href=\"").append(appUrl).append("\">Ouvrir AGILIA</a></p>");
+        return new DigestMailSender.DigestMail(subscription.getEmail(), subject, html.toString());
+    }
+
+    // Les seaux plus anciens que toute fenêtre encore à envoyer ne servent plus
+    @Scheduled(cron = "${notifications.digest.purge-cron:0 45 * * * *}")
+    public void purgeBuckets() {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(bucketRetentionHours);
+        Integer purged = transactionTemplate.execute(status -> bucketRepository.deleteBucketsBefore(before));
+        if (purged != null && purged > 0) {
+            logger.info("{} seau(x) de digest antérieurs à {} supprimés", purged, before);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.notification.notification_service.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.notification_service.DTO.CursorPageDTO;
+import com.notification.notification_service.DTO.NotificationDTO;
+import com.notification.notification_service.Entity.Notification;
+import com.notification.notification_service.Entity.UnreadCounter;
+import com.notification.notification_service.Repository.NotificationRepository;
+import com.notification.notification_service.Repository.UnreadCounterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Boîte de réception des notifications d'un utilisateur.
+ * <ul>
+ *   <li>liste paginée par clé (createdAt, id) décroissante, servie par l'index (user_id, created_at, id) ;</li>
+ *   <li>première page lue dans une fenêtre des recent-window-size notifications les plus récentes,
+ *       gardée en mémoire pour les utilisateurs actifs (au plus active-users) ;</li>
+ *   <li>badge lu dans notification_unread_counters, tenu à jour par les créations (TaskEventConsumer)
+ *       et les lectures : jamais de COUNT sur notifications ;</li>
+ *   <li>lecture par lot d'ids ou de toute la boîte en un UPDATE, le compteur est diminué du nombre de
+ *       lignes réellement passées à lue.</li>
+ * </ul>
+ * Les caches sont invalidés après chaque écriture faite par cette instance et expirent après cache-ttl-ms :
+ * une notification créée par le consommateur d'une autre instance apparaît au plus tard après ce délai.
+ */
+@Service
+public class NotificationInboxService {
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int recentWindowSize;
+    private final int maxMarkReadIds;
+    private final Cache<String, List<NotificationDTO>> recentWindows;
+    private final Cache<String, Integer> unreadCounts;
+
+    public NotificationInboxService(NotificationRepository notificationRepository,
+                                    UnreadCounterRepository unreadCounterRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${notifications.inbox.page-size:20}") int defaultPageSize,
+                                    @Value("${notifications.inbox.max-page-size:100}") int maxPageSize,
+                                    @Value("${notifications.inbox.recent-window-size:50}") int recentWindowSize,
+                                    @Value("${notifications.inbox.active-users:10000}") long activeUsers,
+                                    @Value("${notifications.inbox.cache-ttl-ms:10000}") long cacheTtlMs,
+                                    @Value("${notifications.inbox.mark-read-max-ids:500}") int maxMarkReadIds) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounterRepository = unreadCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.recentWindowSize = recentWindowSize;
+        this.maxMarkReadIds = maxMarkReadIds;
+        this.recentWindows = Caffeine.newBuilder()
+                .maximumSize(activeUsers)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .recordStats()
+                .build();
+        this.unreadCounts = Caffeine.newBuilder()
+                .maximumSize(activeUsers)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentWindows, "notifications.inbox.recent");
+        CaffeineCacheMetrics.monitor(meterRegistry, unreadCounts, "notifications.inbox.unread");
+    }
+
+    public CursorPageDTO<NotificationDTO> list(String userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        if (cursor == null || cursor.isBlank()) {
+            if (pageSize <= recentWindowSize) {
+                return page(recentWindows.get(userId, this::loadRecentWindow), pageSize);
+            }
+            return page(toDTOs(notificationRepository.findRecent(userId, PageRequest.of(0, pageSize + 1))), pageSize);
+        }
+        CursorKey key = decode(cursor);
+        return page(toDTOs(notificationRepository.findPageBefore(userId, key.createdAt(), key.id(),
+                PageRequest.of(0, pageSize + 1))), pageSize);
+    }
+
+    public int unreadCount(String userId) {
+        return unreadCounts.get(userId, id -> unreadCounterRepository.findById(id)
+                .map(UnreadCounter::getUnreadCount)
+                .orElse(0));
+    }
+
+    // Retourne le nombre de notifications non lues restantes
+    public int markRead(String userId, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one notification id is required");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > maxMarkReadIds) {
+            throw new IllegalArgumentException("At most " + maxMarkReadIds + " notifications can be marked read at once");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = notificationRepository.markRead(userId, distinctIds);
+            if (updated > 0) {
+                unreadCounterRepository.decrement(userId, updated);
+            }
+        });
+        invalidate(List.of(userId));
+        return unreadCount(userId);
+    }
+
+    public int markAllRead(String userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = notificationRepository.markAllRead(userId);
+            if (updated > 0) {
+                // Diminué plutôt que remis à 0 : une notification créée pendant l'UPDATE reste comptée
+                unreadCounterRepository.decrement(userId, updated);
+            }
+        });
+        invalidate(List.of(userId));
+        return unreadCount(userId);
+    }
+
+    /**
+     * Appelé par TaskEventConsumer dans la transaction d'écriture du lot : une seule mise à jour de
+     * compteur par utilisateur (nombre de nouvelles notifications non lues), caches invalidés après le commit.
+     * Un regroupement dans une notification déjà non lue ne change pas le compteur.
+     */
+    public void notificationsWritten(Collection<String> userIds, Map<String, Integer> newUnreadByUser) {
+        for (Map.Entry<String, Integer> entry : newUnreadByUser.entrySet()) {
+            if (entry.getValue() > 0 && unreadCounterRepository.increment(entry.getKey(), entry.getValue()) == 0) {
+                // Premier compteur de l'utilisateur. Si deux lots le créent en même temps, l'un échoue sur la clé
+                // primaire et est rejoué par le conteneur : l'incrément passe alors par l'UPDATE
+                unreadCounterRepository.save(new UnreadCounter(entry.getKey(), entry.getValue()));
+            }
+        }
+        Set<String> touched = Set.copyOf(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(touched);
+                }
+            });
+        } else {
+            invalidate(touched);
+        }
+    }
+
+    private void invalidate(Collection<String> userIds) {
+        recentWindows.invalidateAll(userIds);
+        unreadCounts.invalidateAll(userIds);
+    }
+
+    // Une notification de plus que la fenêtre : indique seulement qu'une page suivante existe
+    private List<NotificationDTO> loadRecentWindow(String userId) {
+        return toDTOs(notificationRepository.findRecent(userId, PageRequest.of(0, recentWindowSize + 1)));
+    }
+
+    private static List<NotificationDTO> toDTOs(List<Notification> notifications) {
+        return notifications.stream().map(NotificationDTO::new).toList();
+    }
+
+    private static CursorPageDTO<NotificationDTO> page(List<NotificationDTO> notifications, int size) {
+        boolean hasMore = notifications.size() > size;
+        List<NotificationDTO> items = hasMore ? List.copyOf(notifications.subList(0, size)) : notifications;
+        String nextCursor = hasMore ? encode(items.get(items.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    private record CursorKey(LocalDateTime createdAt, Long id) {
+    }
+
+    private static String encode(NotificationDTO last) {
+        String value = last.getCreatedAt() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CursorKey decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new CursorKey(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException et erreurs Base64 compris
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.notification.notification_service.Service;
+
+import com.notification.notification_service.Entity.Notification;
+import com.notification.notification_service.Entity.ProcessedEvent;
+import com.notification.notification_service.Enumeration.NotificationType;
+import com.notification.notification_service.Repository.NotificationRepository;
+import com.notification.notification_service.Repository.ProcessedEventRepository;
+import com.notification.notification_service.event.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Consommation du topic task-events de Task-Service et création des notifications.
+ * <ul>
+ *   <li>écoute par lots, un consommateur par partition (concurrency) : les événements d'une tâche
+ *       (même clé) restent ordonnés ;</li>
+ *   <li>offsets validés manuellement après l'écriture du lot : un échec rejoue tout le lot ;</li>
+ *   <li>idempotence par eventId (table processed_events, vérifiée en une requête par lot) ;</li>
+ *   <li>destinataires = utilisateurs assignés, sauf l'auteur de l'action ;</li>
+ *   <li>regroupement par (utilisateur, type) : les événements d'un lot, et ceux qui suivent tant que
+ *       la notification est non lue et créée depuis moins de coalesce-window-ms, enrichissent la même
+ *       notification. Une réassignation de 300 tâches donne une notification par utilisateur. Deux lots
+ *       concurrents qui enrichissent la même notification se heurtent à sa version : le lot perdant est
+ *       retraité aussitôt (au plus MAX_COALESCE_ATTEMPTS fois, puis rejoué par le conteneur) ;</li>
+ *   <li>compteurs de non lues et seaux des digests e-mail mis à jour dans la même transaction
+ *       (NotificationInboxService, DigestService).</li>
+ * </ul>
+ * Métriques : notifications.task-events.batch.duration (par résultat), notifications.task-events.batch.size,
+ * notifications.task-events.lag (publication -> traitement), notifications.task-events.duplicates,
+ * notifications.task-events.invalid, notifications.created et notifications.coalesced. Le retard du groupe
+ * en offsets est exposé par le client Kafka (kafka.consumer.fetch.manager.records.lag.max).
+ */
+@Service
+public class TaskEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventConsumer.class);
+    private static final int MAX_COALESCE_ATTEMPTS = 3;
+
+    private final NotificationRepository notificationRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final NotificationInboxService inboxService;
+    private final DigestService digestService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long coalesceWindowMs;
+    private final int processedEventsRetentionDays;
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+    private final Counter duplicates;
+    private final Counter invalid;
+    private final Counter created;
+    private final Counter coalesced;
+
+    private record GroupKey(String userId, NotificationType type) {
+    }
+
+    // Comptes d'un essai, reportés dans les métriques seulement s'il est validé
+    private static final class BatchCounts {
+        private int invalid;
+        private int duplicates;
+        private int created;
+        private int coalesced;
+    }
+
+    public TaskEventConsumer(NotificationRepository notificationRepository,
+                             ProcessedEventRepository processedEventRepository,
+                             NotificationInboxService inboxService,
+                             DigestService digestService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${notifications.coalesce-window-ms:30000}") long coalesceWindowMs,
+                             @Value("${notifications.processed-events.retention-days:7}") int processedEventsRetentionDays) {
+        this.notificationRepository = notificationRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.inboxService = inboxService;
+        this.digestService = digestService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.processedEventsRetentionDays = processedEventsRetentionDays;
+        this.batchSize = DistributionSummary.builder("notifications.task-events.batch.size").register(meterRegistry);
+        this.lag = Timer.builder("notifications.task-events.lag").register(meterRegistry);
+        this.duplicates = Counter.builder("notifications.task-events.duplicates").register(meterRegistry);
+        this.invalid = Counter.builder("notifications.task-events.invalid").register(meterRegistry);
+        this.created = Counter.builder("notifications.created").register(meterRegistry);
+        this.coalesced = Counter.builder("notifications.coalesced").register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "${task-events.topic:task-events}",
+            groupId = "${task-events.consumer.group:notification-service}",
+            concurrency = "${task-events.consumer.concurrency:3}",
+            batch = "true",
+            properties = {"spring.json.value.default.type=com.notification.notification_service.event.TaskEvent",
+                    "spring.json.use.type.headers=false"})
+    public void onTaskEvents(List<ConsumerRecord<String, TaskEvent>> records, Acknowledgment acknowledgment) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            long now = System.currentTimeMillis();
+            List<TaskEvent> events = new ArrayList<>(records.size());
+            for (ConsumerRecord<String, TaskEvent> record : records) {
+                if (record.timestamp() >= 0) {
+                    lag.record(Math.max(0, now - record.timestamp()), TimeUnit.MILLISECONDS);
+                }
+                // Valeur null : désérialisation impossible (ErrorHandlingDeserializer)
+                if (record.value() == null) {
+                    invalid.increment();
+                    logger.warn("Événement illisible ignoré : {}-{}@{}", record.topic(), record.partition(), record.offset());
+                    continue;
+                }
+                events.add(record.value());
+            }
+            processWithRetry(events);
+            // Offsets validés seulement une fois les notifications écrites
+            acknowledgment.acknowledge();
+            batchSize.record(records.size());
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("notifications.task-events.batch.duration")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void processWithRetry(List<TaskEvent> events) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Chaque essai relit les notifications ouvertes et les eventIds déjà traités
+                BatchCounts counts = new BatchCounts();
+                transactionTemplate.executeWithoutResult(status -> process(events, counts));
+                invalid.increment(counts.invalid);
+                duplicates.increment(counts.duplicates);
+                created.increment(counts.created);
+                coalesced.increment(counts.coalesced);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_COALESCE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Notification enrichie par un autre lot, nouvel essai ({}/{})", attempt + 1, MAX_COALESCE_ATTEMPTS);
+            }
+        }
+    }
+
+    private void process(List<TaskEvent> events, BatchCounts counts) {
+        List<TaskEvent> fresh = freshEvents(events, counts);
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        Map<GroupKey, List<TaskEvent>> groups = new LinkedHashMap<>();
+        for (TaskEvent event : fresh) {
+            NotificationType type = notificationType(event.getType());
+            for (String userId : recipients(event)) {
+                groups.computeIfAbsent(new GroupKey(userId, type), key -> new ArrayList<>()).add(event);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!groups.isEmpty()) {
+            Set<String> userIds = groups.keySet().stream().map(GroupKey::userId).collect(Collectors.toSet());
+            Map<GroupKey, Notification> open = notificationRepository
+                    .findOpenForCoalescing(userIds, now.minusNanos(coalesceWindowMs * 1_000_000L)).stream()
+                    .collect(Collectors.toMap(n -> new GroupKey(n.getUserId(), n.getType()), n -> n,
+                            (a, b) -> a.getCreatedAt().isAfter(b.getCreatedAt()) ? a : b));
+
+            List<Notification> toSave = new ArrayList<>(groups.size());
+            Map<String, Integer> newUnreadByUser = new HashMap<>();
+            for (Map.Entry<GroupKey, List<TaskEvent>> group : groups.entrySet()) {
+                Notification existing = open.get(group.getKey());
+                List<TaskEvent> groupEvents = group.getValue();
+                if (existing == null) {
+                    toSave.add(newNotification(group.getKey(), groupEvents, now));
+                    newUnreadByUser.merge(group.getKey().userId(), 1, Integer::sum);
+                    counts.created++;
+                    counts.coalesced += groupEvents.size() - 1;
+                } else {
+                    merge(existing, groupEvents, now);
+                    toSave.add(existing);
+                    counts.coalesced += groupEvents.size();
+                }
+            }
+            notificationRepository.saveAll(toSave);
+            inboxService.notificationsWritten(userIds, newUnreadByUser);
+
+            Map<String, Map<NotificationType, List<TaskEvent>>> eventsByUser = new LinkedHashMap<>();
+            groups.forEach((key, groupEvents) -> eventsByUser
+                    .computeIfAbsent(key.userId(), userId -> new EnumMap<>(NotificationType.class))
+                    .put(key.type(), groupEvents));
+            digestService.recordEvents(eventsByUser, now);
+        }
+
+        processedEventRepository.saveAll(fresh.stream()
+                .map(TaskEvent::getEventId)
+                .filter(Objects::nonNull)
+                .map(eventId -> new ProcessedEvent(eventId, now))
+                .toList());
+    }
+
+    // Événements de version connue, jamais traités et uniques dans le lot
+    private List<TaskEvent> freshEvents(List<TaskEvent> events, BatchCounts counts) {
+        List<TaskEvent> supported = new ArrayList<>(events.size());
+        for (TaskEvent event : events) {
+            if (event.getVersion() > TaskEvent.SCHEMA_VERSION || event.getType() == null || event.getTaskId() == null) {
+                counts.invalid++;
+                logger.warn("Événement de tâche non pris en charge ignoré : v={} type={}", event.getVersion(), event.getType());
+                continue;
+            }
+            supported.add(event);
+        }
+        Set<String> eventIds = supported.stream()
+                .map(TaskEvent::getEventId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> seen = eventIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(processedEventRepository.findProcessedIds(eventIds));
+        List<TaskEvent> fresh = new ArrayList<>(supported.size());
+        for (TaskEvent event : supported) {
+            if (event.getEventId() != null && !seen.add(event.getEventId())) {
+                counts.duplicates++;
+                continue;
+            }
+            fresh.add(event);
+        }
+        return fresh;
+    }
+
+    private static Set<String> recipients(TaskEvent event) {
+        if (event.getAssigneeIds() == null) {
+            return Set.of();
+        }
+        return event.getAssigneeIds().stream()
+                .filter(userId -> userId != null && !userId.equals(event.getActorId()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static NotificationType notificationType(TaskEvent.Type type) {
+        return switch (type) {
+            case CREATED, ASSIGNED -> NotificationType.TASK_ASSIGNED;
+            case STATUS_CHANGED -> NotificationType.TASK_STATUS_CHANGED;
+            case DELETED -> NotificationType.TASK_DELETED;
+        };
+    }
+
+    private static Notification newNotification(GroupKey key, List<TaskEvent> events, LocalDateTime now) {
+        Notification notification = new Notification();
+        notification.setUserId(key.userId());
+        notification.setType(key.type());
+        notification.setCreatedAt(now);
+        notification.setProjectId(commonProjectId(events));
+        describe(notification, taskIds(events), events);
+        notification.setEventCount(events.size());
+        notification.setUpdatedAt(now);
+        return notification;
+    }
+
+    private static void merge(Notification notification, List<TaskEvent> events, LocalDateTime now) {
+        Set<Long> taskIds = taskIds(events);
+        if (notification.getTaskId() != null) {
+            taskIds.add(notification.getTaskId());
+            describe(notification, taskIds, events);
+        } else {
+            // Déjà regroupée : les tâches ne sont plus connues une à une, le compte peut inclure une tâche deux fois
+            notification.setTaskCount(notification.getTaskCount() + taskIds.size());
+            notification.setMessage(aggregateMessage(notification.getType(), notification.getTaskCount()));
+        }
+        if (!Objects.equals(notification.getProjectId(), commonProjectId(events))) {
+            notification.setProjectId(null);
+        }
+        notification.setEventCount(notification.getEventCount() + events.size());
+        notification.setUpdatedAt(now);
+    }
+
+    private static void describe(Notification notification, Set<Long> taskIds, List<TaskEvent> events) {
+        notification.setTaskCount(taskIds.size());
+        if (taskIds.size() == 1) {
+            TaskEvent latest = events.get(events.size() - 1);
+            notification.setTaskId(latest.getTaskId());
+            notification.setTitle(latest.getTitle());
+            notification.setMessage(singleMessage(notification.getType(), latest));
+        } else {
+            notification.setTaskId(null);
+            notification.setTitle(null);
+            notification.setMessage(aggregateMessage(notification.getType(), taskIds.size()));
+        }
+    }
+
+    private static Set<Long> taskIds(List<TaskEvent> events) {
+        return events.stream().map(TaskEvent::getTaskId).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Long commonProjectId(List<TaskEvent> events) {
+        Long projectId = events.get(0).getProjectId();
+        for (TaskEvent event : events) {
+            if (!Objects.equals(projectId, event.getProjectId())) {
+                return null;
+            }
+        }
+        return projectId;
+    }
+
+    private static String singleMessage(NotificationType type, TaskEvent event) {
+        String title = event.getTitle() != null ? event.getTitle() : "#" + event.getTaskId();
+        return switch (type) {
+            case TASK_ASSIGNED -> "Vous êtes assigné(e) à la tâche « " + title + " »";
+            case TASK_STATUS_CHANGED -> "La tâche « " + title + " » est passée au statut " + event.getStatus();
+            case TASK_DELETED -> "La tâche « " + title + " » a été supprimée";
+        };
+    }
+
+    private static String aggregateMessage(NotificationType type, int taskCount) {
+        return switch (type) {
+            case TASK_ASSIGNED -> taskCount + " tâches vous ont été assignées";
+            case TASK_STATUS_CHANGED -> taskCount + " de vos tâches ont changé de statut";
+            case TASK_DELETED -> taskCount + " de vos tâches ont été supprimées";
+        };
+    }
+
+    // Les eventIds ne servent qu'à dédoublonner les relivraisons : inutile de les garder au-delà de la rétention
+    @Scheduled(cron = "${notifications.processed-events.purge-cron:0 30 3 * * *}")
+    public void purgeProcessedEvents() {
+        LocalDateTime before = LocalDateTime.now().minusDays(processedEventsRetentionDays);
+        Integer purged = transactionTemplate.execute(status -> processedEventRepository.deleteProcessedBefore(before));
+        if (purged != null && purged > 0) {
+            logger.info("{} eventId(s) traités avant {} supprimés", purged, before);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.notification.notification_service.unit.Service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.notification.notification_service.Service.DigestMailSender;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Envoi réel vers un serveur SMTP local (GreenMail)
+public class DigestMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl javaMailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private DigestMailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(greenMail.getSmtp().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (sender != null) {
+            sender.shutdown();
+        }
+    }
+
+    private DigestMailSender sender(JavaMailSenderImpl mailSender, int limitForPeriod, Duration refreshPeriod) {
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(limitForPeriod)
+                .limitRefreshPeriod(refreshPeriod)
+                .timeoutDuration(Duration.ofSeconds(30))
+                .build());
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .retryExceptions(MailSendException.class)
+                .build());
+        return new DigestMailSender(mailSender, rateLimiters, retries, meterRegistry, "noreply@agilia.com", 4, 100);
+    }
+
+    @Test
+    void send_shouldDeliverOneMessagePerDigest() throws Exception {
+        // Arrange
+        sender = sender(javaMailSender, 1000, Duration.ofSeconds(1));
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            deliveries.add(sender.send(new DigestMailSender.DigestMail("user" + i + "@example.com",
+                    "Votre résumé AGILIA", "<p>Activité de l'utilisateur " + i + "</p>")));
+        }
+        CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(50, received.length);
+        assertEquals("Votre résumé AGILIA", received[0].getSubject());
+        assertEquals(50.0, meterRegistry.counter("notifications.digest.mail.sent").count());
+    }
+
+    @Test
+    void send_shouldRetryTransientSmtpFailure() throws Exception {
+        // Arrange : le premier envoi échoue côté serveur
+        JavaMailSenderImpl flaky = spy(javaMailSender);
+        doThrow(new MailSendException("Connection reset"))
+                .doCallRealMethod()
+                .when(flaky).send(any(MimeMessage.class));
+        sender = sender(flaky, 1000, Duration.ofSeconds(1));
+
+        // Act
+        sender.send(new DigestMailSender.DigestMail("dev1@example.com", "Résumé", "<p>ok</p>"))
+                .get(30, TimeUnit.SECONDS);
+
+        // Assert
+        verify(flaky, times(2)).send(any(MimeMessage.class));
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void send_shouldFailAfterRetriesAreExhausted() {
+        // Arrange
+        JavaMailSenderImpl down = spy(javaMailSender);
+        doThrow(new MailSendException("Relay unavailable")).when(down).send(any(MimeMessage.class));
+        sender = sender(down, 1000, Duration.ofSeconds(1));
+
+        // Act
+        CompletableFuture<Void> delivery = sender.send(new DigestMailSender.DigestMail("dev1@example.com", "Résumé", "<p>ko</p>"));
+
+        // Assert
+        assertThrows(Exception.class, () -> delivery.get(30, TimeUnit.SECONDS));
+        verify(down, times(3)).send(any(MimeMessage.class));
+        assertEquals(1.0, meterRegistry.counter("notifications.digest.mail.failed").count());
+    }
+
+    @Test
+    void send_shouldRespectRateLimit() throws Exception {
+        // Arrange : 2 e-mails par période de 300 ms
+        sender = sender(javaMailSender, 2, Duration.ofMillis(300));
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        long start = System.nanoTime();
+
+        // Act : 6 e-mails demandent au moins 2 périodes supplémentaires
+        for (int i = 0; i < 6; i++) {
+            deliveries.add(sender.send(new DigestMailSender.DigestMail("user" + i + "@example.com", "Résumé", "<p>" + i + "</p>")));
+        }
+        CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 500);
+        assertEquals(6, greenMail.getReceivedMessages().length);
+    }
+}
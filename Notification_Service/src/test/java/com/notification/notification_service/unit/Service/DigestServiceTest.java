@@ -0,0 +1,189 @@
+package com.notification.notification_service.unit.Service;
+
+import com.notification.notification_service.Entity.DigestBucket;
+import com.notification.notification_service.Entity.DigestSubscription;
+import com.notification.notification_service.Enumeration.DigestFrequency;
+import com.notification.notification_service.Enumeration.NotificationType;
+import com.notification.notification_service.Repository.DigestBucketRepository;
+import com.notification.notification_service.Repository.DigestSubscriptionRepository;
+import com.notification.notification_service.Service.DigestMailSender;
+import com.notification.notification_service.Service.DigestService;
+import com.notification.notification_service.event.TaskEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DigestServiceTest {
+
+    @Mock
+    private DigestBucketRepository bucketRepository;
+
+    @Mock
+    private DigestSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private DigestMailSender mailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DigestService digestService;
+    private final LocalDateTime dayStart = LocalDateTime.of(2025, 5, 1, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        digestService = new DigestService(bucketRepository, subscriptionRepository, mailSender, transactionManager,
+                DigestFrequency.DAILY, 8, 3, 100, 48, "http://localhost:3000");
+    }
+
+    private static List<TaskEvent> events(TaskEvent.Type type, int count) {
+        List<TaskEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new TaskEvent(1, type + "-" + i, type, (long) i, 5L, null, "Task " + i, "DONE", null,
+                    Set.of("dev"), "lead", LocalDateTime.now()));
+        }
+        return events;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordEvents_shouldKeepOneCompactBucketPerUserAndHour() {
+        // Arrange : 50 utilisateurs, 40 événements chacun ; dev0 a déjà un seau pour cette heure
+        Map<String, Map<NotificationType, List<TaskEvent>>> eventsByUser = new LinkedHashMap<>();
+        for (int u = 0; u < 50; u++) {
+            Map<NotificationType, List<TaskEvent>> byType = new EnumMap<>(NotificationType.class);
+            byType.put(NotificationType.TASK_ASSIGNED, events(TaskEvent.Type.ASSIGNED, 25));
+            byType.put(NotificationType.TASK_STATUS_CHANGED, events(TaskEvent.Type.STATUS_CHANGED, 15));
+            eventsByUser.put("dev" + u, byType);
+        }
+        DigestBucket existing = new DigestBucket("dev0", dayStart.plusHours(3));
+        existing.setDeletedCount(2);
+        existing.setSampleTitles("Old task");
+        when(bucketRepository.findForUsers(anyCollection(), eq(dayStart.plusHours(3)))).thenReturn(List.of(existing));
+
+        // Act
+        digestService.recordEvents(eventsByUser, dayStart.plusHours(3).plusMinutes(17));
+
+        // Assert
+        ArgumentCaptor<List<DigestBucket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bucketRepository).saveAll(saved.capture());
+        assertEquals(50, saved.getValue().size());
+        assertTrue(saved.getValue().contains(existing));
+        assertEquals(25, existing.getAssignedCount());
+        assertEquals(15, existing.getStatusChangedCount());
+        assertEquals(2, existing.getDeletedCount());
+        assertEquals("Old task\nTask 0\nTask 1", existing.getSampleTitles());
+        assertTrue(saved.getValue().stream().allMatch(b -> b.getBucketStart().equals(dayStart.plusHours(3))));
+    }
+
+    @Test
+    void sendDigests_shouldSendOneMailPerSubscriberForTheWholeWindow() {
+        // Arrange : 50 abonnés quotidiens, 2 000 événements répartis dans 24 seaux horaires
+        LocalDateTime windowEnd = dayStart.plusDays(1);
+        List<DigestSubscription> subscriptions = new ArrayList<>();
+        List<DigestBucket> buckets = new ArrayList<>();
+        for (int u = 0; u < 50; u++) {
+            String userId = String.format("dev%02d", u);
+            subscriptions.add(new DigestSubscription(userId, userId + "@example.com", "Dev " + u, DigestFrequency.DAILY, dayStart));
+            for (int h = 0; h < 24; h++) {
+                DigestBucket bucket = new DigestBucket(userId, dayStart.plusHours(h));
+                bucket.setStatusChangedCount(h < 16 ? 2 : 1);
+                buckets.add(bucket);
+            }
+        }
+        when(subscriptionRepository.findDue(eq(DigestFrequency.DAILY), eq(windowEnd), eq(""), any(Pageable.class)))
+                .thenReturn(subscriptions);
+        when(bucketRepository.findInWindow(anyCollection(), eq(dayStart), eq(windowEnd))).thenReturn(buckets);
+        when(subscriptionRepository.moveSentUntil(anyString(), eq(dayStart), eq(windowEnd))).thenReturn(1);
+        when(mailSender.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int queued = digestService.sendDigests(DigestFrequency.DAILY, windowEnd);
+
+        // Assert : 50 e-mails et non 2 000
+        assertEquals(50, queued);
+        ArgumentCaptor<DigestMailSender.DigestMail> mails = ArgumentCaptor.forClass(DigestMailSender.DigestMail.class);
+        verify(mailSender, times(50)).send(mails.capture());
+        DigestMailSender.DigestMail first = mails.getAllValues().get(0);
+        assertEquals("dev00@example.com", first.to());
+        assertEquals("Votre résumé AGILIA : 40 mises à jour sur vos tâches", first.subject());
+        assertTrue(first.html().contains("<strong>40</strong> changement(s) de statut"));
+        verify(subscriptionRepository, never()).moveSentUntil(anyString(), eq(windowEnd), eq(dayStart));
+    }
+
+    @Test
+    void sendDigests_shouldSkipWindowsClaimedByAnotherInstanceOrWithoutActivity() {
+        // Arrange
+        LocalDateTime windowEnd = dayStart.plusDays(1);
+        DigestSubscription claimed = new DigestSubscription("a", "a@example.com", null, DigestFrequency.DAILY, dayStart);
+        DigestSubscription idle = new DigestSubscription("b", "b@example.com", null, DigestFrequency.DAILY, dayStart);
+        when(subscriptionRepository.findDue(any(), any(), any(), any(Pageable.class))).thenReturn(List.of(claimed, idle));
+        when(bucketRepository.findInWindow(anyCollection(), any(), any())).thenReturn(List.of());
+        when(subscriptionRepository.moveSentUntil("a", dayStart, windowEnd)).thenReturn(0);
+        when(subscriptionRepository.moveSentUntil("b", dayStart, windowEnd)).thenReturn(1);
+
+        // Act & Assert
+        assertEquals(0, digestService.sendDigests(DigestFrequency.DAILY, windowEnd));
+        verifyNoInteractions(mailSender);
+        verify(subscriptionRepository).moveSentUntil("b", dayStart, windowEnd);
+    }
+
+    @Test
+    void sendDigests_shouldReleaseWindow_whenDeliveryFails() {
+        // Arrange
+        LocalDateTime windowEnd = dayStart.plusHours(1);
+        DigestSubscription subscription = new DigestSubscription("dev1", "dev1@example.com", "Dev", DigestFrequency.HOURLY, dayStart);
+        DigestBucket bucket = new DigestBucket("dev1", dayStart);
+        bucket.setAssignedCount(1);
+        bucket.setSampleTitles("<script>alert(1)</script>");
+        when(subscriptionRepository.findDue(any(), any(), any(), any(Pageable.class))).thenReturn(List.of(subscription));
+        when(bucketRepository.findInWindow(anyCollection(), any(), any())).thenReturn(List.of(bucket));
+        when(subscriptionRepository.moveSentUntil(anyString(), any(), any())).thenReturn(1);
+        when(mailSender.send(any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("SMTP down")));
+
+        // Act
+        digestService.sendDigests(DigestFrequency.HOURLY, windowEnd);
+
+        // Assert : fenêtre rendue pour le prochain passage ; titres échappés
+        verify(subscriptionRepository).moveSentUntil("dev1", dayStart, windowEnd);
+        verify(subscriptionRepository).moveSentUntil("dev1", windowEnd, dayStart);
+        ArgumentCaptor<DigestMailSender.DigestMail> mail = ArgumentCaptor.forClass(DigestMailSender.DigestMail.class);
+        verify(mailSender).send(mail.capture());
+        assertFalse(mail.getValue().html().contains("<script>"));
+    }
+
+    @Test
+    void rememberContact_shouldSubscribeWithDefaultFrequencyOnce() {
+        // Arrange
+        when(subscriptionRepository.findById("dev1")).thenReturn(Optional.empty());
+
+        // Act
+        digestService.rememberContact("dev1", "dev1@example.com", "Dev One");
+        digestService.rememberContact("dev1", "dev1@example.com", "Dev One");
+
+        // Assert
+        ArgumentCaptor<DigestSubscription> saved = ArgumentCaptor.forClass(DigestSubscription.class);
+        verify(subscriptionRepository, times(1)).save(saved.capture());
+        assertEquals(DigestFrequency.DAILY, saved.getValue().getFrequency());
+        assertEquals("dev1@example.com", saved.getValue().getEmail());
+    }
+}
@@ -0,0 +1,171 @@
+package com.notification.notification_service.unit.Service;
+
+import com.notification.notification_service.DTO.CursorPageDTO;
+import com.notification.notification_service.DTO.NotificationDTO;
+import com.notification.notification_service.Entity.Notification;
+import com.notification.notification_service.Entity.UnreadCounter;
+import com.notification.notification_service.Enumeration.NotificationType;
+import com.notification.notification_service.Repository.NotificationRepository;
+import com.notification.notification_service.Repository.UnreadCounterRepository;
+import com.notification.notification_service.Service.NotificationInboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationInboxServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UnreadCounterRepository unreadCounterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationInboxService inboxService;
+    private final LocalDateTime base = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Pages de 2 par défaut, fenêtre récente de 3 notifications
+        inboxService = new NotificationInboxService(notificationRepository, unreadCounterRepository, transactionManager,
+                new SimpleMeterRegistry(), 2, 10, 3, 100, 60000, 5);
+    }
+
+    private Notification notification(long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUserId("dev1");
+        notification.setType(NotificationType.TASK_ASSIGNED);
+        notification.setMessage("Notification " + id);
+        notification.setCreatedAt(base.plusMinutes(id));
+        notification.setUpdatedAt(base.plusMinutes(id));
+        return notification;
+    }
+
+    // Plus récentes d'abord : ids from..to décroissants
+    private List<Notification> newestFirst(long from, long to) {
+        List<Notification> notifications = new ArrayList<>();
+        for (long id = from; id >= to; id--) {
+            notifications.add(notification(id));
+        }
+        return notifications;
+    }
+
+    @Test
+    void list_shouldServeFirstPageFromRecentWindow_andFollowCursorInDatabase() {
+        // Arrange
+        when(notificationRepository.findRecent(eq("dev1"), any(Pageable.class))).thenReturn(newestFirst(10, 7));
+        when(notificationRepository.findPageBefore(eq("dev1"), eq(base.plusMinutes(9)), eq(9L), any(Pageable.class)))
+                .thenReturn(newestFirst(8, 7));
+
+        // Act
+        CursorPageDTO<NotificationDTO> first = inboxService.list("dev1", null, null);
+        CursorPageDTO<NotificationDTO> again = inboxService.list("dev1", null, null);
+        CursorPageDTO<NotificationDTO> second = inboxService.list("dev1", first.getNextCursor(), 2);
+
+        // Assert : la fenêtre (3 + 1 notifications) n'est lue qu'une fois
+        assertEquals(List.of(10L, 9L), first.getItems().stream().map(NotificationDTO::getId).toList());
+        assertNotNull(first.getNextCursor());
+        assertEquals(first.getNextCursor(), again.getNextCursor());
+        ArgumentCaptor<Pageable> window = ArgumentCaptor.forClass(Pageable.class);
+        verify(notificationRepository, times(1)).findRecent(eq("dev1"), window.capture());
+        assertEquals(4, window.getValue().getPageSize());
+        assertEquals(List.of(8L, 7L), second.getItems().stream().map(NotificationDTO::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void list_shouldRejectInvalidCursorAndSize() {
+        assertThrows(IllegalArgumentException.class, () -> inboxService.list("dev1", "not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> inboxService.list("dev1", null, 0));
+    }
+
+    @Test
+    void unreadCount_shouldReadCounterRowOnce_andDefaultToZero() {
+        // Arrange
+        when(unreadCounterRepository.findById("dev1")).thenReturn(Optional.of(new UnreadCounter("dev1", 42)));
+        when(unreadCounterRepository.findById("dev2")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(42, inboxService.unreadCount("dev1"));
+        assertEquals(42, inboxService.unreadCount("dev1"));
+        assertEquals(0, inboxService.unreadCount("dev2"));
+        verify(unreadCounterRepository, times(1)).findById("dev1");
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void markRead_shouldDecrementByRowsActuallyUpdated_andRefreshBadge() {
+        // Arrange : 3 ids demandés (dont un doublon), 1 seul était encore non lu
+        when(unreadCounterRepository.findById("dev1"))
+                .thenReturn(Optional.of(new UnreadCounter("dev1", 5)))
+                .thenReturn(Optional.of(new UnreadCounter("dev1", 4)));
+        when(notificationRepository.markRead(eq("dev1"), anyCollection())).thenReturn(1);
+        assertEquals(5, inboxService.unreadCount("dev1"));
+
+        // Act
+        int unread = inboxService.markRead("dev1", List.of(1L, 2L, 2L, 3L));
+
+        // Assert
+        verify(notificationRepository).markRead("dev1", Set.of(1L, 2L, 3L));
+        verify(unreadCounterRepository).decrement("dev1", 1);
+        assertEquals(4, unread);
+    }
+
+    @Test
+    void markRead_shouldRejectEmptyOrOversizedBatch() {
+        assertThrows(IllegalArgumentException.class, () -> inboxService.markRead("dev1", List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> inboxService.markRead("dev1", List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+        verifyNoInteractions(notificationRepository, unreadCounterRepository);
+    }
+
+    @Test
+    void markAllRead_shouldDecrementByUpdatedRows() {
+        when(notificationRepository.markAllRead("dev1")).thenReturn(7);
+        when(unreadCounterRepository.findById("dev1")).thenReturn(Optional.of(new UnreadCounter("dev1", 0)));
+
+        assertEquals(0, inboxService.markAllRead("dev1"));
+        verify(unreadCounterRepository).decrement("dev1", 7);
+    }
+
+    @Test
+    void notificationsWritten_shouldCreateMissingCounter_andInvalidateCachedBadge() {
+        // Arrange
+        when(unreadCounterRepository.findById("dev1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new UnreadCounter("dev1", 2)));
+        when(unreadCounterRepository.increment("dev1", 2)).thenReturn(0);
+        when(unreadCounterRepository.increment("dev2", 1)).thenReturn(1);
+        assertEquals(0, inboxService.unreadCount("dev1"));
+
+        // Act
+        inboxService.notificationsWritten(Set.of("dev1", "dev2"), Map.of("dev1", 2, "dev2", 1));
+
+        // Assert
+        ArgumentCaptor<UnreadCounter> created = ArgumentCaptor.forClass(UnreadCounter.class);
+        verify(unreadCounterRepository).save(created.capture());
+        assertEquals("dev1", created.getValue().getUserId());
+        assertEquals(2, created.getValue().getUnreadCount());
+        assertEquals(2, inboxService.unreadCount("dev1"));
+    }
+}
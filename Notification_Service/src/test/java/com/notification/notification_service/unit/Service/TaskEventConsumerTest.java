@@ -0,0 +1,201 @@
+package com.notification.notification_service.unit.Service;
+
+import com.notification.notification_service.Entity.Notification;
+import com.notification.notification_service.Entity.ProcessedEvent;
+import com.notification.notification_service.Enumeration.NotificationType;
+import com.notification.notification_service.Repository.NotificationRepository;
+import com.notification.notification_service.Repository.ProcessedEventRepository;
+import com.notification.notification_service.Service.DigestService;
+import com.notification.notification_service.Service.NotificationInboxService;
+import com.notification.notification_service.Service.TaskEventConsumer;
+import com.notification.notification_service.event.TaskEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskEventConsumerTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @Mock
+    private NotificationInboxService inboxService;
+
+    @Mock
+    private DigestService digestService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new TaskEventConsumer(notificationRepository, processedEventRepository, inboxService, digestService, transactionManager,
+                meterRegistry, 30000, 7);
+    }
+
+    private static TaskEvent event(String eventId, TaskEvent.Type type, Long taskId, String status,
+                                   Set<String> assignees, String actor) {
+        return new TaskEvent(1, eventId, type, taskId, 5L, 9L, "Task " + taskId, status, null,
+                assignees, actor, LocalDateTime.now());
+    }
+
+    private static List<ConsumerRecord<String, TaskEvent>> records(List<TaskEvent> events) {
+        List<ConsumerRecord<String, TaskEvent>> records = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            TaskEvent event = events.get(i);
+            records.add(new ConsumerRecord<>("task-events", 0, i, event != null ? event.getTaskId().toString() : null, event));
+        }
+        return records;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTaskEvents_shouldCoalesceBulkReassignmentIntoOneNotificationPerUser() {
+        // Arrange : 300 tâches réassignées par "lead" à "dev1" et "dev2"
+        List<TaskEvent> events = new ArrayList<>();
+        for (long taskId = 1; taskId <= 300; taskId++) {
+            events.add(event("e" + taskId, TaskEvent.Type.ASSIGNED, taskId, "TO_DO", Set.of("dev1", "dev2", "lead"), "lead"));
+        }
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(List.of());
+        when(notificationRepository.findOpenForCoalescing(anyCollection(), any())).thenReturn(List.of());
+
+        // Act
+        consumer.onTaskEvents(records(events), acknowledgment);
+
+        // Assert : une notification par destinataire, l'auteur n'est pas notifié
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        for (Notification notification : saved.getValue()) {
+            assertNotEquals("lead", notification.getUserId());
+            assertEquals(NotificationType.TASK_ASSIGNED, notification.getType());
+            assertNull(notification.getTaskId());
+            assertEquals(300, notification.getTaskCount());
+            assertEquals(300, notification.getEventCount());
+            assertEquals(5L, notification.getProjectId());
+            assertEquals("300 tâches vous ont été assignées", notification.getMessage());
+        }
+        ArgumentCaptor<List<ProcessedEvent>> processed = ArgumentCaptor.forClass(List.class);
+        verify(processedEventRepository).saveAll(processed.capture());
+        assertEquals(300, processed.getValue().size());
+        verify(acknowledgment).acknowledge();
+        assertEquals(2.0, meterRegistry.counter("notifications.created").count());
+        verify(inboxService).notificationsWritten(Set.of("dev1", "dev2"), Map.of("dev1", 1, "dev2", 1));
+        // Digests : les 300 événements sont comptés pour chaque destinataire
+        ArgumentCaptor<Map<String, Map<NotificationType, List<TaskEvent>>>> digest = ArgumentCaptor.forClass(Map.class);
+        verify(digestService).recordEvents(digest.capture(), any());
+        assertEquals(Set.of("dev1", "dev2"), digest.getValue().keySet());
+        assertEquals(300, digest.getValue().get("dev1").get(NotificationType.TASK_ASSIGNED).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTaskEvents_shouldSkipAlreadyProcessedAndRepeatedEvents_andMergeIntoOpenNotification() {
+        // Arrange : e1 déjà traité, e2 livré deux fois ; notification ouverte sur la même tâche pour dev1
+        TaskEvent e1 = event("e1", TaskEvent.Type.STATUS_CHANGED, 7L, "IN_PROGRESS", Set.of("dev1"), "lead");
+        TaskEvent e2 = event("e2", TaskEvent.Type.STATUS_CHANGED, 7L, "DONE", Set.of("dev1"), "lead");
+        Notification open = new Notification();
+        open.setUserId("dev1");
+        open.setType(NotificationType.TASK_STATUS_CHANGED);
+        open.setTaskId(7L);
+        open.setProjectId(5L);
+        open.setTaskCount(1);
+        open.setEventCount(1);
+        open.setCreatedAt(LocalDateTime.now().minusSeconds(10));
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(List.of("e1"));
+        when(notificationRepository.findOpenForCoalescing(anyCollection(), any())).thenReturn(List.of(open));
+
+        // Act
+        consumer.onTaskEvents(records(List.of(e1, e2, e2)), acknowledgment);
+
+        // Assert
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertEquals(List.of(open), saved.getValue());
+        assertEquals(2, open.getEventCount());
+        assertEquals(7L, open.getTaskId());
+        assertEquals("La tâche « Task 7 » est passée au statut DONE", open.getMessage());
+        assertEquals(2.0, meterRegistry.counter("notifications.task-events.duplicates").count());
+        // Regroupée dans une notification déjà non lue : le compteur ne bouge pas
+        verify(inboxService).notificationsWritten(Set.of("dev1"), Map.of());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onTaskEvents_shouldNotAcknowledge_whenPersistenceFails() {
+        // Arrange
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(List.of());
+        when(notificationRepository.findOpenForCoalescing(anyCollection(), any()))
+                .thenThrow(new RuntimeException("database unavailable"));
+        List<ConsumerRecord<String, TaskEvent>> records =
+                records(List.of(event("e1", TaskEvent.Type.CREATED, 1L, "TO_DO", Set.of("dev1"), "lead")));
+
+        // Act & Assert : le lot sera rejoué par le conteneur
+        assertThrows(RuntimeException.class, () -> consumer.onTaskEvents(records, acknowledgment));
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(1, meterRegistry.get("notifications.task-events.batch.duration").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void onTaskEvents_shouldRetryBatch_whenOpenNotificationWasEnrichedConcurrently() {
+        // Arrange : le premier enregistrement perd contre un autre lot (version de la notification)
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(List.of());
+        when(notificationRepository.findOpenForCoalescing(anyCollection(), any())).thenReturn(List.of());
+        when(notificationRepository.saveAll(anyList()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Notification.class, 1L))
+                .thenReturn(List.of());
+        List<ConsumerRecord<String, TaskEvent>> records =
+                records(List.of(event("e1", TaskEvent.Type.CREATED, 1L, "TO_DO", Set.of("dev1"), "lead")));
+
+        // Act
+        consumer.onTaskEvents(records, acknowledgment);
+
+        // Assert : notifications relues puis réécrites, métriques comptées une seule fois
+        verify(notificationRepository, times(2)).findOpenForCoalescing(anyCollection(), any());
+        verify(acknowledgment).acknowledge();
+        assertEquals(1.0, meterRegistry.counter("notifications.created").count());
+    }
+
+    @Test
+    void onTaskEvents_shouldIgnoreUnreadableAndNewerEvents() {
+        TaskEvent newer = new TaskEvent(2, "e9", TaskEvent.Type.CREATED, 1L, 5L, null, "Task 1", "TO_DO", null,
+                Set.of("dev1"), "lead", LocalDateTime.now());
+        List<TaskEvent> events = new ArrayList<>();
+        events.add(newer);
+        events.add(null);
+
+        consumer.onTaskEvents(records(events), acknowledgment);
+
+        verifyNoInteractions(notificationRepository, processedEventRepository);
+        assertEquals(2.0, meterRegistry.counter("notifications.task-events.invalid").count());
+        verify(acknowledgment).acknowledge();
+    }
+}
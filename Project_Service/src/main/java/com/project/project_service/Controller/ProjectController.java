@@ -315,6 +315,25 @@ public class ProjectController {
         }
     }
 
+    @Operation(summary = "Récupérer les dépôts GitHub liés aux projets",
+            description = "Cette méthode retourne, en un seul appel, l'URL du dépôt et l'utilisateur GitHub de chaque projet lié à GitHub.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Liens GitHub récupérés avec succès"),
+            @ApiResponse(responseCode = "500", description = "Erreur serveur lors de la récupération des liens")
+    })
+    @GetMapping("/github-links")
+    public ResponseEntity<List<GitHubLinkDTO>> getGitHubLinks() {
+        try {
+            List<GitHubLinkDTO> links = projectService.getGitHubLinks();
+            LOGGER.info("Retrieved GitHub links: " + links.size() + " projects");
+            return ResponseEntity.ok(links);
+        } catch (Exception e) {
+            LOGGER.severe("Error retrieving GitHub links: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.emptyList());
+        }
+    }
+
     @Operation(summary = "Récupérer les IDs des projets actifs",
             description = "Cette méthode permet de récupérer la liste des IDs des projets actuellement actifs.")
     @ApiResponses(value = {
@@ -238,6 +238,16 @@ public class UserStoryController {
     public List<Long> getUserStoryIdsOfActiveSprint(@PathVariable Long projectId) {
         return userStoryService.getUserStoryIdsOfActiveSprint(projectId);
     }
+
+    @Operation(summary = "Récupérer les IDs des user stories des sprints actifs de plusieurs projets",
+            description = "Cette méthode renvoie, en une seule requête, les IDs des user stories du sprint actif de chaque projet demandé (liste vide si le projet n'a pas de sprint actif).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "IDs des user stories récupérés avec succès")
+    })
+    @GetMapping("/sprint/actif/user_stories")
+    public Map<Long, List<Long>> getUserStoryIdsOfActiveSprints(@RequestParam List<Long> projectIds) {
+        return userStoryService.getUserStoryIdsOfActiveSprints(projectIds);
+    }
     @Operation(summary = "Vérifier et mettre à jour le statut d'une user story",
             description = "Cette méthode permet de vérifier et de mettre à jour le statut d'une user story spécifique dans un projet.")
     @ApiResponses(value = {
@@ -0,0 +1,81 @@
+package com.project.project_service.Entity;
+
+import com.project.project_service.Enumeration.WorkItemStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dernier statut connu d'une tâche, tenu à jour depuis le topic task-events de Task-Service.
+ * Une tâche supprimée reste en ligne (deleted = true) pour qu'un événement plus ancien rejoué ne la
+ * fasse pas réapparaître. lastEventAt : date du dernier événement appliqué, les plus anciens sont ignorés.
+ */
+@Entity
+@Table(name = "story_task_states", indexes = @Index(name = "idx_story_task_states_story", columnList = "user_story_id"))
+public class StoryTaskState {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "user_story_id", nullable = false)
+    private Long userStoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private WorkItemStatus status;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "last_event_at")
+    private LocalDateTime lastEventAt;
+
+    public StoryTaskState() {
+    }
+
+    public StoryTaskState(Long taskId, Long userStoryId) {
+        this.taskId = taskId;
+        this.userStoryId = userStoryId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Long getUserStoryId() {
+        return userStoryId;
+    }
+
+    public void setUserStoryId(Long userStoryId) {
+        this.userStoryId = userStoryId;
+    }
+
+    public WorkItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WorkItemStatus status) {
+        this.status = status;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getLastEventAt() {
+        return lastEventAt;
+    }
+
+    public void setLastEventAt(LocalDateTime lastEventAt) {
+        this.lastEventAt = lastEventAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.project_service.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat des statuts des tâches d'une user story (tâches non supprimées), recalculé à chaque lot
+ * d'événements qui la concerne. Sa présence indique que les tâches existantes ont été chargées une
+ * première fois depuis Task-Service.
+ */
+@Entity
+@Table(name = "user_story_task_stats")
+public class UserStoryTaskStats {
+
+    @Id
+    @Column(name = "user_story_id")
+    private Long userStoryId;
+
+    @Column(name = "total_tasks", nullable = false)
+    private int totalTasks;
+
+    @Column(name = "done_tasks", nullable = false)
+    private int doneTasks;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserStoryTaskStats() {
+    }
+
+    public UserStoryTaskStats(Long userStoryId) {
+        this.userStoryId = userStoryId;
+    }
+
+    // Seuil de passage à DONE : au moins une tâche, toutes terminées
+    public boolean isAllDone() {
+        return totalTasks > 0 && doneTasks == totalTasks;
+    }
+
+    public Long getUserStoryId() {
+        return userStoryId;
+    }
+
+    public void setUserStoryId(Long userStoryId) {
+        this.userStoryId = userStoryId;
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public void setTotalTasks(int totalTasks) {
+        this.totalTasks = totalTasks;
+    }
+
+    public int getDoneTasks() {
+        return doneTasks;
+    }
+
+    public void setDoneTasks(int doneTasks) {
+        this.doneTasks = doneTasks;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
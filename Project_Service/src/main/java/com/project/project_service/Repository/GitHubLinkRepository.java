@@ -1,10 +1,12 @@
 package com.project.project_service.Repository;
 
+import com.project.project_service.DTO.GitHubLinkDTO;
 import com.project.project_service.Entity.GitHubLink;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface GitHubLinkRepository extends JpaRepository<GitHubLink, Long> {
@@ -12,4 +14,9 @@ public interface GitHubLinkRepository extends JpaRepository<GitHubLink, Long> {
 
     @Query("SELECT g FROM GitHubLink g WHERE g.projet.id = :projectId")
     Optional<GitHubLink> findByProjectId(@Param("projectId") Long projectId);
+
+    // Tous les liens en une requête, pour l'ingestion périodique des commits
+    @Query("SELECT new com.project.project_service.DTO.GitHubLinkDTO(g.projet.id, g.repositoryUrl, g.userId) " +
+            "FROM GitHubLink g WHERE g.projet IS NOT NULL AND g.repositoryUrl IS NOT NULL AND g.userId IS NOT NULL")
+    List<GitHubLinkDTO> findAllLinks();
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.project.project_service.Repository;
+
+import com.project.project_service.Entity.StoryTaskState;
+import com.project.project_service.Enumeration.WorkItemStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StoryTaskStateRepository extends JpaRepository<StoryTaskState, Long> {
+    // [userStoryId, nombre de tâches, nombre de tâches au statut done] pour les stories ayant au moins une tâche
+    @Query("SELECT s.userStoryId, COUNT(s), SUM(CASE WHEN s.status = :done THEN 1 ELSE 0 END) FROM StoryTaskState s " +
+            "WHERE s.userStoryId IN :userStoryIds AND s.deleted = false GROUP BY s.userStoryId")
+    List<Object[]> countByUserStory(@Param("userStoryIds") Collection<Long> userStoryIds, @Param("done") WorkItemStatus done);
+}
@@ -2,6 +2,7 @@ package com.project.project_service.Repository;
 
 import com.project.project_service.Entity.Projet;
 import com.project.project_service.Entity.UserStory;
+import com.project.project_service.Enumeration.SprintStatus;
 import com.project.project_service.Enumeration.UserStoryStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,4 +15,8 @@ public interface UserStoryRepository extends JpaRepository<UserStory, Long> {
     List<UserStory> findByProject(Projet projet);
     List<UserStory> findByStatus(UserStoryStatus status);
     List<UserStory> findBySprintId(Long sprintId);  // Méthode de base
+
+    // Couples (id du projet, id de la user story) des sprints ayant ce statut, pour plusieurs projets en une requête
+    @Query("SELECT us.project.id, us.id FROM UserStory us WHERE us.project.id IN :projectIds AND us.sprint.status = :status")
+    List<Object[]> findProjectAndStoryIdsBySprintStatus(@Param("projectIds") List<Long> projectIds, @Param("status") SprintStatus status);
 }
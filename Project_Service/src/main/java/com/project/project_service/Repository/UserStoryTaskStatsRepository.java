@@ -0,0 +1,7 @@
+package com.project.project_service.Repository;
+
+import com.project.project_service.Entity.UserStoryTaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserStoryTaskStatsRepository extends JpaRepository<UserStoryTaskStats, Long> {
+}
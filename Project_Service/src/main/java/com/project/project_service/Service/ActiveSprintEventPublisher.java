@@ -0,0 +1,95 @@
+package com.project.project_service.Service;
+
+import com.project.project_service.Entity.Sprint;
+import com.project.project_service.Entity.UserStory;
+import com.project.project_service.Enumeration.SprintStatus;
+import com.project.project_service.Repository.SprintRepository;
+import com.project.project_service.Repository.UserStoryRepository;
+import com.project.project_service.event.ActiveSprintChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Publie sur sprint-events l'état du sprint actif d'un projet après chaque changement de son contenu.
+ * Le message porte la liste complète des user stories du sprint actif (clé = id du projet, donc ordonné
+ * par projet) : Task-Service remplace sa copie en cache sans rappeler Project_Service.
+ */
+@Service
+public class ActiveSprintEventPublisher {
+
+    public static final String SPRINT_ACTIVATED = "SPRINT_ACTIVATED";
+    public static final String SPRINT_COMPLETED = "SPRINT_COMPLETED";
+    public static final String SPRINT_CANCELED = "SPRINT_CANCELED";
+    public static final String SPRINT_DELETED = "SPRINT_DELETED";
+    public static final String STORY_ASSIGNED = "STORY_ASSIGNED";
+    public static final String STORY_REMOVED = "STORY_REMOVED";
+    public static final String STORY_DELETED = "STORY_DELETED";
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveSprintEventPublisher.class);
+
+    @Value("${sprint.events.topic:sprint-events}")
+    private String topic = "sprint-events";
+
+    @Autowired
+    private KafkaTemplate<String, ActiveSprintChangedEvent> kafkaTemplate;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private UserStoryRepository userStoryRepository;
+
+    public void publish(Long projectId, Long sprintId, String type) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // L'état publié doit être celui validé en base : on attend la fin de la transaction
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(projectId, sprintId, type);
+                }
+            });
+        } else {
+            send(projectId, sprintId, type);
+        }
+    }
+
+    private void send(Long projectId, Long sprintId, String type) {
+        List<Long> activeStoryIds;
+        try {
+            activeStoryIds = activeStoryIds(projectId);
+        } catch (Exception e) {
+            // Sans état fiable, le consommateur invalide son cache et relira à la prochaine demande
+            logger.warn("Impossible de relire le sprint actif du projet {} : {}", projectId, e.getMessage());
+            activeStoryIds = null;
+        }
+        ActiveSprintChangedEvent event = new ActiveSprintChangedEvent(projectId, sprintId, type, activeStoryIds, LocalDateTime.now());
+        try {
+            kafkaTemplate.send(topic, projectId.toString(), event);
+            logger.info("Événement {} publié pour le projet {} (sprint {})", type, projectId, sprintId);
+        } catch (Exception e) {
+            // Le TTL du cache côté Task-Service borne l'écart si le message est perdu
+            logger.error("Échec de publication de l'événement {} pour le projet {} : {}", type, projectId, e.getMessage());
+        }
+    }
+
+    private List<Long> activeStoryIds(Long projectId) {
+        Sprint activeSprint = sprintRepository.findByProjectIdAndStatus(projectId, SprintStatus.ACTIVE);
+        if (activeSprint == null) {
+            return List.of();
+        }
+        return userStoryRepository.findBySprintId(activeSprint.getId())
+                .stream()
+                .map(UserStory::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -7,14 +7,15 @@ import com.project.project_service.Entity.SprintHistory;
 import com.project.project_service.Entity.UserStoryHistory;
 import com.project.project_service.Repository.SprintHistoryRepository;
 import com.project.project_service.Repository.UserStoryHistoryRepository;
-import com.project.project_service.config.AuthClient;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class HistoryService {
@@ -24,7 +25,7 @@ public class HistoryService {
     private final SprintHistoryRepository sprintHistoryRepo;
 
     @Autowired
-    private AuthClient authClient;
+    private UserDirectoryClient userDirectoryClient;
 
 
     public HistoryService(UserStoryHistoryRepository userStoryHistoryRepo, SprintHistoryRepository sprintHistoryRepo) {
@@ -69,20 +70,13 @@ public class HistoryService {
     public List<UserStoryHistoryDto> getUserStoryHistoryWithAuthorNames(Long userStoryId, String userToken) {
         List<UserStoryHistory> history = userStoryHistoryRepo.findByUserStoryIdOrderByDateDesc(userStoryId);
 
-        String bearerToken = "Bearer " + userToken;
-
-        // Pour éviter de faire plusieurs appels vers auth-service pour le même ID
-        Map<String, Map<String, Object>> userCache = new HashMap<>();
+        // Un seul appel (mis en cache) vers auth-service pour tous les auteurs de l'historique
+        Map<String, UserSummary> authors = userDirectoryClient.getUsers(history.stream()
+                .map(h -> h.getAuthor())
+                .collect(Collectors.toSet()));
 
         return history.stream().map(h -> {
-            String authorId = h.getAuthor();
-            Map<String, Object> userDetails = userCache.computeIfAbsent(authorId,
-                    id -> authClient.getUserDetailsByAuthId(id, bearerToken)
-            );
-
-            String firstName = (String) userDetails.getOrDefault("firstName", "Inconnu");
-            String lastName = (String) userDetails.getOrDefault("lastName", "Inconnu");
-            String fullName = firstName + " " + lastName;
+            String fullName = authors.getOrDefault(h.getAuthor(), UserSummary.unknown(h.getAuthor())).fullName();
 
             return new UserStoryHistoryDto(
                     h.getAction(),
@@ -99,20 +93,13 @@ public class HistoryService {
     public List<SprintHistoryDto> getSprintHistoryWithAuthorNames(Long userStoryId, String userToken) {
         List<SprintHistory> history = sprintHistoryRepo.findBySprintIdOrderByDateDesc(userStoryId);
 
-        String bearerToken = "Bearer " + userToken;
-
-        // Pour éviter de faire plusieurs appels vers auth-service pour le même ID
-        Map<String, Map<String, Object>> userCache = new HashMap<>();
+        // Un seul appel (mis en cache) vers auth-service pour tous les auteurs de l'historique
+        Map<String, UserSummary> authors = userDirectoryClient.getUsers(history.stream()
+                .map(h -> h.getAuthor())
+                .collect(Collectors.toSet()));
 
         return history.stream().map(h -> {
-            String authorId = h.getAuthor();
-            Map<String, Object> userDetails = userCache.computeIfAbsent(authorId,
-                    id -> authClient.getUserDetailsByAuthId(id, bearerToken)
-            );
-
-            String firstName = (String) userDetails.getOrDefault("firstName", "Inconnu");
-            String lastName = (String) userDetails.getOrDefault("lastName", "Inconnu");
-            String fullName = firstName + " " + lastName;
+            String fullName = authors.getOrDefault(h.getAuthor(), UserSummary.unknown(h.getAuthor())).fullName();
 
             return new SprintHistoryDto(
                     h.getAction(),
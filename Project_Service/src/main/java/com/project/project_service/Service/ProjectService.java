@@ -12,6 +12,7 @@ import com.project.project_service.Enumeration.StatusProjet;
 import com.project.project_service.Repository.ClientRepository;
 import com.project.project_service.Repository.GitHubLinkRepository;
 import com.project.project_service.Repository.ProjetRepository;
+import com.common.security.JwtTokenVerifier;
 import com.project.project_service.config.AuthClient;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
@@ -42,6 +43,8 @@ public class ProjectService {
     @Autowired
     private AuthClient authClient; // Inject the Feign clien
     @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+    @Autowired
     private GitHubLinkRepository gitHubLinkRepository;
 
     @Autowired
@@ -419,7 +422,7 @@ public class ProjectService {
         LOGGER.info("Tentative de liaison du dépôt GitHub pour le projet ID: " + projectId + ", URL: " + repositoryUrl);
 
         // Extraire userId depuis le token
-        String userId = authClient.decodeToken(authorization);
+        String userId = jwtTokenVerifier.currentUserId(authorization);
         if (userId == null || userId.trim().isEmpty()) {
             LOGGER.warning("userId null ou vide après décodage du token");
             throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -524,6 +527,10 @@ public class ProjectService {
         return Map.of();
     }
 
+    public List<GitHubLinkDTO> getGitHubLinks() {
+        return gitHubLinkRepository.findAllLinks();
+    }
+
     public List<Long> getActiveProjectIds() {
         return projectRepository.findAll()
                 .stream()
@@ -9,7 +9,7 @@ import com.project.project_service.Enumeration.UserStoryStatus;
 import com.project.project_service.Repository.ProjetRepository;
 import com.project.project_service.Repository.SprintRepository;
 import com.project.project_service.Repository.UserStoryRepository;
-import com.project.project_service.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -31,18 +31,22 @@ public class SprintService {
     private ProjetRepository projetRepository;
 
     @Autowired
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Autowired
     private UserStoryRepository userStoryRepository;
 
     @Autowired
     private HistoryService historyService;
+
+    @Autowired
+    private ActiveSprintEventPublisher activeSprintEventPublisher;
+
     @RateLimiter(name = "SprintServiceLimiter", fallbackMethod = "createSprintRateLimiterFallback")
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "createSprintBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "createSprintRetryFallback")
     public SprintDTO createSprint(Long projectId, SprintDTO request, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -116,7 +120,7 @@ public class SprintService {
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "updateSprintBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "updateSprintRetryFallback")
     public SprintDTO updateSprint(Long projectId, Long sprintId, SprintDTO request, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -184,7 +188,11 @@ public class SprintService {
             throw new RuntimeException("Le Sprint n'appartient pas à ce projet");
         }
 
+        boolean wasActive = sprint.getStatus() == SprintStatus.ACTIVE;
         sprintRepository.delete(sprint);
+        if (wasActive) {
+            activeSprintEventPublisher.publish(projectId, sprintId, ActiveSprintEventPublisher.SPRINT_DELETED);
+        }
 
         // Ajout de l'historique de suppression
         historyService.addSprintHistory(
@@ -214,7 +222,7 @@ public class SprintService {
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "updateSprintStatusBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "updateSprintStatusRetryFallback")
     public SprintDTO updateSprintStatus(Long projectId, Long sprintId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -237,6 +245,7 @@ public class SprintService {
                 }
             });
             sprintRepository.save(sprint);
+            activeSprintEventPublisher.publish(projectId, sprint.getId(), ActiveSprintEventPublisher.SPRINT_COMPLETED);
             historyService.addSprintHistory(
                     sprint.getId(),
                     "UPDATE_STATUS", // Action
@@ -265,7 +274,7 @@ public class SprintService {
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "cancelSprintBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "cancelSprintRetryFallback")
     public SprintDTO cancelSprint(Long projectId, Long sprintId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -277,6 +286,7 @@ public class SprintService {
         }
 
         if (sprint.getStatus() == SprintStatus.ACTIVE || sprint.getStatus() == SprintStatus.PLANNED) {
+            boolean wasActive = sprint.getStatus() == SprintStatus.ACTIVE;
             sprint.setStatus(SprintStatus.CANCELED);
             sprint.getUserStories().forEach(us -> {
                 us.setSprint(null);
@@ -284,6 +294,9 @@ public class SprintService {
                 userStoryRepository.save(us);
             });
             Sprint updatedSprint = sprintRepository.save(sprint);
+            if (wasActive) {
+                activeSprintEventPublisher.publish(projectId, updatedSprint.getId(), ActiveSprintEventPublisher.SPRINT_CANCELED);
+            }
             // Ajout de l'historique d'annulation
             historyService.addSprintHistory(
                     updatedSprint.getId(),
@@ -314,7 +327,7 @@ public class SprintService {
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "archiveSprintBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "archiveSprintRetryFallback")
     public SprintDTO archiveSprint(Long projectId, Long sprintId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -360,7 +373,7 @@ public class SprintService {
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "activateSprintBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "activateSprintRetryFallback")
     public SprintDTO activateSprint(Long projectId, Long sprintId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -390,6 +403,7 @@ public class SprintService {
         });
 
         Sprint updatedSprint = sprintRepository.save(sprint);
+        activeSprintEventPublisher.publish(projectId, updatedSprint.getId(), ActiveSprintEventPublisher.SPRINT_ACTIVATED);
 
         // Ajout de l'historique d'activation
         historyService.addSprintHistory(
@@ -464,11 +478,15 @@ public class SprintService {
     @Bulkhead(name = "SprintServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "checkAndUpdateSprintStatusBulkheadFallback")
     @Retry(name = "SprintServiceRetry", fallbackMethod = "checkAndUpdateSprintStatusRetryFallback")
     public SprintDTO checkAndUpdateSprintStatus(Long projectId, Long sprintId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
+        return completeSprintIfAllStoriesDone(projectId, sprintId, userIdStr);
+    }
 
+    // Sans token : appelé aussi quand une user story passe à DONE sur un événement de tâche (userIdStr = "system-task")
+    public SprintDTO completeSprintIfAllStoriesDone(Long projectId, Long sprintId, String userIdStr) {
         Sprint sprint = sprintRepository.findById(sprintId)
                 .orElseThrow(() -> new RuntimeException("Sprint non trouvé avec l'ID: " + sprintId));
 
@@ -482,8 +500,12 @@ public class SprintService {
 
         // Mettre à jour le statut si toutes les User Stories sont DONE
         if (allUserStoriesDone && sprint.getStatus() != SprintStatus.COMPLETED) {
+            boolean wasActive = sprint.getStatus() == SprintStatus.ACTIVE;
             sprint.setStatus(SprintStatus.COMPLETED);
             Sprint updatedSprint = sprintRepository.save(sprint);
+            if (wasActive) {
+                activeSprintEventPublisher.publish(projectId, updatedSprint.getId(), ActiveSprintEventPublisher.SPRINT_COMPLETED);
+            }
             historyService.addSprintHistory(
                     updatedSprint.getId(),
                     "UPDATE_STATUS",
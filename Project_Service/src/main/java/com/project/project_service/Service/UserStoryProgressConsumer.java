@@ -0,0 +1,222 @@
+package com.project.project_service.Service;
+
+import com.project.project_service.DTO.TaskDTO;
+import com.project.project_service.Entity.StoryTaskState;
+import com.project.project_service.Entity.UserStory;
+import com.project.project_service.Entity.UserStoryTaskStats;
+import com.project.project_service.Enumeration.SprintStatus;
+import com.project.project_service.Enumeration.UserStoryStatus;
+import com.project.project_service.Enumeration.WorkItemStatus;
+import com.project.project_service.Repository.StoryTaskStateRepository;
+import com.project.project_service.Repository.UserStoryRepository;
+import com.project.project_service.Repository.UserStoryTaskStatsRepository;
+import com.project.project_service.config.TaskClient;
+import com.project.project_service.event.TaskEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Statut des user stories piloté par les événements de tâches (topic task-events de Task-Service),
+ * à la place de l'ancien balayage périodique et du rappel synchrone de Task-Service.
+ * <ul>
+ *   <li>chaque lot met à jour le dernier statut connu de ses tâches (story_task_states) puis recalcule,
+ *       en une requête groupée, l'agrégat des seules stories touchées (user_story_task_stats) ;</li>
+ *   <li>la story passe à DONE quand l'agrégat franchit le seuil « toutes les tâches DONE », et revient
+ *       à son statut de sprint quand il le repasse dans l'autre sens ; le sprint est alors vérifié ;</li>
+ *   <li>la première fois qu'une story est vue, ses tâches existantes sont chargées depuis Task-Service ;
+ *       si ce chargement échoue, le lot n'est pas acquitté et sera rejoué ;</li>
+ *   <li>l'application est idempotente (dernier statut par tâche, événements plus anciens ignorés) :
+ *       un lot rejoué après échec ou un événement relivré ne fausse pas les agrégats.</li>
+ * </ul>
+ * Offsets validés après le commit de la transaction du lot.
+ */
+@Service
+public class UserStoryProgressConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStoryProgressConsumer.class);
+    public static final String SYSTEM_ACTOR = "system-task";
+
+    @Autowired
+    private StoryTaskStateRepository storyTaskStateRepository;
+
+    @Autowired
+    private UserStoryTaskStatsRepository userStoryTaskStatsRepository;
+
+    @Autowired
+    private UserStoryRepository userStoryRepository;
+
+    @Autowired
+    private TaskClient taskClient;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private SprintService sprintService;
+
+    @KafkaListener(topics = "${task-events.topic:task-events}",
+            groupId = "${task-events.story-progress.group:project-service}",
+            concurrency = "${task-events.story-progress.concurrency:3}",
+            batch = "true",
+            properties = {"spring.json.value.default.type=com.project.project_service.event.TaskEvent",
+                    "spring.json.use.type.headers=false"})
+    @Transactional
+    public void onTaskEvents(List<ConsumerRecord<String, TaskEvent>> records, Acknowledgment acknowledgment) {
+        List<TaskEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, TaskEvent> record : records) {
+            TaskEvent event = record.value();
+            // Valeur null : désérialisation impossible (ErrorHandlingDeserializer)
+            if (event == null || event.getVersion() > TaskEvent.SCHEMA_VERSION || event.getType() == null
+                    || event.getTaskId() == null) {
+                logger.warn("Événement de tâche ignoré : {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            // Tâche hors user story : sans effet sur les statuts de stories
+            if (event.getUserStoryId() != null) {
+                events.add(event);
+            }
+        }
+        if (!events.isEmpty()) {
+            apply(events);
+        }
+        // Validé après le commit : acquittement différé par le conteneur jusqu'au retour du listener
+        acknowledgment.acknowledge();
+    }
+
+    private void apply(List<TaskEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> projectByStory = new LinkedHashMap<>();
+        Set<Long> taskIds = new LinkedHashSet<>();
+        for (TaskEvent event : events) {
+            projectByStory.putIfAbsent(event.getUserStoryId(), event.getProjectId());
+            taskIds.add(event.getTaskId());
+        }
+
+        Map<Long, UserStoryTaskStats> stats = userStoryTaskStatsRepository.findAllById(projectByStory.keySet()).stream()
+                .collect(Collectors.toMap(UserStoryTaskStats::getUserStoryId, Function.identity()));
+        Map<Long, StoryTaskState> states = storyTaskStateRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(StoryTaskState::getTaskId, Function.identity(), (a, b) -> a, HashMap::new));
+
+        // Première fois que la story est vue : ses tâches antérieures au flux d'événements sont chargées une fois.
+        // L'instantané est plus récent que tous les événements du lot, qui sont donc ignorés pour ces tâches.
+        for (Map.Entry<Long, Long> story : projectByStory.entrySet()) {
+            if (!stats.containsKey(story.getKey())) {
+                seed(story.getValue(), story.getKey(), states, now);
+            }
+        }
+
+        for (TaskEvent event : events) {
+            StoryTaskState state = states.computeIfAbsent(event.getTaskId(),
+                    taskId -> new StoryTaskState(taskId, event.getUserStoryId()));
+            if (state.getLastEventAt() != null && event.getOccurredAt() != null
+                    && event.getOccurredAt().isBefore(state.getLastEventAt())) {
+                continue;
+            }
+            state.setUserStoryId(event.getUserStoryId());
+            if (event.getStatus() != null) {
+                state.setStatus(parseStatus(event));
+            }
+            state.setDeleted(event.getType() == TaskEvent.Type.DELETED);
+            state.setLastEventAt(event.getOccurredAt() != null ? event.getOccurredAt() : now);
+        }
+        storyTaskStateRepository.saveAll(states.values());
+
+        // Agrégats recalculés pour les seules stories du lot
+        Map<Long, Object[]> counts = storyTaskStateRepository.countByUserStory(projectByStory.keySet(), WorkItemStatus.DONE)
+                .stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+        List<Long> crossed = new ArrayList<>();
+        List<UserStoryTaskStats> toSave = new ArrayList<>(projectByStory.size());
+        for (Long storyId : projectByStory.keySet()) {
+            UserStoryTaskStats storyStats = stats.get(storyId);
+            boolean wasAllDone = storyStats != null && storyStats.isAllDone();
+            if (storyStats == null) {
+                storyStats = new UserStoryTaskStats(storyId);
+            }
+            Object[] row = counts.get(storyId);
+            storyStats.setTotalTasks(row != null ? ((Number) row[1]).intValue() : 0);
+            storyStats.setDoneTasks(row != null && row[2] != null ? ((Number) row[2]).intValue() : 0);
+            storyStats.setUpdatedAt(now);
+            toSave.add(storyStats);
+            if (storyStats.isAllDone() != wasAllDone) {
+                crossed.add(storyId);
+            }
+        }
+        userStoryTaskStatsRepository.saveAll(toSave);
+
+        if (!crossed.isEmpty()) {
+            Map<Long, UserStoryTaskStats> byStory = toSave.stream()
+                    .collect(Collectors.toMap(UserStoryTaskStats::getUserStoryId, Function.identity()));
+            for (UserStory story : userStoryRepository.findAllById(crossed)) {
+                applyThreshold(story, byStory.get(story.getId()).isAllDone());
+            }
+        }
+    }
+
+    // Task-Service indisponible : le fallback lève une exception, le lot est annulé et rejoué (KafkaConsumerConfig)
+    private void seed(Long projectId, Long userStoryId, Map<Long, StoryTaskState> states, LocalDateTime now) {
+        List<TaskDTO> tasks = taskClient.getTasksByProjectAndUserStoryInternal(projectId, userStoryId);
+        logger.info("Agrégat de la User Story {} initialisé avec {} tâche(s) de Task-Service", userStoryId, tasks.size());
+        for (TaskDTO task : tasks) {
+            StoryTaskState state = states.computeIfAbsent(task.getId(), taskId -> new StoryTaskState(taskId, userStoryId));
+            state.setUserStoryId(userStoryId);
+            state.setStatus(task.getStatus());
+            state.setDeleted(false);
+            state.setLastEventAt(now);
+        }
+    }
+
+    private static WorkItemStatus parseStatus(TaskEvent event) {
+        try {
+            return WorkItemStatus.valueOf(event.getStatus());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Statut de tâche inconnu {} pour la tâche {}", event.getStatus(), event.getTaskId());
+            return null;
+        }
+    }
+
+    private void applyThreshold(UserStory story, boolean allDone) {
+        UserStoryStatus status = story.getStatus();
+        if (status == UserStoryStatus.CANCELED || status == UserStoryStatus.ARCHIVED) {
+            return;
+        }
+        Long projectId = story.getProject().getId();
+        if (allDone && status != UserStoryStatus.DONE) {
+            logger.info("Toutes les tâches de la User Story {} sont DONE : passage à DONE", story.getId());
+            story.setStatus(UserStoryStatus.DONE);
+            userStoryRepository.save(story);
+            historyService.addUserStoryHistory(story.getId(), "UPDATE_STATUS", SYSTEM_ACTOR,
+                    "User Story marquée comme DONE : " + story.getTitle());
+            if (story.getSprint() != null) {
+                sprintService.completeSprintIfAllStoriesDone(projectId, story.getSprint().getId(), SYSTEM_ACTOR);
+            }
+        } else if (!allDone && status == UserStoryStatus.DONE) {
+            // Une tâche a quitté DONE (ou une tâche a été ajoutée) : la story reprend son statut de sprint
+            UserStoryStatus reopened = story.getSprint() == null ? UserStoryStatus.BACKLOG
+                    : story.getSprint().getStatus() == SprintStatus.ACTIVE ? UserStoryStatus.IN_PROGRESS
+                    : UserStoryStatus.SELECTED_FOR_SPRINT;
+            logger.info("User Story {} rouverte ({}) : ses tâches ne sont plus toutes DONE", story.getId(), reopened);
+            story.setStatus(reopened);
+            userStoryRepository.save(story);
+            historyService.addUserStoryHistory(story.getId(), "UPDATE_STATUS", SYSTEM_ACTOR,
+                    "User Story rouverte : " + story.getTitle());
+        }
+    }
+}
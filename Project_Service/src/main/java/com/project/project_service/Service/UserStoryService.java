@@ -15,15 +15,13 @@ import com.project.project_service.Repository.ProjetRepository;
 import com.project.project_service.Repository.SprintRepository;
 import com.project.project_service.Repository.TagRepository;
 import com.project.project_service.Repository.UserStoryRepository;
-import com.project.project_service.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.project.project_service.config.TaskClient;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.apache.catalina.User;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
@@ -31,12 +29,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
 @Service
-@EnableScheduling
 public class UserStoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserStoryService.class);
@@ -52,7 +51,7 @@ public class UserStoryService {
     @Autowired
     private TagRepository tagRepository;
     @Autowired
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Autowired
     private TaskClient taskClient;
@@ -62,6 +61,9 @@ public class UserStoryService {
     @Autowired
     private SprintService sprintService;
 
+    @Autowired
+    private ActiveSprintEventPublisher activeSprintEventPublisher;
+
     private UserStoryDTO convertToDTO(UserStory userStory) {
         return new UserStoryDTO(userStory);
     }
@@ -73,7 +75,7 @@ public class UserStoryService {
         System.out.println("Début de createUserStory pour projectId: " + projectId);
         System.out.println("Données reçues: " + request);
 
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -132,7 +134,7 @@ public class UserStoryService {
     @Retry(name = "UserStoryServiceRetry", fallbackMethod = "updateUserStoryRetryFallback")
     public UserStoryDTO updateUserStory(Long projectId, Long userStoryId, UserStoryRequest request, String token) {
 
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             System.out.println("Étape 1 échouée: Token invalide ou utilisateur non identifié");
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
@@ -241,7 +243,11 @@ public class UserStoryService {
         if (!userStory.getProject().getId().equals(projectId)) {
             throw new RuntimeException("La User Story n'appartient pas à ce projet");
         }
+        Sprint storySprint = userStory.getSprint();
         userStoryRepository.delete(userStory);
+        if (storySprint != null && storySprint.getStatus() == SprintStatus.ACTIVE) {
+            activeSprintEventPublisher.publish(projectId, storySprint.getId(), ActiveSprintEventPublisher.STORY_DELETED);
+        }
         // Ajout de l'historique de suppression
         historyService.addUserStoryHistory(
                 userStory.getId(),
@@ -270,7 +276,7 @@ public class UserStoryService {
     @Bulkhead(name = "UserStoryServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "assignUserStoryToSprintBulkheadFallback")
     @Retry(name = "UserStoryServiceRetry", fallbackMethod = "assignUserStoryToSprintRetryFallback")
     public UserStoryDTO assignUserStoryToSprint(Long projectId, Long userStoryId, Long sprintId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -310,9 +316,14 @@ public class UserStoryService {
                 }
             }
         }
+        Sprint previousSprint = userStory.getSprint();
         userStory.setSprint(sprint);
         updateStatusBasedOnDependencies(userStory, token); // Recalculer le statut
         UserStory updatedUserStory = userStoryRepository.save(userStory);
+        if (sprint.getStatus() == SprintStatus.ACTIVE
+                || (previousSprint != null && previousSprint.getStatus() == SprintStatus.ACTIVE)) {
+            activeSprintEventPublisher.publish(projectId, sprint.getId(), ActiveSprintEventPublisher.STORY_ASSIGNED);
+        }
 
         // Ajout de l'historique de suppression
         historyService.addUserStoryHistory(
@@ -343,7 +354,7 @@ public class UserStoryService {
     @Bulkhead(name = "UserStoryServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "removeUserStoryFromSprintBulkheadFallback")
     @Retry(name = "UserStoryServiceRetry", fallbackMethod = "removeUserStoryFromSprintRetryFallback")
     public UserStoryDTO removeUserStoryFromSprint(Long projectId, Long userStoryId, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -358,9 +369,13 @@ public class UserStoryService {
         }
 
         // Retirer le sprint (mettre à null)
+        Sprint previousSprint = userStory.getSprint();
         userStory.setSprint(null);
         userStory.setStatus(UserStoryStatus.BACKLOG); // Remettre à "BACKLOG" lorsqu'elle est retirée
         UserStory updatedUserStory = userStoryRepository.save(userStory);
+        if (previousSprint != null && previousSprint.getStatus() == SprintStatus.ACTIVE) {
+            activeSprintEventPublisher.publish(projectId, previousSprint.getId(), ActiveSprintEventPublisher.STORY_REMOVED);
+        }
 
         // Ajout de l'historique de suppression
         historyService.addUserStoryHistory(
@@ -390,7 +405,7 @@ public class UserStoryService {
     @Bulkhead(name = "UserStoryServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "updateDependenciesBulkheadFallback")
     @Retry(name = "UserStoryServiceRetry", fallbackMethod = "updateDependenciesRetryFallback")
     public UserStoryDTO updateDependencies(Long projectId, Long userStoryId, List<Long> newDependsOn, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -440,7 +455,7 @@ public class UserStoryService {
     @Bulkhead(name = "UserStoryServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "updateUserStoryStatusBulkheadFallback")
     @Retry(name = "UserStoryServiceRetry", fallbackMethod = "updateUserStoryStatusRetryFallback")
     public UserStoryDTO updateUserStoryStatus(Long projectId, Long userStoryId, String newStatus, String token) {
-        String userIdStr = authClient.decodeToken(token);
+        String userIdStr = jwtTokenVerifier.currentUserId(token);
         if (userIdStr == null) {
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
         }
@@ -591,26 +606,23 @@ public class UserStoryService {
                 .collect(Collectors.toList());
     }
 
+    public Map<Long, List<Long>> getUserStoryIdsOfActiveSprints(List<Long> projectIds) {
+        Map<Long, List<Long>> storyIdsByProject = new LinkedHashMap<>();
+        if (projectIds == null || projectIds.isEmpty()) return storyIdsByProject;
 
-    @Scheduled(fixedRate = 120000) // Toutes les minutes
-    @Transactional
-    public void checkStaleUserStories() {
-        logger.info("Checking for stale UserStories");
-        List<UserStory> inProgressStories = userStoryRepository.findByStatus(UserStoryStatus.IN_PROGRESS);
-        for (UserStory story : inProgressStories) {
-            logger.info("Checking UserStory {} in Project {}", story.getId(), story.getProject().getId());
-            try {
-                checkAndUpdateUserStoryStatus(story.getProject().getId(), story.getId(), null); // Pas de token pour tâche planifiée
-            } catch (Exception e) {
-                logger.error("Failed to check UserStory {}: {}", story.getId(), e.getMessage(), e);
-            }
+        // Chaque projet demandé est présent dans la réponse, avec une liste vide s'il n'a pas de sprint actif
+        projectIds.forEach(projectId -> storyIdsByProject.put(projectId, new ArrayList<>()));
+        for (Object[] row : userStoryRepository.findProjectAndStoryIdsBySprintStatus(projectIds, SprintStatus.ACTIVE)) {
+            storyIdsByProject.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
         }
+        return storyIdsByProject;
     }
 
+
     public UserStoryDTO checkAndUpdateUserStoryStatus(Long projectId, Long userStoryId, String token) {
         logger.info("Starting checkAndUpdateUserStoryStatus for UserStory {} in Project {}", userStoryId, projectId);
 
-        String userIdStr = token != null ? authClient.decodeToken(token) : "system-task"; // Utiliser system-task si pas de token
+        String userIdStr = token != null ? jwtTokenVerifier.currentUserId(token) : "system-task"; // Utiliser system-task si pas de token
         if (userIdStr == null && token != null) {
             logger.error("Invalid token: unable to extract user ID");
             throw new IllegalArgumentException("Token invalide ou utilisateur non identifié");
@@ -21,9 +21,6 @@ public interface AuthClient {
 
 
 
-    // Nouvelle méthode pour décoder le token
-    @GetMapping("/api/auth/decode-token")
-    String decodeToken(@RequestHeader("Authorization") String authorization);
 
 
 }
@@ -17,8 +17,4 @@ public class AuthClientFallback implements AuthClient {
     public Map<String, Object> getUserDetailsByAuthId(String authId, String authorization) {
         return Map.of("authId", authId, "fallback", true);
     }
-    @Override
-    public String decodeToken(String authorization) {
-        return "fallback-token";
-    }
 }
@@ -0,0 +1,22 @@
+package com.project.project_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Gestion d'erreur des consommateurs Kafka : un lot en échec (Task-Service indisponible, base en erreur)
+ * est relu à intervalle fixe sans limite de tentatives. Le gestionnaire par défaut abandonne le lot
+ * après 10 essais et valide ses offsets, ce qui perdrait des événements de tâches.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public CommonErrorHandler kafkaErrorHandler(@Value("${task-events.retry-interval-ms:5000}") long retryIntervalMs) {
+        return new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+}
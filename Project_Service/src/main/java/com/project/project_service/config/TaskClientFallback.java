@@ -18,9 +18,10 @@ public class TaskClientFallback implements TaskClient{
         return List.of();
     }
 
+// Pas de liste vide : elle serait prise pour « aucune tâche » (agrégat de story faux, story et sprint clos à tort)
 @Override
 public List<TaskDTO> getTasksByProjectAndUserStoryInternal(Long projectId, Long userStoryId){
-     return List.of();
+     throw new IllegalStateException("Task-Service indisponible : tâches de la User Story " + userStoryId + " non chargées");
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.project.project_service.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publié sur le topic sprint-events quand le contenu du sprint actif d'un projet change
+ * (activation, clôture, annulation, affectation ou retrait d'une user story).
+ * activeStoryIds est l'état complet après le changement, pour que le consommateur remplace sa copie
+ * sans rappeler Project_Service ; null signifie « à relire ».
+ */
+public class ActiveSprintChangedEvent {
+    @JsonProperty("projectId")
+    private final Long projectId;
+
+    @JsonProperty("sprintId")
+    private final Long sprintId;
+
+    @JsonProperty("type")
+    private final String type;
+
+    @JsonProperty("activeStoryIds")
+    private final List<Long> activeStoryIds;
+
+    @JsonProperty("occurredAt")
+    private final LocalDateTime occurredAt;
+
+    public ActiveSprintChangedEvent(
+            @JsonProperty("projectId") Long projectId,
+            @JsonProperty("sprintId") Long sprintId,
+            @JsonProperty("type") String type,
+            @JsonProperty("activeStoryIds") List<Long> activeStoryIds,
+            @JsonProperty("occurredAt") LocalDateTime occurredAt) {
+        this.projectId = projectId;
+        this.sprintId = sprintId;
+        this.type = type;
+        this.activeStoryIds = activeStoryIds;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public Long getSprintId() {
+        return sprintId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<Long> getActiveStoryIds() {
+        return activeStoryIds;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
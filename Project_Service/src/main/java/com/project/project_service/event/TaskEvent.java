@@ -0,0 +1,141 @@
+package com.project.project_service.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Copie de l'événement publié par Task-Service sur le topic task-events (clé = id de la tâche).
+ * Schéma versionné (v) : un consommateur ignore les versions qu'il ne connaît pas ; les champs
+ * sans objet pour un type sont omis. eventId est unique et sert à dédoublonner (livraison au moins une fois).
+ * assigneeIds = utilisateurs assignés à la tâche après l'action (destinataires des notifications).
+ * <ul>
+ *   <li>CREATED : tâche créée ;</li>
+ *   <li>STATUS_CHANGED : status et previousStatus ;</li>
+ *   <li>ASSIGNED : liste des utilisateurs assignés modifiée ;</li>
+ *   <li>DELETED : sans status.</li>
+ * </ul>
+ * actorId est null pour une action système (commit GitHub).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEvent {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    public enum Type {
+        CREATED, STATUS_CHANGED, ASSIGNED, DELETED
+    }
+
+    @JsonProperty("v")
+    private final int version;
+
+    @JsonProperty("eventId")
+    private final String eventId;
+
+    @JsonProperty("type")
+    private final Type type;
+
+    @JsonProperty("taskId")
+    private final Long taskId;
+
+    @JsonProperty("projectId")
+    private final Long projectId;
+
+    @JsonProperty("userStoryId")
+    private final Long userStoryId;
+
+    @JsonProperty("title")
+    private final String title;
+
+    @JsonProperty("status")
+    private final String status;
+
+    @JsonProperty("previousStatus")
+    private final String previousStatus;
+
+    @JsonProperty("assigneeIds")
+    private final Set<String> assigneeIds;
+
+    @JsonProperty("actorId")
+    private final String actorId;
+
+    @JsonProperty("occurredAt")
+    private final LocalDateTime occurredAt;
+
+    public TaskEvent(
+            @JsonProperty("v") int version,
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("type") Type type,
+            @JsonProperty("taskId") Long taskId,
+            @JsonProperty("projectId") Long projectId,
+            @JsonProperty("userStoryId") Long userStoryId,
+            @JsonProperty("title") String title,
+            @JsonProperty("status") String status,
+            @JsonProperty("previousStatus") String previousStatus,
+            @JsonProperty("assigneeIds") Set<String> assigneeIds,
+            @JsonProperty("actorId") String actorId,
+            @JsonProperty("occurredAt") LocalDateTime occurredAt) {
+        this.version = version;
+        this.eventId = eventId;
+        this.type = type;
+        this.taskId = taskId;
+        this.projectId = projectId;
+        this.userStoryId = userStoryId;
+        this.title = title;
+        this.status = status;
+        this.previousStatus = previousStatus;
+        this.assigneeIds = assigneeIds;
+        this.actorId = actorId;
+        this.occurredAt = occurredAt;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public Long getUserStoryId() {
+        return userStoryId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Set<String> getAssigneeIds() {
+        return assigneeIds;
+    }
+
+    public String getActorId() {
+        return actorId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
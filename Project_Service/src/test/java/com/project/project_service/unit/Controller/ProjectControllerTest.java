@@ -2,6 +2,7 @@ package com.project.project_service.unit.Controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.project_service.Controller.ProjectController;
+import com.project.project_service.DTO.GitHubLinkDTO;
 import com.project.project_service.DTO.ManagerDTO;
 import com.project.project_service.DTO.ProjectDTO;
 import com.project.project_service.DTO.ProjectResponseWithRoleDTO;
@@ -454,4 +455,22 @@ public class ProjectControllerTest {
         // Verify interactions
         verify(projectService).getActiveProjectIds();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getGitHubLinks_shouldReturnAllLinksInOneCall() throws Exception {
+        // Arrange
+        when(projectService.getGitHubLinks()).thenReturn(List.of(
+                new GitHubLinkDTO(1L, "https://github.com/test/repo", "user-1")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/github-links")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].projectId").value(1))
+                .andExpect(jsonPath("$[0].repositoryUrl").value("https://github.com/test/repo"))
+                .andExpect(jsonPath("$[0].userId").value("user-1"));
+
+        // Verify interactions
+        verify(projectService).getGitHubLinks();
+    }
+}
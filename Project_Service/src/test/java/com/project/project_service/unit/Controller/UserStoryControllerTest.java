@@ -517,6 +517,26 @@ public class UserStoryControllerTest {
         verify(userStoryService).getUserStoryIdsOfActiveSprint(projectId);
     }
 
+    @Test
+    void getUserStoryIdsOfActiveSprints_shouldReturnIdsByProject() throws Exception {
+        // Arrange
+        Map<Long, List<Long>> idsByProject = new LinkedHashMap<>();
+        idsByProject.put(1L, Arrays.asList(10L, 11L));
+        idsByProject.put(2L, Collections.emptyList());
+
+        when(userStoryService.getUserStoryIdsOfActiveSprints(Arrays.asList(1L, 2L))).thenReturn(idsByProject);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/projects/sprint/actif/user_stories").param("projectIds", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['1'][0]").value(10L))
+                .andExpect(jsonPath("$['1'][1]").value(11L))
+                .andExpect(jsonPath("$['2']").isEmpty());
+
+        // Verify interactions
+        verify(userStoryService).getUserStoryIdsOfActiveSprints(Arrays.asList(1L, 2L));
+    }
+
     @Test
     void checkAndUpdateUserStoryStatus_shouldReturnOk_whenSuccessful() throws Exception {
         // Arrange
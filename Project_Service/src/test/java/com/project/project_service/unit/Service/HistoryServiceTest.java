@@ -7,7 +7,8 @@ import com.project.project_service.Entity.UserStoryHistory;
 import com.project.project_service.Repository.SprintHistoryRepository;
 import com.project.project_service.Repository.UserStoryHistoryRepository;
 import com.project.project_service.Service.HistoryService;
-import com.project.project_service.config.AuthClient;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +19,9 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,7 +37,7 @@ class HistoryServiceTest {
     private SprintHistoryRepository sprintHistoryRepo;
 
     @Mock
-    private AuthClient authClient;
+    private UserDirectoryClient userDirectoryClient;
 
     @InjectMocks
     private HistoryService historyService;
@@ -134,11 +135,8 @@ class HistoryServiceTest {
         // Arrange
         when(userStoryHistoryRepo.findByUserStoryIdOrderByDateDesc(userStoryId))
                 .thenReturn(Collections.singletonList(userStoryHistory));
-        Map<String, Object> userDetails = new HashMap<>();
-        userDetails.put("firstName", "John");
-        userDetails.put("lastName", "Doe");
-        when(authClient.getUserDetailsByAuthId(eq(authorId), eq("Bearer " + userToken)))
-                .thenReturn(userDetails);
+        when(userDirectoryClient.getUsers(Set.of(authorId)))
+                .thenReturn(Map.of(authorId, new UserSummary(authorId, "John", "Doe", "", true)));
 
         // Act
         List<UserStoryHistoryDto> result = historyService.getUserStoryHistoryWithAuthorNames(userStoryId, userToken);
@@ -151,18 +149,18 @@ class HistoryServiceTest {
         assertEquals("John Doe", dto.getAuthorFullName());
         assertEquals("User story created", dto.getDescription());
         verify(userStoryHistoryRepo, times(1)).findByUserStoryIdOrderByDateDesc(userStoryId);
-        verify(authClient, times(1)).getUserDetailsByAuthId(authorId, "Bearer " + userToken);
+        verify(userDirectoryClient, times(1)).getUsers(Set.of(authorId));
     }
 
 
     @Test
     void testGetUserStoryHistoryWithAuthorNames_UnknownAuthor() {
         // Arrange
-        ReflectionTestUtils.setField(historyService, "authClient", authClient); // Inject authClient manually
+        ReflectionTestUtils.setField(historyService, "userDirectoryClient", userDirectoryClient); // Inject userDirectoryClient manually
         when(userStoryHistoryRepo.findByUserStoryIdOrderByDateDesc(userStoryId))
                 .thenReturn(Collections.singletonList(userStoryHistory));
-        when(authClient.getUserDetailsByAuthId(authorId, "Bearer " + userToken))
-                .thenReturn(new HashMap<>());
+        when(userDirectoryClient.getUsers(Set.of(authorId)))
+                .thenReturn(Map.of(authorId, UserSummary.unknown(authorId)));
 
         // Act
         List<UserStoryHistoryDto> result = historyService.getUserStoryHistoryWithAuthorNames(userStoryId, userToken);
@@ -173,20 +171,17 @@ class HistoryServiceTest {
         UserStoryHistoryDto dto = result.get(0);
         assertEquals("Inconnu Inconnu", dto.getAuthorFullName());
         verify(userStoryHistoryRepo, times(1)).findByUserStoryIdOrderByDateDesc(userStoryId);
-        verify(authClient, times(1)).getUserDetailsByAuthId(authorId, "Bearer " + userToken);
+        verify(userDirectoryClient, times(1)).getUsers(Set.of(authorId));
     }
 
     @Test
     void testGetSprintHistoryWithAuthorNames_Success() {
         // Arrange
-        ReflectionTestUtils.setField(historyService, "authClient", authClient); // Inject authClient manually
+        ReflectionTestUtils.setField(historyService, "userDirectoryClient", userDirectoryClient); // Inject userDirectoryClient manually
         when(sprintHistoryRepo.findBySprintIdOrderByDateDesc(sprintId))
                 .thenReturn(Collections.singletonList(sprintHistory));
-        Map<String, Object> userDetails = new HashMap<>();
-        userDetails.put("firstName", "Jane");
-        userDetails.put("lastName", "Smith");
-        when(authClient.getUserDetailsByAuthId(eq(authorId), eq("Bearer " + userToken)))
-                .thenReturn(userDetails);
+        when(userDirectoryClient.getUsers(Set.of(authorId)))
+                .thenReturn(Map.of(authorId, new UserSummary(authorId, "Jane", "Smith", "", true)));
 
         // Act
         List<SprintHistoryDto> result = historyService.getSprintHistoryWithAuthorNames(sprintId, userToken);
@@ -199,17 +194,17 @@ class HistoryServiceTest {
         assertEquals("Jane Smith", dto.getAuthorFullName());
         assertEquals("Sprint started", dto.getDescription());
         verify(sprintHistoryRepo, times(1)).findBySprintIdOrderByDateDesc(sprintId);
-        verify(authClient, times(1)).getUserDetailsByAuthId(authorId, "Bearer " + userToken);
+        verify(userDirectoryClient, times(1)).getUsers(Set.of(authorId));
     }
 
     @Test
     void testGetSprintHistoryWithAuthorNames_UnknownAuthor() {
         // Arrange
-        ReflectionTestUtils.setField(historyService, "authClient", authClient); // Inject authClient manually
+        ReflectionTestUtils.setField(historyService, "userDirectoryClient", userDirectoryClient); // Inject userDirectoryClient manually
         when(sprintHistoryRepo.findBySprintIdOrderByDateDesc(sprintId))
                 .thenReturn(Collections.singletonList(sprintHistory));
-        when(authClient.getUserDetailsByAuthId(authorId, "Bearer " + userToken))
-                .thenReturn(new HashMap<>());
+        when(userDirectoryClient.getUsers(Set.of(authorId)))
+                .thenReturn(Map.of(authorId, UserSummary.unknown(authorId)));
 
         // Act
         List<SprintHistoryDto> result = historyService.getSprintHistoryWithAuthorNames(sprintId, userToken);
@@ -220,6 +215,6 @@ class HistoryServiceTest {
         SprintHistoryDto dto = result.get(0);
         assertEquals("Inconnu Inconnu", dto.getAuthorFullName());
         verify(sprintHistoryRepo, times(1)).findBySprintIdOrderByDateDesc(sprintId);
-        verify(authClient, times(1)).getUserDetailsByAuthId(authorId, "Bearer " + userToken);
+        verify(userDirectoryClient, times(1)).getUsers(Set.of(authorId));
     }
 }
\ No newline at end of file
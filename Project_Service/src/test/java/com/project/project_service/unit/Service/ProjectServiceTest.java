@@ -17,6 +17,7 @@ import com.project.project_service.Repository.ClientRepository;
 import com.project.project_service.Repository.GitHubLinkRepository;
 import com.project.project_service.Repository.ProjetRepository;
 import com.project.project_service.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,6 +49,9 @@ class ProjectServiceTest {
     @Mock
     private AuthClient authClient;
 
+    @Mock
+    private JwtTokenVerifier jwtTokenVerifier;
+
     @Mock
     private GitHubLinkRepository gitHubLinkRepository;
 
@@ -342,7 +346,7 @@ class ProjectServiceTest {
     void testLinkGitHubRepositoryToProject_NewLink() {
         // Arrange
         String repoUrl = "https://github.com/owner/repo";
-        when(authClient.decodeToken("Bearer token")).thenReturn(authId);
+        when(jwtTokenVerifier.currentUserId("Bearer token")).thenReturn(authId);
         when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
         when(gitHubLinkRepository.findByProjetId(1L)).thenReturn(null);
         when(restTemplate.getForEntity(anyString(), eq(Map.class)))
@@ -353,7 +357,7 @@ class ProjectServiceTest {
         projectService.linkGitHubRepositoryToProject(1L, repoUrl, "Bearer token");
 
         // Assert
-        verify(authClient, times(1)).decodeToken("Bearer token");
+        verify(jwtTokenVerifier, times(1)).currentUserId("Bearer token");
         verify(projectRepository, times(1)).findById(1L);
         verify(gitHubLinkRepository, times(1)).findByProjetId(1L);
         verify(restTemplate, times(1)).getForEntity(anyString(), eq(Map.class));
@@ -365,7 +369,7 @@ class ProjectServiceTest {
         // Arrange
         String repoUrl = "https://github.com/owner/repo";
         GitHubLink existingLink = new GitHubLink(repoUrl, project, authId);
-        when(authClient.decodeToken("Bearer token")).thenReturn(authId);
+        when(jwtTokenVerifier.currentUserId("Bearer token")).thenReturn(authId);
         when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
         when(gitHubLinkRepository.findByProjetId(1L)).thenReturn(existingLink);
         when(restTemplate.getForEntity(anyString(), eq(Map.class)))
@@ -376,7 +380,7 @@ class ProjectServiceTest {
         projectService.linkGitHubRepositoryToProject(1L, repoUrl, "Bearer token");
 
         // Assert
-        verify(authClient, times(1)).decodeToken("Bearer token");
+        verify(jwtTokenVerifier, times(1)).currentUserId("Bearer token");
         verify(projectRepository, times(1)).findById(1L);
         verify(gitHubLinkRepository, times(1)).findByProjetId(1L);
         verify(restTemplate, times(1)).getForEntity(anyString(), eq(Map.class));
@@ -387,14 +391,14 @@ class ProjectServiceTest {
     void testLinkGitHubRepositoryToProject_InvalidUrl() {
         // Arrange
         String invalidUrl = "https://invalid.com/owner/repo";
-        when(authClient.decodeToken("Bearer token")).thenReturn(authId);
+        when(jwtTokenVerifier.currentUserId("Bearer token")).thenReturn(authId);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
             projectService.linkGitHubRepositoryToProject(1L, invalidUrl, "Bearer token");
         });
         assertEquals("L'URL du dépôt GitHub est invalide", exception.getMessage());
-        verify(authClient, times(1)).decodeToken("Bearer token");
+        verify(jwtTokenVerifier, times(1)).currentUserId("Bearer token");
         verify(projectRepository, never()).findById(any());
     }
 
@@ -10,9 +10,10 @@ import com.project.project_service.Enumeration.UserStoryStatus;
 import com.project.project_service.Repository.ProjetRepository;
 import com.project.project_service.Repository.SprintRepository;
 import com.project.project_service.Repository.UserStoryRepository;
+import com.project.project_service.Service.ActiveSprintEventPublisher;
 import com.project.project_service.Service.HistoryService;
 import com.project.project_service.Service.SprintService;
-import com.project.project_service.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,7 +43,7 @@ class SprintServiceTest {
     private ProjetRepository projetRepository;
 
     @Mock
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private UserStoryRepository userStoryRepository;
@@ -50,6 +51,9 @@ class SprintServiceTest {
     @Mock
     private HistoryService historyService;
 
+    @Mock
+    private ActiveSprintEventPublisher activeSprintEventPublisher;
+
     @InjectMocks
     private SprintService sprintService;
 
@@ -107,15 +111,16 @@ class SprintServiceTest {
         sprintService = new SprintService();
         ReflectionTestUtils.setField(sprintService, "sprintRepository", sprintRepository);
         ReflectionTestUtils.setField(sprintService, "projetRepository", projetRepository);
-        ReflectionTestUtils.setField(sprintService, "authClient", authClient);
+        ReflectionTestUtils.setField(sprintService, "jwtTokenVerifier", jwtTokenVerifier);
         ReflectionTestUtils.setField(sprintService, "userStoryRepository", userStoryRepository);
         ReflectionTestUtils.setField(sprintService, "historyService", historyService);
+        ReflectionTestUtils.setField(sprintService, "activeSprintEventPublisher", activeSprintEventPublisher);
     }
 
     @Test
     void testCreateSprint_Success() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(sprintRepository.save(any(Sprint.class))).thenReturn(sprint);
         doNothing().when(historyService).addSprintHistory(anyLong(), anyString(), anyString(), anyString());
@@ -126,7 +131,7 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Test Sprint", result.getName());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(sprintRepository, times(1)).save(any(Sprint.class));
         verify(historyService, times(1)).addSprintHistory(eq(sprintId), eq("CREATE"), eq(userId), anyString());
@@ -135,14 +140,14 @@ class SprintServiceTest {
     @Test
     void testCreateSprint_InvalidToken() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(null);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(null);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
             sprintService.createSprint(projectId, sprintDTO, token);
         });
         assertEquals("Token invalide ou utilisateur non identifié", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, never()).findById(any());
     }
 
@@ -180,7 +185,7 @@ class SprintServiceTest {
     @Test
     void testUpdateSprint_Success() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(sprintRepository.save(any(Sprint.class))).thenReturn(sprint);
@@ -192,7 +197,7 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Test Sprint", result.getName());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, times(1)).save(any(Sprint.class));
@@ -202,7 +207,7 @@ class SprintServiceTest {
     @Test
     void testUpdateSprint_OptimisticLockException() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(sprintRepository.save(any(Sprint.class))).thenThrow(new OptimisticLockException("Conflict"));
@@ -212,7 +217,7 @@ class SprintServiceTest {
             sprintService.updateSprint(projectId, sprintId, sprintDTO, token);
         });
         assertEquals("Conflit de mise à jour détecté. Veuillez réessayer.", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, times(1)).save(any(Sprint.class));
@@ -262,7 +267,7 @@ class SprintServiceTest {
         sprint.setStatus(SprintStatus.ACTIVE);
         sprint.setEndDate(LocalDate.now().minusDays(1)); // End date in the past
         userStory.setStatus(UserStoryStatus.BACKLOG);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(userStoryRepository.save(userStory)).thenReturn(userStory);
         when(sprintRepository.save(sprint)).thenReturn(sprint);
@@ -276,7 +281,7 @@ class SprintServiceTest {
         assertEquals("COMPLETED", result.getStatus());
         assertEquals(UserStoryStatus.BACKLOG, userStory.getStatus());
         assertNull(userStory.getSprint());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(userStoryRepository, times(1)).save(userStory);
         verify(sprintRepository, times(1)).save(sprint);
@@ -288,7 +293,7 @@ class SprintServiceTest {
         // Arrange
         sprint.setStatus(SprintStatus.ACTIVE);
         sprint.setEndDate(LocalDate.now().plusDays(1)); // End date in the future
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
 
         // Act
@@ -297,7 +302,7 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("ACTIVE", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(userStoryRepository, never()).save(any());
         verify(sprintRepository, never()).save(any());
@@ -308,7 +313,7 @@ class SprintServiceTest {
     void testCancelSprint_Success() {
         // Arrange
         sprint.setStatus(SprintStatus.ACTIVE);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(userStoryRepository.save(userStory)).thenReturn(userStory);
         when(sprintRepository.save(sprint)).thenReturn(sprint);
@@ -322,18 +327,19 @@ class SprintServiceTest {
         assertEquals("CANCELED", result.getStatus());
         assertEquals(UserStoryStatus.BACKLOG, userStory.getStatus());
         assertNull(userStory.getSprint());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(userStoryRepository, times(1)).save(userStory);
         verify(sprintRepository, times(1)).save(sprint);
         verify(historyService, times(1)).addSprintHistory(eq(sprintId), eq("CANCEL"), eq(userId), anyString());
+        verify(activeSprintEventPublisher, times(1)).publish(projectId, sprintId, ActiveSprintEventPublisher.SPRINT_CANCELED);
     }
 
     @Test
     void testCancelSprint_AlreadyCompleted() {
         // Arrange
         sprint.setStatus(SprintStatus.COMPLETED);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
 
         // Act & Assert
@@ -341,7 +347,7 @@ class SprintServiceTest {
             sprintService.cancelSprint(projectId, sprintId, token);
         });
         assertEquals("Impossible d'annuler un sprint déjà terminé ou archivé", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(userStoryRepository, never()).save(any());
         verify(sprintRepository, never()).save(any());
@@ -351,7 +357,7 @@ class SprintServiceTest {
     void testArchiveSprint_Success() {
         // Arrange
         sprint.setStatus(SprintStatus.COMPLETED);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(sprintRepository.save(sprint)).thenReturn(sprint);
         doNothing().when(historyService).addSprintHistory(anyLong(), anyString(), anyString(), anyString());
@@ -362,7 +368,7 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("ARCHIVED", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, times(1)).save(sprint);
         verify(historyService, times(1)).addSprintHistory(eq(sprintId), eq("ARCHIVE"), eq(userId), anyString());
@@ -372,7 +378,7 @@ class SprintServiceTest {
     void testArchiveSprint_NotCompletedOrCanceled() {
         // Arrange
         sprint.setStatus(SprintStatus.ACTIVE);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
 
         // Act & Assert
@@ -380,7 +386,7 @@ class SprintServiceTest {
             sprintService.archiveSprint(projectId, sprintId, token);
         });
         assertEquals("Seuls les sprints terminés ou annulés peuvent être archivés", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, never()).save(any());
     }
@@ -390,7 +396,7 @@ class SprintServiceTest {
         // Arrange
         sprint.setStatus(SprintStatus.PLANNED);
         userStory.setStatus(UserStoryStatus.BACKLOG);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(userStoryRepository.save(userStory)).thenReturn(userStory);
@@ -403,19 +409,20 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("ACTIVE", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(userStoryRepository, times(1)).save(userStory);
         verify(sprintRepository, times(1)).save(sprint);
         verify(historyService, times(1)).addSprintHistory(eq(sprintId), eq("ACTIVATE"), eq(userId), anyString());
+        verify(activeSprintEventPublisher, times(1)).publish(projectId, sprintId, ActiveSprintEventPublisher.SPRINT_ACTIVATED);
     }
 
     @Test
     void testActivateSprint_NotPlanned() {
         // Arrange
         sprint.setStatus(SprintStatus.ACTIVE);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
 
@@ -424,7 +431,7 @@ class SprintServiceTest {
             sprintService.activateSprint(projectId, sprintId, token);
         });
         assertEquals("Seul un sprint planifié (PLANNED) peut être activé", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, never()).save(any());
@@ -496,7 +503,7 @@ class SprintServiceTest {
         // Arrange
         userStory.setStatus(UserStoryStatus.DONE);
         sprint.setStatus(SprintStatus.ACTIVE);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
         when(sprintRepository.save(sprint)).thenReturn(sprint);
         doNothing().when(historyService).addSprintHistory(anyLong(), anyString(), anyString(), anyString());
@@ -507,7 +514,7 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("COMPLETED", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, times(1)).save(sprint);
         verify(historyService, times(1)).addSprintHistory(eq(sprintId), eq("UPDATE_STATUS"), eq(userId), anyString());
@@ -518,7 +525,7 @@ class SprintServiceTest {
         // Arrange
         userStory.setStatus(UserStoryStatus.IN_PROGRESS);
         sprint.setStatus(SprintStatus.ACTIVE);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
 
         // Act
@@ -527,7 +534,7 @@ class SprintServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("ACTIVE", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(sprintRepository, never()).save(any());
         verify(historyService, never()).addSprintHistory(anyLong(), anyString(), anyString(), anyString());
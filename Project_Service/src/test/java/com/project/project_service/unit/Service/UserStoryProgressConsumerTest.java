@@ -0,0 +1,192 @@
+package com.project.project_service.unit.Service;
+
+import com.project.project_service.DTO.TaskDTO;
+import com.project.project_service.Entity.Projet;
+import com.project.project_service.Entity.Sprint;
+import com.project.project_service.Entity.StoryTaskState;
+import com.project.project_service.Entity.UserStory;
+import com.project.project_service.Entity.UserStoryTaskStats;
+import com.project.project_service.Enumeration.SprintStatus;
+import com.project.project_service.Enumeration.UserStoryStatus;
+import com.project.project_service.Enumeration.WorkItemStatus;
+import com.project.project_service.Repository.StoryTaskStateRepository;
+import com.project.project_service.Repository.UserStoryRepository;
+import com.project.project_service.Repository.UserStoryTaskStatsRepository;
+import com.project.project_service.Service.HistoryService;
+import com.project.project_service.Service.SprintService;
+import com.project.project_service.Service.UserStoryProgressConsumer;
+import com.project.project_service.config.TaskClient;
+import com.project.project_service.event.TaskEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStoryProgressConsumerTest {
+
+    @Mock
+    private StoryTaskStateRepository storyTaskStateRepository;
+
+    @Mock
+    private UserStoryTaskStatsRepository userStoryTaskStatsRepository;
+
+    @Mock
+    private UserStoryRepository userStoryRepository;
+
+    @Mock
+    private TaskClient taskClient;
+
+    @Mock
+    private HistoryService historyService;
+
+    @Mock
+    private SprintService sprintService;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @InjectMocks
+    private UserStoryProgressConsumer consumer;
+
+    private UserStory userStory;
+    private Sprint sprint;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        Projet projet = new Projet();
+        projet.setId(1L);
+        sprint = new Sprint();
+        sprint.setId(3L);
+        sprint.setStatus(SprintStatus.ACTIVE);
+        userStory = new UserStory();
+        userStory.setId(10L);
+        userStory.setTitle("Login");
+        userStory.setProject(projet);
+        userStory.setSprint(sprint);
+        userStory.setStatus(UserStoryStatus.IN_PROGRESS);
+    }
+
+    private static ConsumerRecord<String, TaskEvent> record(long taskId, String status, LocalDateTime occurredAt) {
+        TaskEvent event = new TaskEvent(1, "evt-" + taskId, TaskEvent.Type.STATUS_CHANGED, taskId, 1L, 10L,
+                "Task " + taskId, status, null, Set.of(), "dev1", occurredAt);
+        return new ConsumerRecord<>("task-events", 0, taskId, "1", event);
+    }
+
+    private static TaskDTO task(long id, WorkItemStatus status) {
+        TaskDTO task = new TaskDTO();
+        task.setId(id);
+        task.setStatus(status);
+        return task;
+    }
+
+    private static List<Object[]> counts(long total, long done) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{10L, total, done});
+        return rows;
+    }
+
+    @Test
+    void onTaskEvents_shouldSeedNewStoryAndMarkItDone_whenLastTaskIsDone() {
+        // Arrange : story jamais vue, deux tâches chez Task-Service dont une déjà DONE
+        when(userStoryTaskStatsRepository.findAllById(any())).thenReturn(List.of());
+        when(storyTaskStateRepository.findAllById(any())).thenReturn(List.of());
+        when(taskClient.getTasksByProjectAndUserStoryInternal(1L, 10L))
+                .thenReturn(List.of(task(100L, WorkItemStatus.DONE), task(101L, WorkItemStatus.IN_PROGRESS)));
+        when(storyTaskStateRepository.countByUserStory(anyCollection(), eq(WorkItemStatus.DONE))).thenReturn(counts(2, 2));
+        when(userStoryRepository.findAllById(List.of(10L))).thenReturn(List.of(userStory));
+
+        // Act : l'événement suit l'instantané
+        consumer.onTaskEvents(List.of(record(101L, "DONE", now.plusSeconds(5))), acknowledgment);
+
+        // Assert
+        assertEquals(UserStoryStatus.DONE, userStory.getStatus());
+        verify(historyService).addUserStoryHistory(eq(10L), eq("UPDATE_STATUS"), eq("system-task"), anyString());
+        verify(sprintService).completeSprintIfAllStoriesDone(1L, 3L, "system-task");
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void onTaskEvents_shouldNotAcknowledge_whenSeedingFromTaskServiceFails() {
+        // Arrange : story jamais vue, Task-Service indisponible (le fallback lève une exception)
+        when(userStoryTaskStatsRepository.findAllById(any())).thenReturn(List.of());
+        when(storyTaskStateRepository.findAllById(any())).thenReturn(List.of());
+        when(taskClient.getTasksByProjectAndUserStoryInternal(1L, 10L))
+                .thenThrow(new IllegalStateException("Task-Service indisponible"));
+
+        // Act & Assert : rien n'est enregistré, le lot sera rejoué
+        assertThrows(IllegalStateException.class,
+                () -> consumer.onTaskEvents(List.of(record(101L, "DONE", now)), acknowledgment));
+        verify(storyTaskStateRepository, never()).saveAll(any());
+        verify(userStoryTaskStatsRepository, never()).saveAll(any());
+        verifyNoInteractions(acknowledgment, sprintService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTaskEvents_shouldReopenStory_whenATaskLeavesDone() {
+        // Arrange : agrégat connu, toutes les tâches DONE
+        UserStoryTaskStats stats = new UserStoryTaskStats(10L);
+        stats.setTotalTasks(2);
+        stats.setDoneTasks(2);
+        StoryTaskState state = new StoryTaskState(101L, 10L);
+        state.setStatus(WorkItemStatus.DONE);
+        state.setLastEventAt(now.minusMinutes(1));
+        userStory.setStatus(UserStoryStatus.DONE);
+        when(userStoryTaskStatsRepository.findAllById(any())).thenReturn(List.of(stats));
+        when(storyTaskStateRepository.findAllById(any())).thenReturn(List.of(state));
+        when(storyTaskStateRepository.countByUserStory(anyCollection(), eq(WorkItemStatus.DONE))).thenReturn(counts(2, 1));
+        when(userStoryRepository.findAllById(List.of(10L))).thenReturn(List.of(userStory));
+
+        // Act
+        consumer.onTaskEvents(List.of(record(101L, "IN_PROGRESS", now)), acknowledgment);
+
+        // Assert : pas de rechargement depuis Task-Service, story rendue au sprint actif
+        verifyNoInteractions(taskClient);
+        assertEquals(WorkItemStatus.IN_PROGRESS, state.getStatus());
+        assertEquals(UserStoryStatus.IN_PROGRESS, userStory.getStatus());
+        ArgumentCaptor<Collection<UserStoryTaskStats>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(userStoryTaskStatsRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().iterator().next().getDoneTasks());
+        verify(sprintService, never()).completeSprintIfAllStoriesDone(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void onTaskEvents_shouldIgnoreOlderEventAndLeaveStoryUntouched() {
+        // Arrange : un événement relivré, antérieur au dernier appliqué
+        UserStoryTaskStats stats = new UserStoryTaskStats(10L);
+        stats.setTotalTasks(1);
+        stats.setDoneTasks(1);
+        StoryTaskState state = new StoryTaskState(101L, 10L);
+        state.setStatus(WorkItemStatus.DONE);
+        state.setLastEventAt(now);
+        when(userStoryTaskStatsRepository.findAllById(any())).thenReturn(List.of(stats));
+        when(storyTaskStateRepository.findAllById(any())).thenReturn(List.of(state));
+        when(storyTaskStateRepository.countByUserStory(anyCollection(), eq(WorkItemStatus.DONE))).thenReturn(counts(1, 1));
+
+        // Act
+        consumer.onTaskEvents(List.of(record(101L, "TO_DO", now.minusMinutes(5))), acknowledgment);
+
+        // Assert
+        assertEquals(WorkItemStatus.DONE, state.getStatus());
+        verify(userStoryRepository, never()).findAllById(any());
+        verifyNoInteractions(historyService, sprintService);
+        verify(acknowledgment).acknowledge();
+    }
+}
@@ -15,10 +15,11 @@ import com.project.project_service.Repository.ProjetRepository;
 import com.project.project_service.Repository.SprintRepository;
 import com.project.project_service.Repository.TagRepository;
 import com.project.project_service.Repository.UserStoryRepository;
+import com.project.project_service.Service.ActiveSprintEventPublisher;
 import com.project.project_service.Service.HistoryService;
 import com.project.project_service.Service.SprintService;
 import com.project.project_service.Service.UserStoryService;
-import com.project.project_service.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.project.project_service.config.TaskClient;
 import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,7 +54,7 @@ class UserStoryServiceTest {
     private TagRepository tagRepository;
 
     @Mock
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private TaskClient taskClient;
@@ -64,6 +65,9 @@ class UserStoryServiceTest {
     @Mock
     private SprintService sprintService;
 
+    @Mock
+    private ActiveSprintEventPublisher activeSprintEventPublisher;
+
     @InjectMocks
     private UserStoryService userStoryService;
 
@@ -140,16 +144,17 @@ class UserStoryServiceTest {
         ReflectionTestUtils.setField(userStoryService, "projetRepository", projetRepository);
         ReflectionTestUtils.setField(userStoryService, "sprintRepository", sprintRepository);
         ReflectionTestUtils.setField(userStoryService, "tagRepository", tagRepository);
-        ReflectionTestUtils.setField(userStoryService, "authClient", authClient);
+        ReflectionTestUtils.setField(userStoryService, "jwtTokenVerifier", jwtTokenVerifier);
         ReflectionTestUtils.setField(userStoryService, "taskClient", taskClient);
         ReflectionTestUtils.setField(userStoryService, "historyService", historyService);
         ReflectionTestUtils.setField(userStoryService, "sprintService", sprintService);
+        ReflectionTestUtils.setField(userStoryService, "activeSprintEventPublisher", activeSprintEventPublisher);
     }
 
     @Test
     void testCreateUserStory_Success() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(tagRepository.findByName("Feature")).thenReturn(Optional.of(tag));
         when(userStoryRepository.save(any(UserStory.class))).thenReturn(userStory);
@@ -161,7 +166,7 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Test User Story", result.getTitle());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(tagRepository, times(1)).findByName("Feature");
         verify(userStoryRepository, times(1)).save(any(UserStory.class));
@@ -171,21 +176,21 @@ class UserStoryServiceTest {
     @Test
     void testCreateUserStory_InvalidToken() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(null);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(null);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
             userStoryService.createUserStory(projectId, userStoryRequest, token);
         });
         assertEquals("Token invalide ou utilisateur non identifié", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, never()).findById(any());
     }
 
     @Test
     void testCreateUserStory_ProjectNotFound() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -193,7 +198,7 @@ class UserStoryServiceTest {
             userStoryService.createUserStory(projectId, userStoryRequest, token);
         });
         assertEquals("Projet non trouvé avec l'ID: " + projectId, exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, never()).save(any());
     }
@@ -201,7 +206,7 @@ class UserStoryServiceTest {
     @Test
     void testUpdateUserStory_Success() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(tagRepository.findByName("Feature")).thenReturn(Optional.of(tag));
@@ -214,7 +219,7 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Test User Story", result.getTitle());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(tagRepository, times(1)).findByName("Feature");
@@ -225,7 +230,7 @@ class UserStoryServiceTest {
     @Test
     void testUpdateUserStory_OptimisticLockException() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(tagRepository.findByName("Feature")).thenReturn(Optional.of(tag));
@@ -236,7 +241,7 @@ class UserStoryServiceTest {
             userStoryService.updateUserStory(projectId, userStoryId, userStoryRequest, token);
         });
         assertEquals("Conflit de mise à jour détecté. Veuillez réessayer.", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(userStoryRepository, times(1)).save(any(UserStory.class));
@@ -246,7 +251,7 @@ class UserStoryServiceTest {
     @Test
     void testUpdateUserStory_UserStoryNotFound() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.empty());
 
@@ -255,7 +260,7 @@ class UserStoryServiceTest {
             userStoryService.updateUserStory(projectId, userStoryId, userStoryRequest, token);
         });
         assertEquals("User Story non trouvée avec l'ID: " + userStoryId, exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(userStoryRepository, never()).save(any());
@@ -333,7 +338,7 @@ class UserStoryServiceTest {
     void testAssignUserStoryToSprint_Success() {
         // Arrange
         userStory.setSprint(null);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
@@ -346,19 +351,39 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(sprintId, result.getSprintId());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(sprintRepository, times(1)).findById(sprintId);
         verify(userStoryRepository, times(1)).save(userStory);
         verify(historyService, times(1)).addUserStoryHistory(eq(userStoryId), eq("ASSIGN_TO_SPRINT"), eq(userId), anyString());
+        // Sprint planifié : le sprint actif du projet ne change pas
+        verify(activeSprintEventPublisher, never()).publish(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void testAssignUserStoryToSprint_ActiveSprint_PublishesEvent() {
+        // Arrange
+        userStory.setSprint(null);
+        sprint.setStatus(SprintStatus.ACTIVE);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
+        when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
+        when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
+        when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
+        when(userStoryRepository.save(userStory)).thenReturn(userStory);
+
+        // Act
+        userStoryService.assignUserStoryToSprint(projectId, userStoryId, sprintId, token);
+
+        // Assert
+        verify(activeSprintEventPublisher, times(1)).publish(projectId, sprintId, ActiveSprintEventPublisher.STORY_ASSIGNED);
     }
 
     @Test
     void testAssignUserStoryToSprint_CapacityExceeded() {
         // Arrange
         userStory.setEffortPoints(101); // Exceeds sprint capacity of 100
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(sprintRepository.findById(sprintId)).thenReturn(Optional.of(sprint));
@@ -368,7 +393,7 @@ class UserStoryServiceTest {
             userStoryService.assignUserStoryToSprint(projectId, userStoryId, sprintId, token);
         });
         assertEquals("La capacité du sprint est insuffisante pour cette User Story", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(sprintRepository, times(1)).findById(sprintId);
@@ -379,7 +404,7 @@ class UserStoryServiceTest {
     void testRemoveUserStoryFromSprint_Success() {
         // Arrange
         userStory.setSprint(sprint);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(userStoryRepository.save(userStory)).thenReturn(userStory);
@@ -392,7 +417,7 @@ class UserStoryServiceTest {
         assertNotNull(result);
         assertNull(result.getSprintId());
         assertEquals("BACKLOG", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(userStoryRepository, times(1)).save(userStory);
@@ -402,7 +427,7 @@ class UserStoryServiceTest {
     @Test
     void testRemoveUserStoryFromSprint_UserStoryNotFound() {
         // Arrange
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(projetRepository.findById(projectId)).thenReturn(Optional.of(projet));
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.empty());
 
@@ -411,7 +436,7 @@ class UserStoryServiceTest {
             userStoryService.removeUserStoryFromSprint(projectId, userStoryId, token);
         });
         assertEquals("User Story non trouvée avec l'ID: " + userStoryId, exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(projetRepository, times(1)).findById(projectId);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(userStoryRepository, never()).save(any());
@@ -423,7 +448,7 @@ class UserStoryServiceTest {
         // Arrange
         userStory.setSprint(sprint);
         sprint.setStatus(SprintStatus.ACTIVE);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(userStoryRepository.save(userStory)).thenReturn(userStory);
         doNothing().when(historyService).addUserStoryHistory(anyLong(), anyString(), anyString(), anyString());
@@ -434,7 +459,7 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("IN_PROGRESS", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(userStoryRepository, times(1)).save(userStory);
         verify(historyService, times(1)).addUserStoryHistory(eq(userStoryId), eq("UPDATE_USER_STORY_STATUS"), eq(userId), anyString());
@@ -444,7 +469,7 @@ class UserStoryServiceTest {
     void testUpdateUserStoryStatus_BlockedWithoutDependencies() {
         // Arrange
         userStory.setDependsOn(Collections.emptyList());
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
 
         // Act & Assert
@@ -452,7 +477,7 @@ class UserStoryServiceTest {
             userStoryService.updateUserStoryStatus(projectId, userStoryId, "BLOCKED", token);
         });
         assertEquals("Une US ne peut être BLOCKED sans dépendances non terminées", exception.getMessage());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(userStoryRepository, never()).save(any());
     }
@@ -528,12 +553,29 @@ class UserStoryServiceTest {
         verify(userStoryRepository, never()).findBySprintId(anyLong());
     }
 
+    @Test
+    void testGetUserStoryIdsOfActiveSprints_SingleQueryForAllProjects() {
+        // Arrange : le projet 2 n'a pas de sprint actif
+        List<Long> projectIds = Arrays.asList(projectId, 2L);
+        when(userStoryRepository.findProjectAndStoryIdsBySprintStatus(projectIds, SprintStatus.ACTIVE))
+                .thenReturn(Arrays.asList(new Object[]{projectId, 10L}, new Object[]{projectId, 11L}));
+
+        // Act
+        Map<Long, List<Long>> result = userStoryService.getUserStoryIdsOfActiveSprints(projectIds);
+
+        // Assert
+        assertEquals(Arrays.asList(10L, 11L), result.get(projectId));
+        assertTrue(result.get(2L).isEmpty());
+        verify(userStoryRepository, times(1)).findProjectAndStoryIdsBySprintStatus(projectIds, SprintStatus.ACTIVE);
+        verify(sprintRepository, never()).findByProjectIdAndStatus(anyLong(), any());
+    }
+
     @Test
     void testCheckAndUpdateUserStoryStatus_AllTasksDone() {
         // Arrange
         userStory.setStatus(UserStoryStatus.IN_PROGRESS);
         userStory.setSprint(sprint);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(taskClient.getTasksByProjectAndUserStory(projectId, userStoryId, token)).thenReturn(Collections.singletonList(taskDTO));
         when(userStoryRepository.save(userStory)).thenReturn(userStory);
@@ -546,7 +588,7 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("DONE", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(taskClient, times(1)).getTasksByProjectAndUserStory(projectId, userStoryId, token);
         verify(userStoryRepository, times(1)).save(userStory);
@@ -558,7 +600,7 @@ class UserStoryServiceTest {
     void testCheckAndUpdateUserStoryStatus_NoTasksDone() {
         // Arrange
         taskDTO.setStatus(WorkItemStatus.IN_PROGRESS);
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(userStoryRepository.findById(userStoryId)).thenReturn(Optional.of(userStory));
         when(taskClient.getTasksByProjectAndUserStory(projectId, userStoryId, token)).thenReturn(Collections.singletonList(taskDTO));
 
@@ -568,7 +610,7 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("BACKLOG", result.getStatus());
-        verify(authClient, times(1)).decodeToken(token);
+        verify(jwtTokenVerifier, times(1)).currentUserId(token);
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(taskClient, times(1)).getTasksByProjectAndUserStory(projectId, userStoryId, token);
         verify(userStoryRepository, never()).save(any());
@@ -593,7 +635,7 @@ class UserStoryServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("DONE", result.getStatus());
-        verify(authClient, never()).decodeToken(anyString());
+        verify(jwtTokenVerifier, never()).currentUserId(anyString());
         verify(userStoryRepository, times(1)).findById(userStoryId);
         verify(taskClient, times(1)).getTasksByProjectAndUserStoryInternal(projectId, userStoryId);
         verify(userStoryRepository, times(1)).save(userStory);
@@ -7,12 +7,16 @@ import com.task.taskservice.Chatbot.DTO.TaskResponse;
 import com.task.taskservice.Chatbot.DTO.TaskStatusResponse;
 import com.task.taskservice.Configuration.AuthClient;
 import com.task.taskservice.Configuration.IAClient;
+import com.task.taskservice.DTO.TaskBriefProjection;
 import com.task.taskservice.Entity.Task;
 import com.task.taskservice.Entity.Tag;
 import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
 import com.task.taskservice.Repository.TaskRepository;
 import com.task.taskservice.Service.TaskService;
+import com.task.taskservice.Service.WorkItemTitleIndex;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +27,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,15 +44,22 @@ public class ChatbotService {
 
    private final IAClient iaClient;
 
+    private final UserDirectoryClient userDirectoryClient;
+
+    private final WorkItemTitleIndex workItemTitleIndex;
+
     @Autowired
-    public ChatbotService(TaskRepository taskRepository ,AuthClient authClient , IAClient iaClient) {
+    public ChatbotService(TaskRepository taskRepository ,AuthClient authClient , IAClient iaClient , UserDirectoryClient userDirectoryClient,
+                          WorkItemTitleIndex workItemTitleIndex) {
         this.taskRepository = taskRepository;
+        this.workItemTitleIndex = workItemTitleIndex;
         this.authClient = authClient;
         this.iaClient = iaClient;
+        this.userDirectoryClient = userDirectoryClient;
     }
 
     public List<TaskResponse> getLateTasks() {
-        List<Task> lateTasks = taskRepository.findByDueDateBeforeAndStatusNot(LocalDate.now(), WorkItemStatus.DONE);
+        List<TaskBriefProjection> lateTasks = taskRepository.findBriefByDueDateBeforeAndStatusNot(LocalDate.now(), WorkItemStatus.DONE);
         return mapToTaskResponse(lateTasks);
     }
 
@@ -63,17 +75,17 @@ public class ChatbotService {
     }
 
     public List<TaskResponse> getTasksByPriority(WorkItemPriority priority) {
-        List<Task> priorityTasks = taskRepository.findByPriority(priority);
+        List<TaskBriefProjection> priorityTasks = taskRepository.findBriefByPriority(priority);
         return mapToTaskResponse(priorityTasks);
     }
 
     public List<TaskResponse> getBlockedTasks() {
-        List<Task> blockedTasks = taskRepository.findBlockedTasksByDependencies(WorkItemStatus.DONE);
+        List<TaskBriefProjection> blockedTasks = taskRepository.findBriefBlockedByDependencies(WorkItemStatus.DONE);
         return mapToTaskResponse(blockedTasks);
     }
 
     public List<TaskResponse> getAssignedTasks(String userId) {
-        List<Task> assignedTasks = taskRepository.findByAssignedUserId(userId);
+        List<TaskBriefProjection> assignedTasks = taskRepository.findBriefByAssignedUserId(userId);
         return mapToTaskResponse(assignedTasks);
     }
 
@@ -97,7 +109,7 @@ public class ChatbotService {
         }
 
         // Fetch tasks for the userId
-        List<Task> assignedTasks = taskRepository.findByAssignedUserId(userId);
+        List<TaskBriefProjection> assignedTasks = taskRepository.findBriefByAssignedUserId(userId);
         if (assignedTasks.isEmpty()) {
             logger.warn("No tasks found for userId: {}", userId);
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Aucune tâche assignée à cet utilisateur");
@@ -126,7 +138,8 @@ public class ChatbotService {
     public TaskInput getTaskDetails(String title) {
         long startTime = System.currentTimeMillis();
         logger.info("Fetching task with title: {}", title);
-        Optional<Task> taskOptional = taskRepository.findByTitle(title);
+        // Titre normalisé (casse, accents, espaces) : recherche indexée, première tâche si plusieurs
+        Optional<Task> taskOptional = workItemTitleIndex.findByTitle(title);
         if (taskOptional.isEmpty()) {
             logger.error("Task not found with title: {}", title);
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
@@ -150,22 +163,24 @@ public class ChatbotService {
         logger.info("TaskInput created in {}ms: {}", System.currentTimeMillis() - startTime, taskInput);
         return taskInput;
     }
-    private List<TaskResponse> mapToTaskResponse(List<Task> tasks) {
+    private List<TaskResponse> mapToTaskResponse(List<TaskBriefProjection> tasks) {
         List<TaskResponse> response = new ArrayList<>();
-        for (Task task : tasks) {
-            String userIds = String.join(",", task.getAssignedUserIds());
-            Map<String, Map<String, Object>> userDetails = authClient.getUserDetailsByIds(userIds);
-            List<String> names = task.getAssignedUserIds().stream()
-                    .map(id -> {
-                        Map<String, Object> details = userDetails.getOrDefault(id, Map.of());
-                        String firstName = (String) details.getOrDefault("firstName", "Inconnu");
-                        String lastName = (String) details.getOrDefault("lastName", "Inconnu");
-                        return firstName + " " + lastName;
-                    })
-                    .collect(Collectors.toList());
-            List<Long> dependencyIds = task.getDependencies().stream()
-                    .map(Task::getId)
+        if (tasks.isEmpty()) {
+            return response;
+        }
+        // Assignés et dépendances de toute la liste : une requête chacun, sans charger les entités
+        List<Long> taskIds = tasks.stream().map(TaskBriefProjection::getId).collect(Collectors.toList());
+        Map<Long, List<String>> assignedByTask = groupByTaskId(taskRepository.findAssignedUserIdsByTaskIdIn(taskIds));
+        Map<Long, List<Long>> dependenciesByTask = groupByTaskId(taskRepository.findDependencyIdsByTaskIdIn(taskIds));
+        // Un seul appel à l'annuaire pour tous les assignés de la liste
+        Map<String, UserSummary> users = userDirectoryClient.getUsers(assignedByTask.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet()));
+        for (TaskBriefProjection task : tasks) {
+            List<String> names = assignedByTask.getOrDefault(task.getId(), List.of()).stream()
+                    .map(id -> users.getOrDefault(id, UserSummary.unknown(id)).fullName())
                     .collect(Collectors.toList());
+            List<Long> dependencyIds = dependenciesByTask.getOrDefault(task.getId(), List.of());
             response.add(new TaskResponse(
                     task.getId(),
                     task.getTitle(),
@@ -177,4 +192,13 @@ public class ChatbotService {
         }
         return response;
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private static <V> Map<Long, List<V>> groupByTaskId(List<Object[]> rows) {
+        Map<Long, List<V>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((V) row[1]);
+        }
+        return grouped;
+    }
+}
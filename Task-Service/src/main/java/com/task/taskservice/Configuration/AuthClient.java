@@ -30,8 +30,6 @@ public interface AuthClient {
     );
 
 
-    @GetMapping("/api/auth/decode-token")
-    String decodeToken(@RequestHeader("Authorization") String authorization);
 
 
     @PostMapping("/api/tasks_reponsibles/by-ids")
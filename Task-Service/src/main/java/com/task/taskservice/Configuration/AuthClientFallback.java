@@ -11,11 +11,6 @@ import java.util.Map;
 
 public class AuthClientFallback implements AuthClient {
 
-    @Override
-    public String decodeToken(String authorization) {
-        // Return a fallback user ID
-        return "fallback-token";
-    }
 
     @Override
     public Map<String, Object> getUserDetailsByAuthId(String authId, String authorization) {
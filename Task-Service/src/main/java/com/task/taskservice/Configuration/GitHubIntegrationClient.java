@@ -17,6 +17,7 @@ public interface GitHubIntegrationClient {
             @PathVariable("repo") String repo,
             @RequestParam("userId") String userId,
             @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "until", required = false) String until,
             @RequestParam(value = "per_page", defaultValue = "30") Integer perPage);
     @GetMapping("/api/github-integration/token/{userId}")
     ResponseEntity<Map<String, String>> getAccessToken(@PathVariable("userId") String userId);
@@ -9,7 +9,7 @@ import java.util.Map;
 public class GitHubIntegrationClientFallback implements GitHubIntegrationClient {
 
     @Override
-    public ResponseEntity<Object> getCommitsByUserId(String owner, String repo, String userId, String since, Integer perPage) {
+    public ResponseEntity<Object> getCommitsByUserId(String owner, String repo, String userId, String since, String until, Integer perPage) {
         // Return an empty list of commits to avoid breaking the caller
         return ResponseEntity.ok(Collections.emptyList());
     }
@@ -23,11 +23,9 @@ public interface ProjectClient {
     @GetMapping("/api/projects/{projectId}/sprint/actif/user_stories")
     List<Long> getUserStoriesOfActiveSprint(@PathVariable("projectId") Long projectId);
 
-    @PostMapping("/api/projects/{projectId}/{userStoryId}/check-status")
-    UserStoryDTO checkAndUpdateUserStoryStatus(
-            @PathVariable("projectId") Long projectId,
-            @PathVariable("userStoryId") Long userStoryId,
-            @RequestHeader("Authorization") String token);
+    // Même chose pour plusieurs projets en un seul appel : projectId -> ids des user stories du sprint actif
+    @GetMapping("/api/projects/sprint/actif/user_stories")
+    Map<Long, List<Long>> getUserStoriesOfActiveSprints(@RequestParam("projectIds") List<Long> projectIds);
 
     @GetMapping("/api/projects/{projectId}/user-stories")
     ResponseEntity<List<UserStoryDTO>> getUserStoriesByProjectId(@PathVariable("projectId") Long projectId);
@@ -40,6 +38,10 @@ public interface ProjectClient {
 
     @GetMapping("/api/active")
     ResponseEntity<List<Long>> getActiveProjectIds();
+
+    // Dépôt et utilisateur GitHub de tous les projets liés, en un seul appel
+    @GetMapping("/api/github-links")
+    ResponseEntity<List<GitHubLinkDTO>> getGitHubLinks();
 }
 
 
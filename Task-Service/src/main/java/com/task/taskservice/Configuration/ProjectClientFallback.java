@@ -1,6 +1,7 @@
 package com.task.taskservice.Configuration;
 
 
+import com.task.taskservice.DTO.GitHubLinkDTO;
 import com.task.taskservice.DTO.ProjectDTO;
 import com.task.taskservice.DTO.ProjectResponceChatbotDTO;
 import com.task.taskservice.DTO.ProjectResponseWithRoleDTO;
@@ -30,14 +31,14 @@ public class ProjectClientFallback implements ProjectClient {
 
     @Override
     public List<Long> getUserStoriesOfActiveSprint(Long projectId) {
-        // Return an empty list of user story IDs
-        return Collections.emptyList();
+        // Return null : Project_Service unavailable, ActiveSprintCache answers empty without caching it
+        return null;
     }
 
     @Override
-    public UserStoryDTO checkAndUpdateUserStoryStatus(Long projectId, Long userStoryId, String token) {
-        // Return a default UserStoryDTO with minimal data
-        return new UserStoryDTO();
+    public Map<Long, List<Long>> getUserStoriesOfActiveSprints(List<Long> projectIds) {
+        // Return null : Project_Service unavailable, ActiveSprintCache answers empty without caching it
+        return null;
     }
 
     @Override
@@ -63,4 +64,10 @@ public class ProjectClientFallback implements ProjectClient {
         // Return an empty list of project IDs
         return ResponseEntity.ok(Collections.emptyList());
     }
+
+    @Override
+    public ResponseEntity<List<GitHubLinkDTO>> getGitHubLinks() {
+        // Return an empty list: no project is ingested during this run
+        return ResponseEntity.ok(Collections.emptyList());
+    }
 }
\ No newline at end of file
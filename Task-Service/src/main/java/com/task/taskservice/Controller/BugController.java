@@ -3,7 +3,9 @@ package com.task.taskservice.Controller;
 import com.task.taskservice.DTO.BugDTO;
 import com.task.taskservice.DTO.DashboardStatsDTO;
 import com.task.taskservice.DTO.BugCalendarDTO;
+import com.task.taskservice.DTO.CursorPageDTO;
 import com.task.taskservice.DTO.TimeEntryDTO;
+import com.task.taskservice.DTO.WorkItemFilterDTO;
 import com.task.taskservice.Entity.Bug;
 import com.task.taskservice.Mapper.BugMapper;
 import com.task.taskservice.Service.BugService;
@@ -164,6 +166,51 @@ public class BugController {
         return new ResponseEntity<>(bugs, HttpStatus.OK);
     }
 
+    @Operation(summary = "Récupérer une page de bugs d'un projet",
+            description = "Pagination par curseur : renvoyer nextCursor pour obtenir la page suivante (null sur la dernière). " +
+                    "Filtres optionnels : status, priority, assignee, tag, dueFrom et dueTo (yyyy-MM-dd, inclusifs).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de bugs récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur, taille ou filtres invalides"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide")
+    })
+    @GetMapping("/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<BugDTO>> getBugsPage(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WorkItemFilterDTO filter,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(bugService.getBugsPage(projectId, filter, cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid bug page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Récupérer une page de bugs du sprint actif",
+            description = "Même pagination par curseur et mêmes filtres que /{projectId}/page, limités au sprint actif du projet.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de bugs récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur, taille ou filtres invalides"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide")
+    })
+    @GetMapping("/active_sprint/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<BugDTO>> getBugsOfActiveSprintPage(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WorkItemFilterDTO filter,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(bugService.getBugsOfActiveSprintPage(projectId, filter, cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid active sprint bug page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
     @Operation(summary = "Joindre un fichier à un bug",
             description = "Cette méthode permet de joindre un fichier à un bug spécifique.")
     @ApiResponses(value = {
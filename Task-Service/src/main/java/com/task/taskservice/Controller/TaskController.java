@@ -13,11 +13,14 @@ import org.slf4j.LoggerFactory;
 import com.task.taskservice.Entity.Task;
 import com.task.taskservice.Mapper.TaskMapper;
 import com.task.taskservice.Service.TaskService;
+import com.task.taskservice.Service.WorkItemFacetService;
+import com.task.taskservice.Service.WorkItemSearchIndexer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -45,6 +48,10 @@ public class TaskController {
     private TaskService taskService;
     @Autowired
     private TaskMapper taskMapper;
+    @Autowired
+    private WorkItemSearchIndexer searchIndexer;
+    @Autowired
+    private WorkItemFacetService workItemFacetService;
 
     @Operation(summary = "Créer une tâche",
             description = "Cette méthode permet de créer une nouvelle tâche pour une user story spécifique dans un projet.")
@@ -173,6 +180,151 @@ public class TaskController {
         return new ResponseEntity<>(tasks, HttpStatus.OK);
     }
 
+    @Operation(summary = "Récupérer une page de tâches d'un projet",
+            description = "Pagination par curseur : renvoyer nextCursor pour obtenir la page suivante (null sur la dernière). " +
+                    "Filtres optionnels : status, priority, assignee, tag, dueFrom et dueTo (yyyy-MM-dd, inclusifs).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de tâches récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur, taille ou filtres invalides"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide")
+    })
+    @GetMapping("/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getTasksPage(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WorkItemFilterDTO filter,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksPage(projectId, filter, cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid task page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Récupérer une page de tâches du sprint actif",
+            description = "Même pagination par curseur et mêmes filtres que /{projectId}/page, limités au sprint actif du projet.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de tâches récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur, taille ou filtres invalides"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide")
+    })
+    @GetMapping("/active_sprint/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getTasksOfActiveSprintPage(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WorkItemFilterDTO filter,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksOfActiveSprintPage(projectId, filter, cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid active sprint task page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Synchroniser le tableau du sprint actif par version",
+            description = "Renvoie les tâches créées ou modifiées et les ids des tâches supprimées depuis sinceVersion, avec la nouvelle version. " +
+                    "Sans sinceVersion (ou 0), avec une version trop ancienne ou trop de changements : tableau complet (resync = true).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changements récupérés avec succès"),
+            @ApiResponse(responseCode = "400", description = "sinceVersion invalide ou token invalide")
+    })
+    @GetMapping("/active_sprint/{projectId}/changes")
+    public ResponseEntity<BoardChangesDTO> getActiveSprintChanges(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.getActiveSprintChanges(projectId, sinceVersion, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid active sprint changes request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Rechercher des work items",
+            description = "Recherche plein texte classée dans le titre, la description, les tags et les commentaires des tâches et bugs d'un projet, " +
+                    "filtrable par statut, assigné et type (TASK, BUG, SUBTASK).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Résultats récupérés avec succès"),
+            @ApiResponse(responseCode = "400", description = "Filtre invalide ou token invalide")
+    })
+    @GetMapping("/search/{projectId}")
+    public ResponseEntity<List<WorkItemSearchHitDTO>> searchWorkItems(
+            @PathVariable Long projectId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.searchWorkItems(projectId, query, status, assignee, type, limit, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Saisie semi-automatique des work items",
+            description = "Retourne les tâches et bugs d'un projet dont le titre ou un tag commence par les mots saisis.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions récupérées avec succès"),
+            @ApiResponse(responseCode = "400", description = "Token invalide")
+    })
+    @GetMapping("/search/{projectId}/typeahead")
+    public ResponseEntity<List<WorkItemSearchHitDTO>> typeaheadWorkItems(
+            @PathVariable Long projectId,
+            @RequestParam("q") String prefix,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.typeaheadWorkItems(projectId, prefix, limit, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid typeahead request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Filtrer les work items par facettes",
+            description = "Combine en ET / OU / NON des filtres sur status, priority, assignee, tag, type et story, renvoie une page " +
+                    "(curseur) des items retenus et les comptes par valeur des facettes demandées dans counts.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page et comptes récupérés avec succès"),
+            @ApiResponse(responseCode = "400", description = "Filtre, curseur ou token invalide")
+    })
+    @PostMapping("/facets/{projectId}")
+    public ResponseEntity<FacetPageDTO> queryFacets(
+            @PathVariable Long projectId,
+            @RequestBody(required = false) FacetQueryDTO query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(workItemFacetService.query(projectId, query, cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid facet query: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    @Operation(summary = "Reconstruire l'index de recherche",
+            description = "Relit tous les work items et réécrit l'index de recherche en arrière-plan ; l'index reste servi pendant la reconstruction.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Reconstruction lancée"),
+            @ApiResponse(responseCode = "409", description = "Reconstruction déjà en cours")
+    })
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        return searchIndexer.rebuild()
+                ? ResponseEntity.status(HttpStatus.ACCEPTED).build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
     @Operation(summary = "Récupérer les tâches d'un utilisateur dans les sprints actifs",
             description = "Cette méthode permet de récupérer la liste des tâches assignées à un utilisateur dans les sprints actifs.")
     @ApiResponses(value = {
@@ -356,12 +508,70 @@ public class TaskController {
             @ApiResponse(responseCode = "404", description = "Tâche non trouvée")
     })
     @GetMapping("/{taskId}/potential-dependencies")
-    public ResponseEntity<List<TaskDTO>> getPotentialDependencies(
+    public ResponseEntity<List<TaskSummaryDTO>> getPotentialDependencies(
             @PathVariable Long taskId,
             @RequestHeader("Authorization") String token) {
-        List<TaskDTO> potentialDependencies = taskService.getPotentialDependencies(taskId, token);
+        List<TaskSummaryDTO> potentialDependencies = taskService.getPotentialDependencies(taskId, token);
         return new ResponseEntity<>(potentialDependencies, HttpStatus.OK);
     }
+    @Operation(summary = "Récupérer les tâches bloquées d'un projet",
+            description = "Cette méthode retourne les tâches du projet ayant au moins une dépendance non terminée.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tâches bloquées récupérées avec succès"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide")
+    })
+    @GetMapping("/blocked/{projectId}")
+    public ResponseEntity<List<TaskSummaryDTO>> getBlockedTasks(
+            @PathVariable Long projectId,
+            @RequestHeader("Authorization") String token) {
+        List<TaskSummaryDTO> blockedTasks = taskService.getBlockedTasks(projectId, token);
+        return new ResponseEntity<>(blockedTasks, HttpStatus.OK);
+    }
+    @Operation(summary = "Récupérer l'ordonnancement d'un projet",
+            description = "Cette méthode retourne, pour chaque tâche, les dates au plus tôt et au plus tard, la marge, ainsi que le chemin critique et la fin projetée du projet.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ordonnancement calculé avec succès"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide"),
+            @ApiResponse(responseCode = "409", description = "Cycle dans les dépendances du projet")
+    })
+    @GetMapping("/schedule/{projectId}")
+    public ResponseEntity<ProjectScheduleDTO> getProjectSchedule(
+            @PathVariable Long projectId,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.getProjectSchedule(projectId, token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+        } catch (IllegalStateException e) {
+            logger.error("Schedule unavailable for project {}: {}", projectId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        }
+    }
+    @Operation(summary = "Simuler le retard d'une tâche",
+            description = "Cette méthode retourne les tâches en aval décalées et le recul de la fin du projet si la tâche finit plus tard (delayMinutes ou delayDays).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Impact calculé avec succès"),
+            @ApiResponse(responseCode = "400", description = "Requête invalide"),
+            @ApiResponse(responseCode = "404", description = "Tâche non trouvée dans le projet")
+    })
+    @GetMapping("/schedule/{projectId}/impact/{taskId}")
+    public ResponseEntity<ScheduleImpactDTO> getScheduleImpact(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestParam(required = false) Long delayMinutes,
+            @RequestParam(required = false) Long delayDays,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.getScheduleImpact(projectId, taskId, delayMinutes, delayDays, token));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        } catch (IllegalStateException e) {
+            logger.error("Schedule unavailable for project {}: {}", projectId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        }
+    }
     @Operation(summary = "Récupérer l'historique d'une tâche",
             description = "Cette méthode permet de récupérer l'historique des modifications d'une tâche spécifique.")
     @ApiResponses(value = {
@@ -391,6 +601,29 @@ public class TaskController {
         return ResponseEntity.ok(history);
     }
 
+    @Operation(summary = "Récupérer une page de l'historique d'une tâche",
+            description = "Entrées du plus récent au plus ancien, avec les noms des auteurs. Pagination par curseur : " +
+                    "renvoyer nextCursor pour obtenir la page suivante (null sur la dernière).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page d'historique récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur ou taille invalide"),
+            @ApiResponse(responseCode = "401", description = "Non autorisé, token invalide"),
+            @ApiResponse(responseCode = "404", description = "Tâche non trouvée")
+    })
+    @GetMapping("/{taskId}/history/page")
+    public ResponseEntity<CursorPageDTO<WorkItemHistoryDTO>> getTaskHistoryPage(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader("Authorization") String token) {
+        try {
+            return ResponseEntity.ok(taskService.getTaskHistoryPage(taskId, cursor, size, token));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid task history page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
 
     @Operation(summary = "Récupérer toutes les tâches d'un projet",
             description = "Cette méthode permet de récupérer toutes les tâches associées à un projet spécifique.")
@@ -403,6 +636,26 @@ public class TaskController {
         List<Task> tasks = taskService.getTasksByProjectId(projectId);
         return ResponseEntity.ok(tasks);
     }
+
+    @Operation(summary = "Récupérer une page des tâches d'un projet (interne)",
+            description = "Version paginée par curseur de /{projectId}/fetch_tasks, pour un usage interne entre services.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de tâches récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur, taille ou filtres invalides")
+    })
+    @GetMapping("/{projectId}/fetch_tasks/page")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getTasksPageInternal(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WorkItemFilterDTO filter) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksPageInternal(projectId, filter, cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid internal task page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
     @Operation(summary = "Compter les tâches d'un projet",
             description = "Cette méthode permet de compter le nombre total de tâches associées à un projet spécifique.")
     @ApiResponses(value = {
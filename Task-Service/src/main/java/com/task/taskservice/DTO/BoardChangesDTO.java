@@ -0,0 +1,69 @@
+package com.task.taskservice.DTO;
+
+import java.util.List;
+
+/**
+ * Réponse de la synchronisation par version du tableau du sprint actif. version est à renvoyer en
+ * sinceVersion à l'appel suivant. resync = true : items contient tout le tableau (premier appel, version
+ * trop ancienne ou trop de changements) et remplace la copie du client ; sinon items ne contient que
+ * les tâches créées ou modifiées et deletedIds les tâches supprimées depuis sinceVersion.
+ * activeStoryIds permet au client de détecter un changement du contenu du sprint (à relire avec sinceVersion=0).
+ */
+public class BoardChangesDTO {
+    private long version;
+    private boolean resync;
+    private List<Long> activeStoryIds;
+    private List<TaskDTO> items;
+    private List<Long> deletedIds;
+
+    public BoardChangesDTO() {}
+
+    public BoardChangesDTO(long version, boolean resync, List<Long> activeStoryIds, List<TaskDTO> items, List<Long> deletedIds) {
+        this.version = version;
+        this.resync = resync;
+        this.activeStoryIds = activeStoryIds;
+        this.items = items;
+        this.deletedIds = deletedIds;
+    }
+
+    // Getters et setters
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    public List<Long> getActiveStoryIds() {
+        return activeStoryIds;
+    }
+
+    public void setActiveStoryIds(List<Long> activeStoryIds) {
+        this.activeStoryIds = activeStoryIds;
+    }
+
+    public List<TaskDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TaskDTO> items) {
+        this.items = items;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+}
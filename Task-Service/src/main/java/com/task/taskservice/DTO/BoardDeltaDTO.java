@@ -0,0 +1,69 @@
+package com.task.taskservice.DTO;
+
+import java.util.Map;
+
+/**
+ * Changement d'un work item du tableau de sprint : op UPSERT avec les seuls champs modifiés (tous les champs
+ * pour un item créé), ou DELETE sans champs.
+ */
+public class BoardDeltaDTO {
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private Long id;
+    private String itemType;
+    private String op;
+    private Long userStoryId;
+    private Map<String, Object> fields;
+
+    public BoardDeltaDTO() {}
+
+    public BoardDeltaDTO(Long id, String itemType, String op, Long userStoryId, Map<String, Object> fields) {
+        this.id = id;
+        this.itemType = itemType;
+        this.op = op;
+        this.userStoryId = userStoryId;
+        this.fields = fields;
+    }
+
+    // Getters et setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getUserStoryId() {
+        return userStoryId;
+    }
+
+    public void setUserStoryId(Long userStoryId) {
+        this.userStoryId = userStoryId;
+    }
+
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+    public void setFields(Map<String, Object> fields) {
+        this.fields = fields;
+    }
+}
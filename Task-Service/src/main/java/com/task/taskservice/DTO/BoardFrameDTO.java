@@ -0,0 +1,84 @@
+package com.task.taskservice.DTO;
+
+import java.util.List;
+
+/**
+ * Trame envoyée sur /topic/boards/{projectId} : les changements du tableau de sprint regroupés sur une courte
+ * fenêtre. seq augmente de 1 à chaque trame d'un même tableau et d'une même instance (epoch) : un trou dans
+ * seq, un epoch différent ou resync = true signifie que le client doit relire le tableau.
+ * version, présente seulement sur les trames d'annonce (sans deltas), est la version courante du projet : si elle
+ * dépasse la dernière version lue par le client, des écritures d'autres instances lui manquent et il relit
+ * /active_sprint/{projectId}/changes?sinceVersion=.
+ */
+public class BoardFrameDTO {
+    private Long projectId;
+    private String epoch;
+    private long seq;
+    private boolean resync;
+    private List<BoardDeltaDTO> deltas;
+    private Long version;
+
+    public BoardFrameDTO() {}
+
+    public BoardFrameDTO(Long projectId, String epoch, long seq, boolean resync, List<BoardDeltaDTO> deltas) {
+        this.projectId = projectId;
+        this.epoch = epoch;
+        this.seq = seq;
+        this.resync = resync;
+        this.deltas = deltas;
+    }
+
+    public BoardFrameDTO(Long projectId, String epoch, long seq, boolean resync, List<BoardDeltaDTO> deltas, Long version) {
+        this(projectId, epoch, seq, resync, deltas);
+        this.version = version;
+    }
+
+    // Getters et setters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    public List<BoardDeltaDTO> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(List<BoardDeltaDTO> deltas) {
+        this.deltas = deltas;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
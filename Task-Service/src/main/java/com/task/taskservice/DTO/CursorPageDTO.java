@@ -0,0 +1,36 @@
+package com.task.taskservice.DTO;
+
+import java.util.List;
+
+/**
+ * Page d'une liste parcourue par curseur : nextCursor est à renvoyer tel quel pour obtenir la page
+ * suivante, il vaut null sur la dernière page.
+ */
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPageDTO() {}
+
+    public CursorPageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters et setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.task.taskservice.DTO;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filtre à facettes, sous forme d'arbre. Une feuille porte une facette (status, priority, assignee, tag,
+ * type, story) et ses valeurs acceptées (OU entre les valeurs) ; un nœud porte op (AND, OR, NOT) et ses
+ * filtres fils. NOT garde les items qui ne vérifient aucun de ses fils.
+ */
+public class FacetFilterDTO {
+    private String op;
+    private List<FacetFilterDTO> filters;
+    private String facet;
+    private List<String> values;
+
+    public FacetFilterDTO() {}
+
+    public static FacetFilterDTO facet(String facet, String... values) {
+        FacetFilterDTO filter = new FacetFilterDTO();
+        filter.setFacet(facet);
+        filter.setValues(Arrays.asList(values));
+        return filter;
+    }
+
+    public static FacetFilterDTO op(String op, FacetFilterDTO... filters) {
+        FacetFilterDTO filter = new FacetFilterDTO();
+        filter.setOp(op);
+        filter.setFilters(Arrays.asList(filters));
+        return filter;
+    }
+
+    // Getters et setters
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+    public List<FacetFilterDTO> getFilters() { return filters; }
+    public void setFilters(List<FacetFilterDTO> filters) { this.filters = filters; }
+    public String getFacet() { return facet; }
+    public void setFacet(String facet) { this.facet = facet; }
+    public List<String> getValues() { return values; }
+    public void setValues(List<String> values) { this.values = values; }
+}
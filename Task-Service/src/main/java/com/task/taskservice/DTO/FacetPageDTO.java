@@ -0,0 +1,44 @@
+package com.task.taskservice.DTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page d'une requête à facettes : ids de la page par id croissant (tous types), tâches et bugs de la page
+ * chargés en lot, total des items retenus et comptes par valeur des facettes demandées.
+ * nextCursor suit les règles de CursorPageDTO.
+ */
+public class FacetPageDTO {
+    private long total;
+    private Map<String, Map<String, Long>> counts;
+    private List<Long> ids;
+    private List<TaskDTO> tasks;
+    private List<BugDTO> bugs;
+    private String nextCursor;
+
+    public FacetPageDTO() {}
+
+    public FacetPageDTO(long total, Map<String, Map<String, Long>> counts, List<Long> ids,
+                        List<TaskDTO> tasks, List<BugDTO> bugs, String nextCursor) {
+        this.total = total;
+        this.counts = counts;
+        this.ids = ids;
+        this.tasks = tasks;
+        this.bugs = bugs;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters et setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public Map<String, Map<String, Long>> getCounts() { return counts; }
+    public void setCounts(Map<String, Map<String, Long>> counts) { this.counts = counts; }
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public List<TaskDTO> getTasks() { return tasks; }
+    public void setTasks(List<TaskDTO> tasks) { this.tasks = tasks; }
+    public List<BugDTO> getBugs() { return bugs; }
+    public void setBugs(List<BugDTO> bugs) { this.bugs = bugs; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
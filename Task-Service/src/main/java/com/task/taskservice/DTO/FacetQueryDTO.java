@@ -0,0 +1,25 @@
+package com.task.taskservice.DTO;
+
+import java.util.List;
+
+/**
+ * Requête à facettes : filtre (null : tous les items du projet) et facettes dont compter les valeurs
+ * parmi les items retenus.
+ */
+public class FacetQueryDTO {
+    private FacetFilterDTO filter;
+    private List<String> counts;
+
+    public FacetQueryDTO() {}
+
+    public FacetQueryDTO(FacetFilterDTO filter, List<String> counts) {
+        this.filter = filter;
+        this.counts = counts;
+    }
+
+    // Getters et setters
+    public FacetFilterDTO getFilter() { return filter; }
+    public void setFilter(FacetFilterDTO filter) { this.filter = filter; }
+    public List<String> getCounts() { return counts; }
+    public void setCounts(List<String> counts) { this.counts = counts; }
+}
@@ -0,0 +1,43 @@
+package com.task.taskservice.DTO;
+
+/**
+ * Dépôt GitHub et utilisateur GitHub liés à un projet (ingestion des commits par Task-Service).
+ */
+public class GitHubLinkDTO {
+    private Long projectId;
+    private String repositoryUrl;
+    private String userId;
+
+    public GitHubLinkDTO() {}
+
+    public GitHubLinkDTO(Long projectId, String repositoryUrl, String userId) {
+        this.projectId = projectId;
+        this.repositoryUrl = repositoryUrl;
+        this.userId = userId;
+    }
+
+    // Getters et setters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public void setRepositoryUrl(String repositoryUrl) {
+        this.repositoryUrl = repositoryUrl;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+}
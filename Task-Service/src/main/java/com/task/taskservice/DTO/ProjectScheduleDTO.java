@@ -0,0 +1,58 @@
+package com.task.taskservice.DTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ordonnancement d'un projet : fin projetée, chemin critique et position de chaque tâche (ordre topologique).
+ */
+public class ProjectScheduleDTO {
+    private Long projectId;
+    private long remainingMinutes;
+    private LocalDate projectedEndDate;
+    private List<Long> criticalPath;
+    private List<TaskScheduleDTO> tasks;
+
+    public ProjectScheduleDTO() {}
+
+    // Getters et setters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getRemainingMinutes() {
+        return remainingMinutes;
+    }
+
+    public void setRemainingMinutes(long remainingMinutes) {
+        this.remainingMinutes = remainingMinutes;
+    }
+
+    public LocalDate getProjectedEndDate() {
+        return projectedEndDate;
+    }
+
+    public void setProjectedEndDate(LocalDate projectedEndDate) {
+        this.projectedEndDate = projectedEndDate;
+    }
+
+    public List<Long> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public void setCriticalPath(List<Long> criticalPath) {
+        this.criticalPath = criticalPath;
+    }
+
+    public List<TaskScheduleDTO> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskScheduleDTO> tasks) {
+        this.tasks = tasks;
+    }
+}
@@ -0,0 +1,58 @@
+package com.task.taskservice.DTO;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Effet simulé d'un retard sur une tâche : décalage de la fin du projet et des tâches en aval (minutes).
+ */
+public class ScheduleImpactDTO {
+    private Long taskId;
+    private long delayMinutes;
+    private long projectDelayMinutes;
+    private LocalDate projectedEndDate;
+    private Map<Long, Long> shiftedTasks;
+
+    public ScheduleImpactDTO() {}
+
+    // Getters et setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public long getDelayMinutes() {
+        return delayMinutes;
+    }
+
+    public void setDelayMinutes(long delayMinutes) {
+        this.delayMinutes = delayMinutes;
+    }
+
+    public long getProjectDelayMinutes() {
+        return projectDelayMinutes;
+    }
+
+    public void setProjectDelayMinutes(long projectDelayMinutes) {
+        this.projectDelayMinutes = projectDelayMinutes;
+    }
+
+    public LocalDate getProjectedEndDate() {
+        return projectedEndDate;
+    }
+
+    public void setProjectedEndDate(LocalDate projectedEndDate) {
+        this.projectedEndDate = projectedEndDate;
+    }
+
+    public Map<Long, Long> getShiftedTasks() {
+        return shiftedTasks;
+    }
+
+    public void setShiftedTasks(Map<Long, Long> shiftedTasks) {
+        this.shiftedTasks = shiftedTasks;
+    }
+}
@@ -0,0 +1,16 @@
+package com.task.taskservice.DTO;
+
+import com.task.taskservice.Enumeration.WorkItemPriority;
+
+import java.time.LocalDate;
+
+/**
+ * Projection Spring Data (interface fermée) : seules ces colonnes sont lues,
+ * sans charger l'entité Task ni ses collections.
+ */
+public interface TaskBriefProjection {
+    Long getId();
+    String getTitle();
+    LocalDate getDueDate();
+    WorkItemPriority getPriority();
+}
@@ -0,0 +1,112 @@
+package com.task.taskservice.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * Position d'une tâche dans l'ordonnancement du projet. Les dates au plus tôt / au plus tard sont en minutes
+ * de travail depuis le début de la journée (projectedFinishDate en est la traduction calendaire).
+ */
+public class TaskScheduleDTO {
+    private Long taskId;
+    private long remainingMinutes;
+    private long earliestStart;
+    private long earliestFinish;
+    private long latestStart;
+    private long latestFinish;
+    private long slack;
+    private boolean critical;
+    private LocalDate dueDate;
+    private LocalDate projectedFinishDate;
+    private boolean late;
+
+    public TaskScheduleDTO() {}
+
+    // Getters et setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public long getRemainingMinutes() {
+        return remainingMinutes;
+    }
+
+    public void setRemainingMinutes(long remainingMinutes) {
+        this.remainingMinutes = remainingMinutes;
+    }
+
+    public long getEarliestStart() {
+        return earliestStart;
+    }
+
+    public void setEarliestStart(long earliestStart) {
+        this.earliestStart = earliestStart;
+    }
+
+    public long getEarliestFinish() {
+        return earliestFinish;
+    }
+
+    public void setEarliestFinish(long earliestFinish) {
+        this.earliestFinish = earliestFinish;
+    }
+
+    public long getLatestStart() {
+        return latestStart;
+    }
+
+    public void setLatestStart(long latestStart) {
+        this.latestStart = latestStart;
+    }
+
+    public long getLatestFinish() {
+        return latestFinish;
+    }
+
+    public void setLatestFinish(long latestFinish) {
+        this.latestFinish = latestFinish;
+    }
+
+    public long getSlack() {
+        return slack;
+    }
+
+    public void setSlack(long slack) {
+        this.slack = slack;
+    }
+
+    public boolean isCritical() {
+        return critical;
+    }
+
+    public void setCritical(boolean critical) {
+        this.critical = critical;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public LocalDate getProjectedFinishDate() {
+        return projectedFinishDate;
+    }
+
+    public void setProjectedFinishDate(LocalDate projectedFinishDate) {
+        this.projectedFinishDate = projectedFinishDate;
+    }
+
+    public boolean isLate() {
+        return late;
+    }
+
+    public void setLate(boolean late) {
+        this.late = late;
+    }
+}
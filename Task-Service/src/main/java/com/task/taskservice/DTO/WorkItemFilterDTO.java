@@ -0,0 +1,89 @@
+package com.task.taskservice.DTO;
+
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtres des listes paginées de tâches et de bugs, lus depuis les paramètres de la requête.
+ * Un champ null n'est pas filtré ; dueFrom et dueTo sont inclusifs.
+ */
+public class WorkItemFilterDTO {
+    private WorkItemStatus status;
+    private WorkItemPriority priority;
+    private String assignee;
+    private String tag;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    public WorkItemFilterDTO() {}
+
+    public WorkItemFilterDTO(WorkItemStatus status, WorkItemPriority priority, String assignee, String tag,
+                             LocalDate dueFrom, LocalDate dueTo) {
+        this.status = status;
+        this.priority = priority;
+        this.assignee = assignee;
+        this.tag = tag;
+        this.dueFrom = dueFrom;
+        this.dueTo = dueTo;
+    }
+
+    public static WorkItemFilterDTO none() {
+        return new WorkItemFilterDTO();
+    }
+
+    // Getters et setters
+    public WorkItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WorkItemStatus status) {
+        this.status = status;
+    }
+
+    public WorkItemPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(WorkItemPriority priority) {
+        this.priority = priority;
+    }
+
+    public String getAssignee() {
+        return assignee;
+    }
+
+    public void setAssignee(String assignee) {
+        this.assignee = assignee;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(LocalDate dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(LocalDate dueTo) {
+        this.dueTo = dueTo;
+    }
+}
@@ -0,0 +1,41 @@
+package com.task.taskservice.DTO;
+
+/**
+ * Résultat de recherche : champs stockés dans l'index, sans relecture de la base.
+ */
+public class WorkItemSearchHitDTO {
+    private Long id;
+    private String itemType;
+    private Long projectId;
+    private Long userStoryId;
+    private String title;
+    private String status;
+    private float score;
+
+    public WorkItemSearchHitDTO() {}
+
+    public WorkItemSearchHitDTO(Long id, String itemType, Long projectId, Long userStoryId, String title, String status, float score) {
+        this.id = id;
+        this.itemType = itemType;
+        this.projectId = projectId;
+        this.userStoryId = userStoryId;
+        this.title = title;
+        this.status = status;
+        this.score = score;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getItemType() { return itemType; }
+    public void setItemType(String itemType) { this.itemType = itemType; }
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public Long getUserStoryId() { return userStoryId; }
+    public void setUserStoryId(Long userStoryId) { this.userStoryId = userStoryId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public float getScore() { return score; }
+    public void setScore(float score) { this.score = score; }
+}
@@ -6,8 +6,16 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
 
 @Entity
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Bug.assignedUserIds", attributeNodes = @NamedAttributeNode("assignedUserIds")),
+        @NamedEntityGraph(name = "Bug.itemtags", attributeNodes = @NamedAttributeNode("itemtags")),
+        @NamedEntityGraph(name = "Bug.attachments", attributeNodes = @NamedAttributeNode("attachments"))
+})
 public class Bug extends WorkItem {
     @Enumerated(EnumType.STRING)
     @Column(name = "severity")
@@ -0,0 +1,81 @@
+package com.task.taskservice.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Point de reprise de l'ingestion des commits GitHub d'un projet : date du commit le plus récent traité,
+ * passée en « since » à l'exécution suivante. Une fenêtre trop longue pour max-pages est lue en plusieurs
+ * exécutions : backfillUntil est la date du plus ancien commit déjà lu (« until » de la suite) et
+ * backfillNewest celle du plus récent, qui devient lastCommitAt une fois la fenêtre entièrement lue.
+ */
+@Entity
+@Table(name = "commit_sync_state")
+public class CommitSyncState {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "last_commit_at")
+    private Instant lastCommitAt;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
+
+    @Column(name = "backfill_until")
+    private Instant backfillUntil;
+
+    @Column(name = "backfill_newest")
+    private Instant backfillNewest;
+
+    public CommitSyncState() {}
+
+    public CommitSyncState(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    // Getters and setters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Instant getLastCommitAt() {
+        return lastCommitAt;
+    }
+
+    public void setLastCommitAt(Instant lastCommitAt) {
+        this.lastCommitAt = lastCommitAt;
+    }
+
+    public Instant getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(Instant lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public Instant getBackfillUntil() {
+        return backfillUntil;
+    }
+
+    public void setBackfillUntil(Instant backfillUntil) {
+        this.backfillUntil = backfillUntil;
+    }
+
+    public Instant getBackfillNewest() {
+        return backfillNewest;
+    }
+
+    public void setBackfillNewest(Instant backfillNewest) {
+        this.backfillNewest = backfillNewest;
+    }
+}
@@ -5,10 +5,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "processed_commits")
+@Table(name = "processed_commits", indexes = @Index(name = "idx_processed_commits_project_sha", columnList = "project_id, commit_sha"))
 public class ProcessedCommit {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
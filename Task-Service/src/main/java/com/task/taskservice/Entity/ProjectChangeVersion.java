@@ -0,0 +1,55 @@
+package com.task.taskservice.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Compteur de versions d'un projet, incrémenté par chaque transaction qui écrit un de ses work items.
+ * purgedVersion : plus haute version des pierres tombales déjà purgées ; un client resté en deçà doit tout relire.
+ */
+@Entity
+@Table(name = "project_change_versions")
+public class ProjectChangeVersion {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "purged_version", nullable = false)
+    private long purgedVersion;
+
+    public ProjectChangeVersion() {
+    }
+
+    public ProjectChangeVersion(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getPurgedVersion() {
+        return purgedVersion;
+    }
+
+    public void setPurgedVersion(long purgedVersion) {
+        this.purgedVersion = purgedVersion;
+    }
+}
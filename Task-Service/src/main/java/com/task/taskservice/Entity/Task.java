@@ -4,10 +4,20 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
 
 import java.util.List;
 
 @Entity
+// Un graphe par collection lue par TaskMapper : deux listes (bags) ne peuvent pas être chargées dans la même requête
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Task.assignedUserIds", attributeNodes = @NamedAttributeNode("assignedUserIds")),
+        @NamedEntityGraph(name = "Task.itemtags", attributeNodes = @NamedAttributeNode("itemtags")),
+        @NamedEntityGraph(name = "Task.dependencies", attributeNodes = @NamedAttributeNode("dependencies")),
+        @NamedEntityGraph(name = "Task.attachments", attributeNodes = @NamedAttributeNode("attachments"))
+})
 public class Task extends WorkItem {
     @ManyToMany
     @JoinTable(
@@ -5,19 +5,36 @@ import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
 import jakarta.persistence.*;
 
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Pattern;
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
+@Table(indexes = {
+        // Pagination par clé : « projectId = ? AND id > ? ORDER BY id » et « userStory IN (...) AND id > ? »
+        @Index(name = "idx_workitem_project_id", columnList = "projectId, id"),
+        @Index(name = "idx_workitem_user_story", columnList = "userStory, id"),
+        // Recherche par titre : « normalizedTitle IN (...) AND projectId = ? » (commits) et « normalizedTitle = ? » (chatbot)
+        @Index(name = "idx_workitem_normalized_title", columnList = "normalizedTitle, projectId"),
+        // Synchronisation par version : « projectId = ? AND changeVersion > ? »
+        @Index(name = "idx_workitem_project_version", columnList = "projectId, changeVersion")
+})
 public abstract class WorkItem {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     protected Long id;
     private String title;
+    // Titre sans casse, accents ni espaces superflus (normalizeTitle), tenu à jour par setTitle
+    private String normalizedTitle;
     protected String description;
     protected LocalDate creationDate;
     protected LocalDate lastModifiedDate;
@@ -38,8 +55,10 @@ public abstract class WorkItem {
     protected String updatedBy;
 
 
+    // Historique des tâches : écrit par WorkItemHistoryWriter et lu par WorkItemHistoryRepository,
+    // la collection ne sert plus qu'à supprimer l'historique avec l'item
     @OneToMany(mappedBy = "workItem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Set<WorkItemHistory> history = new HashSet<>();  // Historique des tâches
+    private Set<WorkItemHistory> history = new HashSet<>();
 
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
@@ -52,13 +71,16 @@ public abstract class WorkItem {
     @ElementCollection
     @CollectionTable(
             name = "workitem_assigned_user",
-            joinColumns = @JoinColumn(name = "workitem_id")
+            joinColumns = @JoinColumn(name = "workitem_id"),
+            indexes = @Index(name = "idx_workitem_assigned_user_user_id", columnList = "user_id")
     )
     @Column(name = "user_id")
     private Set<String> assignedUserIds = new HashSet<>();
     protected Long userStory;
 protected String createdBy;
     protected Long projectId;         // L'ID de la User Story (venant du User Story MS)
+    // Version du projet à la dernière écriture (ChangeVersionService) ; null si jamais modifié depuis
+    protected Long changeVersion;
 
     @OneToMany(cascade = CascadeType.ALL)
     @JsonIgnore
@@ -98,6 +120,31 @@ protected String createdBy;
 
     public void setTitle(String title) {
         this.title = title;
+        this.normalizedTitle = normalizeTitle(title);
+    }
+
+    public String getNormalizedTitle() {
+        return normalizedTitle;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        normalizedTitle = normalizeTitle(title);
+    }
+
+    /**
+     * « Écran  de Connexion » et « ecran de connexion » donnent la même clé : décomposition Unicode (NFKD),
+     * suppression des accents, espaces consécutifs réduits à un seul, minuscules.
+     */
+    public static String normalizeTitle(String title) {
+        if (title == null) {
+            return null;
+        }
+        String withoutAccents = COMBINING_MARKS.matcher(Normalizer.normalize(title, Normalizer.Form.NFKD)).replaceAll("");
+        String normalized = WHITESPACE.matcher(withoutAccents.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        // Même longueur de colonne que title (la décomposition NFKD peut allonger certains caractères)
+        return normalized.length() > 255 ? normalized.substring(0, 255) : normalized;
     }
 
     public String getDescription() {
@@ -195,6 +242,14 @@ protected String createdBy;
     public void setProjectId(Long  projectId) {
         this. projectId =  projectId;
     }
+
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(Long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
     public List<Comment> getComments() {
         return comments;
     }
@@ -0,0 +1,87 @@
+package com.task.taskservice.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Nombre de work items non terminés d'une user story, par type (TASK/BUG) et date d'échéance : les retards
+ * sont la somme des lignes échues au moment de la lecture, sans mise à jour au changement de jour.
+ * L'id est la concaténation de ces dimensions (voir WorkItemStatsService.Key).
+ */
+@Entity
+@Table(name = "work_item_due_stats",
+        indexes = @Index(name = "idx_work_item_due_stats_type_story_due", columnList = "item_type, user_story, due_date"))
+public class WorkItemDueStat {
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "item_type", nullable = false, length = 8)
+    private String itemType;
+
+    @Column(name = "user_story", nullable = false)
+    private Long userStory;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    public WorkItemDueStat() {
+    }
+
+    public WorkItemDueStat(String id, String itemType, Long userStory, LocalDate dueDate, long itemCount) {
+        this.id = id;
+        this.itemType = itemType;
+        this.userStory = userStory;
+        this.dueDate = dueDate;
+        this.itemCount = itemCount;
+    }
+
+    // Getters et setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public Long getUserStory() {
+        return userStory;
+    }
+
+    public void setUserStory(Long userStory) {
+        this.userStory = userStory;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+}
@@ -7,12 +7,16 @@ import java.time.LocalDateTime;
 
 
 @Entity
+@Table(indexes = {
+        // Historique d'un work item lu par clé : « workitem_id = ? AND id < ? ORDER BY id DESC »
+        @Index(name = "idx_workitem_history_item", columnList = "workitem_id, id")
+})
 public class WorkItemHistory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workitem_id")
     private WorkItem workItem;  // Référence vers la tâche associée
 
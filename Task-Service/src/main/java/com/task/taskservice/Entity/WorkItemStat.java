@@ -0,0 +1,101 @@
+package com.task.taskservice.Entity;
+
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Compteur de work items pour une user story, par type (TASK/BUG), statut et priorité : quelques lignes par
+ * user story. Les retards sont comptés à part (WorkItemDueStat).
+ * L'id est la concaténation de ces dimensions (voir WorkItemStatsService.Key).
+ */
+@Entity
+@Table(name = "work_item_stats", indexes = @Index(name = "idx_work_item_stats_type_story", columnList = "item_type, user_story"))
+public class WorkItemStat {
+    @Id
+    @Column(length = 128)
+    private String id;
+
+    @Column(name = "item_type", nullable = false, length = 8)
+    private String itemType;
+
+    @Column(name = "user_story", nullable = false)
+    private Long userStory;
+
+    @Enumerated(EnumType.STRING)
+    private WorkItemStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private WorkItemPriority priority;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    public WorkItemStat() {
+    }
+
+    public WorkItemStat(String id, String itemType, Long userStory, WorkItemStatus status,
+                        WorkItemPriority priority, long itemCount) {
+        this.id = id;
+        this.itemType = itemType;
+        this.userStory = userStory;
+        this.status = status;
+        this.priority = priority;
+        this.itemCount = itemCount;
+    }
+
+    // Getters et setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public Long getUserStory() {
+        return userStory;
+    }
+
+    public void setUserStory(Long userStory) {
+        this.userStory = userStory;
+    }
+
+    public WorkItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WorkItemStatus status) {
+        this.status = status;
+    }
+
+    public WorkItemPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(WorkItemPriority priority) {
+        this.priority = priority;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+}
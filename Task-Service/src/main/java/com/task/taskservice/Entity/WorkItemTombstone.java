@@ -0,0 +1,71 @@
+package com.task.taskservice.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+// Trace d'un work item supprimé, renvoyée par la synchronisation par version puis purgée après rétention
+@Entity
+@Table(name = "work_item_tombstones",
+        indexes = @Index(name = "idx_work_item_tombstones_project_version", columnList = "project_id, change_version"))
+public class WorkItemTombstone {
+    @Id
+    @Column(name = "work_item_id")
+    private Long workItemId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "item_type", nullable = false, length = 8)
+    private String itemType;
+
+    @Column(name = "user_story")
+    private Long userStory;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public WorkItemTombstone() {
+    }
+
+    public WorkItemTombstone(Long workItemId, Long projectId, String itemType, Long userStory,
+                             long changeVersion, LocalDateTime deletedAt) {
+        this.workItemId = workItemId;
+        this.projectId = projectId;
+        this.itemType = itemType;
+        this.userStory = userStory;
+        this.changeVersion = changeVersion;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getWorkItemId() {
+        return workItemId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public Long getUserStory() {
+        return userStory;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -1,15 +1,32 @@
 package com.task.taskservice.Repository;
 
+import com.task.taskservice.DTO.BugCalendarDTO;
 import com.task.taskservice.Entity.Bug;
 import com.task.taskservice.Entity.FileAttachment;
+import com.task.taskservice.DTO.WorkItemFilterDTO;
+import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public interface BugRepository extends JpaRepository<Bug, Long> {
+    // Filtres optionnels des listes paginées (paramètre null = pas de filtre)
+    String PAGE_FILTER = " AND (:status IS NULL OR b.status = :status)" +
+            " AND (:priority IS NULL OR b.priority = :priority)" +
+            " AND (:assignee IS NULL OR :assignee MEMBER OF b.assignedUserIds)" +
+            " AND (:tag IS NULL OR EXISTS (SELECT g FROM b.itemtags g WHERE g.name = :tag))" +
+            " AND (:dueFrom IS NULL OR b.dueDate >= :dueFrom)" +
+            " AND (:dueTo IS NULL OR b.dueDate <= :dueTo)";
+
     List<Bug> findByProjectIdAndUserStory(Long projectId, Long userStoryId);
     List<Bug> findByProjectId(Long projectId);
     List<Bug> findByUserStoryIn(List<Long> userStoryIds);
@@ -23,4 +40,64 @@ public interface BugRepository extends JpaRepository<Bug, Long> {
     @Query("SELECT b.priority, COUNT(b) FROM Bug b WHERE b.userStory IN :userStoryIds GROUP BY b.priority")
     List<Object[]> countBugsByPriority(List<Long> userStoryIds);
     List<Bug> findByAttachmentsContaining(FileAttachment attachment);
+
+    // Recalcul complet des compteurs du tableau de bord (réconciliation périodique)
+    @Query("SELECT b.userStory, b.status, b.priority, COUNT(b) FROM Bug b WHERE b.userStory IS NOT NULL " +
+            "GROUP BY b.userStory, b.status, b.priority")
+    List<Object[]> aggregateStatsByUserStory();
+
+    @Query("SELECT b.userStory, b.dueDate, COUNT(b) FROM Bug b WHERE b.userStory IS NOT NULL AND b.status IS NOT NULL " +
+            "AND b.status <> :doneStatus AND b.dueDate IS NOT NULL GROUP BY b.userStory, b.dueDate")
+    List<Object[]> aggregateOpenDueDatesByUserStory(WorkItemStatus doneStatus);
+
+    @Query("SELECT new com.task.taskservice.DTO.BugCalendarDTO(b.id, b.title, b.startDate, b.dueDate) FROM Bug b WHERE b.userStory IN :userStoryIds")
+    List<BugCalendarDTO> findCalendarByUserStoryIn(List<Long> userStoryIds);
+
+    // Listes : phase 1, les ids seulement
+    @Query("SELECT b.id FROM Bug b WHERE b.projectId = :projectId AND b.userStory = :userStoryId")
+    List<Long> findIdsByProjectIdAndUserStory(Long projectId, Long userStoryId);
+
+    // Listes paginées : ids triés après le curseur, limités par pageable (size + 1)
+    @Query("SELECT b.id FROM Bug b WHERE b.projectId = :projectId AND b.id > :afterId" + PAGE_FILTER + " ORDER BY b.id")
+    List<Long> findPageIdsByProjectId(Long projectId, long afterId, WorkItemStatus status, WorkItemPriority priority,
+                                      String assignee, String tag, LocalDate dueFrom, LocalDate dueTo, Pageable pageable);
+
+    @Query("SELECT b.id FROM Bug b WHERE b.userStory IN :userStoryIds AND b.id > :afterId" + PAGE_FILTER + " ORDER BY b.id")
+    List<Long> findPageIdsByUserStoryIn(List<Long> userStoryIds, long afterId, WorkItemStatus status, WorkItemPriority priority,
+                                        String assignee, String tag, LocalDate dueFrom, LocalDate dueTo, Pageable pageable);
+
+    default List<Long> findPageIdsByProjectId(Long projectId, long afterId, WorkItemFilterDTO filter, int limit) {
+        return findPageIdsByProjectId(projectId, afterId, filter.getStatus(), filter.getPriority(), filter.getAssignee(),
+                filter.getTag(), filter.getDueFrom(), filter.getDueTo(), PageRequest.of(0, limit));
+    }
+
+    default List<Long> findPageIdsByUserStoryIn(List<Long> userStoryIds, long afterId, WorkItemFilterDTO filter, int limit) {
+        return findPageIdsByUserStoryIn(userStoryIds, afterId, filter.getStatus(), filter.getPriority(), filter.getAssignee(),
+                filter.getTag(), filter.getDueFrom(), filter.getDueTo(), PageRequest.of(0, limit));
+    }
+
+    // Listes : phase 2, une requête par collection lue par BugMapper
+    @EntityGraph("Bug.assignedUserIds")
+    @Query("SELECT b FROM Bug b WHERE b.id IN :ids ORDER BY b.id")
+    List<Bug> findWithAssignedUserIdsByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Bug.itemtags")
+    @Query("SELECT b FROM Bug b WHERE b.id IN :ids")
+    List<Bug> findWithTagsByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Bug.attachments")
+    @Query("SELECT b FROM Bug b WHERE b.id IN :ids")
+    List<Bug> findWithAttachmentsByIdIn(Collection<Long> ids);
+
+    // Même principe que TaskRepository.findAllWithDetailsByIdIn (appelant transactionnel)
+    @Transactional(readOnly = true)
+    default List<Bug> findAllWithDetailsByIdIn(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Bug> bugs = findWithAssignedUserIdsByIdIn(ids);
+        findWithTagsByIdIn(ids);
+        findWithAttachmentsByIdIn(ids);
+        return bugs;
+    }
 }
\ No newline at end of file
@@ -2,9 +2,14 @@ package com.task.taskservice.Repository;
 
 import com.task.taskservice.Entity.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByWorkItemIdOrderByCreatedAtAsc(Long workItemId);
+
+    @Query("SELECT c.workItem.id, c.content FROM Comment c WHERE c.workItem.id IN :workItemIds")
+    List<Object[]> findContentsByWorkItemIdIn(Collection<Long> workItemIds);
 }
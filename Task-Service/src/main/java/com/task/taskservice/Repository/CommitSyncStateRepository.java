@@ -0,0 +1,7 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.Entity.CommitSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CommitSyncStateRepository extends JpaRepository<CommitSyncState, Long> {
+}
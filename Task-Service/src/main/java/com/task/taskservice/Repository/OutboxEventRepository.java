@@ -0,0 +1,27 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.Entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Plus anciens événements en attente, verrouillés (FOR UPDATE SKIP LOCKED) : plusieurs instances
+    // du relais se partagent l'outbox sans publier deux fois le même lot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OutboxEvent o ORDER BY o.id")
+    List<OutboxEvent> lockOldest(Pageable pageable);
+
+    // Plus ancien événement en attente par clé hors du lot (ligne sautée car verrouillée par une autre instance)
+    @Query("SELECT o.eventKey, MIN(o.id) FROM OutboxEvent o WHERE o.eventKey IN :keys AND o.id NOT IN :ids " +
+            "GROUP BY o.eventKey")
+    List<Object[]> findOldestPendingByKeyOutside(Collection<String> keys, Collection<Long> ids);
+}
@@ -2,7 +2,15 @@ package com.task.taskservice.Repository;
 
 import com.task.taskservice.Entity.ProcessedCommit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProcessedCommitRepository extends JpaRepository<ProcessedCommit, Long> {
     boolean existsByCommitShaAndProjectId(String commitSha, Long projectId);
-}
\ No newline at end of file
+
+    // Vérification groupée : SHA déjà traités parmi ceux d'un lot de commits
+    @Query("SELECT p.commitSha FROM ProcessedCommit p WHERE p.projectId = :projectId AND p.commitSha IN :commitShas")
+    List<String> findProcessedShas(Long projectId, Collection<String> commitShas);
+}
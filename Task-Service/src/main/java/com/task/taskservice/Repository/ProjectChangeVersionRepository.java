@@ -0,0 +1,34 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.Entity.ProjectChangeVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProjectChangeVersionRepository extends JpaRepository<ProjectChangeVersion, Long> {
+
+    // Verrouille la ligne du projet jusqu'au commit : les versions d'un projet sont validées dans l'ordre
+    @Modifying
+    @Query("UPDATE ProjectChangeVersion p SET p.version = p.version + 1 WHERE p.projectId = :projectId")
+    int increment(Long projectId);
+
+    @Query("SELECT p.version FROM ProjectChangeVersion p WHERE p.projectId = :projectId")
+    Long findVersion(Long projectId);
+
+    @Query("SELECT p.purgedVersion FROM ProjectChangeVersion p WHERE p.projectId = :projectId")
+    Long findPurgedVersion(Long projectId);
+
+    // Rattrapage de l'index de recherche : projectId, version, purgedVersion de tous les projets
+    @Query("SELECT p.projectId, p.version, p.purgedVersion FROM ProjectChangeVersion p")
+    List<Object[]> findAllVersions();
+
+    // Avant la purge des pierres tombales : plus haute version purgée, par projet
+    @Modifying
+    @Query("UPDATE ProjectChangeVersion p SET p.purgedVersion = " +
+            "(SELECT MAX(t.changeVersion) FROM WorkItemTombstone t WHERE t.projectId = p.projectId AND t.deletedAt < :cutoff) " +
+            "WHERE EXISTS (SELECT t FROM WorkItemTombstone t WHERE t.projectId = p.projectId AND t.deletedAt < :cutoff)")
+    int raisePurgedVersions(LocalDateTime cutoff);
+}
@@ -1,18 +1,40 @@
 package com.task.taskservice.Repository;
 
+import com.task.taskservice.DTO.TaskBriefProjection;
+import com.task.taskservice.DTO.TaskCalendarDTO;
+import com.task.taskservice.DTO.TaskSummaryDTO;
 import com.task.taskservice.Entity.FileAttachment;
 import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Entity.WorkItem;
 import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.DTO.WorkItemFilterDTO;
+import jakarta.persistence.LockModeType;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
+    // Filtres optionnels des listes paginées (paramètre null = pas de filtre)
+    String PAGE_FILTER = " AND (:status IS NULL OR t.status = :status)" +
+            " AND (:priority IS NULL OR t.priority = :priority)" +
+            " AND (:assignee IS NULL OR :assignee MEMBER OF t.assignedUserIds)" +
+            " AND (:tag IS NULL OR EXISTS (SELECT g FROM t.itemtags g WHERE g.name = :tag))" +
+            " AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)" +
+            " AND (:dueTo IS NULL OR t.dueDate <= :dueTo)";
+
     @Query("SELECT t FROM Task t WHERE t.projectId = :projectId AND t.userStory = :userStoryId")
     List<Task> findByProjectIdAndUserStory(Long projectId, Long userStoryId);
     List<Task> findByProjectId(Long projectId);
@@ -56,5 +78,170 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE :userId MEMBER OF t.assignedUserIds")
     List<Task> findByAssignedUserId(String userId);
 
-    Optional<Task> findByTitle(String title);
+    // Jointure sur workitem_assigned_user (index sur user_id) : le filtre par assigné est fait en base
+    @Query("SELECT DISTINCT t.id FROM Task t JOIN t.assignedUserIds u WHERE u = :userId AND t.userStory IN :userStoryIds")
+    List<Long> findIdsByUserStoryInAndAssignedUserId(List<Long> userStoryIds, String userId);
+
+    // Listes : phase 1, les ids seulement
+    @Query("SELECT t.id FROM Task t WHERE t.userStory IN :userStoryIds")
+    List<Long> findIdsByUserStoryIn(List<Long> userStoryIds);
+
+    @Query("SELECT t.id FROM Task t WHERE t.projectId = :projectId AND t.userStory = :userStoryId")
+    List<Long> findIdsByProjectIdAndUserStory(Long projectId, Long userStoryId);
+
+    // Listes paginées : ids triés après le curseur, limités par pageable (size + 1)
+    @Query("SELECT t.id FROM Task t WHERE t.projectId = :projectId AND t.id > :afterId" + PAGE_FILTER + " ORDER BY t.id")
+    List<Long> findPageIdsByProjectId(Long projectId, long afterId, WorkItemStatus status, WorkItemPriority priority,
+                                      String assignee, String tag, LocalDate dueFrom, LocalDate dueTo, Pageable pageable);
+
+    @Query("SELECT t.id FROM Task t WHERE t.userStory IN :userStoryIds AND t.id > :afterId" + PAGE_FILTER + " ORDER BY t.id")
+    List<Long> findPageIdsByUserStoryIn(List<Long> userStoryIds, long afterId, WorkItemStatus status, WorkItemPriority priority,
+                                        String assignee, String tag, LocalDate dueFrom, LocalDate dueTo, Pageable pageable);
+
+    default List<Long> findPageIdsByProjectId(Long projectId, long afterId, WorkItemFilterDTO filter, int limit) {
+        return findPageIdsByProjectId(projectId, afterId, filter.getStatus(), filter.getPriority(), filter.getAssignee(),
+                filter.getTag(), filter.getDueFrom(), filter.getDueTo(), PageRequest.of(0, limit));
+    }
+
+    default List<Long> findPageIdsByUserStoryIn(List<Long> userStoryIds, long afterId, WorkItemFilterDTO filter, int limit) {
+        return findPageIdsByUserStoryIn(userStoryIds, afterId, filter.getStatus(), filter.getPriority(), filter.getAssignee(),
+                filter.getTag(), filter.getDueFrom(), filter.getDueTo(), PageRequest.of(0, limit));
+    }
+
+    // Synchronisation par version : parcours d'index sur (projectId, changeVersion)
+    @Query("SELECT t.id FROM Task t WHERE t.projectId = :projectId AND t.changeVersion > :sinceVersion " +
+            "AND t.userStory IN :userStoryIds ORDER BY t.changeVersion")
+    List<Long> findIdsChangedSince(Long projectId, long sinceVersion, List<Long> userStoryIds, Pageable pageable);
+
+    // Listes : phase 2, une requête par collection lue par TaskMapper
+    @EntityGraph("Task.assignedUserIds")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<Task> findWithAssignedUserIdsByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Task.itemtags")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids")
+    List<Task> findWithTagsByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Task.dependencies")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids")
+    List<Task> findWithDependenciesByIdIn(Collection<Long> ids);
+
+    @EntityGraph("Task.attachments")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids")
+    List<Task> findWithAttachmentsByIdIn(Collection<Long> ids);
+
+    /**
+     * Charge les tâches avec toutes les collections utilisées par TaskMapper.toDTO en un nombre
+     * constant de requêtes (une par collection), quel que soit le nombre de tâches.
+     * Les requêtes suivantes complètent les entités déjà présentes dans le contexte de persistance :
+     * l'appelant doit donc être transactionnel.
+     */
+    @Transactional(readOnly = true)
+    default List<Task> findAllWithDetailsByIdIn(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Task> tasks = findWithAssignedUserIdsByIdIn(ids);
+        findWithTagsByIdIn(ids);
+        findWithDependenciesByIdIn(ids);
+        findWithAttachmentsByIdIn(ids);
+        return tasks;
+    }
+
+    // Recherches par titre normalisé (WorkItem.normalizeTitle), servies par idx_workitem_normalized_title
+    List<Task> findByProjectIdAndNormalizedTitleIn(Long projectId, Collection<String> normalizedTitles);
+    List<Task> findByProjectIdAndIdIn(Long projectId, Collection<Long> ids);
+    Optional<Task> findFirstByNormalizedTitleOrderByIdAsc(String normalizedTitle);
+
+    // Lignes antérieures à la colonne normalizedTitle (tâches et bugs), rattrapées par lots au démarrage
+    @Query("SELECT w.id, w.title FROM WorkItem w WHERE w.normalizedTitle IS NULL AND w.title IS NOT NULL ORDER BY w.id")
+    List<Object[]> findTitlesWithoutNormalizedTitle(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE WorkItem w SET w.normalizedTitle = :normalizedTitle WHERE w.id = :id")
+    int updateNormalizedTitle(Long id, String normalizedTitle);
+
+    // Recalcul complet des compteurs du tableau de bord (réconciliation périodique)
+    @Query("SELECT t.userStory, t.status, t.priority, COUNT(t) FROM Task t WHERE t.userStory IS NOT NULL " +
+            "GROUP BY t.userStory, t.status, t.priority")
+    List<Object[]> aggregateStatsByUserStory();
+
+    @Query("SELECT t.userStory, t.dueDate, COUNT(t) FROM Task t WHERE t.userStory IS NOT NULL AND t.status IS NOT NULL " +
+            "AND t.status <> :doneStatus AND t.dueDate IS NOT NULL GROUP BY t.userStory, t.dueDate")
+    List<Object[]> aggregateOpenDueDatesByUserStory(WorkItemStatus doneStatus);
+
+    // Lectures légères : seules les colonnes utilisées sont sélectionnées, aucune entité n'est chargée
+    @Query("SELECT new com.task.taskservice.DTO.TaskCalendarDTO(t.id, t.title, t.startDate, t.dueDate) FROM Task t WHERE t.userStory IN :userStoryIds")
+    List<TaskCalendarDTO> findCalendarByUserStoryIn(List<Long> userStoryIds);
+
+    @Query("SELECT t.projectId FROM Task t WHERE t.id = :taskId")
+    Optional<Long> findProjectIdById(Long taskId);
+
+    @Query("SELECT new com.task.taskservice.DTO.TaskSummaryDTO(t.id, t.title, t.status, t.projectId, t.userStory) FROM Task t " +
+            "WHERE t.projectId = :projectId AND t.id <> :taskId " +
+            "AND t.id NOT IN (SELECT d.id FROM Task x JOIN x.dependencies d WHERE x.id = :taskId)")
+    List<TaskSummaryDTO> findPotentialDependencies(Long projectId, Long taskId);
+
+    List<TaskBriefProjection> findBriefByDueDateBeforeAndStatusNot(LocalDate dueDate, WorkItemStatus status);
+
+    List<TaskBriefProjection> findBriefByPriority(WorkItemPriority priority);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.dueDate AS dueDate, t.priority AS priority FROM Task t " +
+            "WHERE EXISTS (SELECT d FROM t.dependencies d WHERE d.status != :status)")
+    List<TaskBriefProjection> findBriefBlockedByDependencies(WorkItemStatus status);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.dueDate AS dueDate, t.priority AS priority FROM Task t " +
+            "WHERE :userId MEMBER OF t.assignedUserIds")
+    List<TaskBriefProjection> findBriefByAssignedUserId(String userId);
+
+    // Couples (id de la tâche, valeur) pour compléter les projections en une requête par collection
+    @Query("SELECT t.id, u FROM Task t JOIN t.assignedUserIds u WHERE t.id IN :taskIds")
+    List<Object[]> findAssignedUserIdsByTaskIdIn(Collection<Long> taskIds);
+
+    @Query("SELECT t.id, d.id FROM Task t JOIN t.dependencies d WHERE t.id IN :taskIds")
+    List<Object[]> findDependencyIdsByTaskIdIn(Collection<Long> taskIds);
+
+    // Graphe de dépendances d'un projet (TaskDependencyGraphIndex) : nœuds (id, statut) puis arcs (tâche, dépendance, statut)
+    @Query("SELECT t.id, t.status FROM Task t WHERE t.projectId = :projectId")
+    List<Object[]> findDependencyGraphNodes(Long projectId);
+
+    @Query("SELECT t.id, d.id, d.status FROM Task t JOIN t.dependencies d WHERE t.projectId = :projectId")
+    List<Object[]> findDependencyGraphEdges(Long projectId);
+
+    // Contrôle de cycle dans la transaction d'écriture : tâches verrouillées (FOR UPDATE) et leurs dépendances
+    // relues à la dernière version validée, non celle de l'instantané ; (id, null) pour une tâche sans dépendance
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id, d.id FROM Task t LEFT JOIN t.dependencies d WHERE t.id IN :taskIds")
+    List<Object[]> lockDependencyIdsByTaskIdIn(Collection<Long> taskIds);
+
+    @Query("SELECT new com.task.taskservice.DTO.TaskSummaryDTO(t.id, t.title, t.status, t.projectId, t.userStory) FROM Task t " +
+            "WHERE t.id IN :ids ORDER BY t.id")
+    List<TaskSummaryDTO> findSummariesByIdIn(Collection<Long> ids);
+
+    // Ordonnancement d'un projet (TaskScheduleService) : travail estimé, temps passé, statut et échéance
+    @Query("SELECT t.id, t.estimationTime, t.totalTimeSpent, t.status, t.dueDate FROM Task t WHERE t.projectId = :projectId")
+    List<Object[]> findScheduleRows(Long projectId);
+
+    // Index de recherche (WorkItemSearchIndexer) : tous types de work items, par lots d'ids
+    @Query("SELECT w FROM WorkItem w WHERE w.id IN :ids")
+    List<WorkItem> findWorkItemsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT w.id FROM WorkItem w WHERE w.id > :afterId ORDER BY w.id")
+    List<Long> findWorkItemIdsAfter(long afterId, Pageable pageable);
+
+    // Rattrapage de l'index de recherche : items d'un projet écrits dans (sinceVersion, untilVersion], par ids
+    @Query("SELECT w.id FROM WorkItem w WHERE w.projectId = :projectId AND w.changeVersion > :sinceVersion " +
+            "AND w.changeVersion <= :untilVersion AND w.id > :afterId ORDER BY w.id")
+    List<Long> findWorkItemIdsChangedBetween(Long projectId, long sinceVersion, long untilVersion, long afterId, Pageable pageable);
+
+    // Index à facettes (WorkItemFacetIndex) : valeurs de tous les work items d'un projet, une requête par collection
+    @Query("SELECT w.id, CASE WHEN TYPE(w) = Bug THEN 'BUG' WHEN TYPE(w) = SubTask THEN 'SUBTASK' ELSE 'TASK' END, " +
+            "w.status, w.priority, w.userStory FROM WorkItem w WHERE w.projectId = :projectId")
+    List<Object[]> findFacetRows(Long projectId);
+
+    @Query("SELECT w.id, u FROM WorkItem w JOIN w.assignedUserIds u WHERE w.projectId = :projectId")
+    List<Object[]> findFacetAssignees(Long projectId);
+
+    @Query("SELECT w.id, g.name FROM WorkItem w JOIN w.itemtags g WHERE w.projectId = :projectId")
+    List<Object[]> findFacetTags(Long projectId);
 }
\ No newline at end of file
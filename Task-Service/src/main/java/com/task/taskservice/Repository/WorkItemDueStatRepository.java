@@ -0,0 +1,23 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.Entity.WorkItemDueStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WorkItemDueStatRepository extends JpaRepository<WorkItemDueStat, String> {
+
+    // Retards du tableau de bord : somme faite en base sur l'index (item_type, user_story, due_date)
+    @Query("SELECT COALESCE(SUM(s.itemCount), 0) FROM WorkItemDueStat s WHERE s.itemType = :itemType " +
+            "AND s.userStory IN :userStoryIds AND s.dueDate < :today")
+    long sumOverdue(String itemType, List<Long> userStoryIds, LocalDate today);
+
+    List<WorkItemDueStat> findByItemType(String itemType);
+
+    @Modifying
+    @Query("UPDATE WorkItemDueStat s SET s.itemCount = s.itemCount + :delta WHERE s.id = :id")
+    int increment(String id, long delta);
+}
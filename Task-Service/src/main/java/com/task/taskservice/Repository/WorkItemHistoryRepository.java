@@ -0,0 +1,18 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.DTO.WorkItemHistoryDTO;
+import com.task.taskservice.Entity.WorkItemHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface WorkItemHistoryRepository extends JpaRepository<WorkItemHistory, Long> {
+    // Lectures par idx_workitem_history_item, sans charger le work item ni les entités d'historique
+    // (authorName contient l'id de l'auteur).
+    // Du plus récent au plus ancien : « id < beforeId » (Long.MAX_VALUE pour la première page)
+    @Query("SELECT new com.task.taskservice.DTO.WorkItemHistoryDTO(h.id, h.action, h.description, h.authorId, h.date) " +
+            "FROM WorkItemHistory h WHERE h.workItem.id = :workItemId AND h.id < :beforeId ORDER BY h.id DESC")
+    List<WorkItemHistoryDTO> findPageByWorkItemId(Long workItemId, long beforeId, Pageable pageable);
+}
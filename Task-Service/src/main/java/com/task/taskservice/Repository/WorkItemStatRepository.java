@@ -0,0 +1,21 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.Entity.WorkItemStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface WorkItemStatRepository extends JpaRepository<WorkItemStat, String> {
+
+    // Lecture du tableau de bord : une seule requête sur la table des compteurs
+    @Query("SELECT s FROM WorkItemStat s WHERE s.itemType = :itemType AND s.userStory IN :userStoryIds AND s.itemCount <> 0")
+    List<WorkItemStat> findByItemTypeAndUserStoryIn(String itemType, List<Long> userStoryIds);
+
+    List<WorkItemStat> findByItemType(String itemType);
+
+    @Modifying
+    @Query("UPDATE WorkItemStat s SET s.itemCount = s.itemCount + :delta WHERE s.id = :id")
+    int increment(String id, long delta);
+}
@@ -0,0 +1,27 @@
+package com.task.taskservice.Repository;
+
+import com.task.taskservice.Entity.WorkItemTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WorkItemTombstoneRepository extends JpaRepository<WorkItemTombstone, Long> {
+
+    // Parcours d'index sur (project_id, change_version)
+    @Query("SELECT t.workItemId FROM WorkItemTombstone t WHERE t.projectId = :projectId AND t.itemType = :itemType " +
+            "AND t.changeVersion > :sinceVersion ORDER BY t.changeVersion")
+    List<Long> findIdsDeletedSince(Long projectId, String itemType, long sinceVersion, Pageable pageable);
+
+    // Rattrapage de l'index de recherche : items de tous types supprimés dans (sinceVersion, untilVersion]
+    @Query("SELECT t.workItemId FROM WorkItemTombstone t WHERE t.projectId = :projectId " +
+            "AND t.changeVersion > :sinceVersion AND t.changeVersion <= :untilVersion")
+    List<Long> findIdsDeletedBetween(Long projectId, long sinceVersion, long untilVersion);
+
+    @Modifying
+    @Query("DELETE FROM WorkItemTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
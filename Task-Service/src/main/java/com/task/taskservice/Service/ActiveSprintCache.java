@@ -0,0 +1,160 @@
+package com.task.taskservice.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.task.taskservice.Configuration.ProjectClient;
+import com.task.taskservice.event.ActiveSprintChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids des user stories du sprint actif, par projet.
+ * <ul>
+ *   <li>rempli à la demande depuis Project_Service (un seul appel par projet, les appels concurrents attendent ;
+ *       un seul appel groupé pour tous les projets absents avec getActiveStoryIdsByProject) ;</li>
+ *   <li>tenu à jour par les événements sprint-events publiés par SprintService/UserStoryService ;</li>
+ *   <li>TTL de secours (ttl-ms) en cas d'événement perdu, plus court (empty-ttl-ms) pour une liste vide ;</li>
+ *   <li>réponse du fallback Feign (null, Project_Service indisponible) : liste vide renvoyée mais pas mise
+ *       en cache, la lecture suivante rappelle Project_Service.</li>
+ * </ul>
+ * Métriques : active.sprint.cache.requests{result}, active.sprint.cache.events{action}, active.sprint.cache.size.
+ */
+@Service
+public class ActiveSprintCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveSprintCache.class);
+
+    private final ProjectClient projectClient;
+    private final Cache<Long, List<Long>> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter snapshotsApplied;
+    private final Counter invalidations;
+
+    public ActiveSprintCache(ProjectClient projectClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${active-sprint.cache.ttl-ms:600000}") long ttlMs,
+                             @Value("${active-sprint.cache.empty-ttl-ms:30000}") long emptyTtlMs,
+                             @Value("${active-sprint.cache.maximum-size:10000}") long maximumSize) {
+        this.projectClient = projectClient;
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        long emptyTtlNanos = TimeUnit.MILLISECONDS.toNanos(emptyTtlMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, List<Long>>() {
+                    @Override
+                    public long expireAfterCreate(Long projectId, List<Long> storyIds, long currentTime) {
+                        return storyIds.isEmpty() ? emptyTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long projectId, List<Long> storyIds, long currentTime, long currentDuration) {
+                        return expireAfterCreate(projectId, storyIds, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long projectId, List<Long> storyIds, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.hits = Counter.builder("active.sprint.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("active.sprint.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.snapshotsApplied = Counter.builder("active.sprint.cache.events").tag("action", "update").register(meterRegistry);
+        this.invalidations = Counter.builder("active.sprint.cache.events").tag("action", "invalidate").register(meterRegistry);
+        Gauge.builder("active.sprint.cache.size", cache, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public List<Long> getActiveStoryIds(Long projectId) {
+        List<Long> cached = cache.getIfPresent(projectId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        // null : fallback, rien n'est mis en cache
+        List<Long> loaded = cache.get(projectId, this::load);
+        return loaded != null ? loaded : List.of();
+    }
+
+    private List<Long> load(Long projectId) {
+        List<Long> storyIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        return storyIds != null ? List.copyOf(storyIds) : null;
+    }
+
+    public Map<Long, List<Long>> getActiveStoryIdsByProject(Collection<Long> projectIds) {
+        Set<Long> keys = new LinkedHashSet<>(projectIds);
+        Map<Long, List<Long>> cached = cache.getAllPresent(keys);
+        hits.increment(cached.size());
+        if (cached.size() == keys.size()) {
+            return cached;
+        }
+        misses.increment(keys.size() - cached.size());
+        Map<Long, List<Long>> loaded = cache.getAll(keys, this::loadAll);
+        if (loaded.size() == keys.size()) {
+            return loaded;
+        }
+        // Fallback : projets non chargés renvoyés vides, sans entrée en cache
+        Map<Long, List<Long>> result = new HashMap<>(loaded);
+        keys.forEach(projectId -> result.putIfAbsent(projectId, List.of()));
+        return result;
+    }
+
+    private Map<Long, List<Long>> loadAll(Set<? extends Long> projectIds) {
+        Map<Long, List<Long>> remote = projectClient.getUserStoriesOfActiveSprints(new ArrayList<>(projectIds));
+        Map<Long, List<Long>> loaded = new HashMap<>();
+        if (remote == null) {
+            // Fallback : aucune entrée, les projets demandés ne sont pas mis en cache
+            return loaded;
+        }
+        for (Long projectId : projectIds) {
+            // Un projet absent de la réponse n'a pas de sprint actif : liste vide, TTL court
+            List<Long> storyIds = remote.get(projectId);
+            loaded.put(projectId, storyIds != null ? List.copyOf(storyIds) : List.of());
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long projectId) {
+        cache.invalidate(projectId);
+    }
+
+    @KafkaListener(
+            topics = "${active-sprint.events.topic:sprint-events}",
+            // Un groupe par instance : chaque instance tient son propre cache et doit voir tous les événements
+            groupId = "${active-sprint.events.group-id:task-service-active-sprint-${random.uuid}}",
+            properties = {
+                    "spring.json.value.default.type=com.task.taskservice.event.ActiveSprintChangedEvent",
+                    "spring.json.use.type.headers=false"
+            })
+    public void onActiveSprintChanged(ActiveSprintChangedEvent event) {
+        if (event == null || event.getProjectId() == null) {
+            return;
+        }
+        if (event.getActiveStoryIds() != null) {
+            cache.put(event.getProjectId(), List.copyOf(event.getActiveStoryIds()));
+            snapshotsApplied.increment();
+        } else {
+            cache.invalidate(event.getProjectId());
+            invalidations.increment();
+        }
+        logger.debug("Sprint actif du projet {} mis à jour ({}) : {}", event.getProjectId(), event.getType(), event.getActiveStoryIds());
+    }
+}
@@ -0,0 +1,289 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.DTO.BoardDeltaDTO;
+import com.task.taskservice.DTO.BoardFrameDTO;
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.SubTask;
+import com.task.taskservice.Entity.WorkItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diffusion en direct du tableau du sprint actif sur /topic/boards/{projectId}, à la place des relectures
+ * répétées de getTasksOfActiveSprint par les clients.
+ * <ul>
+ *   <li>chaque création, modification ou suppression de tâche ou de bug donne un delta limité aux champs
+ *       du tableau qui ont changé, mis en attente après le commit (un rollback n'envoie rien) ;</li>
+ *   <li>les deltas d'un projet sont regroupés pendant window-ms : plusieurs changements d'un même item sont
+ *       fusionnés et un déplacement en masse part en une seule trame ;</li>
+ *   <li>seuls les items des user stories du sprint actif (ActiveSprintCache) sont envoyés ; au-delà de
+ *       max-deltas, la trame demande au client de relire le tableau (resync) ;</li>
+ *   <li>chaque trame porte un numéro de séquence par projet et l'epoch de l'instance, pour détecter un trou.</li>
+ * </ul>
+ * Les deltas passent par le broker simple en mémoire : un client ne reçoit que ceux des écritures faites sur
+ * l'instance où il est connecté. Pour les autres, toutes les version-interval-ms, chaque tableau suivi sur
+ * cette instance reçoit une trame sans deltas portant la version du projet (ChangeVersionService) si elle a
+ * changé ; le client qui a lu une version plus basse se resynchronise par
+ * GET /api/project/tasks/active_sprint/{projectId}/changes?sinceVersion=.
+ * Métriques : board.deltas.enqueued, board.frames.sent{resync}.
+ */
+@Service
+public class BoardDeltaPublisher {
+
+    public static final String TOPIC_PREFIX = "/topic/boards/";
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardDeltaPublisher.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ActiveSprintCache activeSprintCache;
+    private final ChangeVersionService changeVersionService;
+    private final long windowMs;
+    private final int maxDeltas;
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<Long, PendingFrame> pending = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
+    // Abonnements STOMP de cette instance aux tableaux : « sessionId/subscriptionId » -> projet
+    private final Map<String, Long> subscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> announcedVersions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-deltas");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter enqueued;
+    private final Counter framesSent;
+    private final Counter resyncFrames;
+
+    // Deltas d'un projet en attente d'envoi ; fermé une fois pris par flush
+    private static final class PendingFrame {
+        private final Map<Long, BoardDeltaDTO> deltas = new LinkedHashMap<>();
+        private boolean closed;
+
+        private void merge(BoardDeltaDTO delta) {
+            BoardDeltaDTO previous = deltas.get(delta.getId());
+            if (previous == null || BoardDeltaDTO.DELETE.equals(delta.getOp()) || BoardDeltaDTO.DELETE.equals(previous.getOp())) {
+                deltas.put(delta.getId(), delta);
+                return;
+            }
+            previous.getFields().putAll(delta.getFields());
+            previous.setUserStoryId(delta.getUserStoryId());
+        }
+    }
+
+    public BoardDeltaPublisher(SimpMessagingTemplate messagingTemplate,
+                               ActiveSprintCache activeSprintCache,
+                               ChangeVersionService changeVersionService,
+                               MeterRegistry meterRegistry,
+                               @Value("${board.deltas.window-ms:100}") long windowMs,
+                               @Value("${board.deltas.max-deltas:500}") int maxDeltas,
+                               @Value("${board.deltas.version-interval-ms:15000}") long versionIntervalMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.activeSprintCache = activeSprintCache;
+        this.changeVersionService = changeVersionService;
+        this.windowMs = windowMs;
+        this.maxDeltas = maxDeltas;
+        this.enqueued = Counter.builder("board.deltas.enqueued").register(meterRegistry);
+        this.framesSent = Counter.builder("board.frames.sent").tag("resync", "false").register(meterRegistry);
+        this.resyncFrames = Counter.builder("board.frames.sent").tag("resync", "true").register(meterRegistry);
+        scheduler.scheduleWithFixedDelay(this::announceVersions, versionIntervalMs, versionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Champs du tableau d'un work item, à prendre avant modification et à passer à {@link #updated}.
+     */
+    public Map<String, Object> snapshot(WorkItem item) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", item.getTitle());
+        fields.put("status", item.getStatus() != null ? item.getStatus().name() : null);
+        fields.put("priority", item.getPriority() != null ? item.getPriority().name() : null);
+        fields.put("dueDate", item.getDueDate() != null ? item.getDueDate().toString() : null);
+        fields.put("startDate", item.getStartDate() != null ? item.getStartDate().toString() : null);
+        fields.put("estimationTime", item.getEstimationTime());
+        fields.put("totalTimeSpent", item.getTotalTimeSpent());
+        fields.put("progress", item.getProgress());
+        fields.put("assignedUserIds", item.getAssignedUserIds() != null
+                ? item.getAssignedUserIds().stream().sorted().toList() : List.of());
+        if (item instanceof Bug bug) {
+            fields.put("severity", bug.getSeverity() != null ? bug.getSeverity().name() : null);
+        }
+        return fields;
+    }
+
+    public void created(WorkItem item) {
+        if (item.getProjectId() != null && item.getId() != null) {
+            enqueueAfterCommit(item.getProjectId(),
+                    new BoardDeltaDTO(item.getId(), itemType(item), BoardDeltaDTO.UPSERT, item.getUserStory(), snapshot(item)));
+        }
+    }
+
+    public void updated(Map<String, Object> before, WorkItem item) {
+        if (item.getProjectId() == null || item.getId() == null) {
+            return;
+        }
+        Map<String, Object> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : snapshot(item).entrySet()) {
+            if (before == null || !Objects.equals(before.get(field.getKey()), field.getValue())) {
+                changed.put(field.getKey(), field.getValue());
+            }
+        }
+        if (!changed.isEmpty()) {
+            enqueueAfterCommit(item.getProjectId(),
+                    new BoardDeltaDTO(item.getId(), itemType(item), BoardDeltaDTO.UPSERT, item.getUserStory(), changed));
+        }
+    }
+
+    public void deleted(WorkItem item) {
+        if (item.getProjectId() != null && item.getId() != null) {
+            enqueueAfterCommit(item.getProjectId(),
+                    new BoardDeltaDTO(item.getId(), itemType(item), BoardDeltaDTO.DELETE, item.getUserStory(), null));
+        }
+    }
+
+    static String itemType(WorkItem item) {
+        return item instanceof Bug ? "BUG" : item instanceof SubTask ? "SUBTASK" : "TASK";
+    }
+
+    private void enqueueAfterCommit(Long projectId, BoardDeltaDTO delta) {
+        TaskDependencyGraphIndex.afterCommit(() -> enqueue(projectId, delta));
+    }
+
+    void enqueue(Long projectId, BoardDeltaDTO delta) {
+        enqueued.increment();
+        while (true) {
+            PendingFrame frame = pending.get(projectId);
+            boolean opened = false;
+            if (frame == null) {
+                PendingFrame fresh = new PendingFrame();
+                frame = pending.putIfAbsent(projectId, fresh);
+                if (frame == null) {
+                    frame = fresh;
+                    opened = true;
+                }
+            }
+            synchronized (frame) {
+                if (frame.closed) {
+                    // Pris par flush entre-temps : le delta part dans la trame suivante
+                    continue;
+                }
+                frame.merge(delta);
+            }
+            if (opened) {
+                PendingFrame scheduled = frame;
+                scheduler.schedule(() -> flush(projectId, scheduled), windowMs, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+    }
+
+    private void flush(Long projectId, PendingFrame frame) {
+        pending.remove(projectId, frame);
+        List<BoardDeltaDTO> deltas;
+        synchronized (frame) {
+            frame.closed = true;
+            deltas = new ArrayList<>(frame.deltas.values());
+        }
+        long seq = 0;
+        try {
+            Set<Long> activeStoryIds = new HashSet<>(activeSprintCache.getActiveStoryIds(projectId));
+            deltas.removeIf(delta -> !activeStoryIds.contains(delta.getUserStoryId()));
+            if (deltas.isEmpty()) {
+                return;
+            }
+            boolean resync = deltas.size() > maxDeltas;
+            seq = nextSeq(projectId);
+            messagingTemplate.convertAndSend(TOPIC_PREFIX + projectId,
+                    new BoardFrameDTO(projectId, epoch, seq, resync, resync ? List.of() : deltas));
+            (resync ? resyncFrames : framesSent).increment();
+            logger.debug("Trame {} du tableau du projet {} envoyée : {} delta(s)", seq, projectId, deltas.size());
+        } catch (Exception e) {
+            // Numéro consommé sans trame : le trou de séquence fera relire le tableau aux clients
+            if (seq == 0) {
+                nextSeq(projectId);
+            }
+            logger.error("Échec de l'envoi des deltas du tableau du projet {} : {}", projectId, e.getMessage(), e);
+        }
+    }
+
+    @EventListener
+    public void subscribed(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return;
+        }
+        try {
+            Long projectId = Long.valueOf(destination.substring(TOPIC_PREFIX.length()));
+            subscriptions.put(accessor.getSessionId() + "/" + accessor.getSubscriptionId(), projectId);
+        } catch (NumberFormatException e) {
+            logger.debug("Abonnement ignoré, projet invalide : {}", destination);
+        }
+    }
+
+    @EventListener
+    public void unsubscribed(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(accessor.getSessionId() + "/" + accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void disconnected(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + "/";
+        subscriptions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Envoie la version courante de chaque tableau suivi sur cette instance, si elle a changé depuis la
+     * dernière annonce : seul signal des écritures faites sur les autres instances.
+     */
+    public void announceVersions() {
+        Set<Long> projectIds = new HashSet<>(subscriptions.values());
+        announcedVersions.keySet().retainAll(projectIds);
+        for (Long projectId : projectIds) {
+            try {
+                long version = changeVersionService.currentVersion(projectId);
+                Long announced = announcedVersions.put(projectId, version);
+                if (announced == null || announced != version) {
+                    messagingTemplate.convertAndSend(TOPIC_PREFIX + projectId,
+                            new BoardFrameDTO(projectId, epoch, nextSeq(projectId), false, List.of(), version));
+                }
+            } catch (Exception e) {
+                announcedVersions.remove(projectId);
+                logger.error("Échec de l'annonce de version du tableau du projet {} : {}", projectId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private long nextSeq(Long projectId) {
+        return sequences.computeIfAbsent(projectId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -1,10 +1,9 @@
 package com.task.taskservice.Service;
 
-import com.task.taskservice.Configuration.AuthClient;
-import com.task.taskservice.Configuration.ProjectClient;
+import com.common.security.JwtTokenVerifier;
+import com.common.userdirectory.UserDirectoryClient;
 import com.task.taskservice.DTO.*;
 import com.task.taskservice.Entity.*;
-import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
 import com.task.taskservice.Mapper.BugMapper;
 import com.task.taskservice.Repository.BugRepository;
@@ -13,6 +12,7 @@ import com.task.taskservice.Repository.TagRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,32 +32,63 @@ public class BugService {
     private final BugRepository bugRepository;
     private final TagRepository tagRepository;
     private final BugMapper bugMapper;
-    private final AuthClient authClient;
-    private final ProjectClient projectClient;
     private final FileAttachmentRepository fileAttachmentRepository;
     private final CloudinaryService cloudinaryService;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final UserDirectoryClient userDirectoryClient;
+    private final ActiveSprintCache activeSprintCache;
+    private final WorkItemStatsService workItemStatsService;
+    private final BoardDeltaPublisher boardDeltaPublisher;
+    private final ChangeVersionService changeVersionService;
+    private final WorkItemSearchIndexer searchIndexer;
+    private final WorkItemFacetIndex facetIndex;
+
+    @Value("${work-items.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${work-items.page.max-size:200}")
+    private int maxPageSize = 200;
+
+    // Plafond des anciens endpoints non paginés
+    @Value("${work-items.list.max-unpaged:1000}")
+    private int maxUnpagedItems = 1000;
 
     @Autowired
     public BugService(
             BugRepository bugRepository,
             TagRepository tagRepository,
             BugMapper bugMapper,
-            AuthClient authClient,
-            ProjectClient projectClient,
             CloudinaryService cloudinaryService,
-            FileAttachmentRepository fileAttachmentRepository) {
+            FileAttachmentRepository fileAttachmentRepository,
+            JwtTokenVerifier jwtTokenVerifier,
+            UserDirectoryClient userDirectoryClient,
+            ActiveSprintCache activeSprintCache,
+            WorkItemStatsService workItemStatsService,
+            BoardDeltaPublisher boardDeltaPublisher,
+            ChangeVersionService changeVersionService,
+            WorkItemSearchIndexer searchIndexer,
+            WorkItemFacetIndex facetIndex) {
         this.bugRepository = bugRepository;
         this.tagRepository = tagRepository;
         this.bugMapper = bugMapper;
-        this.authClient = authClient;
-        this.projectClient = projectClient;
         this.cloudinaryService = cloudinaryService;
         this.fileAttachmentRepository = fileAttachmentRepository;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.userDirectoryClient = userDirectoryClient;
+        this.activeSprintCache = activeSprintCache;
+        this.workItemStatsService = workItemStatsService;
+        this.boardDeltaPublisher = boardDeltaPublisher;
+        this.changeVersionService = changeVersionService;
+        this.searchIndexer = searchIndexer;
+        this.facetIndex = facetIndex;
     }
 
     @Transactional
     public BugDTO createBug(Long projectId, Long userStoryId, BugDTO bugDTO, String token) {
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
+        if (createdBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
         if (bugDTO.getCreationDate() == null) {
             bugDTO.setCreationDate(LocalDate.now());
         }
@@ -97,15 +128,25 @@ public class BugService {
         }
 
         updateProgress(bug);
+        changeVersionService.stamp(bug);
         Bug savedBug = bugRepository.save(bug);
+        workItemStatsService.recordCreated(savedBug);
+        boardDeltaPublisher.created(savedBug);
+        searchIndexer.changed(savedBug);
+        facetIndex.changed(savedBug);
         return bugMapper.toDTO(savedBug);
     }
 
     @Transactional
     public BugDTO updateBug(Long bugId, BugDTO bugDTO, String token) {
-        String updatedBy = authClient.decodeToken(token);
+        String updatedBy = jwtTokenVerifier.currentUserId(token);
+        if (updatedBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
         Bug bug = bugRepository.findById(bugId)
                 .orElseThrow(() -> new NoSuchElementException("Bug not found with ID: " + bugId));
+        WorkItemStatsService.Key statsBefore = workItemStatsService.snapshot(bug);
+        Map<String, Object> boardBefore = boardDeltaPublisher.snapshot(bug);
 
         if (bugDTO.getStatus() != null) {
             WorkItemStatus newStatus = bugDTO.getStatus();
@@ -168,29 +209,22 @@ public class BugService {
         }
 
         updateProgress(bug);
+        changeVersionService.stamp(bug);
         Bug updatedBug = bugRepository.save(bug);
+        workItemStatsService.recordUpdated(statsBefore, updatedBug);
+        boardDeltaPublisher.updated(boardBefore, updatedBug);
+        searchIndexer.changed(updatedBug);
+        facetIndex.changed(updatedBug);
         BugDTO responseDTO = bugMapper.toDTO(updatedBug);
 
-        if (updatedBug.getAssignedUserIds() != null && !updatedBug.getAssignedUserIds().isEmpty()) {
-            try {
-                List<String> userIdList = updatedBug.getAssignedUserIds().stream().collect(Collectors.toList());
-                String authHeader = token.startsWith("Bearer ") ? token : "Bearer " + token;
-                List<UserDTO> assignedUsers = authClient.getUsersByIds(authHeader, userIdList);
-                responseDTO.setAssignedUsers(assignedUsers != null ? assignedUsers : Collections.emptyList());
-            } catch (Exception e) {
-                logger.error("Failed to fetch user details: {}", e.getMessage());
-                responseDTO.setAssignedUsers(Collections.emptyList());
-            }
-        } else {
-            responseDTO.setAssignedUsers(Collections.emptyList());
-        }
+        responseDTO.setAssignedUsers(assignedUsers(updatedBug.getAssignedUserIds()));
 
         return responseDTO;
     }
 
     @Transactional(readOnly = true)
     public BugDTO getBugById(Long projectId, Long userStoryId, Long bugId, String token) {
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
         if (createdBy == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
@@ -207,7 +241,7 @@ public class BugService {
 
     @Transactional(readOnly = true)
     public BugDTO getBugByBugId(Long bugId, String token) {
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
@@ -220,17 +254,23 @@ public class BugService {
     public void deleteBug(Long bugId) {
         Bug bug = bugRepository.findById(bugId)
                 .orElseThrow(() -> new NoSuchElementException("Bug not found with ID: " + bugId));
+        WorkItemStatsService.Key statsBefore = workItemStatsService.snapshot(bug);
         bugRepository.delete(bug);
+        workItemStatsService.recordDeleted(statsBefore);
+        boardDeltaPublisher.deleted(bug);
+        searchIndexer.changed(bug);
+        facetIndex.removed(bug);
+        changeVersionService.tombstone(bug);
     }
 
     @Transactional(readOnly = true)
     public List<BugDTO> getBugsByProjectAndUserStory(Long projectId, Long userStoryId, String token) {
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
         if (createdBy == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
 
-        List<Bug> bugs = bugRepository.findByProjectIdAndUserStory(projectId, userStoryId);
+        List<Bug> bugs = bugRepository.findAllWithDetailsByIdIn(bugRepository.findIdsByProjectIdAndUserStory(projectId, userStoryId));
         return bugs.stream()
                 .map(bugMapper::toDTO)
                 .collect(Collectors.toList());
@@ -238,12 +278,14 @@ public class BugService {
 
     @Transactional(readOnly = true)
     public List<BugDTO> getBugsByProjectId(Long projectId, String token) {
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
         if (createdBy == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
 
-        List<Bug> bugs = bugRepository.findByProjectId(projectId);
+        List<Long> ids = bugRepository.findPageIdsByProjectId(projectId, 0L, WorkItemFilterDTO.none(), maxUnpagedItems + 1);
+        List<Bug> bugs = bugRepository.findAllWithDetailsByIdIn(
+                WorkItemCursor.truncate(ids, maxUnpagedItems, "bugs of project " + projectId));
         return bugs.stream()
                 .map(bugMapper::toDTO)
                 .collect(Collectors.toList());
@@ -252,32 +294,27 @@ public class BugService {
     @Transactional(readOnly = true)
     public List<BugDTO> getBugsOfActiveSprint(Long projectId, String token) {
         logger.info("Fetching bugs for active sprint of project ID: {}", projectId);
-        List<Long> activeStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
         if (activeStoryIds.isEmpty()) {
             logger.info("No active story IDs found for project ID: {}", projectId);
             return Collections.emptyList();
         }
 
-        List<Bug> bugs = bugRepository.findByUserStoryIn(activeStoryIds);
+        List<Long> ids = bugRepository.findPageIdsByUserStoryIn(activeStoryIds, 0L, WorkItemFilterDTO.none(), maxUnpagedItems + 1);
+        List<Bug> bugs = bugRepository.findAllWithDetailsByIdIn(
+                WorkItemCursor.truncate(ids, maxUnpagedItems, "active sprint bugs of project " + projectId));
         if (bugs.isEmpty()) {
             logger.info("No bugs found for the active sprint of project ID: {}", projectId);
             return Collections.emptyList();
         }
+        return toDTOsWithAssignedUsers(bugs);
+    }
 
+    private List<BugDTO> toDTOsWithAssignedUsers(List<Bug> bugs) {
         Set<String> allUserIds = bugs.stream()
                 .flatMap(bug -> bug.getAssignedUserIds().stream())
                 .collect(Collectors.toSet());
-        List<UserDTO> users = Collections.emptyList();
-        if (!allUserIds.isEmpty()) {
-            try {
-                users = authClient.getUsersByIds(token, new ArrayList<>(allUserIds));
-            } catch (Exception e) {
-                logger.error("Error fetching user details: {}", e.getMessage());
-            }
-        }
-
-        Map<String, UserDTO> userMap = users.stream()
-                .collect(Collectors.toMap(UserDTO::getId, user -> user));
+        Map<String, UserDTO> userMap = resolveUsers(allUserIds);
 
         return bugs.stream()
                 .map(bug -> {
@@ -291,10 +328,50 @@ public class BugService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BugDTO> getBugsPage(Long projectId, WorkItemFilterDTO filter, String cursor, Integer size, String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
+        int pageSize = WorkItemCursor.pageSize(size, defaultPageSize, maxPageSize);
+        List<Long> ids = bugRepository.findPageIdsByProjectId(
+                projectId, WorkItemCursor.decode(cursor), filterOrNone(filter), pageSize + 1);
+        return WorkItemCursor.page(ids, pageSize, pageIds -> bugRepository.findAllWithDetailsByIdIn(pageIds)
+                .stream()
+                .map(bugMapper::toDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BugDTO> getBugsOfActiveSprintPage(Long projectId, WorkItemFilterDTO filter, String cursor, Integer size, String token) {
+        int pageSize = WorkItemCursor.pageSize(size, defaultPageSize, maxPageSize);
+        long afterId = WorkItemCursor.decode(cursor);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
+        if (activeStoryIds.isEmpty()) {
+            return new CursorPageDTO<>(Collections.emptyList(), null);
+        }
+        List<Long> ids = bugRepository.findPageIdsByUserStoryIn(activeStoryIds, afterId, filterOrNone(filter), pageSize + 1);
+        return WorkItemCursor.page(ids, pageSize, pageIds -> toDTOsWithAssignedUsers(bugRepository.findAllWithDetailsByIdIn(pageIds)));
+    }
+
+    private static WorkItemFilterDTO filterOrNone(WorkItemFilterDTO filter) {
+        if (filter == null) {
+            return WorkItemFilterDTO.none();
+        }
+        if (filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+        return filter;
+    }
+
     @Transactional
     public Bug attachFileToBug(Long bugId, MultipartFile file, String token) throws IOException {
         logger.info("Attaching file to bug ID: {}, file: {}", bugId, file.getOriginalFilename());
-        String uploadedBy = authClient.decodeToken(token);
+        String uploadedBy = jwtTokenVerifier.currentUserId(token);
+        if (uploadedBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
         Bug bug = bugRepository.findById(bugId)
                 .orElseThrow(() -> new IllegalArgumentException("Bug not found with ID: " + bugId));
 
@@ -317,6 +394,7 @@ public class BugService {
         attachment.setUploadedAt(LocalDateTime.now());
 
         bug.getAttachments().add(attachment);
+        changeVersionService.stamp(bug);
         bugRepository.saveAndFlush(bug);
         return bug;
     }
@@ -340,55 +418,30 @@ public class BugService {
             throw new IOException("Failed to delete file from Cloudinary: " + e.getMessage(), e);
         }
 
+        changeVersionService.stamp(bug);
         bugRepository.save(bug);
         fileAttachmentRepository.delete(attachment);
     }
 
     @Transactional(readOnly = true)
     public DashboardStatsDTO getDashboardStats(Long projectId, String token) {
-        List<Long> activeStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
         if (activeStoryIds.isEmpty()) {
             return new DashboardStatsDTO(0, 0, 0, 0, Map.of(), Map.of());
         }
 
-        long completedBugs = bugRepository.countByUserStoryInAndStatus(activeStoryIds, WorkItemStatus.DONE);
-        long notCompletedBugs = bugRepository.countByUserStoryInAndStatusNot(activeStoryIds, WorkItemStatus.DONE);
-        long overdueBugs = bugRepository.countOverdueByUserStoryIn(activeStoryIds, WorkItemStatus.DONE, LocalDate.now());
-        long totalBugs = bugRepository.countByUserStoryIn(activeStoryIds);
-
-        Map<String, Long> bugsByStatus = bugRepository.countBugsByStatus(activeStoryIds)
-                .stream()
-                .collect(Collectors.toMap(
-                        row -> ((WorkItemStatus) row[0]).name(),
-                        row -> (Long) row[1]
-                ));
-
-        Map<String, Long> bugsByPriority = bugRepository.countBugsByPriority(activeStoryIds)
-                .stream()
-                .collect(Collectors.toMap(
-                        row -> ((WorkItemPriority) row[0]).name(),
-                        row -> (Long) row[1]
-                ));
-
-        return new DashboardStatsDTO(completedBugs, notCompletedBugs, overdueBugs, totalBugs, bugsByStatus, bugsByPriority);
+        return workItemStatsService.getDashboardStats(WorkItemStatsService.BUG, activeStoryIds);
     }
 
     @Transactional(readOnly = true)
     public List<BugCalendarDTO> getBugsForCalendar(Long projectId, String token) {
-        List<Long> activeStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
         if (activeStoryIds.isEmpty()) {
             return List.of();
         }
 
-        List<Bug> bugs = bugRepository.findByUserStoryIn(activeStoryIds);
-        return bugs.stream()
-                .map(bug -> new BugCalendarDTO(
-                        bug.getId(),
-                        bug.getTitle(),
-                        bug.getStartDate(),
-                        bug.getDueDate()
-                ))
-                .collect(Collectors.toList());
+        // Projection directe en BugCalendarDTO (id, titre, dates)
+        return bugRepository.findCalendarByUserStoryIn(activeStoryIds);
     }
 
     @Transactional(readOnly = true)
@@ -412,12 +465,16 @@ public class BugService {
 
     @Transactional
     public void addManualTimeEntry(Long bugId, Long duration, String type, String token) {
-        String addedBy = authClient.decodeToken(token);
+        String addedBy = jwtTokenVerifier.currentUserId(token);
+        if (addedBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
         Bug bug = bugRepository.findById(bugId)
                 .orElseThrow(() -> new NoSuchElementException("Bug not found with ID: " + bugId));
         if (duration <= 0) {
             throw new IllegalArgumentException("Duration must be positive");
         }
+        Map<String, Object> boardBefore = boardDeltaPublisher.snapshot(bug);
         bug.setTotalTimeSpent(bug.getTotalTimeSpent() != null ? bug.getTotalTimeSpent() + duration : duration);
         TimeEntry timeEntry = new TimeEntry();
         timeEntry.setWorkItem(bug);
@@ -427,7 +484,11 @@ public class BugService {
         timeEntry.setType(type);
         bug.getTimeEntries().add(timeEntry);
         updateProgress(bug);
+        changeVersionService.stamp(bug);
         bugRepository.save(bug);
+        boardDeltaPublisher.updated(boardBefore, bug);
+        searchIndexer.changed(bug);
+        facetIndex.changed(bug);
     }
 
     private void updateProgress(Bug bug) {
@@ -447,19 +508,29 @@ public class BugService {
 
     private BugDTO toBugDTOWithUsers(Bug bug, String token) {
         BugDTO responseDTO = bugMapper.toDTO(bug);
-        if (bug.getAssignedUserIds() != null && !bug.getAssignedUserIds().isEmpty()) {
-            try {
-                List<String> userIdList = bug.getAssignedUserIds().stream().collect(Collectors.toList());
-                String authHeader = token.startsWith("Bearer ") ? token : "Bearer " + token;
-                List<UserDTO> assignedUsers = authClient.getUsersByIds(authHeader, userIdList);
-                responseDTO.setAssignedUsers(assignedUsers != null ? assignedUsers : Collections.emptyList());
-            } catch (Exception e) {
-                logger.error("Failed to fetch user details: {}", e.getMessage());
-                responseDTO.setAssignedUsers(Collections.emptyList());
+        responseDTO.setAssignedUsers(assignedUsers(bug.getAssignedUserIds()));
+        return responseDTO;
+    }
+
+    // Résout les utilisateurs via l'annuaire partagé (cache local, ids manquants regroupés en un appel)
+    private Map<String, UserDTO> resolveUsers(Collection<String> userIds) {
+        Map<String, UserDTO> users = new HashMap<>();
+        userDirectoryClient.getUsers(userIds).forEach((id, user) -> {
+            if (user.known()) {
+                users.put(id, new UserDTO(id, user.firstName(), user.lastName(), user.avatar()));
             }
-        } else {
-            responseDTO.setAssignedUsers(Collections.emptyList());
+        });
+        return users;
+    }
+
+    private List<UserDTO> assignedUsers(Collection<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        return responseDTO;
+        Map<String, UserDTO> users = resolveUsers(userIds);
+        return userIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
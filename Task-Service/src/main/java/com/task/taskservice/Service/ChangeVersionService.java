@@ -0,0 +1,141 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.ProjectChangeVersion;
+import com.task.taskservice.Entity.WorkItem;
+import com.task.taskservice.Entity.WorkItemTombstone;
+import com.task.taskservice.Repository.ProjectChangeVersionRepository;
+import com.task.taskservice.Repository.WorkItemTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version de modification par projet, pour la synchronisation incrémentale des tableaux (?sinceVersion=).
+ * <ul>
+ *   <li>chaque transaction qui écrit des work items d'un projet incrémente une fois son compteur et en
+ *       marque tous les items écrits (WorkItem.changeVersion) ;</li>
+ *   <li>l'incrément verrouille la ligne du projet jusqu'au commit : une version plus haute n'est visible
+ *       qu'après les plus basses, un client qui lit la version courante ne manque donc aucun item ;</li>
+ *   <li>une suppression laisse une pierre tombale portant la version, purgée après retention-days ;
+ *       un client dont la version est antérieure à la purge doit relire tout le tableau.</li>
+ * </ul>
+ */
+@Service
+public class ChangeVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeVersionService.class);
+
+    private final ProjectChangeVersionRepository versionRepository;
+    private final WorkItemTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate newTransaction;
+    private final int retentionDays;
+
+    public ChangeVersionService(ProjectChangeVersionRepository versionRepository,
+                                WorkItemTombstoneRepository tombstoneRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${work-items.tombstones.retention-days:30}") int retentionDays) {
+        this.versionRepository = versionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retentionDays = retentionDays;
+    }
+
+    // Avant l'enregistrement de l'item : la version part avec son UPDATE/INSERT
+    public void stamp(WorkItem item) {
+        if (item.getProjectId() != null) {
+            item.setChangeVersion(nextVersion(item.getProjectId()));
+        }
+    }
+
+    public void tombstone(WorkItem item) {
+        if (item.getProjectId() != null && item.getId() != null) {
+            tombstoneRepository.save(new WorkItemTombstone(item.getId(), item.getProjectId(),
+                    item instanceof Bug ? WorkItemStatsService.BUG : WorkItemStatsService.TASK,
+                    item.getUserStory(), nextVersion(item.getProjectId()), LocalDateTime.now()));
+        }
+    }
+
+    // Version validée la plus récente ; 0 pour un projet jamais modifié
+    public long currentVersion(Long projectId) {
+        Long version = versionRepository.findVersion(projectId);
+        return version != null ? version : 0;
+    }
+
+    public long purgedVersion(Long projectId) {
+        Long purged = versionRepository.findPurgedVersion(projectId);
+        return purged != null ? purged : 0;
+    }
+
+    // Ids des items du type supprimés après sinceVersion, au plus limit
+    public List<Long> deletedSince(Long projectId, String itemType, long sinceVersion, int limit) {
+        return tombstoneRepository.findIdsDeletedSince(projectId, itemType, sinceVersion, PageRequest.of(0, limit));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long nextVersion(Long projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return increment(projectId);
+        }
+        // Une seule version par projet et par transaction
+        Map<Long, Long> versions = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (versions == null) {
+            versions = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, versions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeVersionService.this);
+                }
+            });
+        }
+        return versions.computeIfAbsent(projectId, this::increment);
+    }
+
+    private long increment(Long projectId) {
+        // Lecture sans verrou d'abord : un UPDATE sans ligne poserait un verrou de plage qui bloquerait l'insertion
+        if (!versionRepository.existsById(projectId)) {
+            createRow(projectId);
+        }
+        if (versionRepository.increment(projectId) == 0) {
+            throw new IllegalStateException("Change version counter missing for project " + projectId);
+        }
+        return versionRepository.findVersion(projectId);
+    }
+
+    private void createRow(Long projectId) {
+        // Ligne créée dans sa propre transaction, comme les compteurs de WorkItemStatsService
+        try {
+            newTransaction.executeWithoutResult(status -> versionRepository.saveAndFlush(new ProjectChangeVersion(projectId)));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Compteur de versions du projet {} déjà créé par une autre transaction", projectId);
+        }
+    }
+
+    @Scheduled(cron = "${work-items.tombstones.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        versionRepository.raisePurgedVersions(cutoff);
+        int purged = tombstoneRepository.deleteOlderThan(cutoff);
+        if (purged > 0) {
+            logger.info("{} pierre(s) tombale(s) de work items purgée(s)", purged);
+        }
+    }
+}
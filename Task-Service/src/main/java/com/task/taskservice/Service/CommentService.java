@@ -1,11 +1,10 @@
 package com.task.taskservice.Service;
 
-import com.task.taskservice.Configuration.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.task.taskservice.DTO.CommentDTO;
 import com.task.taskservice.Entity.Comment;
 import com.task.taskservice.Entity.Task;
 import com.task.taskservice.Entity.WorkItem;
-import com.task.taskservice.Entity.WorkItemHistory;
 import com.task.taskservice.Mapper.TaskMapper;
 import com.task.taskservice.Repository.CommentRepository;
 import com.task.taskservice.Repository.TaskRepository;
@@ -16,7 +15,6 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,15 +29,24 @@ public class CommentService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     @Autowired
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
     @Autowired
     private TaskMapper taskMapper;
+    @Autowired
+    private WorkItemHistoryWriter historyWriter;
+    @Autowired
+    private WorkItemSearchIndexer searchIndexer;
+    @Autowired
+    private ChangeVersionService changeVersionService;
 
     @Transactional
     public CommentDTO createComment(Comment comment, String token) {
         try {
             logger.info("Creating comment for workItemId: {}", comment.getWorkItem().getId());
-            String author = authClient.decodeToken(token);
+            String author = jwtTokenVerifier.currentUserId(token);
+            if (author == null) {
+                throw new IllegalArgumentException("Invalid token: unable to extract user");
+            }
             Task task = taskRepository.findById(comment.getWorkItem().getId())
                     .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
@@ -52,8 +59,11 @@ public class CommentService {
             comment.setWorkItem(task);
             comment.setAuthor(author);
             logger.debug("Saving comment: content={}, author={}", comment.getContent(), author);
+            // Version de la tâche : le rattrapage de l'index de recherche des autres instances voit le commentaire
+            changeVersionService.stamp(task);
             Comment savedComment = commentRepository.save(comment);
             logger.info("Comment saved with id: {}", savedComment.getId());
+            searchIndexer.changed(task);
             CommentDTO commenntDTO = new CommentDTO();
             logHistory(task, "AJOUT_COMMENTAIRE", "Commentaire ajouté: " + commenntDTO.getContent().substring(0, Math.min(50, commenntDTO.getContent().length())), author);
             // Explicitly flush to ensure the INSERT is executed
@@ -80,12 +90,7 @@ public class CommentService {
     }
 
     private void logHistory(WorkItem workItem, String action, String description, String userId) {
-        WorkItemHistory history = new WorkItemHistory();
-        history.setWorkItem(workItem);
-        history.setAction(action);
-        history.setDescription(description);
-        history.setTimestamp(LocalDateTime.now());
-        history.setDescription(description + " By " + userId); // Inclure l'utilisateur dans la description
-        workItem.getHistory().add(history);
+        // Inclure l'utilisateur dans la description
+        historyWriter.record(workItem, action, description + " By " + userId, null);
     }
 }
\ No newline at end of file
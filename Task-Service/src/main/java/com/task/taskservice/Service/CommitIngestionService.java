@@ -0,0 +1,537 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.Configuration.GitHubIntegrationClient;
+import com.task.taskservice.Configuration.ProjectClient;
+import com.task.taskservice.DTO.GitHubLinkDTO;
+import com.task.taskservice.DTO.TaskDTO;
+import com.task.taskservice.Entity.CommitSyncState;
+import com.task.taskservice.Entity.ProcessedCommit;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Mapper.TaskMapper;
+import com.task.taskservice.Repository.CommitSyncStateRepository;
+import com.task.taskservice.Repository.ProcessedCommitRepository;
+import com.task.taskservice.event.GitHubWebhookEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingestion des commits GitHub des projets liés à un dépôt.
+ * <ul>
+ *   <li>en continu depuis le topic github-events (webhooks push / pull_request relayés par
+ *       github-integration-service), par lots ;</li>
+ *   <li>réconciliation périodique à basse fréquence par l'API GitHub, pour les événements perdus ou
+ *       les webhooks non configurés ;</li>
+ *   <li>un seul appel à Project_Service pour tous les liens (dépôt + utilisateur GitHub) ;</li>
+ *   <li>projets traités en parallèle sur un pool borné (parallelism), une transaction par projet :
+ *       l'échec d'un projet n'annule pas les autres ;</li>
+ *   <li>date du dernier commit traité conservée par projet (CommitSyncState) et passée en « since » ;
+ *       les pages de 30 commits sont remontées avec « until » jusqu'à max-pages ; au-delà, la fenêtre est
+ *       reprise à l'exécution suivante depuis le plus ancien commit lu, sans avancer « since » ;</li>
+ *   <li>SHA déjà traités vérifiés en une requête par projet, quelle que soit la source : un commit reçu
+ *       par webhook puis relu par la réconciliation n'est appliqué qu'une fois.</li>
+ * </ul>
+ * Métriques : github.commits.ingestion.project.duration (par résultat), github.commits.ingestion.lag et
+ * github.commits.ingested (par source : poll, webhook), github.commits.ingestion.truncated.
+ */
+@Service
+public class CommitIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommitIngestionService.class);
+
+    // Taille de page par défaut de l'API GitHub (per_page n'est pas relayé par github-integration-service)
+    static final int GITHUB_PAGE_SIZE = 30;
+
+    private final ProjectClient projectClient;
+    private final GitHubIntegrationClient gitHubIntegrationClient;
+    private final ProcessedCommitRepository processedCommitRepository;
+    private final CommitSyncStateRepository commitSyncStateRepository;
+    private final WorkItemTitleIndex workItemTitleIndex;
+    private final TaskMapper taskMapper;
+    private final TaskService taskService;
+    private final ActiveSprintCache activeSprintCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final Counter truncated;
+    private final int maxPages;
+    private final long linksTtlMs;
+    private volatile LinksSnapshot links;
+
+    // Commit à appliquer, qu'il vienne de l'API GitHub ou d'un webhook
+    record IncomingCommit(String sha, String message, Instant date) {
+    }
+
+    // Commits lus, du plus ancien au plus récent ; resumeUntil non null si la fenêtre a été coupée à max-pages
+    record CommitWindow(List<Map<String, Object>> commits, Instant resumeUntil) {
+    }
+
+    private record LinksSnapshot(Map<String, List<GitHubLinkDTO>> byRepository, long loadedAt) {
+    }
+
+    public CommitIngestionService(ProjectClient projectClient,
+                                  GitHubIntegrationClient gitHubIntegrationClient,
+                                  ProcessedCommitRepository processedCommitRepository,
+                                  CommitSyncStateRepository commitSyncStateRepository,
+                                  WorkItemTitleIndex workItemTitleIndex,
+                                  TaskMapper taskMapper,
+                                  TaskService taskService,
+                                  ActiveSprintCache activeSprintCache,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${github-commits.ingestion.parallelism:4}") int parallelism,
+                                  @Value("${github-commits.ingestion.max-pages:10}") int maxPages,
+                                  @Value("${github-webhook.links-ttl-ms:60000}") long linksTtlMs) {
+        this.projectClient = projectClient;
+        this.gitHubIntegrationClient = gitHubIntegrationClient;
+        this.processedCommitRepository = processedCommitRepository;
+        this.commitSyncStateRepository = commitSyncStateRepository;
+        this.workItemTitleIndex = workItemTitleIndex;
+        this.taskMapper = taskMapper;
+        this.taskService = taskService;
+        this.activeSprintCache = activeSprintCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(parallelism, runnable -> {
+                    Thread thread = new Thread(runnable, "commit-ingestion-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                "commit.ingestion");
+        this.truncated = Counter.builder("github.commits.ingestion.truncated").register(meterRegistry);
+        this.maxPages = maxPages;
+        this.linksTtlMs = linksTtlMs;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${github-commits.ingestion.interval-ms:3600000}",
+            initialDelayString = "${github-commits.ingestion.initial-delay-ms:60000}")
+    public void ingestAll() {
+        logger.info("Starting scheduled commit processing for all projects");
+        List<GitHubLinkDTO> links;
+        try {
+            ResponseEntity<List<GitHubLinkDTO>> response = projectClient.getGitHubLinks();
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                logger.info("Failed to fetch GitHub links of projects");
+                return;
+            }
+            links = response.getBody();
+            this.links = snapshot(links);
+        } catch (Exception e) {
+            logger.warn("Error fetching GitHub links of projects: {}", e.getMessage());
+            return;
+        }
+
+        // Exécution suivante (fixedDelay) seulement quand tous les projets sont terminés
+        CompletableFuture.allOf(links.stream()
+                .map(link -> CompletableFuture.runAsync(() -> ingestProjectMeasured(link), executor))
+                .toArray(CompletableFuture[]::new)).join();
+        logger.info("Completed scheduled commit processing for {} project(s)", links.size());
+    }
+
+    private void ingestProjectMeasured(GitHubLinkDTO link) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            ingestProject(link);
+        } catch (Exception e) {
+            outcome = "failure";
+            logger.warn("Commit processing failed for project {}: {}", link.getProjectId(), e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("github.commits.ingestion.project.duration")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Ingère les commits d'un projet postérieurs à son point de reprise.
+     * @return nombre de commits appliqués à des tâches
+     */
+    public int ingestProject(GitHubLinkDTO link) {
+        Long projectId = link.getProjectId();
+        Map<String, String> repoDetails = extractRepoDetails(link.getRepositoryUrl());
+        String owner = repoDetails.get("owner");
+        String repo = repoDetails.get("repo");
+        if (owner == null || repo == null || link.getUserId() == null) {
+            logger.info("Invalid GitHub link for project: {}, URL: {}", projectId, link.getRepositoryUrl());
+            return 0;
+        }
+
+        CommitSyncState state = commitSyncStateRepository.findById(projectId).orElseGet(() -> new CommitSyncState(projectId));
+        String since = state.getLastCommitAt() != null ? state.getLastCommitAt().toString() : null;
+        // Fenêtre coupée à l'exécution précédente : suite des commits plus anciens que ceux déjà lus
+        String until = state.getBackfillUntil() != null ? state.getBackfillUntil().toString() : null;
+        // Appels HTTP hors transaction : la connexion n'est prise que pour les écritures
+        CommitWindow window = fetchCommits(owner, repo, link.getUserId(), since, until);
+        List<Map<String, Object>> commits = window.commits();
+
+        Instant newestFetched = commits.stream()
+                .map(CommitIngestionService::commitDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        // Plus récent commit de la fenêtre : lu à la première exécution de la fenêtre
+        Instant windowNewest = state.getBackfillNewest() != null ? state.getBackfillNewest() : newestFetched;
+        if (window.resumeUntil() != null) {
+            // « since » n'avance pas tant que les commits plus anciens de la fenêtre n'ont pas été lus
+            state.setBackfillUntil(window.resumeUntil());
+            state.setBackfillNewest(windowNewest);
+        } else {
+            if (windowNewest != null && (state.getLastCommitAt() == null || windowNewest.isAfter(state.getLastCommitAt()))) {
+                state.setLastCommitAt(windowNewest);
+            }
+            state.setBackfillUntil(null);
+            state.setBackfillNewest(null);
+        }
+        if (commits.isEmpty()) {
+            logger.info("No new commits found for project: {}, owner/repo: {}/{}", projectId, owner, repo);
+            if (until != null) {
+                // Fin d'une fenêtre reprise : le point de reprise avance quand même
+                state.setLastRunAt(Instant.now());
+                commitSyncStateRepository.save(state);
+            }
+            return 0;
+        }
+
+        int count = applyCommits(projectId, commits.stream()
+                .map(commit -> new IncomingCommit((String) commit.get("sha"), commitMessage(commit), commitDate(commit)))
+                .toList(), state, "poll");
+        logger.info("Processed {} commit(s) for project {} ({} fetched)", count, projectId, commits.size());
+        return count;
+    }
+
+    /**
+     * Lot d'événements github-events : commits regroupés par projet lié au dépôt, dédoublonnés par SHA, puis
+     * appliqués comme ceux de la réconciliation. Le point de reprise de la réconciliation n'avance pas : un
+     * événement perdu avant ce lot sera encore relu. L'échec d'un projet est journalisé sans rejouer le lot
+     * (la réconciliation le rattrape).
+     */
+    @KafkaListener(
+            topics = "${github-webhook.events.topic:github-events}",
+            // Groupe partagé : chaque événement est traité par une seule instance
+            groupId = "${github-webhook.events.group-id:task-service-github-events}",
+            batch = "true",
+            properties = {
+                    "spring.json.value.default.type=com.task.taskservice.event.GitHubWebhookEvent",
+                    "spring.json.use.type.headers=false"
+            })
+    public void onGitHubEvents(List<GitHubWebhookEvent> events) {
+        Map<Long, Map<String, IncomingCommit>> byProject = new LinkedHashMap<>();
+        Map<String, List<GitHubLinkDTO>> linksByRepository = null;
+        for (GitHubWebhookEvent event : events) {
+            // null : message non désérialisable (ErrorHandlingDeserializer)
+            if (event == null || event.getCommits() == null || event.getCommits().isEmpty()) {
+                continue;
+            }
+            if (linksByRepository == null) {
+                linksByRepository = linksByRepository();
+            }
+            List<GitHubLinkDTO> projectLinks = linksByRepository.get(normalizeRepositoryUrl(event.getRepositoryUrl()));
+            if (projectLinks == null) {
+                logger.debug("No project linked to repository {}, ignoring delivery {}", event.getRepositoryUrl(), event.getDeliveryId());
+                continue;
+            }
+            for (GitHubLinkDTO link : projectLinks) {
+                Map<String, IncomingCommit> commits = byProject.computeIfAbsent(link.getProjectId(), id -> new LinkedHashMap<>());
+                for (GitHubWebhookEvent.CommitInfo commit : event.getCommits()) {
+                    commits.putIfAbsent(commit.getSha(), new IncomingCommit(commit.getSha(), commit.getMessage(), parseInstant(commit.getTimestamp())));
+                }
+            }
+        }
+        byProject.forEach((projectId, commits) -> {
+            List<IncomingCommit> ordered = new ArrayList<>(commits.values());
+            ordered.sort(Comparator.<IncomingCommit, Instant>comparing(IncomingCommit::date, Comparator.nullsFirst(Comparator.naturalOrder())));
+            try {
+                int count = applyCommits(projectId, ordered, null, "webhook");
+                logger.info("Processed {} pushed commit(s) for project {}", count, projectId);
+            } catch (Exception e) {
+                logger.warn("Pushed commits of project {} not applied, left to reconciliation: {}", projectId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Applique les commits non encore traités dans une transaction ; enregistre le point de reprise (déjà mis à
+     * jour par l'appelant) si state est fourni.
+     * @return nombre de commits appliqués à des tâches
+     */
+    private int applyCommits(Long projectId, List<IncomingCommit> commits, CommitSyncState state, String source) {
+        List<String> shas = commits.stream().map(IncomingCommit::sha).toList();
+        Set<String> processed = new HashSet<>(processedCommitRepository.findProcessedShas(projectId, shas));
+        Timer lag = meterRegistry.timer("github.commits.ingestion.lag", "source", source);
+
+        Integer applied = transactionTemplate.execute(status -> {
+            List<ProcessedCommit> done = new ArrayList<>();
+            Instant now = Instant.now();
+            List<Map.Entry<IncomingCommit, CommitMessageParser.CommitReference>> references = new ArrayList<>();
+            for (IncomingCommit commit : commits) {
+                if (processed.contains(commit.sha())) {
+                    logger.info("Commit {} already processed for project {}", commit.sha(), projectId);
+                    continue;
+                }
+                Optional<CommitMessageParser.CommitReference> reference = CommitMessageParser.parse(commit.message());
+                if (reference.isEmpty()) {
+                    logger.info("No task or issue reference found in commit message: {}", commit.message());
+                    continue;
+                }
+                references.add(Map.entry(commit, reference.get()));
+            }
+            // Tâches référencées par tout le lot : une requête pour les titres, une pour les #T<id>
+            WorkItemTitleIndex.Lookup lookup = workItemTitleIndex.resolve(projectId,
+                    references.stream().map(entry -> entry.getValue())
+                            .filter(reference -> "task".equals(reference.type()) && reference.title() != null)
+                            .map(CommitMessageParser.CommitReference::title)
+                            .toList(),
+                    references.stream().map(entry -> entry.getValue().taskId()).filter(Objects::nonNull).toList());
+            for (Map.Entry<IncomingCommit, CommitMessageParser.CommitReference> entry : references) {
+                IncomingCommit commit = entry.getKey();
+                if (applyCommit(projectId, commit.message(), entry.getValue(), lookup)) {
+                    ProcessedCommit processedCommit = new ProcessedCommit();
+                    processedCommit.setCommitSha(commit.sha());
+                    processedCommit.setProjectId(projectId);
+                    done.add(processedCommit);
+                    if (commit.date() != null) {
+                        lag.record(Duration.between(commit.date(), now));
+                    }
+                }
+            }
+            processedCommitRepository.saveAll(done);
+            if (state != null) {
+                state.setLastRunAt(now);
+                commitSyncStateRepository.save(state);
+            }
+            return done.size();
+        });
+        int count = applied != null ? applied : 0;
+        meterRegistry.counter("github.commits.ingested", "source", source).increment(count);
+        return count;
+    }
+
+    private Map<String, List<GitHubLinkDTO>> linksByRepository() {
+        LinksSnapshot snapshot = links;
+        if (snapshot == null || System.currentTimeMillis() - snapshot.loadedAt() > linksTtlMs) {
+            ResponseEntity<List<GitHubLinkDTO>> response = projectClient.getGitHubLinks();
+            List<GitHubLinkDTO> loaded = response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    ? response.getBody()
+                    : List.of();
+            if (loaded.isEmpty()) {
+                // Peut venir du fallback Feign : non mémorisé, relu au lot suivant
+                return snapshot != null ? snapshot.byRepository() : Map.of();
+            }
+            snapshot = snapshot(loaded);
+            links = snapshot;
+        }
+        return snapshot.byRepository();
+    }
+
+    private static LinksSnapshot snapshot(List<GitHubLinkDTO> links) {
+        Map<String, List<GitHubLinkDTO>> byRepository = new HashMap<>();
+        for (GitHubLinkDTO link : links) {
+            if (link.getRepositoryUrl() != null && link.getProjectId() != null) {
+                byRepository.computeIfAbsent(normalizeRepositoryUrl(link.getRepositoryUrl()), url -> new ArrayList<>()).add(link);
+            }
+        }
+        return new LinksSnapshot(byRepository, System.currentTimeMillis());
+    }
+
+    // https://github.com/Owner/Repo.git/ et https://github.com/owner/repo désignent le même dépôt
+    static String normalizeRepositoryUrl(String repositoryUrl) {
+        if (repositoryUrl == null) {
+            return null;
+        }
+        String url = repositoryUrl.trim().toLowerCase();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url.endsWith(".git") ? url.substring(0, url.length() - 4) : url;
+    }
+
+    /**
+     * Commits postérieurs à since (inclus) et antérieurs à until (inclus, null : sans borne), du plus ancien au
+     * plus récent, sans doublon. GitHub renvoie les plus récents d'abord : les pages suivantes sont demandées
+     * avec until = date du plus ancien commit reçu ; le commit à la frontière revient deux fois et est
+     * dédoublonné par SHA. Au-delà de max-pages, resumeUntil indique où reprendre.
+     */
+    CommitWindow fetchCommits(String owner, String repo, String userId, String since, String until) {
+        Map<String, Map<String, Object>> bySha = new LinkedHashMap<>();
+        for (int page = 0; page < maxPages; page++) {
+            ResponseEntity<Object> response = gitHubIntegrationClient.getCommitsByUserId(owner, repo, userId, since, until, GITHUB_PAGE_SIZE);
+            if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof List<?> batch)) {
+                // Le point de reprise n'avance pas : le projet sera retenté à l'exécution suivante
+                throw new IllegalStateException("Failed to fetch commits for " + owner + "/" + repo);
+            }
+            Map<String, Object> oldest = null;
+            for (Object item : batch) {
+                if (item instanceof Map<?, ?> map && map.get("sha") instanceof String sha) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> commit = (Map<String, Object>) map;
+                    bySha.putIfAbsent(sha, commit);
+                    oldest = commit;
+                }
+            }
+            if (batch.size() < GITHUB_PAGE_SIZE || oldest == null) {
+                return new CommitWindow(sortedByDate(bySha.values()), null);
+            }
+            Instant oldestDate = commitDate(oldest);
+            if (oldestDate == null || oldestDate.toString().equals(until)) {
+                // Page entière à la même date (ou sans date) : « until » ne peut plus reculer
+                truncated.increment();
+                logger.warn("Cannot page further back than {} for {}/{}: older commits of this window are not ingested",
+                        until, owner, repo);
+                return new CommitWindow(sortedByDate(bySha.values()), null);
+            }
+            until = oldestDate.toString();
+        }
+        truncated.increment();
+        logger.warn("More than {} pages of commits since {} for {}/{}: older commits resumed before {} at the next run",
+                maxPages, since, owner, repo, until);
+        return new CommitWindow(sortedByDate(bySha.values()), Instant.parse(until));
+    }
+
+    private static List<Map<String, Object>> sortedByDate(Iterable<Map<String, Object>> commits) {
+        List<Map<String, Object>> sorted = new ArrayList<>();
+        commits.forEach(sorted::add);
+        sorted.sort(Comparator.<Map<String, Object>, Instant>comparing(CommitIngestionService::commitDate,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return sorted;
+    }
+
+    private boolean applyCommit(Long projectId, String message, CommitMessageParser.CommitReference reference,
+                                WorkItemTitleIndex.Lookup lookup) {
+        if (reference.taskId() != null) {
+            Optional<Task> task = lookup.byId(reference.taskId());
+            if (task.isEmpty()) {
+                logger.info("Task #T{} not found in project {}, skipping commit: {}", reference.taskId(), projectId, message);
+                return false;
+            }
+            completeTask(task.get());
+            return true;
+        }
+        String type = reference.type();
+        String title = reference.title();
+        Long userStoryId = reference.userStoryId();
+
+        // Si aucun userStoryId n'est fourni, utiliser une user story par défaut (cache du sprint actif)
+        if (userStoryId == null) {
+            List<Long> userStoryIds = activeSprintCache.getActiveStoryIds(projectId);
+            if (userStoryIds == null || userStoryIds.isEmpty()) {
+                logger.info("No active user stories found for project {}, skipping commit: {}", projectId, message);
+                return false;
+            }
+            userStoryId = userStoryIds.get(0);
+        }
+
+        if ("task".equals(type)) {
+            Long storyId = userStoryId;
+            Optional<Task> matchingTask = lookup.byTitle(title, storyId)
+                    // Tâche créée par un commit précédent du même lot, absente de la résolution groupée
+                    .or(() -> workItemTitleIndex.resolve(projectId, List.of(title), List.of()).byTitle(title, storyId));
+            if (matchingTask.isPresent()) {
+                completeTask(matchingTask.get());
+            } else {
+                logger.info("Task with title '{}' not found, creating new task", title);
+                createTaskFromCommit(projectId, userStoryId, title, message);
+            }
+        } else {
+            createTaskFromCommit(projectId, userStoryId, title, message);
+        }
+        return true;
+    }
+
+    private void completeTask(Task task) {
+        TaskDTO taskDTO = taskMapper.toDTO(task);
+        taskDTO.setStatus(WorkItemStatus.DONE);
+        taskService.updateTask_bycommit(task.getId(), taskDTO);
+        logger.info("Updated task with title '{}' to DONE based on commit", task.getTitle());
+    }
+
+    private void createTaskFromCommit(Long projectId, Long userStoryId, String title, String commitMessage) {
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setTitle(title);
+        taskDTO.setDescription("Created from commit: " + commitMessage);
+        taskDTO.setStatus(WorkItemStatus.TO_DO);
+        taskDTO.setPriority(WorkItemPriority.MEDIUM);
+        taskDTO.setCreationDate(LocalDate.now());
+        taskDTO.setProjectId(projectId);
+        taskService.createTask_bycommit(projectId, userStoryId, taskDTO);
+        logger.info("Created new task with title '{}' in project {} for user story {}", title, projectId, userStoryId);
+    }
+
+    private static String commitMessage(Map<String, Object> commit) {
+        return commit.get("commit") instanceof Map<?, ?> details && details.get("message") instanceof String message
+                ? message
+                : null;
+    }
+
+    static Instant commitDate(Map<String, Object> commit) {
+        if (commit.get("commit") instanceof Map<?, ?> details
+                && details.get("committer") instanceof Map<?, ?> committer
+                && committer.get("date") instanceof String date) {
+            return parseInstant(date);
+        }
+        return null;
+    }
+
+    private static Instant parseInstant(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static Map<String, String> extractRepoDetails(String repoUrl) {
+        if (repoUrl == null || !repoUrl.startsWith("https://github.com/")) {
+            return Map.of();
+        }
+        String[] parts = repoUrl.replace("https://github.com/", "").split("/");
+        if (parts.length >= 2) {
+            return Map.of("owner", parts[0], "repo", parts[1].replace(".git", ""));
+        }
+        return Map.of();
+    }
+}
@@ -0,0 +1,50 @@
+package com.task.taskservice.Service;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Référence à une tâche dans un message de commit : fix|task|issue 'titre' [#USxxx], ou fix|task #T&lt;id&gt;
+ * pour désigner explicitement une tâche existante.
+ * Le motif est compilé une seule fois (Pattern est immuable et partageable entre threads).
+ */
+public final class CommitMessageParser {
+
+    private static final Pattern REFERENCE =
+            Pattern.compile("\\b(fix|task|issue)\\s+(?:'([^']+)'|#T(\\d+)\\b)(?:\\s+#US(\\d+))?", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * @param type        "task" (fix ou task : tâche à terminer) ou "issue" (tâche à créer)
+     * @param title       null pour une référence #T&lt;id&gt;
+     * @param taskId      null pour une référence par titre
+     * @param userStoryId null si #USxxx est absent
+     */
+    public record CommitReference(String type, String title, Long taskId, Long userStoryId) {
+    }
+
+    private CommitMessageParser() {
+    }
+
+    public static Optional<CommitReference> parse(String commitMessage) {
+        if (commitMessage == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = REFERENCE.matcher(commitMessage);
+        while (matcher.find()) {
+            String type = matcher.group(1).toLowerCase();
+            String taskId = matcher.group(3);
+            // Une issue crée une tâche : elle doit porter un titre
+            if (type.equals("issue") && taskId != null) {
+                continue;
+            }
+            String userStoryId = matcher.group(4);
+            return Optional.of(new CommitReference(
+                    type.equals("issue") ? "issue" : "task",
+                    matcher.group(2),
+                    taskId != null ? Long.parseLong(taskId) : null,
+                    userStoryId != null ? Long.parseLong(userStoryId) : null));
+        }
+        return Optional.empty();
+    }
+}
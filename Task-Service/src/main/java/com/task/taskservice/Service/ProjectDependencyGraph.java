@@ -0,0 +1,330 @@
+package com.task.taskservice.Service;
+
+import java.util.Arrays;
+
+/**
+ * Graphe des dépendances entre tâches d'un projet, en tableaux primitifs.
+ * <ul>
+ *   <li>les nœuds sont les ids triés (recherche dichotomique), fixés à la construction : une tâche créée
+ *       ou supprimée entraîne la reconstruction du graphe (voir TaskDependencyGraphIndex) ;</li>
+ *   <li>arcs dans les deux sens : dependencies[i] (tâches dont i dépend) et dependents[i] (tâches qui dépendent de i) ;</li>
+ *   <li>pendingDependencies[i] compte les dépendances non terminées de i : i est bloquée si ce compteur est positif,
+ *       il est propagé aux dépendants à chaque changement de statut ou d'arc.</li>
+ * </ul>
+ * Toutes les méthodes sont synchronisées : un graphe par projet, les accès concurrents sont rares et courts.
+ */
+public final class ProjectDependencyGraph {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final long[] ids;
+    private final boolean[] done;
+    private final int[] pendingDependencies;
+    private final int[][] dependencies;
+    private final int[] dependencyCount;
+    private final int[][] dependents;
+    private final int[] dependentCount;
+    // Nombre de modifications d'arcs depuis la construction (ProjectSchedule recalcule tout s'il change)
+    private long edgeModifications;
+
+    private ProjectDependencyGraph(long[] ids, boolean[] done) {
+        int n = ids.length;
+        this.ids = ids;
+        this.done = done;
+        this.pendingDependencies = new int[n];
+        this.dependencies = new int[n][];
+        this.dependencyCount = new int[n];
+        this.dependents = new int[n][];
+        this.dependentCount = new int[n];
+        Arrays.fill(dependencies, NO_EDGES);
+        Arrays.fill(dependents, NO_EDGES);
+    }
+
+    /**
+     * @param nodeIds  ids des tâches (doublons tolérés)
+     * @param nodeDone statut terminé de chaque tâche, même ordre que nodeIds
+     * @param edgeFrom tâche dépendante de chaque arc
+     * @param edgeTo   dépendance de chaque arc (doit figurer dans nodeIds)
+     */
+    public static ProjectDependencyGraph build(long[] nodeIds, boolean[] nodeDone, long[] edgeFrom, long[] edgeTo) {
+        long[] sorted = nodeIds.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        long[] ids = Arrays.copyOf(sorted, n);
+        boolean[] done = new boolean[n];
+        for (int i = 0; i < nodeIds.length; i++) {
+            done[Arrays.binarySearch(ids, nodeIds[i])] = nodeDone[i];
+        }
+
+        ProjectDependencyGraph graph = new ProjectDependencyGraph(ids, done);
+        for (int e = 0; e < edgeFrom.length; e++) {
+            int from = graph.indexOf(edgeFrom[e]);
+            int to = graph.indexOf(edgeTo[e]);
+            if (from >= 0 && to >= 0) {
+                graph.link(from, to);
+            }
+        }
+        return graph;
+    }
+
+    private int indexOf(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? index : -1;
+    }
+
+    public synchronized boolean contains(long taskId) {
+        return indexOf(taskId) >= 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Vrai si faire dépendre taskId de newDependencyIds fermerait un cycle, c'est-à-dire si taskId est
+     * atteignable depuis l'une des nouvelles dépendances. Parcours en largeur, O(V + E).
+     */
+    public synchronized boolean wouldCreateCycle(long taskId, long[] newDependencyIds) {
+        int target = indexOf(taskId);
+        if (target < 0) {
+            // Tâche absente du graphe (en cours de création) : personne n'en dépend encore
+            return false;
+        }
+        boolean[] visited = new boolean[ids.length];
+        int[] queue = new int[ids.length];
+        int head = 0;
+        int tail = 0;
+        for (long dependencyId : newDependencyIds) {
+            if (dependencyId == taskId) {
+                return true;
+            }
+            int start = indexOf(dependencyId);
+            if (start >= 0 && !visited[start]) {
+                visited[start] = true;
+                queue[tail++] = start;
+            }
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            int[] next = dependencies[current];
+            for (int k = 0; k < dependencyCount[current]; k++) {
+                int dependency = next[k];
+                if (dependency == target) {
+                    return true;
+                }
+                if (!visited[dependency]) {
+                    visited[dependency] = true;
+                    queue[tail++] = dependency;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Toutes les tâches qui dépendent, directement ou non, de taskId (taskId exclu).
+     */
+    public synchronized long[] transitiveDependents(long taskId) {
+        int start = indexOf(taskId);
+        if (start < 0) {
+            return new long[0];
+        }
+        boolean[] visited = new boolean[ids.length];
+        int[] queue = new int[ids.length];
+        int head = 0;
+        int tail = 0;
+        visited[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            int[] next = dependents[current];
+            for (int k = 0; k < dependentCount[current]; k++) {
+                if (!visited[next[k]]) {
+                    visited[next[k]] = true;
+                    queue[tail++] = next[k];
+                }
+            }
+        }
+        long[] result = new long[tail - 1];
+        for (int i = 1; i < tail; i++) {
+            result[i - 1] = ids[queue[i]];
+        }
+        return result;
+    }
+
+    public synchronized boolean isBlocked(long taskId) {
+        int index = indexOf(taskId);
+        return index >= 0 && pendingDependencies[index] > 0;
+    }
+
+    // Tâches ayant au moins une dépendance non terminée, par id croissant
+    public synchronized long[] blockedTaskIds() {
+        int count = 0;
+        long[] result = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            if (pendingDependencies[i] > 0) {
+                result[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Ordre topologique (algorithme de Kahn) : chaque tâche apparaît après toutes ses dépendances.
+     */
+    public synchronized long[] topologicalOrder() {
+        int[] queue = topologicalIndexes();
+        long[] order = new long[queue.length];
+        for (int i = 0; i < queue.length; i++) {
+            order[i] = ids[queue[i]];
+        }
+        return order;
+    }
+
+    // Index des nœuds en ordre topologique ; à appeler sous le verrou du graphe
+    int[] topologicalIndexes() {
+        int n = ids.length;
+        int[] remaining = Arrays.copyOf(dependencyCount, n);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            int[] next = dependents[current];
+            for (int k = 0; k < dependentCount[current]; k++) {
+                if (--remaining[next[k]] == 0) {
+                    queue[tail++] = next[k];
+                }
+            }
+        }
+        if (tail < n) {
+            throw new IllegalStateException("Dependency cycle detected: " + (n - tail) + " task(s) cannot be ordered");
+        }
+        return queue;
+    }
+
+    // Accès par index pour ProjectSchedule (même paquetage), à appeler sous le verrou du graphe : synchronized (graph)
+
+    int index(long taskId) {
+        return indexOf(taskId);
+    }
+
+    long idAt(int index) {
+        return ids[index];
+    }
+
+    int dependencyCount(int index) {
+        return dependencyCount[index];
+    }
+
+    int dependencyAt(int index, int k) {
+        return dependencies[index][k];
+    }
+
+    int dependentCount(int index) {
+        return dependentCount[index];
+    }
+
+    int dependentAt(int index, int k) {
+        return dependents[index][k];
+    }
+
+    long edgeModifications() {
+        return edgeModifications;
+    }
+
+    /**
+     * @return false si l'une des deux tâches est absente du graphe (il faut alors le reconstruire)
+     */
+    public synchronized boolean addDependency(long taskId, long dependencyId) {
+        int from = indexOf(taskId);
+        int to = indexOf(dependencyId);
+        if (from < 0 || to < 0) {
+            return false;
+        }
+        if (indexIn(dependencies[from], dependencyCount[from], to) < 0) {
+            link(from, to);
+            edgeModifications++;
+        }
+        return true;
+    }
+
+    public synchronized boolean removeDependency(long taskId, long dependencyId) {
+        int from = indexOf(taskId);
+        int to = indexOf(dependencyId);
+        if (from < 0 || to < 0) {
+            return false;
+        }
+        if (unlink(dependencies, dependencyCount, from, to)) {
+            unlink(dependents, dependentCount, to, from);
+            if (!done[to]) {
+                pendingDependencies[from]--;
+            }
+            edgeModifications++;
+        }
+        return true;
+    }
+
+    public synchronized boolean setDone(long taskId, boolean isDone) {
+        int index = indexOf(taskId);
+        if (index < 0) {
+            return false;
+        }
+        if (done[index] != isDone) {
+            done[index] = isDone;
+            int delta = isDone ? -1 : 1;
+            int[] next = dependents[index];
+            for (int k = 0; k < dependentCount[index]; k++) {
+                pendingDependencies[next[k]] += delta;
+            }
+        }
+        return true;
+    }
+
+    private void link(int from, int to) {
+        append(dependencies, dependencyCount, from, to);
+        append(dependents, dependentCount, to, from);
+        if (!done[to]) {
+            pendingDependencies[from]++;
+        }
+    }
+
+    private static void append(int[][] adjacency, int[] counts, int node, int value) {
+        int[] edges = adjacency[node];
+        if (counts[node] == edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(4, edges.length * 2));
+            adjacency[node] = edges;
+        }
+        edges[counts[node]++] = value;
+    }
+
+    private static boolean unlink(int[][] adjacency, int[] counts, int node, int value) {
+        int[] edges = adjacency[node];
+        int position = indexIn(edges, counts[node], value);
+        if (position < 0) {
+            return false;
+        }
+        // L'ordre des arcs n'a pas d'importance : le dernier prend la place du retiré
+        edges[position] = edges[--counts[node]];
+        return true;
+    }
+
+    private static int indexIn(int[] edges, int count, int value) {
+        for (int k = 0; k < count; k++) {
+            if (edges[k] == value) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
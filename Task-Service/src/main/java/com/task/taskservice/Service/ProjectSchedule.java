@@ -0,0 +1,416 @@
+package com.task.taskservice.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ordonnancement au plus tôt / au plus tard des tâches d'un projet sur son graphe de dépendances.
+ * <ul>
+ *   <li>durées en minutes de travail restant, temps zéro = début de la journée origin ;</li>
+ *   <li>earliestStart[i] : fin au plus tôt de la plus longue chaîne de dépendances de i ;</li>
+ *   <li>tail[i] : plus long chemin depuis le début de i jusqu'à la fin du projet (i compris) ; la date au plus
+ *       tard et la marge s'en déduisent (latestStart = fin du projet - tail), ce qui évite de recalculer
+ *       tout le graphe quand seule la fin du projet bouge ;</li>
+ *   <li>une modification d'une tâche ne recalcule que ses descendants (earliestStart) et ses ancêtres (tail) ;
+ *       une modification d'arc du graphe entraîne un recalcul complet, en O(tâches + arcs).</li>
+ * </ul>
+ * Les index sont ceux de ProjectDependencyGraph ; tous les calculs se font sous le verrou du graphe.
+ */
+public final class ProjectSchedule {
+
+    private final ProjectDependencyGraph graph;
+    private final LocalDate origin;
+    private final long minutesPerDay;
+    private final long[] remaining;
+    private final LocalDate[] dueDates;
+    private final long[] earliestStart;
+    private final long[] tail;
+    private long projectFinish;
+    private long edgeModifications;
+
+    /**
+     * Minutes de travail et échéance d'une tâche, à sa position dans l'ordonnancement.
+     */
+    public record TaskTiming(long taskId, long remaining, long earliestStart, long latestStart, long slack,
+                             LocalDate dueDate, LocalDate projectedFinishDate, boolean late) {
+
+        public long earliestFinish() {
+            return earliestStart + remaining;
+        }
+
+        public long latestFinish() {
+            return latestStart + remaining;
+        }
+
+        public boolean critical() {
+            return slack == 0;
+        }
+    }
+
+    /**
+     * Effet d'une modification : fin du projet avant/après et tâches passées en retard sur leur échéance.
+     */
+    public record Change(long previousFinish, long newFinish, long[] newlyLateTaskIds) {
+
+        public long slip() {
+            return newFinish - previousFinish;
+        }
+    }
+
+    /**
+     * Décalage simulé de la fin d'une tâche : décalage de la fin du projet et de chaque tâche en aval touchée.
+     */
+    public record Impact(long projectDelay, long[] taskIds, long[] shifts) {
+    }
+
+    private ProjectSchedule(ProjectDependencyGraph graph, LocalDate origin, long minutesPerDay) {
+        int n = graph.size();
+        this.graph = graph;
+        this.origin = origin;
+        this.minutesPerDay = minutesPerDay;
+        this.remaining = new long[n];
+        this.dueDates = new LocalDate[n];
+        this.earliestStart = new long[n];
+        this.tail = new long[n];
+    }
+
+    /**
+     * @param taskIds          tâches connues (les autres nœuds du graphe, hors projet, ont un travail restant nul)
+     * @param remainingMinutes travail restant de chaque tâche, même ordre que taskIds
+     * @param dueDates         échéance de chaque tâche, null si aucune (ou tâche terminée)
+     */
+    public static ProjectSchedule build(ProjectDependencyGraph graph, LocalDate origin, long minutesPerDay,
+                                        long[] taskIds, long[] remainingMinutes, LocalDate[] dueDates) {
+        ProjectSchedule schedule = new ProjectSchedule(graph, origin, minutesPerDay);
+        synchronized (graph) {
+            for (int t = 0; t < taskIds.length; t++) {
+                int index = graph.index(taskIds[t]);
+                if (index >= 0) {
+                    schedule.remaining[index] = Math.max(0, remainingMinutes[t]);
+                    schedule.dueDates[index] = dueDates[t];
+                }
+            }
+            schedule.recomputeAll();
+        }
+        return schedule;
+    }
+
+    // Vrai tant que le graphe n'a pas été reconstruit et que le jour d'origine n'a pas changé
+    public boolean isBuiltOn(ProjectDependencyGraph currentGraph, LocalDate today) {
+        return graph == currentGraph && origin.equals(today);
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    public long getProjectFinish() {
+        synchronized (graph) {
+            return projectFinish;
+        }
+    }
+
+    public LocalDate getProjectedEndDate() {
+        synchronized (graph) {
+            return finishDate(projectFinish);
+        }
+    }
+
+    /**
+     * Met à jour le travail restant et l'échéance d'une tâche.
+     * @return null si la tâche est absente du graphe (il faut alors reconstruire l'ordonnancement)
+     */
+    public Change update(long taskId, long remainingMinutes, LocalDate dueDate) {
+        synchronized (graph) {
+            int start = graph.index(taskId);
+            if (start < 0) {
+                return null;
+            }
+            long previousFinish = projectFinish;
+            long value = Math.max(0, remainingMinutes);
+
+            if (graph.edgeModifications() != edgeModifications) {
+                boolean[] lateBefore = lateFlags();
+                remaining[start] = value;
+                dueDates[start] = dueDate;
+                recomputeAll();
+                return new Change(previousFinish, projectFinish, newlyLate(lateBefore, allIndexes()));
+            }
+
+            int[] downstream = orderedReachable(start, true);
+            boolean[] lateBefore = new boolean[downstream.length];
+            for (int k = 0; k < downstream.length; k++) {
+                lateBefore[k] = isLate(downstream[k]);
+            }
+            if (remaining[start] != value) {
+                remaining[start] = value;
+                // Le début au plus tôt de start ne dépend que de ses dépendances : seuls ses descendants bougent
+                for (int node : downstream) {
+                    earliestStart[node] = computeEarliestStart(node);
+                }
+                for (int node : orderedReachable(start, false)) {
+                    tail[node] = computeTail(node);
+                }
+                projectFinish = computeProjectFinish();
+            }
+            dueDates[start] = dueDate;
+
+            List<Long> late = new ArrayList<>();
+            for (int k = 0; k < downstream.length; k++) {
+                if (!lateBefore[k] && isLate(downstream[k])) {
+                    late.add(graph.idAt(downstream[k]));
+                }
+            }
+            return new Change(previousFinish, projectFinish, late.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    // Comparaison avec un ordonnancement antérieur, après reconstruction complète
+    public Change changeSince(ProjectSchedule previous) {
+        long[] lateBefore = previous.lateTaskIds();
+        Arrays.sort(lateBefore);
+        List<Long> late = new ArrayList<>();
+        for (long taskId : lateTaskIds()) {
+            if (Arrays.binarySearch(lateBefore, taskId) < 0) {
+                late.add(taskId);
+            }
+        }
+        return new Change(previous.getProjectFinish(), getProjectFinish(), late.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    public long[] lateTaskIds() {
+        synchronized (graph) {
+            return newlyLate(new boolean[graph.size()], allIndexes());
+        }
+    }
+
+    // Toutes les tâches, en ordre topologique
+    public List<TaskTiming> timings() {
+        synchronized (graph) {
+            int[] order = graph.topologicalIndexes();
+            List<TaskTiming> timings = new ArrayList<>(order.length);
+            for (int index : order) {
+                timings.add(timing(index));
+            }
+            return timings;
+        }
+    }
+
+    public TaskTiming timing(long taskId) {
+        synchronized (graph) {
+            int index = graph.index(taskId);
+            return index < 0 ? null : timing(index);
+        }
+    }
+
+    /**
+     * Chemin critique : chaîne de tâches sans marge allant du début à la fin du projet.
+     */
+    public long[] criticalPath() {
+        synchronized (graph) {
+            if (projectFinish == 0) {
+                return new long[0];
+            }
+            int current = -1;
+            for (int i = 0; i < remaining.length && current < 0; i++) {
+                if (earliestStart[i] == 0 && tail[i] == projectFinish && remaining[i] > 0) {
+                    current = i;
+                }
+            }
+            List<Long> path = new ArrayList<>();
+            while (current >= 0) {
+                path.add(graph.idAt(current));
+                int next = -1;
+                long finish = earliestStart[current] + remaining[current];
+                for (int k = 0; k < graph.dependentCount(current) && next < 0; k++) {
+                    int dependent = graph.dependentAt(current, k);
+                    if (earliestStart[dependent] == finish && slack(dependent) == 0) {
+                        next = dependent;
+                    }
+                }
+                current = next;
+            }
+            return path.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    /**
+     * Simule la fin de taskId retardée de delayMinutes, sans modifier l'ordonnancement.
+     * @return null si la tâche est absente du graphe
+     */
+    public Impact impactOfDelay(long taskId, long delayMinutes) {
+        synchronized (graph) {
+            int start = graph.index(taskId);
+            if (start < 0) {
+                return null;
+            }
+            int[] downstream = orderedReachable(start, true);
+            long[] finish = new long[remaining.length];
+            for (int i = 0; i < remaining.length; i++) {
+                finish[i] = earliestStart[i] + remaining[i];
+            }
+            finish[start] += Math.max(0, delayMinutes);
+            long[] taskIds = new long[downstream.length];
+            long[] shifts = new long[downstream.length];
+            int count = 0;
+            long newFinish = projectFinish;
+            for (int node : downstream) {
+                if (node != start) {
+                    long begin = 0;
+                    for (int k = 0; k < graph.dependencyCount(node); k++) {
+                        begin = Math.max(begin, finish[graph.dependencyAt(node, k)]);
+                    }
+                    finish[node] = begin + remaining[node];
+                }
+                long shift = finish[node] - (earliestStart[node] + remaining[node]);
+                if (shift > 0) {
+                    taskIds[count] = graph.idAt(node);
+                    shifts[count++] = shift;
+                }
+                newFinish = Math.max(newFinish, finish[node]);
+            }
+            return new Impact(newFinish - projectFinish, Arrays.copyOf(taskIds, count), Arrays.copyOf(shifts, count));
+        }
+    }
+
+    // Date calendaire de fin pour une fin à « minutes » du temps zéro, minutesPerDay de travail par jour
+    public LocalDate finishDate(long minutes) {
+        long days = minutes <= 0 ? 0 : (minutes - 1) / minutesPerDay;
+        return origin.plusDays(days);
+    }
+
+    private TaskTiming timing(int index) {
+        long latestStart = projectFinish - tail[index];
+        long finish = earliestStart[index] + remaining[index];
+        return new TaskTiming(graph.idAt(index), remaining[index], earliestStart[index], latestStart,
+                latestStart - earliestStart[index], dueDates[index], finishDate(finish), isLate(index));
+    }
+
+    private void recomputeAll() {
+        int[] order = graph.topologicalIndexes();
+        for (int node : order) {
+            earliestStart[node] = computeEarliestStart(node);
+        }
+        for (int k = order.length - 1; k >= 0; k--) {
+            tail[order[k]] = computeTail(order[k]);
+        }
+        projectFinish = computeProjectFinish();
+        edgeModifications = graph.edgeModifications();
+    }
+
+    private long computeEarliestStart(int node) {
+        long start = 0;
+        for (int k = 0; k < graph.dependencyCount(node); k++) {
+            int dependency = graph.dependencyAt(node, k);
+            start = Math.max(start, earliestStart[dependency] + remaining[dependency]);
+        }
+        return start;
+    }
+
+    private long computeTail(int node) {
+        long longest = 0;
+        for (int k = 0; k < graph.dependentCount(node); k++) {
+            longest = Math.max(longest, tail[graph.dependentAt(node, k)]);
+        }
+        return remaining[node] + longest;
+    }
+
+    private long computeProjectFinish() {
+        long finish = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            finish = Math.max(finish, earliestStart[i] + remaining[i]);
+        }
+        return finish;
+    }
+
+    private long slack(int index) {
+        return projectFinish - tail[index] - earliestStart[index];
+    }
+
+    private boolean isLate(int index) {
+        return dueDates[index] != null && finishDate(earliestStart[index] + remaining[index]).isAfter(dueDates[index]);
+    }
+
+    private boolean[] lateFlags() {
+        boolean[] late = new boolean[remaining.length];
+        for (int i = 0; i < late.length; i++) {
+            late[i] = isLate(i);
+        }
+        return late;
+    }
+
+    private long[] newlyLate(boolean[] lateBefore, int[] indexes) {
+        long[] result = new long[indexes.length];
+        int count = 0;
+        for (int index : indexes) {
+            if (!lateBefore[index] && isLate(index)) {
+                result[count++] = graph.idAt(index);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int[] allIndexes() {
+        int[] indexes = new int[remaining.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * start puis tous ses descendants (downstream) ou ancêtres (amont), dans un ordre où chaque nœud suit
+     * ceux dont il dépend dans ce sens de parcours : Kahn restreint aux nœuds atteints.
+     */
+    private int[] orderedReachable(int start, boolean downstream) {
+        int n = remaining.length;
+        boolean[] reached = new boolean[n];
+        int[] nodes = new int[n];
+        int count = 0;
+        reached[start] = true;
+        nodes[count++] = start;
+        for (int head = 0; head < count; head++) {
+            int current = nodes[head];
+            int degree = downstream ? graph.dependentCount(current) : graph.dependencyCount(current);
+            for (int k = 0; k < degree; k++) {
+                int next = downstream ? graph.dependentAt(current, k) : graph.dependencyAt(current, k);
+                if (!reached[next]) {
+                    reached[next] = true;
+                    nodes[count++] = next;
+                }
+            }
+        }
+
+        int[] pending = new int[n];
+        for (int k = 1; k < count; k++) {
+            int node = nodes[k];
+            int degree = downstream ? graph.dependencyCount(node) : graph.dependentCount(node);
+            for (int e = 0; e < degree; e++) {
+                int previous = downstream ? graph.dependencyAt(node, e) : graph.dependentAt(node, e);
+                if (reached[previous]) {
+                    pending[node]++;
+                }
+            }
+        }
+        int[] order = new int[count];
+        int head = 0;
+        int tail = 0;
+        order[tail++] = start;
+        while (head < tail) {
+            int current = order[head++];
+            int degree = downstream ? graph.dependentCount(current) : graph.dependencyCount(current);
+            for (int k = 0; k < degree; k++) {
+                int next = downstream ? graph.dependentAt(current, k) : graph.dependencyAt(current, k);
+                if (--pending[next] == 0) {
+                    order[tail++] = next;
+                }
+            }
+        }
+        if (tail < count) {
+            throw new IllegalStateException("Dependency cycle detected around task ID: " + graph.idAt(start));
+        }
+        return order;
+    }
+}
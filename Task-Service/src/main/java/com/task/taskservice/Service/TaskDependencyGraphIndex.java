@@ -0,0 +1,206 @@
+package com.task.taskservice.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graphes de dépendances des tâches, un par projet, tenus en mémoire.
+ * <ul>
+ *   <li>construits à la demande en deux requêtes (tâches du projet, arcs de task_dependencies) ;</li>
+ *   <li>mis à jour après commit à l'ajout/retrait d'une dépendance et au changement de statut ;
+ *       création, suppression ou remplacement des dépendances d'une tâche invalident le graphe du projet ;
+ *       un changement de statut est aussi reporté dans les graphes des autres projets où la tâche est une
+ *       dépendance externe ;</li>
+ *   <li>TTL (ttl-ms) pour borner l'écart avec les écritures faites par une autre instance ; le graphe en cache
+ *       ne sert qu'au refus rapide des cycles, wouldCreateCycleLocked() refait le contrôle sur la base,
+ *       au-delà du projet.</li>
+ * </ul>
+ * Métriques : task.dependency.graph.builds, task.dependency.graph.size.
+ */
+@Service
+public class TaskDependencyGraphIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskDependencyGraphIndex.class);
+
+    private final TaskRepository taskRepository;
+    private final Cache<Long, ProjectDependencyGraph> graphs;
+    private final Counter builds;
+
+    public TaskDependencyGraphIndex(TaskRepository taskRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${task-dependency-graph.ttl-ms:300000}") long ttlMs,
+                                    @Value("${task-dependency-graph.maximum-size:1000}") long maximumSize) {
+        this.taskRepository = taskRepository;
+        this.graphs = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build();
+        this.builds = Counter.builder("task.dependency.graph.builds").register(meterRegistry);
+        Gauge.builder("task.dependency.graph.size", graphs, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public ProjectDependencyGraph getGraph(Long projectId) {
+        return graphs.get(projectId, this::build);
+    }
+
+    private ProjectDependencyGraph build(Long projectId) {
+        List<Object[]> nodes = taskRepository.findDependencyGraphNodes(projectId);
+        List<Object[]> edges = taskRepository.findDependencyGraphEdges(projectId);
+
+        // Les dépendances hors projet sont ajoutées comme nœuds sans arcs sortants
+        long[] nodeIds = new long[nodes.size() + edges.size()];
+        boolean[] nodeDone = new boolean[nodeIds.length];
+        int n = 0;
+        for (Object[] row : nodes) {
+            nodeIds[n] = (Long) row[0];
+            nodeDone[n++] = row[1] == WorkItemStatus.DONE;
+        }
+        long[] edgeFrom = new long[edges.size()];
+        long[] edgeTo = new long[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            Object[] row = edges.get(e);
+            edgeFrom[e] = (Long) row[0];
+            edgeTo[e] = (Long) row[1];
+            nodeIds[n] = edgeTo[e];
+            nodeDone[n++] = row[2] == WorkItemStatus.DONE;
+        }
+        builds.increment();
+        ProjectDependencyGraph graph = ProjectDependencyGraph.build(nodeIds, nodeDone, edgeFrom, edgeTo);
+        logger.debug("Graphe de dépendances du projet {} construit : {} tâches, {} arcs", projectId, graph.size(), edges.size());
+        return graph;
+    }
+
+    public boolean wouldCreateCycle(Long projectId, Long taskId, Collection<Long> dependencyIds) {
+        if (projectId == null || taskId == null || dependencyIds == null || dependencyIds.isEmpty()) {
+            return false;
+        }
+        long[] ids = dependencyIds.stream().mapToLong(Long::longValue).toArray();
+        return getGraph(projectId).wouldCreateCycle(taskId, ids);
+    }
+
+    /**
+     * Contrôle définitif, dans la transaction d'écriture : parcours en base des dépendances à partir de
+     * dependencyIds, tous projets confondus. taskId puis chaque tâche atteinte sont verrouillées jusqu'au
+     * commit (FOR UPDATE) et leurs dépendances relues à la dernière version validée : un ajout concurrent
+     * depuis une tâche du parcours attend ce commit, puis voit l'arc ajouté ici.
+     */
+    public boolean wouldCreateCycleLocked(Long taskId, Collection<Long> dependencyIds) {
+        if (taskId == null || dependencyIds == null || dependencyIds.isEmpty()) {
+            return false;
+        }
+        if (dependencyIds.contains(taskId)) {
+            return true;
+        }
+        taskRepository.lockDependencyIdsByTaskIdIn(List.of(taskId));
+        Set<Long> visited = new HashSet<>(dependencyIds);
+        List<Long> frontier = new ArrayList<>(visited);
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (Object[] row : taskRepository.lockDependencyIdsByTaskIdIn(frontier)) {
+                Long dependencyId = (Long) row[1];
+                if (dependencyId == null) {
+                    continue;
+                }
+                if (dependencyId.equals(taskId)) {
+                    return true;
+                }
+                if (visited.add(dependencyId)) {
+                    next.add(dependencyId);
+                }
+            }
+            frontier = next;
+        }
+        return false;
+    }
+
+    public List<Long> getBlockedTaskIds(Long projectId) {
+        return Arrays.stream(getGraph(projectId).blockedTaskIds()).boxed().toList();
+    }
+
+    public List<Long> getTransitiveDependents(Long projectId, Long taskId) {
+        return Arrays.stream(getGraph(projectId).transitiveDependents(taskId)).boxed().toList();
+    }
+
+    public List<Long> getTopologicalOrder(Long projectId) {
+        return Arrays.stream(getGraph(projectId).topologicalOrder()).boxed().toList();
+    }
+
+    public boolean isBlocked(Long projectId, Long taskId) {
+        return getGraph(projectId).isBlocked(taskId);
+    }
+
+    // Mises à jour incrémentales : appliquées après commit, sur le graphe déjà construit s'il existe
+
+    public void dependencyAdded(Long projectId, Long taskId, Long dependencyId) {
+        afterCommit(() -> {
+            ProjectDependencyGraph graph = graphs.getIfPresent(projectId);
+            if (graph != null && !graph.addDependency(taskId, dependencyId)) {
+                graphs.invalidate(projectId);
+            }
+        });
+    }
+
+    public void dependencyRemoved(Long projectId, Long taskId, Long dependencyId) {
+        afterCommit(() -> {
+            ProjectDependencyGraph graph = graphs.getIfPresent(projectId);
+            if (graph != null && !graph.removeDependency(taskId, dependencyId)) {
+                graphs.invalidate(projectId);
+            }
+        });
+    }
+
+    public void statusChanged(Long projectId, Long taskId, WorkItemStatus status) {
+        boolean isDone = status == WorkItemStatus.DONE;
+        afterCommit(() -> {
+            ProjectDependencyGraph graph = graphs.getIfPresent(projectId);
+            if (graph != null && !graph.setDone(taskId, isDone)) {
+                graphs.invalidate(projectId);
+            }
+            // Dépendants d'autres projets : la tâche y est un nœud externe, absent des autres graphes
+            graphs.asMap().forEach((otherProjectId, otherGraph) -> {
+                if (!otherProjectId.equals(projectId)) {
+                    otherGraph.setDone(taskId, isDone);
+                }
+            });
+        });
+    }
+
+    public void invalidate(Long projectId) {
+        if (projectId != null) {
+            afterCommit(() -> graphs.invalidate(projectId));
+        }
+    }
+
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Un rollback ne doit pas laisser le graphe en avance sur la base
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.task.taskservice.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.taskservice.Entity.OutboxEvent;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.OutboxEventRepository;
+import com.task.taskservice.event.TaskEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Outbox transactionnelle des événements de tâches : l'événement est inséré dans outbox_events par la
+ * transaction qui modifie la tâche, sans appel au broker. Il n'existe donc que si la transaction est
+ * validée, et survit à une indisponibilité de Kafka ; TaskEventRelay le publie ensuite sur task-events.
+ * Métrique : task.events.outbox.appended (par type).
+ */
+@Service
+// Dans la transaction de l'appelant uniquement : un événement hors transaction ne serait lié à aucune écriture
+@Transactional(propagation = Propagation.MANDATORY)
+public class TaskEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String topic;
+
+    public TaskEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${task-events.topic:task-events}") String topic) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.topic = topic;
+    }
+
+    public void taskCreated(Task task, String actorId) {
+        append(event(TaskEvent.Type.CREATED, task, null, task.getAssignedUserIds(), actorId));
+    }
+
+    public void statusChanged(Task task, WorkItemStatus previousStatus, String actorId) {
+        append(event(TaskEvent.Type.STATUS_CHANGED, task, previousStatus, task.getAssignedUserIds(), actorId));
+    }
+
+    public void assigned(Task task, Set<String> assigneeIds, String actorId) {
+        append(event(TaskEvent.Type.ASSIGNED, task, null, assigneeIds, actorId));
+    }
+
+    public void taskDeleted(Task task, String actorId) {
+        append(new TaskEvent(TaskEvent.SCHEMA_VERSION, UUID.randomUUID().toString(), TaskEvent.Type.DELETED,
+                task.getId(), task.getProjectId(), task.getUserStory(), task.getTitle(),
+                null, null, copyOrNull(task.getAssignedUserIds()), actorId, LocalDateTime.now()));
+    }
+
+    private static TaskEvent event(TaskEvent.Type type, Task task, WorkItemStatus previousStatus,
+                                   Set<String> assigneeIds, String actorId) {
+        return new TaskEvent(TaskEvent.SCHEMA_VERSION, UUID.randomUUID().toString(), type,
+                task.getId(), task.getProjectId(), task.getUserStory(), task.getTitle(),
+                task.getStatus() != null ? task.getStatus().name() : null,
+                previousStatus != null ? previousStatus.name() : null,
+                copyOrNull(assigneeIds), actorId, LocalDateTime.now());
+    }
+
+    private static Set<String> copyOrNull(Set<String> assigneeIds) {
+        return assigneeIds != null && !assigneeIds.isEmpty() ? Set.copyOf(assigneeIds) : null;
+    }
+
+    public void append(TaskEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize task event " + event.getEventId(), e);
+        }
+        outboxEventRepository.save(new OutboxEvent(topic, event.getTaskId().toString(), payload, LocalDateTime.now()));
+        meterRegistry.counter("task.events.outbox.appended", "type", event.getType().name()).increment();
+    }
+}
@@ -0,0 +1,210 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.Entity.OutboxEvent;
+import com.task.taskservice.Repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relais de l'outbox vers Kafka : lit les événements en attente par lots (ordre des ids, verrouillés
+ * avec SKIP LOCKED), les publie, attend les acquittements puis supprime les lignes publiées, dans une
+ * transaction par lot.
+ * <ul>
+ *   <li>ordre par clé entre instances : SKIP LOCKED peut donner à une instance un événement dont un
+ *       prédécesseur de même clé est verrouillé par une autre ; un tel événement (et les suivants de sa clé)
+ *       est laissé en attente jusqu'à la publication de ce prédécesseur ;</li>
+ *   <li>producteur dédié, idempotent (acks=all) : un renvoi interne du client ne duplique pas un message
+ *       et l'ordre est conservé par clé (id de la tâche) ;</li>
+ *   <li>linger.ms / batch.size / compression regroupent les messages d'un lot en peu de requêtes ;</li>
+ *   <li>au premier échec, le lot s'arrête : les lignes publiées avant sont supprimées, les suivantes
+ *       repartent au prochain passage (livraison au moins une fois, dédoublonnage par eventId).</li>
+ * </ul>
+ * Métriques : task.events.outbox.published (débit), task.events.outbox.failed, task.events.outbox.relay.lag
+ * (écriture en outbox -> acquittement du broker), task.events.outbox.oldest.age (âge du plus ancien
+ * événement en attente, en secondes).
+ */
+@Service
+public class TaskEventRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Counter published;
+    private final Counter failed;
+    private final Timer lag;
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    @Autowired
+    public TaskEventRelay(OutboxEventRepository outboxEventRepository,
+                          KafkaProperties kafkaProperties,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${task-events.outbox.batch-size:500}") int batchSize,
+                          @Value("${task-events.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                          @Value("${task-events.producer.linger-ms:20}") int lingerMs,
+                          @Value("${task-events.producer.batch-size:65536}") int producerBatchSize,
+                          @Value("${task-events.producer.compression-type:lz4}") String compressionType) {
+        this(outboxEventRepository,
+                new KafkaTemplate<>(producerFactory(kafkaProperties, lingerMs, producerBatchSize, compressionType)),
+                transactionManager, meterRegistry, batchSize, sendTimeoutMs);
+    }
+
+    public TaskEventRelay(OutboxEventRepository outboxEventRepository,
+                          KafkaTemplate<String, String> kafkaTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          int batchSize,
+                          long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.published = Counter.builder("task.events.outbox.published").register(meterRegistry);
+        this.failed = Counter.builder("task.events.outbox.failed").register(meterRegistry);
+        this.lag = Timer.builder("task.events.outbox.relay.lag").register(meterRegistry);
+        Gauge.builder("task.events.outbox.oldest.age", oldestPendingAgeMs, age -> age.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // Les payloads sont déjà du JSON : sérialisation String, sans en-têtes de type
+    private static ProducerFactory<String, String> producerFactory(KafkaProperties kafkaProperties, int lingerMs,
+                                                                   int producerBatchSize, String compressionType) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Scheduled(fixedDelayString = "${task-events.outbox.poll-interval-ms:200}")
+    public void relay() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    // Nombre d'événements publiés ; -1 si le lot s'est arrêté sur un échec ou a laissé des événements en attente
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockOldest(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            oldestPendingAgeMs.set(0);
+            return 0;
+        }
+        oldestPendingAgeMs.set(Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+
+        List<OutboxEvent> ready = inKeyOrder(batch);
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(ready.size());
+        for (OutboxEvent event : ready) {
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload()));
+        }
+        // Ne pas attendre linger.ms pour le dernier message du lot
+        kafkaTemplate.flush();
+
+        List<Long> publishedIds = new ArrayList<>(ready.size());
+        for (int i = 0; i < ready.size(); i++) {
+            OutboxEvent event = ready.get(i);
+            try {
+                sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                failed.increment();
+                logger.warn("Publication de l'événement outbox {} sur {} échouée, nouvel essai au prochain passage : {}",
+                        event.getId(), event.getTopic(), e.getMessage());
+                break;
+            }
+            publishedIds.add(event.getId());
+            lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        }
+
+        if (!publishedIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(publishedIds);
+            published.increment(publishedIds.size());
+        }
+        if (publishedIds.size() < batch.size()) {
+            return -1;
+        }
+        if (batch.size() < batchSize) {
+            oldestPendingAgeMs.set(0);
+        }
+        return batch.size();
+    }
+
+    // Événements du lot sans prédécesseur de même clé en attente hors du lot
+    private List<OutboxEvent> inKeyOrder(List<OutboxEvent> batch) {
+        Set<String> keys = batch.stream().map(OutboxEvent::getEventKey).collect(Collectors.toSet());
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Map<String, Long> oldestOutside = new HashMap<>();
+        for (Object[] row : outboxEventRepository.findOldestPendingByKeyOutside(keys, ids)) {
+            oldestOutside.put((String) row[0], (Long) row[1]);
+        }
+        if (oldestOutside.isEmpty()) {
+            return batch;
+        }
+        List<OutboxEvent> ready = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            Long older = oldestOutside.get(event.getEventKey());
+            if (older == null || older > event.getId()) {
+                ready.add(event);
+            }
+        }
+        logger.debug("{} événement(s) outbox laissés en attente derrière un événement de même clé d'une autre instance",
+                batch.size() - ready.size());
+        return ready;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        // Producteur créé ici, hors des beans Kafka : le fermer avec le service
+        if (kafkaTemplate.getProducerFactory() instanceof DisposableBean factory) {
+            factory.destroy();
+        }
+    }
+}
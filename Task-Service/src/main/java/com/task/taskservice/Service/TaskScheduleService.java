@@ -0,0 +1,220 @@
+package com.task.taskservice.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.taskservice.DTO.ProjectScheduleDTO;
+import com.task.taskservice.DTO.ScheduleImpactDTO;
+import com.task.taskservice.DTO.TaskScheduleDTO;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.event.ScheduleSlipEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Ordonnancements des projets (dates au plus tôt / au plus tard, marges, chemin critique), un par projet,
+ * calculés sur le graphe de TaskDependencyGraphIndex.
+ * <ul>
+ *   <li>travail restant = estimationTime - totalTimeSpent (minutes), nul pour une tâche terminée ;</li>
+ *   <li>construit à la première lecture, puis mis à jour après commit à chaque modification de tâche :
+ *       seuls les descendants et ancêtres de la tâche sont recalculés ;</li>
+ *   <li>un ScheduleSlipEvent est publié quand la fin projetée recule d'au moins slip-threshold-minutes
+ *       ou que des tâches passent en retard sur leur échéance.</li>
+ * </ul>
+ * Métriques : task.schedule.compute (construction complète), task.schedule.slips.
+ */
+@Service
+public class TaskScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskScheduleService.class);
+
+    private final TaskDependencyGraphIndex dependencyGraph;
+    private final TaskRepository taskRepository;
+    private final KafkaTemplate<String, ScheduleSlipEvent> kafkaTemplate;
+    private final Cache<Long, ProjectSchedule> schedules;
+    private final Timer computeTimer;
+    private final Counter slips;
+    private final long minutesPerDay;
+    private final long slipThresholdMinutes;
+    private final String topic;
+
+    public TaskScheduleService(TaskDependencyGraphIndex dependencyGraph,
+                               TaskRepository taskRepository,
+                               KafkaTemplate<String, ScheduleSlipEvent> kafkaTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${task-schedule.minutes-per-day:480}") long minutesPerDay,
+                               @Value("${task-schedule.slip-threshold-minutes:480}") long slipThresholdMinutes,
+                               @Value("${task-schedule.maximum-size:1000}") long maximumSize,
+                               @Value("${task-schedule.events.topic:schedule-events}") String topic) {
+        this.dependencyGraph = dependencyGraph;
+        this.taskRepository = taskRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.schedules = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.computeTimer = Timer.builder("task.schedule.compute").register(meterRegistry);
+        this.slips = Counter.builder("task.schedule.slips").register(meterRegistry);
+        this.minutesPerDay = minutesPerDay;
+        this.slipThresholdMinutes = slipThresholdMinutes;
+        this.topic = topic;
+    }
+
+    public static long remainingMinutes(Long estimationTime, Long totalTimeSpent, WorkItemStatus status) {
+        if (status == WorkItemStatus.DONE || estimationTime == null) {
+            return 0;
+        }
+        return Math.max(0, estimationTime - (totalTimeSpent != null ? totalTimeSpent : 0));
+    }
+
+    public ProjectSchedule getSchedule(Long projectId) {
+        ProjectDependencyGraph graph = dependencyGraph.getGraph(projectId);
+        ProjectSchedule schedule = schedules.getIfPresent(projectId);
+        if (schedule == null || !schedule.isBuiltOn(graph, LocalDate.now())) {
+            schedule = build(projectId, graph);
+            schedules.put(projectId, schedule);
+        }
+        return schedule;
+    }
+
+    private ProjectSchedule build(Long projectId, ProjectDependencyGraph graph) {
+        List<Object[]> rows = taskRepository.findScheduleRows(projectId);
+        long[] taskIds = new long[rows.size()];
+        long[] remaining = new long[rows.size()];
+        LocalDate[] dueDates = new LocalDate[rows.size()];
+        for (int t = 0; t < rows.size(); t++) {
+            Object[] row = rows.get(t);
+            WorkItemStatus status = (WorkItemStatus) row[3];
+            taskIds[t] = (Long) row[0];
+            remaining[t] = remainingMinutes((Long) row[1], (Long) row[2], status);
+            // Une tâche terminée ne peut plus être en retard
+            dueDates[t] = status == WorkItemStatus.DONE ? null : (LocalDate) row[4];
+        }
+        return computeTimer.record(() ->
+                ProjectSchedule.build(graph, LocalDate.now(), minutesPerDay, taskIds, remaining, dueDates));
+    }
+
+    public ProjectScheduleDTO getProjectSchedule(Long projectId) {
+        ProjectSchedule schedule = getSchedule(projectId);
+        ProjectScheduleDTO dto = new ProjectScheduleDTO();
+        dto.setProjectId(projectId);
+        dto.setRemainingMinutes(schedule.getProjectFinish());
+        dto.setProjectedEndDate(schedule.getProjectedEndDate());
+        dto.setCriticalPath(Arrays.stream(schedule.criticalPath()).boxed().toList());
+        dto.setTasks(schedule.timings().stream().map(this::toDTO).toList());
+        return dto;
+    }
+
+    public ScheduleImpactDTO getDelayImpact(Long projectId, Long taskId, long delayMinutes) {
+        if (delayMinutes < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        ProjectSchedule schedule = getSchedule(projectId);
+        ProjectSchedule.Impact impact = schedule.impactOfDelay(taskId, delayMinutes);
+        if (impact == null) {
+            throw new NoSuchElementException("Task not found in project " + projectId + " with ID: " + taskId);
+        }
+        Map<Long, Long> shifted = new LinkedHashMap<>();
+        for (int k = 0; k < impact.taskIds().length; k++) {
+            shifted.put(impact.taskIds()[k], impact.shifts()[k]);
+        }
+        ScheduleImpactDTO dto = new ScheduleImpactDTO();
+        dto.setTaskId(taskId);
+        dto.setDelayMinutes(delayMinutes);
+        dto.setProjectDelayMinutes(impact.projectDelay());
+        dto.setProjectedEndDate(schedule.finishDate(schedule.getProjectFinish() + impact.projectDelay()));
+        dto.setShiftedTasks(shifted);
+        return dto;
+    }
+
+    // Délai exprimé en jours ouvrés (déplacement d'une échéance) converti en minutes de travail
+    public long daysToMinutes(long days) {
+        return days * minutesPerDay;
+    }
+
+    /**
+     * À appeler après la sauvegarde d'une tâche (travail estimé, temps passé, statut, échéance ou dépendances
+     * modifiés) ; appliqué après commit, seulement si l'ordonnancement du projet a déjà été calculé.
+     */
+    public void taskChanged(Task task) {
+        if (task.getProjectId() == null || task.getId() == null) {
+            return;
+        }
+        Long projectId = task.getProjectId();
+        Long taskId = task.getId();
+        long remaining = remainingMinutes(task.getEstimationTime(), task.getTotalTimeSpent(), task.getStatus());
+        LocalDate dueDate = task.getStatus() == WorkItemStatus.DONE ? null : task.getDueDate();
+        TaskDependencyGraphIndex.afterCommit(() -> apply(projectId, taskId, remaining, dueDate));
+    }
+
+    private void apply(Long projectId, Long taskId, long remaining, LocalDate dueDate) {
+        ProjectSchedule schedule = schedules.getIfPresent(projectId);
+        if (schedule == null) {
+            return;
+        }
+        try {
+            ProjectDependencyGraph graph = dependencyGraph.getGraph(projectId);
+            ProjectSchedule.Change change = schedule.isBuiltOn(graph, LocalDate.now())
+                    ? schedule.update(taskId, remaining, dueDate)
+                    : null;
+            if (change == null) {
+                // Graphe reconstruit entre-temps (tâche créée, supprimée...) : recalcul complet puis comparaison
+                ProjectSchedule rebuilt = build(projectId, graph);
+                schedules.put(projectId, rebuilt);
+                change = rebuilt.changeSince(schedule);
+                schedule = rebuilt;
+            }
+            publishIfSignificant(projectId, taskId, schedule, change);
+        } catch (RuntimeException e) {
+            // L'écriture est déjà validée : l'ordonnancement sera reconstruit à la prochaine lecture
+            schedules.invalidate(projectId);
+            logger.warn("Mise à jour de l'ordonnancement du projet {} impossible : {}", projectId, e.getMessage());
+        }
+    }
+
+    private void publishIfSignificant(Long projectId, Long taskId, ProjectSchedule schedule, ProjectSchedule.Change change) {
+        if (change.slip() < slipThresholdMinutes && change.newlyLateTaskIds().length == 0) {
+            return;
+        }
+        ScheduleSlipEvent event = new ScheduleSlipEvent(
+                projectId,
+                taskId,
+                change.slip(),
+                schedule.finishDate(change.newFinish()),
+                Arrays.stream(change.newlyLateTaskIds()).boxed().toList(),
+                LocalDateTime.now()
+        );
+        kafkaTemplate.send(topic, projectId.toString(), event);
+        slips.increment();
+        logger.info("ScheduleSlipEvent publié pour le projet {} (tâche {}) : recul de {} min, {} tâche(s) en retard",
+                projectId, taskId, change.slip(), change.newlyLateTaskIds().length);
+    }
+
+    private TaskScheduleDTO toDTO(ProjectSchedule.TaskTiming timing) {
+        TaskScheduleDTO dto = new TaskScheduleDTO();
+        dto.setTaskId(timing.taskId());
+        dto.setRemainingMinutes(timing.remaining());
+        dto.setEarliestStart(timing.earliestStart());
+        dto.setEarliestFinish(timing.earliestFinish());
+        dto.setLatestStart(timing.latestStart());
+        dto.setLatestFinish(timing.latestFinish());
+        dto.setSlack(timing.slack());
+        dto.setCritical(timing.critical());
+        dto.setDueDate(timing.dueDate());
+        dto.setProjectedFinishDate(timing.projectedFinishDate());
+        dto.setLate(timing.late());
+        return dto;
+    }
+}
@@ -1,11 +1,11 @@
 package com.task.taskservice.Service;
-import com.task.taskservice.Configuration.GitHubIntegrationClient;
+import com.common.security.JwtTokenVerifier;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import com.task.taskservice.DTO.*;
 import com.task.taskservice.Entity.*;
 import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
-import com.task.taskservice.Repository.ProcessedCommitRepository;
-import com.task.taskservice.event.TaskAssignedEvent;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -15,21 +15,18 @@ import jakarta.persistence.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.task.taskservice.Configuration.AuthClient;
 import com.task.taskservice.Configuration.ProjectClient;
 import com.task.taskservice.Mapper.TaskMapper; // Uppercase Mapper
 import com.task.taskservice.Repository.FileAttachmentRepository;
 import com.task.taskservice.Repository.TagRepository;
 import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Repository.WorkItemHistoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import com.task.taskservice.Entity.FileAttachment;
@@ -40,8 +37,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 
@@ -52,41 +47,76 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final TagRepository tagRepository;
     private final TaskMapper taskMapper;
-    private final AuthClient authClient;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final UserDirectoryClient userDirectoryClient;
 
     private final ProjectClient projectClient;
-    private final GitHubIntegrationClient gitHubIntegrationClient;
+    private final ActiveSprintCache activeSprintCache;
+    private final WorkItemStatsService workItemStatsService;
+    private final TaskDependencyGraphIndex dependencyGraph;
+    private final TaskScheduleService taskScheduleService;
+    private final WorkItemHistoryWriter historyWriter;
+    private final WorkItemHistoryRepository workItemHistoryRepository;
+    private final BoardDeltaPublisher boardDeltaPublisher;
+    private final ChangeVersionService changeVersionService;
+    private final WorkItemSearchIndexer searchIndexer;
+    private final WorkItemSearchIndex searchIndex;
+    private final WorkItemFacetIndex facetIndex;
     @Autowired
     private EntityManager entityManager;
 
     private final FileAttachmentRepository fileAttachmentRepository;
 
-    private  final ProcessedCommitRepository processedCommitRepository;
     @Autowired
     private final  CloudinaryService cloudinaryService;
 
-    private final KafkaTemplate<String, TaskAssignedEvent> kafkaTemplate;
+    private final TaskEventOutbox taskEventOutbox;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String kafkaBootstrapServers;
 
+    @Value("${work-items.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${work-items.page.max-size:200}")
+    private int maxPageSize = 200;
+
+    // Plafond des anciens endpoints non paginés
+    @Value("${work-items.list.max-unpaged:1000}")
+    private int maxUnpagedItems = 1000;
+
+    @Value("${work-items.search.default-limit:20}")
+    private int defaultSearchLimit = 20;
+
+    private static final Set<String> SEARCH_ITEM_TYPES = Set.of("TASK", "BUG", "SUBTASK");
+
     @PostConstruct
     public void logKafkaConfig() {
         logger.info("Kafka bootstrap servers: {}", kafkaBootstrapServers);
     }
     @Autowired
     public TaskService(TaskRepository taskRepository,
-                       TagRepository tagRepository, TaskMapper taskMapper, AuthClient authClient,ProjectClient projectClient , CloudinaryService cloudinaryService , FileAttachmentRepository fileAttachmentRepository , GitHubIntegrationClient gitHubIntegrationClient , ProcessedCommitRepository processedCommitRepository ,KafkaTemplate<String, TaskAssignedEvent> kafkaTemplate ) {
+                       TagRepository tagRepository, TaskMapper taskMapper, ProjectClient projectClient , CloudinaryService cloudinaryService , FileAttachmentRepository fileAttachmentRepository ,TaskEventOutbox taskEventOutbox , JwtTokenVerifier jwtTokenVerifier , UserDirectoryClient userDirectoryClient , ActiveSprintCache activeSprintCache , WorkItemStatsService workItemStatsService , TaskDependencyGraphIndex dependencyGraph , TaskScheduleService taskScheduleService , WorkItemHistoryWriter historyWriter , WorkItemHistoryRepository workItemHistoryRepository , BoardDeltaPublisher boardDeltaPublisher , ChangeVersionService changeVersionService , WorkItemSearchIndexer searchIndexer , WorkItemSearchIndex searchIndex , WorkItemFacetIndex facetIndex) {
         this.taskRepository = taskRepository;
         this.tagRepository = tagRepository;
         this.taskMapper = taskMapper;
-        this.authClient = authClient;
         this.projectClient = projectClient;
         this.cloudinaryService = cloudinaryService;
         this.fileAttachmentRepository = fileAttachmentRepository;
-        this.gitHubIntegrationClient= gitHubIntegrationClient;
-        this.processedCommitRepository= processedCommitRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.taskEventOutbox = taskEventOutbox;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.userDirectoryClient = userDirectoryClient;
+        this.activeSprintCache = activeSprintCache;
+        this.workItemStatsService = workItemStatsService;
+        this.dependencyGraph = dependencyGraph;
+        this.taskScheduleService = taskScheduleService;
+        this.historyWriter = historyWriter;
+        this.workItemHistoryRepository = workItemHistoryRepository;
+        this.boardDeltaPublisher = boardDeltaPublisher;
+        this.changeVersionService = changeVersionService;
+        this.searchIndexer = searchIndexer;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
     }
 
 
@@ -96,7 +126,10 @@ public class TaskService {
     @Transactional
     public TaskDTO createTask(Long projectId, Long userStoryId, TaskDTO taskDTO, String token) {
         // Validate token
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
+        if (createdBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
 
         // Set defaults
         if (taskDTO.getCreationDate() == null) {
@@ -169,20 +202,19 @@ public class TaskService {
         logHistory(task, "CREATION", "Task created: " + task.getTitle(), createdBy);
 
         updateProgress(task);
+        changeVersionService.stamp(task);
         // Save the task
         Task savedTask = taskRepository.save(task);
+        workItemStatsService.recordCreated(savedTask);
+        // Nouveau nœud : le graphe (et l'ordonnancement) du projet sont reconstruits
+        dependencyGraph.invalidate(savedTask.getProjectId());
+        taskScheduleService.taskChanged(savedTask);
 
-        // Publier TaskAssignedEvent si des utilisateurs sont assignés
-        if (taskDTO.getAssignedUserIds() != null && !taskDTO.getAssignedUserIds().isEmpty()) {
-            TaskAssignedEvent event = new TaskAssignedEvent(
-                    savedTask.getId(),
-                    new HashSet<>(taskDTO.getAssignedUserIds()),
-                    createdBy,
-                    LocalDateTime.now()
-            );
-            kafkaTemplate.send("task-events", savedTask.getId().toString(), event);
-            logger.info("✅ TaskAssignedEvent publié pour la tâche ID: {}", savedTask.getId());
-        }
+        // Événement CREATED (avec les utilisateurs assignés), publié après le commit par le relais de l'outbox
+        taskEventOutbox.taskCreated(savedTask, createdBy);
+        boardDeltaPublisher.created(savedTask);
+        searchIndexer.changed(savedTask);
+        facetIndex.changed(savedTask);
 
         // Convert back to DTO and return
         return taskMapper.toDTO(savedTask);
@@ -202,11 +234,17 @@ public class TaskService {
     @Transactional
     public TaskDTO updateTask(Long taskId, TaskDTO taskDTO, String token) {
         // Validate token
-        String updatedBy = authClient.decodeToken(token);
+        String updatedBy = jwtTokenVerifier.currentUserId(token);
+        if (updatedBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
 
         // Fetch existing task
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NoSuchElementException("Task not found with ID: " + taskId));
+        WorkItemStatsService.Key statsBefore = workItemStatsService.snapshot(task);
+        WorkItemStatus statusBefore = task.getStatus();
+        Map<String, Object> boardBefore = boardDeltaPublisher.snapshot(task);
 
         // Valider les dépendances si le statut change à IN_PROGRESS ou DONE
         if (taskDTO.getStatus() != null &&
@@ -251,19 +289,8 @@ public class TaskService {
             }
 
             // Mettre à jour le statut
+            // Le statut de la user story suit via task-events (Project_Service), sans appel synchrone
             task.setStatus(newStatus);
-
-            // Si DONE, définir completedDate
-            // Notifier Project-Service si la tâche est DONE
-            if (taskDTO.getStatus() == WorkItemStatus.DONE && task.getUserStory() != null) {
-                try {
-                    logger.info("Notifying Project-Service for UserStory {}", task.getUserStory());
-                    projectClient.checkAndUpdateUserStoryStatus(task.getProjectId(), task.getUserStory(), token);
-                    logger.info("Successfully notified Project-Service for UserStory {}", task.getUserStory());
-                } catch (Exception e) {
-                    logger.error("Failed to notify Project-Service for UserStory {}: {}", task.getUserStory(), e.getMessage(), e);
-                }
-            }
         }
 
         if (taskDTO.getStatus() != null) {
@@ -274,9 +301,6 @@ public class TaskService {
             Task savedTask = taskRepository.save(task);
             logger.info("After save: Task {} status={}", taskId, savedTask.getStatus());
             taskMapper.toDTO(savedTask); // Forcer le flush si nécessaire
-            if (taskDTO.getStatus() == WorkItemStatus.DONE) {
-                notifyUserStoryStatusUpdate(task.getProjectId(), task.getUserStory(), token);
-            }
         }
 
         // Update fields
@@ -311,12 +335,6 @@ public class TaskService {
             }
             Task savedTask = taskRepository.save(task);
             logger.info("After save: Task {} status={}", taskId, savedTask.getStatus());
-            taskRepository.flush(); // Forcer l'écriture en base
-            entityManager.clear(); // Vider la session Hibernate
-            logger.info("After flush and clear: Task {} status={}", taskId, savedTask.getStatus());
-            if (taskDTO.getStatus() == WorkItemStatus.DONE) {
-                notifyUserStoryStatusUpdate(task.getProjectId(), task.getUserStory(), token);
-            }
         }
         task.setUpdatedBy(updatedBy);
         task.setLastModifiedDate(LocalDate.now());
@@ -338,15 +356,7 @@ public class TaskService {
             if (!newUserIds.equals(task.getAssignedUserIds())) {
                 changes.append("Utilisateurs assignés modifiés; ");
                 task.setAssignedUserIds(newUserIds);
-                // Publier TaskAssignedEvent
-                TaskAssignedEvent event = new TaskAssignedEvent(
-                        taskId,
-                        newUserIds,
-                        updatedBy,
-                        LocalDateTime.now()
-                );
-                kafkaTemplate.send("task-events", taskId.toString(), event);
-                logger.info("✅ TaskAssignedEvent publié pour la tâche ID: {}", taskId);
+                taskEventOutbox.assigned(task, newUserIds, updatedBy);
             }
         }
 
@@ -364,8 +374,23 @@ public class TaskService {
             logHistory(task, "MISE_A_JOUR", changes.toString(), updatedBy);
         }
         updateProgress(task);
+        changeVersionService.stamp(task);
         // Save the updated task
         Task updatedTask = taskRepository.save(task);
+        workItemStatsService.recordUpdated(statsBefore, updatedTask);
+        if (taskDTO.getDependencyIds() != null) {
+            dependencyGraph.invalidate(updatedTask.getProjectId());
+        }
+        if (updatedTask.getStatus() != statusBefore) {
+            dependencyGraph.statusChanged(updatedTask.getProjectId(), taskId, updatedTask.getStatus());
+        }
+        if (updatedTask.getStatus() != statusBefore) {
+            taskEventOutbox.statusChanged(updatedTask, statusBefore, updatedBy);
+        }
+        taskScheduleService.taskChanged(updatedTask);
+        boardDeltaPublisher.updated(boardBefore, updatedTask);
+        searchIndexer.changed(updatedTask);
+        facetIndex.changed(updatedTask);
         taskRepository.flush(); // Forcer l'écriture
         entityManager.clear(); // Vider la session
         logger.info("After final save: Task {} status={}", taskId, updatedTask.getStatus());
@@ -375,27 +400,11 @@ public class TaskService {
                 .orElseThrow(() -> new RuntimeException("Task not found after save: " + taskId));
         logger.info("After reload: Task {} status={}", taskId, reloadedTask.getStatus());
 
-        // Notifier Project-Service si la tâche est DONE
-        if (taskDTO.getStatus() == WorkItemStatus.DONE && task.getUserStory() != null) {
-            notifyUserStoryStatusUpdate(task.getProjectId(), task.getUserStory(), token);
-        }
         // Convert to DTO
         TaskDTO responseDTO = taskMapper.toDTO(updatedTask);
 
         // Populate assignedUsers with user details
-        if (updatedTask.getAssignedUserIds() != null && !updatedTask.getAssignedUserIds().isEmpty()) {
-            try {
-                List<String> userIdList = updatedTask.getAssignedUserIds().stream().collect(Collectors.toList());
-                String authHeader = token.startsWith("Bearer ") ? token : "Bearer " + token;
-                List<UserDTO> assignedUsers = authClient.getUsersByIds(authHeader, userIdList);
-                responseDTO.setAssignedUsers(assignedUsers != null ? assignedUsers : Collections.emptyList());
-            } catch (Exception e) {
-                System.err.println("Failed to fetch user details: " + e.getMessage());
-                responseDTO.setAssignedUsers(Collections.emptyList());
-            }
-        } else {
-            responseDTO.setAssignedUsers(Collections.emptyList());
-        }
+        responseDTO.setAssignedUsers(assignedUsers(updatedTask.getAssignedUserIds()));
 
         return responseDTO;
     }
@@ -410,6 +419,9 @@ public class TaskService {
         // Fetch existing task
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NoSuchElementException("Task not found with ID: " + taskId));
+        WorkItemStatsService.Key statsBefore = workItemStatsService.snapshot(task);
+        WorkItemStatus statusBefore = task.getStatus();
+        Map<String, Object> boardBefore = boardDeltaPublisher.snapshot(task);
 
         // Valider les dépendances si le statut change à IN_PROGRESS ou DONE
         if (taskDTO.getStatus() != null &&
@@ -506,6 +518,7 @@ public class TaskService {
             if (!newUserIds.equals(task.getAssignedUserIds())) {
                 changes.append("Utilisateurs assignés modifiés; ");
                 task.setAssignedUserIds(newUserIds);
+                taskEventOutbox.assigned(task, newUserIds, null);
             }
         }
 
@@ -523,8 +536,23 @@ public class TaskService {
             logHistory_bycommit(task, "MISE_A_JOUR", changes.toString());
         }
         updateProgress(task);
+        changeVersionService.stamp(task);
         // Save the updated task
         Task updatedTask = taskRepository.save(task);
+        workItemStatsService.recordUpdated(statsBefore, updatedTask);
+        if (taskDTO.getDependencyIds() != null) {
+            dependencyGraph.invalidate(updatedTask.getProjectId());
+        }
+        if (updatedTask.getStatus() != statusBefore) {
+            dependencyGraph.statusChanged(updatedTask.getProjectId(), taskId, updatedTask.getStatus());
+        }
+        if (updatedTask.getStatus() != statusBefore) {
+            taskEventOutbox.statusChanged(updatedTask, statusBefore, null);
+        }
+        taskScheduleService.taskChanged(updatedTask);
+        boardDeltaPublisher.updated(boardBefore, updatedTask);
+        searchIndexer.changed(updatedTask);
+        facetIndex.changed(updatedTask);
         taskRepository.flush(); // Forcer l'écriture
         entityManager.clear(); // Vider la session
         logger.info("After final save: Task {} status={}", taskId, updatedTask.getStatus());
@@ -565,7 +593,7 @@ public class TaskService {
     @Transactional(readOnly = true)
     public TaskDTO getTaskById(Long projectId, Long userStoryId, Long taskId, String token) {
         // Validate token
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
         if (createdBy == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
@@ -603,7 +631,7 @@ public class TaskService {
     @Retry(name = "TaskServiceRetry", fallbackMethod = "getTaskByTaskIdRetryFallback")
     @Transactional(readOnly = true)
     public TaskDTO getTaskByTaskId(Long taskId, String token) {
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
@@ -637,13 +665,28 @@ public class TaskService {
 
         // Enregistrer l'historique pour la suppression
         logHistory(task, "SUPPRESSION", "Tâche supprimée: " + task.getTitle(), task.getUpdatedBy() != null ? task.getUpdatedBy() : "Système");
+        taskEventOutbox.taskDeleted(task, task.getUpdatedBy());
+        boardDeltaPublisher.deleted(task);
+        searchIndexer.changed(task);
+        facetIndex.removed(task);
+        changeVersionService.tombstone(task);
         List<Task> dependentTasks = taskRepository.findByDependenciesId(taskId);
         for (Task dependent : dependentTasks) {
+            Map<String, Object> boardBefore = boardDeltaPublisher.snapshot(dependent);
             dependent.getDependencies().remove(task);
             updateProgress(dependent);
+            changeVersionService.stamp(dependent);
             taskRepository.save(dependent);
+            boardDeltaPublisher.updated(boardBefore, dependent);
+            // Dépendant d'un autre projet : l'arc retiré est dans le graphe de son projet
+            if (!Objects.equals(dependent.getProjectId(), task.getProjectId())) {
+                dependencyGraph.invalidate(dependent.getProjectId());
+            }
         }
+        WorkItemStatsService.Key statsBefore = workItemStatsService.snapshot(task);
         taskRepository.delete(task);
+        workItemStatsService.recordDeleted(statsBefore);
+        dependencyGraph.invalidate(task.getProjectId());
     }
     public void deleteTaskRateLimiterFallback(Long taskId, Throwable t) {
         logger.error("RateLimiter fallback for deleteTask: {}", t.getMessage());
@@ -666,14 +709,15 @@ public class TaskService {
     @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByProjectAndUserStory(Long projectId, Long userStoryId, String token) {
         // Validate token
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
         if (createdBy == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
 
         // Fetch tasks
         entityManager.clear(); // Vider la session Hibernate
-        List<Task> tasks = taskRepository.findByProjectIdAndUserStory(projectId, userStoryId);
+        List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(
+                taskRepository.findIdsByProjectIdAndUserStory(projectId, userStoryId));
         logger.info("Retrieved {} tasks for projectId={} and userStoryId={}", tasks.size(), projectId, userStoryId);
         tasks.forEach(task -> logger.info("Task id={} status={}", task.getId(), task.getStatus()));
 
@@ -712,13 +756,15 @@ public class TaskService {
     @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByProjectId(Long projectId, String token) {
         // Validate token
-        String createdBy = authClient.decodeToken(token);
+        String createdBy = jwtTokenVerifier.currentUserId(token);
         if (createdBy == null) {
             throw new IllegalArgumentException("Invalid token: unable to extract user");
         }
 
-        // Fetch tasks
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
+        // Fetch tasks (ids puis collections : nombre de requêtes constant), au plus maxUnpagedItems
+        List<Long> ids = taskRepository.findPageIdsByProjectId(projectId, 0L, WorkItemFilterDTO.none(), maxUnpagedItems + 1);
+        List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(
+                WorkItemCursor.truncate(ids, maxUnpagedItems, "tasks of project " + projectId));
 
         // Convert to DTOs
         return tasks.stream()
@@ -744,6 +790,7 @@ public class TaskService {
     @RateLimiter(name = "TaskServiceLimiter", fallbackMethod = "getTasksOfActiveSprintRateLimiterFallback")
     @Bulkhead(name = "TaskServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "getTasksOfActiveSprintBulkheadFallback")
     @Retry(name = "TaskServiceRetry", fallbackMethod = "getTasksOfActiveSprintRetryFallback")
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksOfActiveSprint(Long projectId, String token) {
         // Log initial pour indiquer que la méthode est appelée
         System.out.println("Received request to fetch tasks for active sprint of project ID: " + projectId);
@@ -751,7 +798,7 @@ public class TaskService {
         // Log pour l'appel au microservice pour obtenir les UserStory IDs
         System.out.println("Fetching active sprint user stories for project ID: " + projectId);
 
-        List<Long> activeStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
 
         // Log des userStoryIds récupérés
         if (activeStoryIds.isEmpty()) {
@@ -761,8 +808,10 @@ public class TaskService {
 
         System.out.println("Found " + activeStoryIds.size() + " active story IDs for project ID: " + projectId);
 
-        // Recherche des tâches associées aux UserStories récupérées
-        List<Task> tasks = taskRepository.findByUserStoryIn(activeStoryIds);
+        // Recherche des tâches associées aux UserStories récupérées (ids puis collections)
+        List<Long> ids = taskRepository.findPageIdsByUserStoryIn(activeStoryIds, 0L, WorkItemFilterDTO.none(), maxUnpagedItems + 1);
+        List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(
+                WorkItemCursor.truncate(ids, maxUnpagedItems, "active sprint tasks of project " + projectId));
 
         // Log du nombre de tâches trouvées
         System.out.println("Found " + tasks.size() + " tasks associated with the active sprint for project ID: " + projectId);
@@ -773,44 +822,9 @@ public class TaskService {
             return Collections.emptyList();
         }
 
-        // Récupérer les détails des utilisateurs
-        System.out.println("Fetching user details for assigned users");
-
-        // Extraire tous les userIds uniques
-        Set<String> allUserIds = tasks.stream()
-                .flatMap(task -> task.getAssignedUserIds().stream())
-                .collect(Collectors.toSet());
-
-        List<UserDTO> users = Collections.emptyList();
-        if (!allUserIds.isEmpty()) {
-            try {
-                users = authClient.getUsersByIds(token, new ArrayList<>(allUserIds));
-                System.out.println("Successfully fetched " + users.size() + " user details");
-            } catch (Exception e) {
-                System.err.println("Error fetching user details: " + e.getMessage());
-                // Continuer avec une liste vide pour ne pas bloquer la réponse
-            }
-        }
-
-        // Créer une map pour accès rapide
-        Map<String, UserDTO> userMap = users.stream()
-                .collect(Collectors.toMap(UserDTO::getId, user -> user));
-
-        // Log avant de convertir les entités Task en DTOs
+        // Récupérer les détails des utilisateurs et convertir en DTOs
         System.out.println("Converting " + tasks.size() + " tasks to DTOs for project ID: " + projectId);
-
-        // Conversion des entités Task en DTOs
-        List<TaskDTO> taskDTOs = tasks.stream()
-                .map(task -> {
-                    TaskDTO dto = taskMapper.toDTO(task);
-                    // Ajouter les détails des utilisateurs
-                    dto.setAssignedUsers(task.getAssignedUserIds().stream()
-                            .map(userMap::get)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<TaskDTO> taskDTOs = toDTOsWithAssignedUsers(tasks);
 
         // Log après la conversion
         System.out.println("Successfully converted " + taskDTOs.size() + " tasks to DTOs for project ID: " + projectId);
@@ -835,6 +849,132 @@ public class TaskService {
         return Collections.emptyList();
     }
 
+    private List<TaskDTO> toDTOsWithAssignedUsers(List<Task> tasks) {
+        // Un seul appel à l'annuaire pour tous les utilisateurs assignés
+        Set<String> allUserIds = tasks.stream()
+                .flatMap(task -> task.getAssignedUserIds().stream())
+                .collect(Collectors.toSet());
+        Map<String, UserDTO> userMap = resolveUsers(allUserIds);
+
+        return tasks.stream()
+                .map(task -> {
+                    TaskDTO dto = taskMapper.toDTO(task);
+                    dto.setAssignedUsers(task.getAssignedUserIds().stream()
+                            .map(userMap::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> getTasksPage(Long projectId, WorkItemFilterDTO filter, String cursor, Integer size, String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
+        return getTasksPageInternal(projectId, filter, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> getTasksPageInternal(Long projectId, WorkItemFilterDTO filter, String cursor, Integer size) {
+        int pageSize = WorkItemCursor.pageSize(size, defaultPageSize, maxPageSize);
+        List<Long> ids = taskRepository.findPageIdsByProjectId(
+                projectId, WorkItemCursor.decode(cursor), filterOrNone(filter), pageSize + 1);
+        return WorkItemCursor.page(ids, pageSize, pageIds -> taskRepository.findAllWithDetailsByIdIn(pageIds)
+                .stream()
+                .map(taskMapper::toDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> getTasksOfActiveSprintPage(Long projectId, WorkItemFilterDTO filter, String cursor, Integer size, String token) {
+        int pageSize = WorkItemCursor.pageSize(size, defaultPageSize, maxPageSize);
+        long afterId = WorkItemCursor.decode(cursor);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
+        if (activeStoryIds.isEmpty()) {
+            return new CursorPageDTO<>(Collections.emptyList(), null);
+        }
+        List<Long> ids = taskRepository.findPageIdsByUserStoryIn(activeStoryIds, afterId, filterOrNone(filter), pageSize + 1);
+        return WorkItemCursor.page(ids, pageSize, pageIds -> toDTOsWithAssignedUsers(taskRepository.findAllWithDetailsByIdIn(pageIds)));
+    }
+
+    /**
+     * Changements du tableau du sprint actif depuis sinceVersion (null ou 0 : tableau complet).
+     * La version est lue avant les items : un item écrit entre-temps peut revenir à l'appel suivant, jamais manquer.
+     */
+    @Transactional(readOnly = true)
+    public BoardChangesDTO getActiveSprintChanges(Long projectId, Long sinceVersion, String token) {
+        if (jwtTokenVerifier.currentUserId(token) == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
+        long since = sinceVersion != null ? sinceVersion : 0;
+        if (since < 0) {
+            throw new IllegalArgumentException("sinceVersion must not be negative");
+        }
+        long version = changeVersionService.currentVersion(projectId);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
+        if (activeStoryIds.isEmpty()) {
+            return new BoardChangesDTO(version, true, activeStoryIds, Collections.emptyList(), Collections.emptyList());
+        }
+        // Version inconnue ou antérieure aux pierres tombales purgées : tableau complet
+        if (since == 0 || since > version || since < changeVersionService.purgedVersion(projectId)) {
+            return fullBoard(projectId, version, activeStoryIds);
+        }
+        List<Long> changedIds = taskRepository.findIdsChangedSince(projectId, since, activeStoryIds, PageRequest.of(0, maxUnpagedItems + 1));
+        List<Long> deletedIds = changeVersionService.deletedSince(projectId, WorkItemStatsService.TASK, since, maxUnpagedItems + 1);
+        if (changedIds.size() > maxUnpagedItems || deletedIds.size() > maxUnpagedItems) {
+            return fullBoard(projectId, version, activeStoryIds);
+        }
+        List<TaskDTO> items = changedIds.isEmpty() ? Collections.emptyList()
+                : toDTOsWithAssignedUsers(taskRepository.findAllWithDetailsByIdIn(changedIds));
+        return new BoardChangesDTO(version, false, activeStoryIds, items, deletedIds);
+    }
+
+    private BoardChangesDTO fullBoard(Long projectId, long version, List<Long> activeStoryIds) {
+        List<Long> ids = taskRepository.findPageIdsByUserStoryIn(activeStoryIds, 0L, WorkItemFilterDTO.none(), maxUnpagedItems + 1);
+        List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(
+                WorkItemCursor.truncate(ids, maxUnpagedItems, "active sprint tasks of project " + projectId));
+        return new BoardChangesDTO(version, true, activeStoryIds, toDTOsWithAssignedUsers(tasks), Collections.emptyList());
+    }
+
+    /**
+     * Recherche plein texte classée dans les tâches et bugs d'un projet (titre, description, tags, commentaires),
+     * servie par l'index de recherche sans requête en base.
+     */
+    public List<WorkItemSearchHitDTO> searchWorkItems(Long projectId, String query, List<String> statuses,
+                                                      String assignee, String itemType, Integer limit, String token) {
+        if (jwtTokenVerifier.currentUserId(token) == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
+        List<String> statusNames = statuses == null ? List.of()
+                : statuses.stream().map(status -> WorkItemStatus.valueOf(status.toUpperCase()).name()).toList();
+        String type = itemType != null && !itemType.isBlank() ? itemType.toUpperCase() : null;
+        if (type != null && !SEARCH_ITEM_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unknown item type: " + itemType);
+        }
+        return searchIndex.search(projectId, query, statusNames, assignee, type, limit != null ? limit : defaultSearchLimit);
+    }
+
+    // Saisie semi-automatique sur les titres et tags
+    public List<WorkItemSearchHitDTO> typeaheadWorkItems(Long projectId, String prefix, Integer limit, String token) {
+        if (jwtTokenVerifier.currentUserId(token) == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
+        return searchIndex.typeahead(projectId, prefix, limit != null ? limit : defaultSearchLimit);
+    }
+
+    private static WorkItemFilterDTO filterOrNone(WorkItemFilterDTO filter) {
+        if (filter == null) {
+            return WorkItemFilterDTO.none();
+        }
+        if (filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+        return filter;
+    }
+
 
     @RateLimiter(name = "TaskServiceLimiter", fallbackMethod = "attachFileToTaskRateLimiterFallback")
     @Bulkhead(name = "TaskServiceBulkhead", type = Bulkhead.Type.SEMAPHORE, fallbackMethod = "attachFileToTaskBulkheadFallback")
@@ -843,7 +983,10 @@ public class TaskService {
     public Task attachFileToTask(Long taskId, MultipartFile file, String token) throws IOException {
         logger.info("Attaching file to task ID: {}, file: {}", taskId, file.getOriginalFilename());
 
-        String uploadedBy = authClient.decodeToken(token);
+        String uploadedBy = jwtTokenVerifier.currentUserId(token);
+        if (uploadedBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
         logger.info("Decoded token, uploadedBy: {}", uploadedBy);
 
         Task task = taskRepository.findById(taskId)
@@ -881,6 +1024,7 @@ public class TaskService {
 
         logHistory(task, "AJOUT_PIECE_JOINTE", "Pièce jointe ajoutée: " + file.getOriginalFilename(), uploadedBy);
 
+        changeVersionService.stamp(task);
         taskRepository.saveAndFlush(task);
         logger.info("Saved task: {}", task);
 
@@ -935,6 +1079,7 @@ public class TaskService {
         }
 
         // Save the updated Task to update relationships
+        changeVersionService.stamp(task);
         taskRepository.save(task);
         logger.info("Saved task {} after removing attachment", task.getId());
 
@@ -948,35 +1093,12 @@ public class TaskService {
 
     @Transactional(readOnly = true)
     public DashboardStatsDTO getDashboardStats(Long projectId, String token) {
-        // Fetch tasks for the active sprint
-        List<Long> activeStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        // Une seule lecture des compteurs work_item_stats pour les user stories du sprint actif
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
         if (activeStoryIds.isEmpty()) {
             return new DashboardStatsDTO(0, 0, 0, 0,Map.of(), Map.of());
         }
-
-        // Calculate existing metrics
-        long completedTasks = taskRepository.countByUserStoryInAndStatus(activeStoryIds, WorkItemStatus.DONE);
-        long notCompletedTasks = taskRepository.countByUserStoryInAndStatusNot(activeStoryIds, WorkItemStatus.DONE);
-        long overdueTasks = taskRepository.countOverdueByUserStoryIn(activeStoryIds, WorkItemStatus.DONE, LocalDate.now());
-        long totalTasks = taskRepository.countByUserStoryIn(activeStoryIds);
-
-        // Calculate tasks by status
-        Map<String, Long> tasksByStatus = taskRepository.countTasksByStatus(activeStoryIds)
-                .stream()
-                .collect(Collectors.toMap(
-                        row -> ((WorkItemStatus) row[0]).name(),
-                        row -> (Long) row[1]
-                ));
-
-        Map<String, Long> tasksByPriority = taskRepository.countTasksByPriority(activeStoryIds)
-                .stream()
-                .collect(Collectors.toMap(
-                        row -> ((WorkItemPriority) row[0]).name(),
-                        row -> (Long) row[1]
-                ));
-
-        // Return DTO with stats
-        return new DashboardStatsDTO(completedTasks, notCompletedTasks, overdueTasks, totalTasks, tasksByStatus , tasksByPriority);
+        return workItemStatsService.getDashboardStats(WorkItemStatsService.TASK, activeStoryIds);
     }
 
 
@@ -998,22 +1120,13 @@ public class TaskService {
     @Transactional(readOnly = true)
     public List<TaskCalendarDTO> getTasksForCalendar(Long projectId, String token) {
         // Fetch tasks for the active sprint
-        List<Long> activeStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
+        List<Long> activeStoryIds = activeSprintCache.getActiveStoryIds(projectId);
         if (activeStoryIds.isEmpty()) {
             return List.of();
         }
 
-        List<Task> tasks = taskRepository.findByUserStoryIn(activeStoryIds);
-
-        // Map tasks to TaskCalendarDTO
-        return tasks.stream()
-                .map(task -> new TaskCalendarDTO(
-                        task.getId(),
-                        task.getTitle(),
-                        task.getStartDate(),
-                        task.getDueDate()
-                ))
-                .collect(Collectors.toList());
+        // Projection directe en TaskCalendarDTO (id, titre, dates)
+        return taskRepository.findCalendarByUserStoryIn(activeStoryIds);
     }
 
     private void validateDependencies(Task task) {
@@ -1027,21 +1140,19 @@ public class TaskService {
     }
 
     private void checkForDependencyCycles(Task task, List<Task> newDependencies) {
-        Set<Long> visited = new HashSet<>();
-        checkForCycles(task, newDependencies, visited);
-    }
-
-    private void checkForCycles(Task task, List<Task> dependencies, Set<Long> visited) {
-        if (task.getId() != null && visited.contains(task.getId())) {
+        // Refus rapide sur le graphe en mémoire du projet, qui peut ignorer les arcs écrits par une autre instance
+        List<Long> dependencyIds = newDependencies.stream().map(Task::getId).collect(Collectors.toList());
+        if (dependencyGraph.wouldCreateCycle(task.getProjectId(), task.getId(), dependencyIds)) {
             throw new IllegalArgumentException("Dependency cycle detected involving task ID: " + task.getId());
         }
-        visited.add(task.getId());
-        for (Task dependency : dependencies) {
-            if (dependency.getDependencies() != null) {
-                checkForCycles(dependency, dependency.getDependencies(), visited);
-            }
+        if (task.getId() == null || dependencyIds.isEmpty()) {
+            // Tâche en cours de création : personne n'en dépend encore
+            return;
+        }
+        // Contrôle définitif : parcours en base, tâches verrouillées, y compris dans les autres projets
+        if (dependencyGraph.wouldCreateCycleLocked(task.getId(), dependencyIds)) {
+            throw new IllegalArgumentException("Dependency cycle detected involving task ID: " + task.getId());
         }
-        visited.remove(task.getId());
     }
 
 
@@ -1071,12 +1182,16 @@ public class TaskService {
 
     @Transactional
     public void addManualTimeEntry(Long taskId, Long duration, String type, String token) {
-        String addedBy = authClient.decodeToken(token);
+        String addedBy = jwtTokenVerifier.currentUserId(token);
+        if (addedBy == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NoSuchElementException("Task not found with ID: " + taskId));
         if (duration <= 0) {
             throw new IllegalArgumentException("Duration must be positive");
         }
+        Map<String, Object> boardBefore = boardDeltaPublisher.snapshot(task);
         task.setTotalTimeSpent(task.getTotalTimeSpent() != null ? task.getTotalTimeSpent() + duration : duration);
         TimeEntry timeEntry = new TimeEntry();
         timeEntry.setWorkItem(task);
@@ -1087,7 +1202,12 @@ public class TaskService {
         task.getTimeEntries().add(timeEntry);
         logHistory(task, "AJOUT_TEMPS", "Temps ajouté: " + duration + " minutes (" + type + ")", addedBy);
         updateProgress(task);
+        changeVersionService.stamp(task);
         taskRepository.save(task);
+        taskScheduleService.taskChanged(task);
+        boardDeltaPublisher.updated(boardBefore, task);
+        searchIndexer.changed(task);
+        facetIndex.changed(task);
     }
 
 
@@ -1116,7 +1236,7 @@ public class TaskService {
         logger.info("Adding dependency ID {} to task ID {}", dependencyId, taskId);
 
         // Validate token
-        String updatedBy = authClient.decodeToken(token);
+        String updatedBy = jwtTokenVerifier.currentUserId(token);
         if (updatedBy == null) {
             logger.error("Invalid token: unable to extract user");
             throw new IllegalArgumentException("Invalid authentication token");
@@ -1160,26 +1280,28 @@ public class TaskService {
             throw new IllegalArgumentException("Task ID " + dependencyId + " is already a dependency");
         }
 
-        // Add dependency
-        task.getDependencies().add(dependency);
-        logHistory(task, "AJOUT_DEPENDANCE", "Dépendance ajoutée: Tâche ID " + dependencyId, updatedBy);
-
-        logger.debug("Added dependency ID {} to task ID {}", dependencyId, taskId);
-
         // Check for dependency cycles
         try {
-            checkForDependencyCycles(task, task.getDependencies());
+            checkForDependencyCycles(task, List.of(dependency));
         } catch (IllegalArgumentException e) {
-            task.getDependencies().remove(dependency);
             logger.error("Failed to add dependency due to cycle: {}", e.getMessage());
             throw e;
         }
 
+        // Add dependency
+        task.getDependencies().add(dependency);
+        logHistory(task, "AJOUT_DEPENDANCE", "Dépendance ajoutée: Tâche ID " + dependencyId, updatedBy);
+
+        logger.debug("Added dependency ID {} to task ID {}", dependencyId, taskId);
+
         // Update progress
         updateProgress(task);
 
         // Save and return
+        changeVersionService.stamp(task);
         Task updatedTask = taskRepository.save(task);
+        dependencyGraph.dependencyAdded(task.getProjectId(), taskId, dependencyId);
+        taskScheduleService.taskChanged(task);
         logger.info("Successfully added dependency ID {} to task ID {}", dependencyId, taskId);
         return toTaskDTOWithUsers(updatedTask, token);
     }
@@ -1190,7 +1312,7 @@ public class TaskService {
         logger.info("Removing dependency ID {} from task ID {}", dependencyId, taskId);
 
         // Valider le token
-        String updatedBy = authClient.decodeToken(token);
+        String updatedBy = jwtTokenVerifier.currentUserId(token);
         if (updatedBy == null) {
             logger.error("Invalid token: unable to extract user");
             throw new IllegalArgumentException("Invalid token: unable to extract user");
@@ -1221,85 +1343,112 @@ public class TaskService {
         updateProgress(task);
 
         // Sauvegarder la tâche
+        changeVersionService.stamp(task);
         Task updatedTask = taskRepository.save(task);
+        dependencyGraph.dependencyRemoved(task.getProjectId(), taskId, dependencyId);
+        taskScheduleService.taskChanged(task);
         logger.info("Successfully removed dependency ID {} from task ID {}", dependencyId, taskId);
 
         // Convertir en DTO et retourner
         TaskDTO responseDTO = taskMapper.toDTO(updatedTask);
-        if (updatedTask.getAssignedUserIds() != null && !updatedTask.getAssignedUserIds().isEmpty()) {
-            try {
-                List<String> userIdList = updatedTask.getAssignedUserIds().stream().collect(Collectors.toList());
-                String authHeader = token.startsWith("Bearer ") ? token : "Bearer " + token;
-                List<UserDTO> assignedUsers = authClient.getUsersByIds(authHeader, userIdList);
-                responseDTO.setAssignedUsers(assignedUsers != null ? assignedUsers : Collections.emptyList());
-            } catch (Exception e) {
-                logger.error("Failed to fetch user details: {}", e.getMessage());
-                responseDTO.setAssignedUsers(Collections.emptyList());
-            }
-        } else {
-            responseDTO.setAssignedUsers(Collections.emptyList());
-        }
+        responseDTO.setAssignedUsers(assignedUsers(updatedTask.getAssignedUserIds()));
         return responseDTO;
     }
 
 
     @Transactional(readOnly = true)
-    public List<TaskDTO> getPotentialDependencies(Long taskId, String token) {
+    public List<TaskSummaryDTO> getBlockedTasks(Long projectId, String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            throw new IllegalArgumentException("Invalid authentication token");
+        }
+        // Ids lus dans le graphe en mémoire, puis une seule projection pour les titres et statuts
+        List<Long> blockedIds = dependencyGraph.getBlockedTaskIds(projectId);
+        if (blockedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return taskRepository.findSummariesByIdIn(blockedIds);
+    }
+
+    public ProjectScheduleDTO getProjectSchedule(Long projectId, String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            throw new IllegalArgumentException("Invalid authentication token");
+        }
+        return taskScheduleService.getProjectSchedule(projectId);
+    }
+
+    // Retard simulé en minutes de travail, ou en jours (déplacement d'une échéance)
+    public ScheduleImpactDTO getScheduleImpact(Long projectId, Long taskId, Long delayMinutes, Long delayDays, String token) {
+        String userId = jwtTokenVerifier.currentUserId(token);
+        if (userId == null) {
+            throw new IllegalArgumentException("Invalid authentication token");
+        }
+        if (delayMinutes == null && delayDays == null) {
+            throw new IllegalArgumentException("delayMinutes or delayDays is required");
+        }
+        long delay = delayMinutes != null ? delayMinutes : taskScheduleService.daysToMinutes(delayDays);
+        return taskScheduleService.getDelayImpact(projectId, taskId, delay);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDTO> getPotentialDependencies(Long taskId, String token) {
         logger.info("Fetching potential dependencies for task ID {}", taskId);
 
         // Validate token
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             logger.error("Invalid token: unable to extract user");
             throw new IllegalArgumentException("Invalid authentication token");
         }
 
         // Verify task exists
-        Task task = taskRepository.findById(taskId)
+        Long projectId = taskRepository.findProjectIdById(taskId)
                 .orElseThrow(() -> {
                     logger.error("Task not found with ID: {}", taskId);
                     return new NoSuchElementException("Task with ID " + taskId + " not found");
                 });
 
-        // Fetch all tasks in the same project, excluding the task itself and its current dependencies
-        List<Task> potentialDependencies = taskRepository.findByProjectId(task.getProjectId())
-                .stream()
-                .filter(t -> !t.getId().equals(taskId))
-                .filter(t -> task.getDependencies().stream().noneMatch(dep -> dep.getId().equals(t.getId())))
-                .collect(Collectors.toList());
+        // Tâches du même projet, hors la tâche elle-même et ses dépendances actuelles (filtre fait en base)
+        List<TaskSummaryDTO> potentialDependencies = taskRepository.findPotentialDependencies(projectId, taskId);
 
-        // Convert to DTOs
-        List<TaskDTO> taskDTOs = potentialDependencies.stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
-
-        logger.info("Found {} potential dependencies for task ID {}", taskDTOs.size(), taskId);
-        return taskDTOs;
+        logger.info("Found {} potential dependencies for task ID {}", potentialDependencies.size(), taskId);
+        return potentialDependencies;
     }
 
     private TaskDTO toTaskDTOWithUsers(Task task, String token) {
         TaskDTO responseDTO = taskMapper.toDTO(task);
-        if (task.getAssignedUserIds() != null && !task.getAssignedUserIds().isEmpty()) {
-            try {
-                List<String> userIdList = task.getAssignedUserIds().stream().collect(Collectors.toList());
-                String authHeader = token.startsWith("Bearer ") ? token : "Bearer " + token;
-                List<UserDTO> assignedUsers = authClient.getUsersByIds(authHeader, userIdList);
-                responseDTO.setAssignedUsers(assignedUsers != null ? assignedUsers : Collections.emptyList());
-            } catch (Exception e) {
-                logger.error("Failed to fetch user details: {}", e.getMessage());
-                responseDTO.setAssignedUsers(Collections.emptyList());
+        responseDTO.setAssignedUsers(assignedUsers(task.getAssignedUserIds()));
+        return responseDTO;
+    }
+
+    // Résout les utilisateurs via l'annuaire partagé (cache local, ids manquants regroupés en un appel)
+    private Map<String, UserDTO> resolveUsers(Collection<String> userIds) {
+        Map<String, UserDTO> users = new HashMap<>();
+        userDirectoryClient.getUsers(userIds).forEach((id, user) -> {
+            if (user.known()) {
+                users.put(id, new UserDTO(id, user.firstName(), user.lastName(), user.avatar()));
             }
-        } else {
-            responseDTO.setAssignedUsers(Collections.emptyList());
+        });
+        return users;
+    }
+
+    private List<UserDTO> assignedUsers(Collection<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        return responseDTO;
+        Map<String, UserDTO> users = resolveUsers(userIds);
+        return userIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
 
     @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByUserAndActiveSprints(String token) {
         logger.info("Fetching tasks for user in active sprints");
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             logger.error("Invalid token: unable to extract user");
             throw new IllegalArgumentException("Invalid token: unable to extract user");
@@ -1308,28 +1457,20 @@ public class TaskService {
 
         // Récupérer les projets de l'utilisateur
         ProjectResponseWithRoleDTO projectResponse = projectClient.getProjectsByUser(userId);
-        List<ProjectDTO> userProjects = projectResponse.getProjects().stream()
-                .map(project -> new ProjectDTO(
-                        project.getId(),
-                        project.getName(),
-                        project.getDescription(),
-                        project.getCreationDate() != null ? project.getCreationDate().toLocalDate() : null,
-                        project.getStartDate() != null ? project.getStartDate().toLocalDate() : null,
-                        project.getDeadline() != null ? project.getDeadline().toLocalDate() : null,
-                        project.getStatus(),
-                        project.getPhase(),
-                        project.getPriority()
-                ))
+        List<Long> projectIds = projectResponse.getProjects() == null ? Collections.emptyList()
+                : projectResponse.getProjects().stream()
+                .map(ProjectWithRoleDTO::getId)
                 .collect(Collectors.toList());
-        if (userProjects.isEmpty()) {
+        if (projectIds.isEmpty()) {
             logger.info("No projects found for user ID: {}", userId);
             return Collections.emptyList();
         }
-        logger.info("Found {} projects for user ID: {}", userProjects.size(), userId);
+        logger.info("Found {} projects for user ID: {}", projectIds.size(), userId);
 
-        // Récupérer les user stories des sprints actifs pour chaque projet
-        List<Long> allActiveStoryIds = userProjects.stream()
-                .map(project -> projectClient.getUserStoriesOfActiveSprint(project.getId()))
+        // Récupérer en un seul appel les user stories des sprints actifs de tous les projets
+        List<Long> allActiveStoryIds = activeSprintCache.getActiveStoryIdsByProject(projectIds)
+                .values()
+                .stream()
                 .flatMap(List::stream)
                 .collect(Collectors.toList());
         if (allActiveStoryIds.isEmpty()) {
@@ -1338,11 +1479,9 @@ public class TaskService {
         }
         logger.info("Found {} active story IDs for user ID: {}", allActiveStoryIds.size(), userId);
 
-        // Récupérer les tâches assignées à l'utilisateur
-        List<Task> tasks = taskRepository.findByUserStoryIn(allActiveStoryIds)
-                .stream()
-                .filter(task -> task.getAssignedUserIds().contains(userId))
-                .collect(Collectors.toList());
+        // Récupérer les tâches assignées à l'utilisateur (filtre fait en base)
+        List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(
+                taskRepository.findIdsByUserStoryInAndAssignedUserId(allActiveStoryIds, userId));
         if (tasks.isEmpty()) {
             logger.info("No tasks found for user ID: {} in active sprints", userId);
             return Collections.emptyList();
@@ -1353,17 +1492,7 @@ public class TaskService {
         Set<String> allUserIds = tasks.stream()
                 .flatMap(task -> task.getAssignedUserIds().stream())
                 .collect(Collectors.toSet());
-        List<UserDTO> users = Collections.emptyList();
-        if (!allUserIds.isEmpty()) {
-            try {
-                users = authClient.getUsersByIds(token, new ArrayList<>(allUserIds));
-                logger.info("Successfully fetched {} user details", users.size());
-            } catch (Exception e) {
-                logger.error("Error fetching user details: {}", e.getMessage());
-            }
-        }
-        Map<String, UserDTO> userMap = users.stream()
-                .collect(Collectors.toMap(UserDTO::getId, user -> user));
+        Map<String, UserDTO> userMap = resolveUsers(allUserIds);
 
         // Convertir en TaskDTO
         List<TaskDTO> taskDTOs = tasks.stream()
@@ -1381,98 +1510,100 @@ public class TaskService {
     }
 
 
+    // Ajout seul : la collection history de l'item n'est pas chargée
     private void logHistory(WorkItem workItem, String action, String description, String userId) {
-        WorkItemHistory history = new WorkItemHistory();
-        history.setWorkItem(workItem);
-        history.setAction(action);
-        history.setDescription(description);
-        history.setAuthorId(userId); // Stocker l'ID de l'utilisateur
-        history.setTimestamp(LocalDateTime.now());
-        workItem.getHistory().add(history);
+        historyWriter.record(workItem, action, description, userId);
     }
 
 
     private void logHistory_bycommit(WorkItem workItem, String action, String description) {
-        WorkItemHistory history = new WorkItemHistory();
-        history.setWorkItem(workItem);
-        history.setAction(action);
-        history.setDescription(description);
-        history.setTimestamp(LocalDateTime.now());
-        workItem.getHistory().add(history);
+        historyWriter.record(workItem, action, description, null);
+    }
+
+    private void requireTask(Long taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new NoSuchElementException("Tâche non trouvée avec l'ID: " + taskId);
+        }
     }
+
+    // authorName contient l'id de l'auteur (compatibilité), voir getTaskHistoryWithAuthorNames ; au plus maxUnpagedItems entrées
     @Transactional(readOnly = true)
     public List<WorkItemHistoryDTO> getTaskHistory(Long taskId, String token) {
-        String userId = authClient.decodeToken(token);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new NoSuchElementException("Tâche non trouvée avec l'ID: " + taskId));
-        return task.getHistory().stream()
+        jwtTokenVerifier.currentUserId(token);
+        requireTask(taskId);
+        return latestHistory(taskId);
+    }
+    @Transactional(readOnly = true)
+    public List<WorkItemHistoryDTO> getTaskHistoryWithAuthorNames(Long taskId, String token) {
+        jwtTokenVerifier.currentUserId(token);
+        requireTask(taskId);
+        return withAuthorNames(latestHistory(taskId));
+    }
+
+    // Les maxUnpagedItems entrées les plus récentes, renvoyées dans l'ordre chronologique comme avant la limite
+    private List<WorkItemHistoryDTO> latestHistory(Long taskId) {
+        List<WorkItemHistoryDTO> entries = new ArrayList<>(workItemHistoryRepository.findPageByWorkItemId(
+                taskId, Long.MAX_VALUE, PageRequest.of(0, maxUnpagedItems)));
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Historique d'une tâche du plus récent au plus ancien, paginé par curseur (id de la dernière entrée renvoyée),
+     * avec les noms des auteurs.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<WorkItemHistoryDTO> getTaskHistoryPage(Long taskId, String cursor, Integer size, String token) {
+        jwtTokenVerifier.currentUserId(token);
+        int pageSize = WorkItemCursor.pageSize(size, defaultPageSize, maxPageSize);
+        long after = WorkItemCursor.decode(cursor);
+        requireTask(taskId);
+        List<WorkItemHistoryDTO> entries = workItemHistoryRepository.findPageByWorkItemId(
+                taskId, after == 0L ? Long.MAX_VALUE : after, PageRequest.of(0, pageSize + 1));
+        return WorkItemCursor.page(entries.stream().map(WorkItemHistoryDTO::getId).toList(), pageSize,
+                ids -> withAuthorNames(entries.subList(0, ids.size())));
+    }
+
+    private List<WorkItemHistoryDTO> withAuthorNames(List<WorkItemHistoryDTO> entries) {
+        // Un seul passage par l'annuaire pour tous les auteurs de l'historique
+        Set<String> authorIds = entries.stream()
+                .map(WorkItemHistoryDTO::getAuthorName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, UserSummary> authors = userDirectoryClient.getUsers(authorIds);
+        return entries.stream()
                 .map(history -> new WorkItemHistoryDTO(
                         history.getId(),
                         history.getAction(),
                         history.getDescription(),
-                        history.getAuthorId(), // Retourner l'ID pour compatibilité, mais sera remplacé par getTaskHistoryWithAuthorNames
-                        history.getTimestamp()
-                ))
+                        authorFullName(authors, history.getAuthorName()),
+                        history.getTimestamp()))
                 .collect(Collectors.toList());
     }
-    @Transactional(readOnly = true)
-    public List<WorkItemHistoryDTO> getTaskHistoryWithAuthorNames(Long taskId, String token) {
-        String userId = authClient.decodeToken(token);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new NoSuchElementException("Tâche non trouvée avec l'ID: " + taskId));
-
-        String bearerToken = token.startsWith("Bearer ") ? token : "Bearer " + token;
-
-        // Cache pour éviter des appels multiples au service d'authentification
-        Map<String, Map<String, Object>> userCache = new HashMap<>();
-
-        return task.getHistory().stream()
-                .map(history -> {
-                    String authorId = history.getAuthorId();
-                    Map<String, Object> userDetails = userCache.computeIfAbsent(authorId,
-                            id -> authClient.getUserDetailsByAuthId(id, bearerToken)
-                    );
-
-                    String firstName = (String) userDetails.getOrDefault("firstName", "Inconnu");
-                    String lastName = (String) userDetails.getOrDefault("lastName", "Inconnu");
-                    String fullName = firstName + " " + lastName;
-
-                    return new WorkItemHistoryDTO(
-                            history.getId(),
-                            history.getAction(),
-                            history.getDescription(),
-                            fullName, // Utiliser le nom complet
-                            history.getTimestamp()
-                    );
-                })
-                .collect(Collectors.toList());
+
+    // Entrées sans auteur (anciennes lignes) : nom inconnu, Map.of refuse une clé null
+    private static String authorFullName(Map<String, UserSummary> authors, String authorId) {
+        UserSummary author = authorId != null ? authors.get(authorId) : null;
+        return (author != null ? author : UserSummary.unknown(authorId)).fullName();
     }
 
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksByProjectId(Long projectId) {
-        return taskRepository.findByProjectId(projectId);
+        List<Long> ids = taskRepository.findPageIdsByProjectId(projectId, 0L, WorkItemFilterDTO.none(), maxUnpagedItems + 1);
+        return taskRepository.findAllWithDetailsByIdIn(
+                WorkItemCursor.truncate(ids, maxUnpagedItems, "fetch_tasks of project " + projectId));
     }
 
     public long countTasksByProjectId(Long projectId) {
         return taskRepository.findByProjectId(projectId).size();
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void notifyUserStoryStatusUpdate(Long projectId, Long userStoryId, String token) {
-        logger.info("Calling checkAndUpdateUserStoryStatus for UserStory {}", userStoryId);
-        try {
-            Thread.sleep(200); // Attendre 200ms pour propagation
-            projectClient.checkAndUpdateUserStoryStatus(projectId, userStoryId, token);
-            logger.info("Successfully updated UserStory {}", userStoryId);
-        } catch (Exception e) {
-            logger.error("Failed to update UserStory {}: {}", userStoryId, e.getMessage(), e);
-        }
-    }
-
     @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByProjectAndUserStoryInternal(Long projectId, Long userStoryId) {
         entityManager.clear(); // Vider la session Hibernate
-        List<Task> tasks = taskRepository.findByProjectIdAndUserStory(projectId, userStoryId);
+        List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(
+                taskRepository.findIdsByProjectIdAndUserStory(projectId, userStoryId));
         logger.info("Retrieved {} tasks for projectId={} and userStoryId={}", tasks.size(), projectId, userStoryId);
         tasks.forEach(task -> logger.info("Task id={} status={}", task.getId(), task.getStatus()));
 
@@ -1562,178 +1693,19 @@ public class TaskService {
         logHistory_bycommit(task, "CREATION", "Task created: " + task.getTitle());
 
         updateProgress(task);
+        changeVersionService.stamp(task);
         // Save the task
         Task savedTask = taskRepository.save(task);
+        workItemStatsService.recordCreated(savedTask);
+        // Nouveau nœud : le graphe (et l'ordonnancement) du projet sont reconstruits
+        dependencyGraph.invalidate(savedTask.getProjectId());
+        taskScheduleService.taskChanged(savedTask);
+        taskEventOutbox.taskCreated(savedTask, null);
+        boardDeltaPublisher.created(savedTask);
+        searchIndexer.changed(savedTask);
+        facetIndex.changed(savedTask);
 
         // Convert back to DTO and return
         return taskMapper.toDTO(savedTask);
     }
-    private Map<String, Object> parseCommitMessage(String commitMessage) {
-        Map<String, Object> result = new HashMap<>();
-        Pattern pattern = Pattern.compile("\\b(fix|task|issue)\\s+'([^']+)'(?:\\s+#US(\\d+))?", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(commitMessage);
-        if (matcher.find()) {
-            String type = matcher.group(1).toLowerCase();
-            String title = matcher.group(2);
-            String userStoryId = matcher.group(3); // Peut être null si #USxxx absent
-            result.put("type", type.equals("fix") || type.equals("task") ? "task" : "issue");
-            result.put("title", title);
-            if (userStoryId != null) {
-                result.put("userStoryId", Long.parseLong(userStoryId));
-            }
-            logger.info("Parsed commit message: type={}, title={}, userStoryId={}",
-                    result.get("type"), title, userStoryId != null ? userStoryId : "none");
-        } else {
-            logger.info("No match found for commit message: {}", commitMessage);
-        }
-        return result;
-    }
-
-    private void processCommit(Map<String, Object> commit, Long projectId) {
-        String commitSha = (String) commit.get("sha");
-        if (commitSha == null) {
-            logger.info("Commit SHA is null for commit: {}", commit);
-            return;
-        }
-
-        if (processedCommitRepository.existsByCommitShaAndProjectId(commitSha, projectId)) {
-            logger.info("Commit {} already processed for project {}", commitSha, projectId);
-            return;
-        }
-
-        String message = (String) ((Map<String, Object>) commit.get("commit")).get("message");
-        Map<String, Object> parsed = parseCommitMessage(message);
-        if (parsed.isEmpty()) {
-            logger.info("No task or issue reference found in commit message: {}", message);
-            return;
-        }
-
-        String type = (String) parsed.get("type");
-        String title = (String) parsed.get("title");
-        Long userStoryId = (Long) parsed.get("userStoryId");
-
-        // Si aucun userStoryId n'est fourni, utiliser une user story par défaut
-        if (userStoryId == null) {
-            List<Long> userStoryIds = projectClient.getUserStoriesOfActiveSprint(projectId);
-            if (userStoryIds != null && !userStoryIds.isEmpty()) {
-                userStoryId = userStoryIds.get(0);
-                logger.info("No user story ID in commit message, using default userStoryId: {}", userStoryId);
-            } else {
-                logger.info("No active user stories found for project {}, skipping commit: {}", projectId, message);
-                return;
-            }
-        }
-
-        if ("task".equals(type)) {
-            List<Task> tasks = taskRepository.findByProjectIdAndUserStory(projectId, userStoryId);
-            Optional<Task> matchingTask = tasks.stream()
-                    .filter(task -> task.getTitle().equalsIgnoreCase(title))
-                    .findFirst();
-            if (matchingTask.isPresent()) {
-                TaskDTO taskDTO = taskMapper.toDTO(matchingTask.get());
-                taskDTO.setStatus(WorkItemStatus.DONE);
-                updateTask_bycommit(matchingTask.get().getId(), taskDTO);
-                logger.info("Updated task with title '{}' to DONE based on commit", title);
-            } else {
-                logger.info("Task with title '{}' not found, creating new task", title);
-                createTaskFromCommit(projectId, userStoryId, title, message);
-            }
-        } else if ("issue".equals(type)) {
-            createTaskFromCommit(projectId, userStoryId, title, message);
-        }
-
-        ProcessedCommit processedCommit = new ProcessedCommit();
-        processedCommit.setCommitSha(commitSha);
-        processedCommit.setProjectId(projectId);
-        processedCommitRepository.save(processedCommit);
-        logger.info("Marked commit {} as processed for project {}", commitSha, projectId);
-    }
-
-    private void createTaskFromCommit(Long projectId, Long userStoryId, String title, String commitMessage) {
-        try {
-            TaskDTO taskDTO = new TaskDTO();
-            taskDTO.setTitle(title);
-            taskDTO.setDescription("Created from commit: " + commitMessage);
-            taskDTO.setStatus(WorkItemStatus.TO_DO);
-            taskDTO.setPriority(WorkItemPriority.MEDIUM);
-            taskDTO.setCreationDate(LocalDate.now());
-            taskDTO.setProjectId(projectId);
-            createTask_bycommit(projectId, userStoryId, taskDTO);
-            logger.info("Created new task with title '{}' in project {} for user story {}", title, projectId, userStoryId);
-        } catch (Exception e) {
-            logger.error("Failed to create task for commit with title '{}': {}", title, e.getMessage());
-        }
-    }
-
-    @Scheduled(fixedRate = 300000)
-    @Transactional
-    public void processCommitsForProjects() {
-        logger.info("Starting scheduled commit processing for all projects");
-        try {
-            ResponseEntity<List<Long>> projectsResponse = projectClient.getActiveProjectIds();
-            if (!projectsResponse.getStatusCode().is2xxSuccessful() || projectsResponse.getBody() == null) {
-                logger.info("Failed to fetch active projects");
-                return;
-            }
-            List<Long> projectIds = projectsResponse.getBody();
-
-            for (Long projectId : projectIds) {
-                ResponseEntity<Map<String, String>> repoResponse = projectClient.getGitHubRepository(projectId);
-                if (!repoResponse.getStatusCode().is2xxSuccessful() || repoResponse.getBody() == null) {
-                    logger.info("No GitHub repository linked for project: " + projectId);
-                    continue;
-                }
-                String repoUrl = repoResponse.getBody().get("repositoryUrl");
-                if (repoUrl == null || repoUrl.isEmpty()) {
-                    logger.info("No GitHub repository linked for project: " + projectId);
-                    continue;
-                }
-
-                Map<String, String> repoDetails = extractRepoDetails(repoUrl);
-                String owner = repoDetails.get("owner");
-                String repo = repoDetails.get("repo");
-                if (owner == null || repo == null) {
-                    logger.info("Invalid repository URL for project: " + projectId + ", URL: " + repoUrl);
-                    continue;
-                }
-
-                ResponseEntity<Map<String, String>> userResponse = projectClient.getGitHubUserId(projectId);
-                if (!userResponse.getStatusCode().is2xxSuccessful() || userResponse.getBody() == null || userResponse.getBody().get("userId") == null) {
-                    logger.info("No GitHub user linked for project: " + projectId);
-                    continue;
-                }
-                String userId = userResponse.getBody().get("userId");
-
-                ResponseEntity<Object> commitsResponse = gitHubIntegrationClient.getCommitsByUserId(
-                        owner, repo, userId, null, 30);
-                if (commitsResponse.getStatusCode().is2xxSuccessful() && commitsResponse.getBody() != null) {
-                    List<Map<String, Object>> commits = (List<Map<String, Object>>) commitsResponse.getBody();
-                    if (commits.isEmpty()) {
-                        logger.info("No new commits found for project: " + projectId + ", owner/repo: " + owner + "/" + repo);
-                        continue;
-                    }
-
-                    for (Map<String, Object> commit : commits) {
-                        processCommit(commit, projectId);
-                    }
-                } else {
-                    logger.info("Failed to fetch commits for project: " + projectId + ", owner/repo: " + owner + "/" + repo);
-                }
-            }
-            logger.info("Completed scheduled commit processing");
-        } catch (Exception e) {
-            logger.info("Error during scheduled commit processing: " + e.getMessage());
-        }
-    }
-
-    private Map<String, String> extractRepoDetails(String repoUrl) {
-        if (repoUrl == null || !repoUrl.startsWith("https://github.com/")) {
-            return Map.of();
-        }
-        String[] parts = repoUrl.replace("https://github.com/", "").split("/");
-        if (parts.length >= 2) {
-            return Map.of("owner", parts[0], "repo", parts[1].replace(".git", ""));
-        }
-        return Map.of();
-    }
 }
\ No newline at end of file
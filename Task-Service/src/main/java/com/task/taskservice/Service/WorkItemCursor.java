@@ -0,0 +1,80 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.DTO.CursorPageDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagination par clé (keyset) des listes de work items : le curseur encode le dernier id renvoyé,
+ * la page suivante lit « id > curseur » triée par id. Contrairement à un offset, le curseur reste
+ * valable si des éléments sont créés ou supprimés entre deux pages.
+ */
+public final class WorkItemCursor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkItemCursor.class);
+    private static final String PREFIX = "id:";
+
+    private WorkItemCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Id après lequel lire ; 0 pour la première page
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException et erreurs Base64 compris
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public static int pageSize(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * Construit la page à partir des ids lus avec une limite de size + 1 : l'id en trop indique
+     * seulement qu'une page suivante existe, il n'est pas chargé.
+     */
+    public static <T> CursorPageDTO<T> page(List<Long> ids, int size, Function<List<Long>, List<T>> loader) {
+        boolean hasMore = ids.size() > size;
+        List<Long> pageIds = hasMore ? ids.subList(0, size) : ids;
+        List<T> items = loader.apply(pageIds);
+        String nextCursor = hasMore ? encode(pageIds.get(pageIds.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    /**
+     * Plafond des listes non paginées : les ids sont lus avec une limite de max + 1 pour savoir
+     * si la liste a été coupée.
+     */
+    public static List<Long> truncate(List<Long> ids, int max, String list) {
+        if (ids.size() <= max) {
+            return ids;
+        }
+        logger.warn("Liste non paginée ({}) limitée à {} éléments, utiliser l'endpoint /page", list, max);
+        return ids.subList(0, max);
+    }
+}
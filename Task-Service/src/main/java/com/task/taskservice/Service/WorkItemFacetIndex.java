@@ -0,0 +1,398 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.DTO.FacetFilterDTO;
+import com.task.taskservice.Entity.Tag;
+import com.task.taskservice.Entity.WorkItem;
+import com.task.taskservice.Repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Index à facettes des work items en mémoire : par projet, un bitmap Roaring des ids par valeur de facette
+ * (status, priority, assignee, tag, type, story), à la place d'une méthode de repository par combinaison.
+ * <ul>
+ *   <li>un projet est chargé à sa première requête (trois requêtes), puis tenu à jour après chaque commit
+ *       d'écriture de cette instance ; rechargé après refresh-after-ms pour reprendre les écritures des
+ *       autres instances ;</li>
+ *   <li>les filtres ET / OU / NON sont des opérations sur bitmaps, les comptes des intersections de
+ *       cardinalités : ni requête, ni parcours des items ;</li>
+ *   <li>les ids retenus sont triés : la page suit le curseur (id) et se charge en lot par l'appelant.</li>
+ * </ul>
+ * Les ids doivent tenir sur 32 bits (ids IDENTITY). Métrique : work.items.facets.query.
+ */
+@Service
+public class WorkItemFacetIndex {
+
+    public static final String STATUS = "status";
+    public static final String PRIORITY = "priority";
+    public static final String ASSIGNEE = "assignee";
+    public static final String TAG = "tag";
+    public static final String TYPE = "type";
+    public static final String STORY = "story";
+    public static final List<String> FACETS = List.of(STATUS, PRIORITY, ASSIGNEE, TAG, TYPE, STORY);
+
+    // Valeur des items sans statut, priorité ou user story
+    public static final String NONE = "none";
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkItemFacetIndex.class);
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readTransaction;
+    private final long refreshAfterMs;
+    private final Map<Long, ProjectFacets> projects = new ConcurrentHashMap<>();
+    private final Timer queryLatency;
+
+    /**
+     * Résultat d'une requête : ids retenus (copie, triée) et comptes par valeur des facettes demandées.
+     */
+    public static final class Result {
+        private final RoaringBitmap ids;
+        private final Map<String, Map<String, Long>> counts;
+
+        Result(RoaringBitmap ids, Map<String, Map<String, Long>> counts) {
+            this.ids = ids;
+            this.counts = counts;
+        }
+
+        public long total() {
+            return ids.getLongCardinality();
+        }
+
+        public Map<String, Map<String, Long>> counts() {
+            return counts;
+        }
+
+        // Au plus limit ids strictement supérieurs à afterId, par id croissant
+        public List<Long> idsAfter(long afterId, int limit) {
+            List<Long> page = new ArrayList<>(Math.min(limit, ids.getCardinality()));
+            if (afterId >= Integer.MAX_VALUE) {
+                return page;
+            }
+            PeekableIntIterator iterator = ids.getIntIterator();
+            iterator.advanceIfNeeded((int) Math.max(afterId, -1L) + 1);
+            while (iterator.hasNext() && page.size() < limit) {
+                page.add(Integer.toUnsignedLong(iterator.next()));
+            }
+            return page;
+        }
+    }
+
+    // Bitmaps d'un projet ; écritures sous verrou exclusif, requêtes sous verrou partagé
+    private static final class ProjectFacets {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private RoaringBitmap all = new RoaringBitmap();
+        private Map<String, Map<String, RoaringBitmap>> facets = emptyFacets();
+        private volatile boolean loaded;
+        private volatile long loadedAt;
+        // Chargement en cours : une écriture reçue entre-temps oblige à relire
+        private boolean loading;
+        private boolean stale;
+
+        private void put(int id, Map<String, Collection<String>> values) {
+            remove(id);
+            all.add(id);
+            values.forEach((facet, facetValues) -> facetValues.forEach(value ->
+                    facets.get(facet).computeIfAbsent(value, key -> new RoaringBitmap()).add(id)));
+        }
+
+        private void remove(int id) {
+            if (!all.contains(id)) {
+                return;
+            }
+            all.remove(id);
+            for (Map<String, RoaringBitmap> byValue : facets.values()) {
+                byValue.values().removeIf(bitmap -> {
+                    bitmap.remove(id);
+                    return bitmap.isEmpty();
+                });
+            }
+        }
+    }
+
+    public WorkItemFacetIndex(TaskRepository taskRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${work-items.facets.refresh-after-ms:300000}") long refreshAfterMs) {
+        this.taskRepository = taskRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.refreshAfterMs = refreshAfterMs;
+        this.queryLatency = Timer.builder("work.items.facets.query")
+                .publishPercentiles(0.99)
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Map<String, RoaringBitmap>> emptyFacets() {
+        Map<String, Map<String, RoaringBitmap>> facets = new HashMap<>();
+        FACETS.forEach(facet -> facets.put(facet, new HashMap<>()));
+        return facets;
+    }
+
+    // Valeurs lues au moment de l'écriture, appliquées après le commit
+    public void changed(WorkItem item) {
+        if (item == null || item.getId() == null || item.getProjectId() == null) {
+            return;
+        }
+        int id = toIntId(item.getId());
+        Long projectId = item.getProjectId();
+        Map<String, Collection<String>> values = values(item);
+        TaskDependencyGraphIndex.afterCommit(() -> update(projectId, facets -> facets.put(id, values)));
+    }
+
+    public void removed(WorkItem item) {
+        if (item == null || item.getId() == null || item.getProjectId() == null) {
+            return;
+        }
+        int id = toIntId(item.getId());
+        Long projectId = item.getProjectId();
+        TaskDependencyGraphIndex.afterCommit(() -> update(projectId, facets -> facets.remove(id)));
+    }
+
+    private void update(Long projectId, Consumer<ProjectFacets> change) {
+        ProjectFacets facets = projects.get(projectId);
+        if (facets == null) {
+            // Projet pas encore chargé : la base fait foi à sa première requête
+            return;
+        }
+        facets.lock.writeLock().lock();
+        try {
+            if (facets.loading) {
+                facets.stale = true;
+            }
+            if (facets.loaded) {
+                change.accept(facets);
+            }
+        } finally {
+            facets.lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Collection<String>> values(WorkItem item) {
+        Map<String, Collection<String>> values = new HashMap<>();
+        values.put(STATUS, List.of(item.getStatus() != null ? item.getStatus().name() : NONE));
+        values.put(PRIORITY, List.of(item.getPriority() != null ? item.getPriority().name() : NONE));
+        values.put(TYPE, List.of(BoardDeltaPublisher.itemType(item)));
+        values.put(STORY, List.of(item.getUserStory() != null ? item.getUserStory().toString() : NONE));
+        values.put(ASSIGNEE, item.getAssignedUserIds() != null ? List.copyOf(item.getAssignedUserIds()) : List.of());
+        values.put(TAG, item.getItemtags() != null
+                ? item.getItemtags().stream().map(Tag::getName).filter(Objects::nonNull).distinct().toList()
+                : List.of());
+        return values;
+    }
+
+    private static int toIntId(Long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Work item id " + id + " does not fit the facet index");
+        }
+        return id.intValue();
+    }
+
+    /**
+     * Items du projet retenus par le filtre (null : tous) et comptes des facettes demandées parmi eux.
+     */
+    public Result query(Long projectId, FacetFilterDTO filter, Collection<String> countFacets) {
+        List<String> counted = countFacets == null ? List.of() : countFacets.stream().map(WorkItemFacetIndex::facetName).toList();
+        ProjectFacets facets = loaded(projectId);
+        long start = System.nanoTime();
+        facets.lock.readLock().lock();
+        try {
+            RoaringBitmap ids = evaluate(facets, filter);
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            for (String facet : counted) {
+                counts.put(facet, count(ids, facets.facets.get(facet)));
+            }
+            return new Result(ids, counts);
+        } finally {
+            facets.lock.readLock().unlock();
+            queryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String facetName(String facet) {
+        String name = facet != null ? facet.trim().toLowerCase() : null;
+        if (!FACETS.contains(name)) {
+            throw new IllegalArgumentException("Unknown facet: " + facet + " (expected one of " + FACETS + ")");
+        }
+        return name;
+    }
+
+    // Nouveau bitmap à chaque nœud : les bitmaps de l'index ne sont jamais modifiés par une requête
+    private static RoaringBitmap evaluate(ProjectFacets facets, FacetFilterDTO filter) {
+        if (filter == null) {
+            return facets.all.clone();
+        }
+        if (filter.getFacet() != null) {
+            String facet = facetName(filter.getFacet());
+            Map<String, RoaringBitmap> byValue = facets.facets.get(facet);
+            List<RoaringBitmap> matches = new ArrayList<>();
+            for (String value : filter.getValues() != null ? filter.getValues() : List.<String>of()) {
+                RoaringBitmap bitmap = byValue.get(normalizeValue(facet, value));
+                if (bitmap != null) {
+                    matches.add(bitmap);
+                }
+            }
+            return FastAggregation.or(matches.iterator());
+        }
+        if (filter.getOp() == null) {
+            throw new IllegalArgumentException("Facet filter needs either a facet or an op");
+        }
+        List<FacetFilterDTO> children = filter.getFilters() != null ? filter.getFilters() : List.of();
+        switch (filter.getOp().trim().toUpperCase()) {
+            case "AND": {
+                RoaringBitmap result = facets.all.clone();
+                for (FacetFilterDTO child : children) {
+                    if (result.isEmpty()) {
+                        break;
+                    }
+                    result.and(evaluate(facets, child));
+                }
+                return result;
+            }
+            case "OR": {
+                RoaringBitmap result = new RoaringBitmap();
+                for (FacetFilterDTO child : children) {
+                    result.or(evaluate(facets, child));
+                }
+                return result;
+            }
+            case "NOT": {
+                RoaringBitmap excluded = new RoaringBitmap();
+                for (FacetFilterDTO child : children) {
+                    excluded.or(evaluate(facets, child));
+                }
+                return RoaringBitmap.andNot(facets.all, excluded);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown facet operator: " + filter.getOp() + " (expected AND, OR or NOT)");
+        }
+    }
+
+    // Les valeurs des énumérations sont insensibles à la casse, assignés, tags et stories exacts
+    private static String normalizeValue(String facet, String value) {
+        if (value == null) {
+            return NONE;
+        }
+        return STATUS.equals(facet) || PRIORITY.equals(facet) || TYPE.equals(facet) ? value.trim().toUpperCase() : value;
+    }
+
+    // Comptes non nuls, par compte décroissant
+    private static Map<String, Long> count(RoaringBitmap ids, Map<String, RoaringBitmap> byValue) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> value : byValue.entrySet()) {
+            long count = RoaringBitmap.andCardinality(ids, value.getValue());
+            if (count > 0) {
+                counts.add(Map.entry(value.getKey(), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private ProjectFacets loaded(Long projectId) {
+        ProjectFacets facets = projects.computeIfAbsent(projectId, id -> new ProjectFacets());
+        if (!facets.loaded) {
+            synchronized (facets) {
+                if (!facets.loaded) {
+                    load(projectId, facets);
+                }
+            }
+        } else if (System.currentTimeMillis() - facets.loadedAt > refreshAfterMs && facets.refreshing.compareAndSet(false, true)) {
+            // Un seul rechargement à la fois, les autres requêtes lisent les bitmaps courants
+            try {
+                synchronized (facets) {
+                    load(projectId, facets);
+                }
+            } finally {
+                facets.refreshing.set(false);
+            }
+        }
+        return facets;
+    }
+
+    private void load(Long projectId, ProjectFacets facets) {
+        long start = System.currentTimeMillis();
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            facets.lock.writeLock().lock();
+            try {
+                facets.loading = true;
+                facets.stale = false;
+            } finally {
+                facets.lock.writeLock().unlock();
+            }
+            ProjectFacets snapshot = readTransaction.execute(status -> read(projectId));
+            facets.lock.writeLock().lock();
+            try {
+                if (facets.stale && attempt < MAX_LOAD_ATTEMPTS) {
+                    continue;
+                }
+                facets.all = snapshot.all;
+                facets.facets = snapshot.facets;
+                facets.loading = false;
+                facets.loaded = true;
+                // Dernier essai encore dépassé par une écriture : instantané servi tel quel, mais sans date de
+                // chargement pour que la requête suivante relise le projet au lieu d'attendre refresh-after-ms
+                facets.loadedAt = facets.stale ? 0 : System.currentTimeMillis();
+                logger.debug("Facettes du projet {} chargées : {} item(s) en {} ms (essai {})",
+                        projectId, facets.all.getCardinality(), System.currentTimeMillis() - start, attempt);
+                return;
+            } finally {
+                facets.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private ProjectFacets read(Long projectId) {
+        ProjectFacets snapshot = new ProjectFacets();
+        for (Object[] row : taskRepository.findFacetRows(projectId)) {
+            int id = toIntId((Long) row[0]);
+            snapshot.all.add(id);
+            add(snapshot, TYPE, (String) row[1], id);
+            add(snapshot, STATUS, row[2] != null ? ((Enum<?>) row[2]).name() : NONE, id);
+            add(snapshot, PRIORITY, row[3] != null ? ((Enum<?>) row[3]).name() : NONE, id);
+            add(snapshot, STORY, row[4] != null ? row[4].toString() : NONE, id);
+        }
+        for (Object[] row : taskRepository.findFacetAssignees(projectId)) {
+            add(snapshot, ASSIGNEE, (String) row[1], toIntId((Long) row[0]));
+        }
+        for (Object[] row : taskRepository.findFacetTags(projectId)) {
+            if (row[1] != null) {
+                add(snapshot, TAG, (String) row[1], toIntId((Long) row[0]));
+            }
+        }
+        snapshot.all.runOptimize();
+        snapshot.facets.values().forEach(byValue -> byValue.values().forEach(RoaringBitmap::runOptimize));
+        return snapshot;
+    }
+
+    private static void add(ProjectFacets snapshot, String facet, String value, int id) {
+        snapshot.facets.get(facet).computeIfAbsent(value, key -> new RoaringBitmap()).add(id);
+    }
+}
@@ -0,0 +1,76 @@
+package com.task.taskservice.Service;
+
+import com.common.security.JwtTokenVerifier;
+import com.task.taskservice.DTO.BugDTO;
+import com.task.taskservice.DTO.FacetPageDTO;
+import com.task.taskservice.DTO.FacetQueryDTO;
+import com.task.taskservice.DTO.TaskDTO;
+import com.task.taskservice.Mapper.BugMapper;
+import com.task.taskservice.Mapper.TaskMapper;
+import com.task.taskservice.Repository.BugRepository;
+import com.task.taskservice.Repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Filtrage à facettes des work items d'un projet : filtre et comptes évalués par WorkItemFacetIndex,
+ * puis seule la page demandée est chargée (tâches et bugs en lot, les sous-tâches ne sont renvoyées que
+ * par leur id).
+ */
+@Service
+public class WorkItemFacetService {
+
+    private final WorkItemFacetIndex facetIndex;
+    private final TaskRepository taskRepository;
+    private final BugRepository bugRepository;
+    private final TaskMapper taskMapper;
+    private final BugMapper bugMapper;
+    private final JwtTokenVerifier jwtTokenVerifier;
+
+    @Value("${work-items.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${work-items.page.max-size:200}")
+    private int maxPageSize = 200;
+
+    public WorkItemFacetService(WorkItemFacetIndex facetIndex, TaskRepository taskRepository, BugRepository bugRepository,
+                                TaskMapper taskMapper, BugMapper bugMapper, JwtTokenVerifier jwtTokenVerifier) {
+        this.facetIndex = facetIndex;
+        this.taskRepository = taskRepository;
+        this.bugRepository = bugRepository;
+        this.taskMapper = taskMapper;
+        this.bugMapper = bugMapper;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+    }
+
+    @Transactional(readOnly = true)
+    public FacetPageDTO query(Long projectId, FacetQueryDTO query, String cursor, Integer size, String token) {
+        if (jwtTokenVerifier.currentUserId(token) == null) {
+            throw new IllegalArgumentException("Invalid token: unable to extract user");
+        }
+        int pageSize = WorkItemCursor.pageSize(size, defaultPageSize, maxPageSize);
+        long afterId = WorkItemCursor.decode(cursor);
+        WorkItemFacetIndex.Result result = query == null
+                ? facetIndex.query(projectId, null, null)
+                : facetIndex.query(projectId, query.getFilter(), query.getCounts());
+
+        // Même règle que WorkItemCursor.page : l'id en trop signale seulement une page suivante
+        List<Long> ids = result.idsAfter(afterId, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        List<TaskDTO> tasks = taskRepository.findAllWithDetailsByIdIn(pageIds)
+                .stream()
+                .map(taskMapper::toDTO)
+                .collect(Collectors.toList());
+        List<BugDTO> bugs = bugRepository.findAllWithDetailsByIdIn(pageIds)
+                .stream()
+                .map(bugMapper::toDTO)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? WorkItemCursor.encode(pageIds.get(pageIds.size() - 1)) : null;
+        return new FacetPageDTO(result.total(), result.counts(), List.copyOf(pageIds), tasks, bugs, nextCursor);
+    }
+}
@@ -0,0 +1,124 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.Entity.WorkItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Écriture de l'historique des work items en ajout seul : les lignes WorkItemHistory sont insérées
+ * directement, sans charger la collection history de l'item (dont le coût croissait avec l'âge de la tâche).
+ * <ul>
+ *   <li>dans une transaction, les entrées sont accumulées puis insérées en un lot JDBC juste avant le commit,
+ *       après le flush des work items (un item créé dans la transaction a alors son id) ;</li>
+ *   <li>les entrées d'un item supprimé dans la transaction sont ignorées : son historique part avec lui
+ *       (un item détaché, hors du contexte de persistance, est vérifié en base) ;</li>
+ *   <li>un rollback abandonne les entrées ; hors transaction, l'insertion est immédiate.</li>
+ * </ul>
+ * Métrique : work.item.history.written.
+ */
+@Service
+public class WorkItemHistoryWriter {
+
+    // Noms physiques (PhysicalNamingStrategyStandardImpl) de l'entité WorkItemHistory
+    private static final String INSERT_SQL =
+            "INSERT INTO WorkItemHistory (workitem_id, action, authorId, date, description) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final Counter written;
+
+    private record Entry(WorkItem workItem, String action, String description, String authorId, LocalDateTime date) {
+    }
+
+    public WorkItemHistoryWriter(JdbcTemplate jdbcTemplate, EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.written = Counter.builder("work.item.history.written").register(meterRegistry);
+    }
+
+    /**
+     * @param authorId null pour une action système (commit GitHub...)
+     */
+    public void record(WorkItem workItem, String action, String description, String authorId) {
+        Entry entry = new Entry(workItem, action, description, authorId, LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(entry));
+            return;
+        }
+        pending().add(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry> pending() {
+        List<Entry> entries = (List<Entry>) TransactionSynchronizationManager.getResource(this);
+        if (entries != null) {
+            return entries;
+        }
+        List<Entry> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                writePending(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WorkItemHistoryWriter.this);
+            }
+        });
+        return created;
+    }
+
+    private void writePending(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Les INSERT/DELETE des work items doivent précéder les lignes d'historique (clé étrangère)
+        entityManager.flush();
+        // Un item détaché (updateTask vide la session) peut avoir été supprimé : vérifier en base, en une requête
+        Set<Long> detachedIds = entries.stream()
+                .filter(entry -> entry.workItem().getId() != null && !entityManager.contains(entry.workItem()))
+                .map(entry -> entry.workItem().getId())
+                .collect(Collectors.toSet());
+        Set<Long> existing = detachedIds.isEmpty() ? Set.of() : existingIds(detachedIds);
+        insert(entries.stream()
+                .filter(entry -> entry.workItem().getId() != null
+                        && (entityManager.contains(entry.workItem()) || existing.contains(entry.workItem().getId())))
+                .toList());
+    }
+
+    private Set<Long> existingIds(Set<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM WorkItem WHERE id IN (" + placeholders + ")", Long.class, ids.toArray()));
+    }
+
+    private void insert(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.workItem().getId());
+            statement.setString(2, entry.action());
+            statement.setString(3, entry.authorId());
+            statement.setTimestamp(4, Timestamp.valueOf(entry.date()));
+            statement.setString(5, entry.description());
+        });
+        written.increment(entries.size());
+    }
+}
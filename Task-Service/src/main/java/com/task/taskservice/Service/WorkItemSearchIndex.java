@@ -0,0 +1,400 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.DTO.WorkItemSearchHitDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Index de recherche Lucene des work items, sur disque local (index-dir ; en mémoire si vide).
+ * <ul>
+ *   <li>titre, description, tags et commentaires analysés sans casse ni accents ; le titre et les tags sont
+ *       aussi découpés en préfixes (2 à 15 caractères) pour la saisie semi-automatique ;</li>
+ *   <li>projet, statut, assignés et type indexés tels quels pour les filtres ;</li>
+ *   <li>les résultats sont lus dans les champs stockés, sans relecture de la base.</li>
+ * </ul>
+ * Les écritures passent par {@link WorkItemSearchIndexer} ; elles ne sont visibles qu'après {@link #commit()}.
+ * Cibles de latence pour un index d'un million d'items (disque local, cache chaud) : p99 &lt; 50 ms en saisie
+ * semi-automatique, p99 &lt; 150 ms en plein texte, suivies par work.items.search.latency{mode}.
+ */
+@Service
+public class WorkItemSearchIndex {
+
+    public static final String TYPEAHEAD = "typeahead";
+    public static final String FULL_TEXT = "fulltext";
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkItemSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String TYPE = "type";
+    private static final String PROJECT = "projectId";
+    private static final String USER_STORY = "userStory";
+    private static final String STATUS = "status";
+    private static final String ASSIGNEE = "assignee";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String TAGS = "tags";
+    private static final String COMMENTS = "comments";
+    private static final String SUGGEST = "suggest";
+    private static final String GENERATION = "generation";
+    private static final String INDEXED_VERSIONS = "indexedVersions";
+    private static final int MIN_PREFIX = 2;
+    private static final int MAX_PREFIX = 15;
+
+    /**
+     * Contenu indexé d'un work item.
+     */
+    public record Entry(Long id, String itemType, Long projectId, Long userStoryId, String title, String description,
+                        String status, Collection<String> assignees, Collection<String> tags, Collection<String> comments) {
+    }
+
+    private final Directory directory;
+    private final Analyzer textAnalyzer = new FoldingAnalyzer(false);
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final int maxResults;
+    private final Timer typeaheadLatency;
+    private final Timer fullTextLatency;
+    private volatile String generation = UUID.randomUUID().toString();
+
+    // Minuscules et sans accents ; avec prefixes, chaque mot donne aussi ses préfixes
+    private static final class FoldingAnalyzer extends Analyzer {
+        private final boolean prefixes;
+
+        private FoldingAnalyzer(boolean prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            if (prefixes) {
+                stream = new EdgeNGramTokenFilter(stream, MIN_PREFIX, MAX_PREFIX, true);
+            }
+            return new TokenStreamComponents(source, stream);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+
+    public WorkItemSearchIndex(MeterRegistry meterRegistry,
+                               @Value("${work-items.search.index-dir:}") String indexDir,
+                               @Value("${work-items.search.max-results:50}") int maxResults,
+                               @Value("${work-items.search.slo.typeahead-ms:50}") long typeaheadSloMs,
+                               @Value("${work-items.search.slo.fulltext-ms:150}") long fullTextSloMs) {
+        this.maxResults = maxResults;
+        try {
+            this.directory = indexDir == null || indexDir.isBlank()
+                    ? new ByteBuffersDirectory()
+                    : FSDirectory.open(Path.of(indexDir));
+            Analyzer indexAnalyzer = new PerFieldAnalyzerWrapper(textAnalyzer, Map.of(SUGGEST, new FoldingAnalyzer(true)));
+            IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            this.writer = new IndexWriter(directory, config);
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open search index at '" + indexDir + "'", e);
+        }
+        this.typeaheadLatency = latencyTimer(meterRegistry, TYPEAHEAD, typeaheadSloMs);
+        this.fullTextLatency = latencyTimer(meterRegistry, FULL_TEXT, fullTextSloMs);
+        logger.info("Index de recherche ouvert ({}) : {} document(s)",
+                indexDir == null || indexDir.isBlank() ? "mémoire" : indexDir, size());
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String mode, long sloMs) {
+        return Timer.builder("work.items.search.latency")
+                .tag("mode", mode)
+                .publishPercentiles(0.99)
+                .serviceLevelObjectives(Duration.ofMillis(sloMs))
+                .register(meterRegistry);
+    }
+
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    // Remplace les documents des entrées, supprime ceux des ids ; visible au prochain commit
+    public void apply(Collection<Entry> entries, Collection<Long> deletedIds) {
+        try {
+            for (Entry entry : entries) {
+                writer.updateDocument(new Term(ID, entry.id().toString()), toDocument(entry));
+            }
+            for (Long id : deletedIds) {
+                writer.deleteDocuments(new Term(ID, id.toString()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Début de reconstruction : les documents écrits ensuite portent une nouvelle génération.
+     */
+    public void beginRebuild() {
+        generation = UUID.randomUUID().toString();
+    }
+
+    // Fin de reconstruction : retire les documents des générations précédentes (items disparus)
+    public void endRebuild() {
+        try {
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(GENERATION, generation)), BooleanClause.Occur.MUST_NOT)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Un commit disque pour tout un lot, puis ouverture d'un nouveau lecteur
+    public void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Commit qui enregistre aussi, par projet, la version de modification jusqu'à laquelle l'index est à jour ;
+     * les commits suivants la conservent.
+     */
+    public void commit(Map<Long, Long> indexedVersions) {
+        StringBuilder versions = new StringBuilder();
+        indexedVersions.forEach((projectId, version) -> {
+            if (versions.length() > 0) {
+                versions.append(',');
+            }
+            versions.append(projectId).append(':').append(version);
+        });
+        writer.setLiveCommitData(Map.of(INDEXED_VERSIONS, versions.toString()).entrySet());
+        commit();
+    }
+
+    // Versions enregistrées par le dernier commit(Map) ; vide pour un index antérieur ou neuf
+    public Map<Long, Long> indexedVersions() {
+        Map<Long, Long> versions = new HashMap<>();
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return versions;
+        }
+        for (Map.Entry<String, String> data : commitData) {
+            if (INDEXED_VERSIONS.equals(data.getKey()) && !data.getValue().isEmpty()) {
+                for (String projectVersion : data.getValue().split(",")) {
+                    int separator = projectVersion.indexOf(':');
+                    versions.put(Long.parseLong(projectVersion.substring(0, separator)),
+                            Long.parseLong(projectVersion.substring(separator + 1)));
+                }
+            }
+        }
+        return versions;
+    }
+
+    private Document toDocument(Entry entry) {
+        Document document = new Document();
+        document.add(new StringField(ID, entry.id().toString(), Field.Store.YES));
+        document.add(new StringField(GENERATION, generation, Field.Store.NO));
+        document.add(new StringField(TYPE, entry.itemType(), Field.Store.YES));
+        if (entry.projectId() != null) {
+            document.add(new StringField(PROJECT, entry.projectId().toString(), Field.Store.YES));
+        }
+        if (entry.userStoryId() != null) {
+            document.add(new StoredField(USER_STORY, entry.userStoryId()));
+        }
+        if (entry.status() != null) {
+            document.add(new StringField(STATUS, entry.status(), Field.Store.YES));
+        }
+        for (String assignee : entry.assignees()) {
+            document.add(new StringField(ASSIGNEE, assignee, Field.Store.NO));
+        }
+        if (entry.title() != null) {
+            document.add(new TextField(TITLE, entry.title(), Field.Store.YES));
+            document.add(new TextField(SUGGEST, entry.title(), Field.Store.NO));
+        }
+        if (entry.description() != null) {
+            document.add(new TextField(DESCRIPTION, entry.description(), Field.Store.NO));
+        }
+        for (String tag : entry.tags()) {
+            document.add(new TextField(TAGS, tag, Field.Store.NO));
+            document.add(new TextField(SUGGEST, tag, Field.Store.NO));
+        }
+        for (String comment : entry.comments()) {
+            document.add(new TextField(COMMENTS, comment, Field.Store.NO));
+        }
+        return document;
+    }
+
+    /**
+     * Saisie semi-automatique : chaque mot saisi doit commencer un mot du titre ou d'un tag, le dernier
+     * pouvant être incomplet ; un titre contenant le dernier mot entier est mieux classé.
+     */
+    public List<WorkItemSearchHitDTO> typeahead(Long projectId, String text, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<String> words = analyze(text);
+            if (words.isEmpty()) {
+                return List.of();
+            }
+            BooleanQuery.Builder query = filters(projectId, null, null, null);
+            for (String word : words) {
+                String prefix = word.length() > MAX_PREFIX ? word.substring(0, MAX_PREFIX) : word;
+                query.add(new TermQuery(new Term(SUGGEST, prefix)), BooleanClause.Occur.MUST);
+            }
+            query.add(new BoostQuery(new TermQuery(new Term(TITLE, words.get(words.size() - 1))), 2f), BooleanClause.Occur.SHOULD);
+            return execute(query.build(), limit);
+        } finally {
+            typeaheadLatency.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Recherche plein texte classée (BM25) : chaque mot doit apparaître dans le titre, les tags, la description
+     * ou un commentaire, par ordre de poids décroissant ; filtres facultatifs par statut, assigné et type.
+     */
+    public List<WorkItemSearchHitDTO> search(Long projectId, String text, Collection<String> statuses,
+                                             String assignee, String itemType, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<String> words = analyze(text);
+            if (words.isEmpty()) {
+                return List.of();
+            }
+            BooleanQuery.Builder query = filters(projectId, statuses, assignee, itemType);
+            for (String word : words) {
+                query.add(new DisjunctionMaxQuery(List.of(
+                        new BoostQuery(new TermQuery(new Term(TITLE, word)), 3f),
+                        new BoostQuery(new TermQuery(new Term(TAGS, word)), 2f),
+                        new TermQuery(new Term(DESCRIPTION, word)),
+                        new BoostQuery(new TermQuery(new Term(COMMENTS, word)), 0.5f)), 0.1f),
+                        BooleanClause.Occur.MUST);
+            }
+            return execute(query.build(), limit);
+        } finally {
+            fullTextLatency.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private static BooleanQuery.Builder filters(Long projectId, Collection<String> statuses, String assignee, String itemType) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new TermQuery(new Term(PROJECT, projectId.toString())), BooleanClause.Occur.FILTER);
+        if (statuses != null && !statuses.isEmpty()) {
+            BooleanQuery.Builder anyStatus = new BooleanQuery.Builder();
+            statuses.forEach(status -> anyStatus.add(new TermQuery(new Term(STATUS, status)), BooleanClause.Occur.SHOULD));
+            query.add(anyStatus.build(), BooleanClause.Occur.FILTER);
+        }
+        if (assignee != null && !assignee.isBlank()) {
+            query.add(new TermQuery(new Term(ASSIGNEE, assignee)), BooleanClause.Occur.FILTER);
+        }
+        if (itemType != null && !itemType.isBlank()) {
+            query.add(new TermQuery(new Term(TYPE, itemType)), BooleanClause.Occur.FILTER);
+        }
+        return query;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        try (TokenStream stream = textAnalyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private List<WorkItemSearchHitDTO> execute(Query query, int limit) {
+        int size = Math.max(1, Math.min(limit, maxResults));
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, size);
+                List<WorkItemSearchHitDTO> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    Document document = searcher.storedFields().document(scoreDoc.doc);
+                    hits.add(new WorkItemSearchHitDTO(
+                            Long.valueOf(document.get(ID)),
+                            document.get(TYPE),
+                            document.get(PROJECT) != null ? Long.valueOf(document.get(PROJECT)) : null,
+                            document.getField(USER_STORY) != null ? document.getField(USER_STORY).numericValue().longValue() : null,
+                            document.get(TITLE),
+                            document.get(STATUS),
+                            scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            logger.warn("Fermeture de l'index de recherche incomplète : {}", e.getMessage());
+        }
+    }
+}
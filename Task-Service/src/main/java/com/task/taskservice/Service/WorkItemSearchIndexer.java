@@ -0,0 +1,328 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.Entity.Tag;
+import com.task.taskservice.Entity.WorkItem;
+import com.task.taskservice.Repository.CommentRepository;
+import com.task.taskservice.Repository.ProjectChangeVersionRepository;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Repository.WorkItemTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mise à jour asynchrone de {@link WorkItemSearchIndex}.
+ * <ul>
+ *   <li>les écritures de work items, de tags et de commentaires marquent l'item à réindexer après le commit
+ *       (un rollback ne réindexe rien) ;</li>
+ *   <li>toutes les flush-interval-ms, les items marqués sont relus par lots de batch-size (un item absent est
+ *       retiré de l'index) et validés par un seul commit Lucene ;</li>
+ *   <li>rebuild() réécrit tous les items par parcours des ids puis retire les documents non réécrits ; l'index
+ *       reste servi pendant la reconstruction. Lancée au démarrage si l'index est vide ou si
+ *       rebuild-on-startup=true, ou par POST /api/project/tasks/search/rebuild ;</li>
+ *   <li>toutes les catch-up-interval-ms, catchUp() rattrape les écritures des autres instances (et les marques
+ *       perdues par un arrêt brutal) : par projet, les items dont la version de modification (ChangeVersionService)
+ *       dépasse la dernière version indexée sont réindexés, ceux supprimés depuis sont retirés. Les versions
+ *       indexées sont enregistrées dans le commit Lucene ; si des pierres tombales encore utiles ont été purgées,
+ *       l'index est reconstruit.</li>
+ * </ul>
+ * Métriques : work.items.search.pending, work.items.search.indexed.
+ */
+@Service
+public class WorkItemSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkItemSearchIndexer.class);
+
+    private final WorkItemSearchIndex searchIndex;
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final ProjectChangeVersionRepository versionRepository;
+    private final WorkItemTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate readTransaction;
+    private final int batchSize;
+    private final boolean rebuildOnStartup;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Par projet, version de modification jusqu'à laquelle l'index est à jour
+    private final Map<Long, Long> indexedVersions = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter indexed;
+
+    public WorkItemSearchIndexer(WorkItemSearchIndex searchIndex,
+                                 TaskRepository taskRepository,
+                                 CommentRepository commentRepository,
+                                 ProjectChangeVersionRepository versionRepository,
+                                 WorkItemTombstoneRepository tombstoneRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${work-items.search.flush-interval-ms:1000}") long flushIntervalMs,
+                                 @Value("${work-items.search.catch-up-interval-ms:30000}") long catchUpIntervalMs,
+                                 @Value("${work-items.search.batch-size:500}") int batchSize,
+                                 @Value("${work-items.search.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.searchIndex = searchIndex;
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.versionRepository = versionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.batchSize = batchSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.indexed = Counter.builder("work.items.search.indexed").register(meterRegistry);
+        Gauge.builder("work.items.search.pending", dirty, Set::size).register(meterRegistry);
+        this.indexedVersions.putAll(searchIndex.indexedVersions());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::catchUpQuietly, catchUpIntervalMs, catchUpIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void changed(WorkItem item) {
+        if (item != null && item.getId() != null) {
+            Long id = item.getId();
+            TaskDependencyGraphIndex.afterCommit(() -> dirty.add(id));
+        }
+    }
+
+    /**
+     * Réindexe les items marqués, par lots, avec un commit Lucene pour l'ensemble.
+     *
+     * @return le nombre d'items traités
+     */
+    public synchronized int flush() {
+        int processed = 0;
+        while (!dirty.isEmpty()) {
+            List<Long> batch = new ArrayList<>(batchSize);
+            Iterator<Long> ids = dirty.iterator();
+            while (ids.hasNext() && batch.size() < batchSize) {
+                batch.add(ids.next());
+                ids.remove();
+            }
+            try {
+                indexBatch(batch);
+            } catch (RuntimeException e) {
+                // Remis en attente pour le passage suivant
+                dirty.addAll(batch);
+                logger.error("Échec de l'indexation de {} work item(s) : {}", batch.size(), e.getMessage(), e);
+                break;
+            }
+            processed += batch.size();
+        }
+        if (processed > 0) {
+            searchIndex.commit();
+            logger.debug("{} work item(s) réindexé(s)", processed);
+        }
+        return processed;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Échec du commit de l'index de recherche : {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Réindexe, projet par projet, les items écrits depuis la dernière version indexée, par toutes les instances,
+     * puis enregistre les nouvelles versions dans un seul commit Lucene.
+     *
+     * @return le nombre d'items traités
+     */
+    public synchronized int catchUp() {
+        List<Object[]> projects = readTransaction.execute(status -> versionRepository.findAllVersions());
+        if (projects == null || projects.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> caughtUp = new HashMap<>();
+        int processed = 0;
+        for (Object[] project : projects) {
+            Long projectId = (Long) project[0];
+            long version = (Long) project[1];
+            long purgedVersion = (Long) project[2];
+            long indexedVersion = indexedVersions.getOrDefault(projectId, 0L);
+            if (version <= indexedVersion) {
+                continue;
+            }
+            if (indexedVersion < purgedVersion) {
+                // Suppressions intermédiaires inconnues : seule une reconstruction retire les items disparus
+                logger.info("Pierres tombales du projet {} purgées au-delà de la version indexée {} : reconstruction",
+                        projectId, indexedVersion);
+                return rebuildNow();
+            }
+            processed += catchUp(projectId, indexedVersion, version);
+            caughtUp.put(projectId, version);
+        }
+        if (!caughtUp.isEmpty()) {
+            indexedVersions.putAll(caughtUp);
+            searchIndex.commit(Map.copyOf(indexedVersions));
+            logger.debug("Rattrapage de l'index de recherche : {} work item(s) sur {} projet(s)", processed, caughtUp.size());
+        }
+        return processed;
+    }
+
+    // Versions validées dans (sinceVersion, untilVersion] : une version lue n'est visible qu'après les plus basses
+    private int catchUp(Long projectId, long sinceVersion, long untilVersion) {
+        int processed = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long after = afterId;
+            ids = readTransaction.execute(status -> taskRepository.findWorkItemIdsChangedBetween(
+                    projectId, sinceVersion, untilVersion, after, PageRequest.of(0, batchSize)));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            indexBatch(ids);
+            processed += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == batchSize);
+        List<Long> deletedIds = readTransaction.execute(status ->
+                tombstoneRepository.findIdsDeletedBetween(projectId, sinceVersion, untilVersion));
+        if (deletedIds != null && !deletedIds.isEmpty()) {
+            searchIndex.apply(List.of(), deletedIds);
+            indexed.increment(deletedIds.size());
+            processed += deletedIds.size();
+        }
+        return processed;
+    }
+
+    private void catchUpQuietly() {
+        if (rebuilding.get()) {
+            return;
+        }
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            logger.error("Échec du rattrapage de l'index de recherche : {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Planifie la reconstruction complète de l'index ; sans effet si une reconstruction est en cours.
+     *
+     * @return false si une reconstruction était déjà en cours
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        scheduler.execute(() -> {
+            try {
+                rebuildNow();
+            } catch (RuntimeException e) {
+                logger.error("Échec de la reconstruction de l'index de recherche : {}", e.getMessage(), e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    public synchronized int rebuildNow() {
+        long start = System.currentTimeMillis();
+        // Lues avant le parcours : les écritures postérieures seront reprises par catchUp()
+        Map<Long, Long> versions = new HashMap<>();
+        List<Object[]> projects = readTransaction.execute(status -> versionRepository.findAllVersions());
+        if (projects != null) {
+            projects.forEach(project -> versions.put((Long) project[0], (Long) project[1]));
+        }
+        searchIndex.beginRebuild();
+        int total = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            long after = afterId;
+            ids = readTransaction.execute(status -> taskRepository.findWorkItemIdsAfter(after, PageRequest.of(0, batchSize)));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            indexBatch(ids);
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == batchSize);
+        searchIndex.endRebuild();
+        indexedVersions.clear();
+        indexedVersions.putAll(versions);
+        searchIndex.commit(Map.copyOf(indexedVersions));
+        logger.info("Index de recherche reconstruit : {} work item(s) en {} ms", total, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    private void indexBatch(List<Long> ids) {
+        List<WorkItemSearchIndex.Entry> entries = readTransaction.execute(status -> load(ids));
+        Set<Long> deletedIds = new HashSet<>(ids);
+        entries.forEach(entry -> deletedIds.remove(entry.id()));
+        searchIndex.apply(entries, deletedIds);
+        indexed.increment(ids.size());
+    }
+
+    // Items du lot avec assignés et tags (chargement par lots, default_batch_fetch_size) et commentaires
+    private List<WorkItemSearchIndex.Entry> load(List<Long> ids) {
+        Map<Long, List<String>> comments = new HashMap<>();
+        for (Object[] row : commentRepository.findContentsByWorkItemIdIn(ids)) {
+            comments.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<WorkItemSearchIndex.Entry> entries = new ArrayList<>();
+        for (WorkItem item : taskRepository.findWorkItemsByIdIn(ids)) {
+            entries.add(new WorkItemSearchIndex.Entry(
+                    item.getId(),
+                    BoardDeltaPublisher.itemType(item),
+                    item.getProjectId(),
+                    item.getUserStory(),
+                    item.getTitle(),
+                    item.getDescription(),
+                    item.getStatus() != null ? item.getStatus().name() : null,
+                    item.getAssignedUserIds() != null ? List.copyOf(item.getAssignedUserIds()) : List.of(),
+                    item.getItemtags() != null
+                            ? item.getItemtags().stream().map(Tag::getName).filter(name -> name != null).toList()
+                            : List.of(),
+                    comments.getOrDefault(item.getId(), List.of())));
+        }
+        return entries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (rebuildOnStartup || searchIndex.size() == 0) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Dernières marques avant la fermeture de l'index
+        flushQuietly();
+    }
+}
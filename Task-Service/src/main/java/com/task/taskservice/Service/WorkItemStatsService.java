@@ -0,0 +1,281 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.DTO.DashboardStatsDTO;
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.WorkItem;
+import com.task.taskservice.Entity.WorkItemDueStat;
+import com.task.taskservice.Entity.WorkItemStat;
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.BugRepository;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Repository.WorkItemDueStatRepository;
+import com.task.taskservice.Repository.WorkItemStatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Compteurs du tableau de bord, tenus à jour à chaque création, modification et suppression de work item.
+ * <ul>
+ *   <li>une ligne work_item_stats par (type, user story, statut, priorité) : le nombre de lignes ne dépend
+ *       pas du nombre d'items ;</li>
+ *   <li>les items non terminés ayant une échéance sont comptés à part dans work_item_due_stats, par
+ *       (type, user story, date d'échéance) ; les retards y sont sommés à la lecture (échéance &lt; aujourd'hui),
+ *       le passage d'un jour à l'autre ne demande donc aucune mise à jour ;</li>
+ *   <li>les incréments sont faits dans la transaction de l'écriture du work item : compteur et item
+ *       sont validés ou annulés ensemble ;</li>
+ *   <li>une réconciliation périodique recalcule tout depuis task/bug et corrige les écarts par incrément
+ *       (métrique work.item.stats.reconciled).</li>
+ * </ul>
+ */
+@Service
+public class WorkItemStatsService {
+
+    public static final String TASK = "TASK";
+    public static final String BUG = "BUG";
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkItemStatsService.class);
+
+    private final WorkItemStatRepository workItemStatRepository;
+    private final WorkItemDueStatRepository workItemDueStatRepository;
+    private final TaskRepository taskRepository;
+    private final BugRepository bugRepository;
+    private final TransactionTemplate newTransaction;
+    private final Counter reconciledRows;
+
+    public WorkItemStatsService(WorkItemStatRepository workItemStatRepository,
+                                WorkItemDueStatRepository workItemDueStatRepository,
+                                TaskRepository taskRepository,
+                                BugRepository bugRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.workItemStatRepository = workItemStatRepository;
+        this.workItemDueStatRepository = workItemDueStatRepository;
+        this.taskRepository = taskRepository;
+        this.bugRepository = bugRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reconciledRows = Counter.builder("work.item.stats.reconciled").register(meterRegistry);
+    }
+
+    /**
+     * Dimensions d'un work item au sens des compteurs ; null pour un item sans user story.
+     */
+    public record Key(String itemType, Long userStory, WorkItemStatus status, WorkItemPriority priority, LocalDate dueDate) {
+
+        public static Key of(WorkItem item) {
+            if (item == null || item.getUserStory() == null) {
+                return null;
+            }
+            return new Key(item instanceof Bug ? BUG : TASK, item.getUserStory(), item.getStatus(), item.getPriority(), item.getDueDate());
+        }
+
+        public String id() {
+            return itemType + "|" + userStory + "|" + status + "|" + priority;
+        }
+
+        // Ligne work_item_due_stats de l'item ; null s'il est terminé ou sans échéance
+        public String dueId() {
+            if (status == null || status == WorkItemStatus.DONE || dueDate == null) {
+                return null;
+            }
+            return dueId(itemType, userStory, dueDate);
+        }
+
+        static String dueId(String itemType, Long userStory, LocalDate dueDate) {
+            return itemType + "|" + userStory + "|" + dueDate;
+        }
+    }
+
+    // À appeler avant toute modification de l'item : l'état « avant » est décrémenté au moment de l'écriture
+    public Key snapshot(WorkItem item) {
+        return Key.of(item);
+    }
+
+    public void recordCreated(WorkItem item) {
+        apply(Key.of(item), 1);
+    }
+
+    public void recordUpdated(Key before, WorkItem after) {
+        Key current = Key.of(after);
+        if (Objects.equals(before, current)) {
+            return;
+        }
+        // Chaque compteur n'est déplacé que si sa propre ligne change (ex. seule l'échéance a bougé)
+        if (before == null || current == null || !before.id().equals(current.id())) {
+            applyStat(before, -1);
+            applyStat(current, 1);
+        }
+        if (!Objects.equals(before == null ? null : before.dueId(), current == null ? null : current.dueId())) {
+            applyDue(before, -1);
+            applyDue(current, 1);
+        }
+    }
+
+    public void recordDeleted(Key before) {
+        apply(before, -1);
+    }
+
+    private void apply(Key key, long delta) {
+        applyStat(key, delta);
+        applyDue(key, delta);
+    }
+
+    private void applyStat(Key key, long delta) {
+        if (key == null) {
+            return;
+        }
+        String id = key.id();
+        if (!workItemStatRepository.existsById(id)) {
+            createRow(id, () -> workItemStatRepository.saveAndFlush(new WorkItemStat(
+                    id, key.itemType(), key.userStory(), key.status(), key.priority(), 0)));
+        }
+        if (workItemStatRepository.increment(id, delta) == 0) {
+            // Ne devrait pas arriver ; la réconciliation corrigera le compteur
+            logger.warn("Compteur {} introuvable, incrément {} ignoré", id, delta);
+        }
+    }
+
+    private void applyDue(Key key, long delta) {
+        if (key != null && key.dueId() != null) {
+            applyDue(key.itemType(), key.userStory(), key.dueDate(), delta);
+        }
+    }
+
+    private void applyDue(String itemType, Long userStory, LocalDate dueDate, long delta) {
+        String id = Key.dueId(itemType, userStory, dueDate);
+        if (!workItemDueStatRepository.existsById(id)) {
+            createRow(id, () -> workItemDueStatRepository.saveAndFlush(new WorkItemDueStat(id, itemType, userStory, dueDate, 0)));
+        }
+        if (workItemDueStatRepository.increment(id, delta) == 0) {
+            logger.warn("Compteur d'échéance {} introuvable, incrément {} ignoré", id, delta);
+        }
+    }
+
+    private void createRow(String id, Runnable insert) {
+        // Ligne à zéro créée dans sa propre transaction : l'incrément reste dans celle de l'appelant,
+        // et deux créations concurrentes de la même ligne ne font échouer aucune écriture de work item
+        try {
+            newTransaction.executeWithoutResult(status -> insert.run());
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Compteur {} déjà créé par une autre transaction", id);
+        }
+    }
+
+    public DashboardStatsDTO getDashboardStats(String itemType, List<Long> userStoryIds) {
+        if (userStoryIds == null || userStoryIds.isEmpty()) {
+            return new DashboardStatsDTO(0, 0, 0, 0, Map.of(), Map.of());
+        }
+        long completed = 0;
+        long notCompleted = 0;
+        long total = 0;
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Long> byPriority = new HashMap<>();
+
+        for (WorkItemStat stat : workItemStatRepository.findByItemTypeAndUserStoryIn(itemType, userStoryIds)) {
+            long count = stat.getItemCount();
+            total += count;
+            // Même sémantique que les anciennes requêtes COUNT : un statut null n'entre que dans le total
+            if (stat.getStatus() != null) {
+                byStatus.merge(stat.getStatus().name(), count, Long::sum);
+                if (stat.getStatus() == WorkItemStatus.DONE) {
+                    completed += count;
+                } else {
+                    notCompleted += count;
+                }
+            }
+            if (stat.getPriority() != null) {
+                byPriority.merge(stat.getPriority().name(), count, Long::sum);
+            }
+        }
+        long overdue = workItemDueStatRepository.sumOverdue(itemType, userStoryIds, LocalDate.now());
+        return new DashboardStatsDTO(completed, notCompleted, overdue, total, byStatus, byPriority);
+    }
+
+    /**
+     * Compteurs et agrégats sont lus dans le même instantané (REPEATABLE_READ), puis l'écart est appliqué
+     * par incrément : une écriture de work item validée pendant la réconciliation n'est vue ni dans l'un ni
+     * dans l'autre, et son propre incrément s'ajoute à la correction au lieu d'être écrasé.
+     * Les lignes qui ne correspondent plus à aucun item (y compris l'ancien format avec échéance) sont ramenées à zéro.
+     */
+    @Scheduled(fixedDelayString = "${work-item-stats.reconcile-interval-ms:3600000}",
+            initialDelayString = "${work-item-stats.reconcile-initial-delay-ms:60000}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconcile() {
+        int fixed = reconcile(TASK, taskRepository.aggregateStatsByUserStory())
+                + reconcileDue(TASK, taskRepository.aggregateOpenDueDatesByUserStory(WorkItemStatus.DONE))
+                + reconcile(BUG, bugRepository.aggregateStatsByUserStory())
+                + reconcileDue(BUG, bugRepository.aggregateOpenDueDatesByUserStory(WorkItemStatus.DONE));
+        if (fixed > 0) {
+            logger.warn("Réconciliation des compteurs du tableau de bord : {} ligne(s) corrigée(s)", fixed);
+        }
+        reconciledRows.increment(fixed);
+    }
+
+    private int reconcile(String itemType, List<Object[]> rows) {
+        Map<String, Long> observed = workItemStatRepository.findByItemType(itemType)
+                .stream()
+                .collect(Collectors.toMap(WorkItemStat::getId, WorkItemStat::getItemCount));
+        int fixed = 0;
+
+        for (Object[] row : rows) {
+            Key key = new Key(itemType, (Long) row[0], (WorkItemStatus) row[1], (WorkItemPriority) row[2], null);
+            Long current = observed.remove(key.id());
+            long delta = (Long) row[3] - (current == null ? 0 : current);
+            if (delta != 0) {
+                applyStat(key, delta);
+                fixed++;
+            }
+        }
+        // Lignes restantes : plus aucun work item ne porte ces dimensions
+        for (Map.Entry<String, Long> stale : observed.entrySet()) {
+            if (stale.getValue() != 0) {
+                workItemStatRepository.increment(stale.getKey(), -stale.getValue());
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    private int reconcileDue(String itemType, List<Object[]> rows) {
+        Map<String, Long> observed = workItemDueStatRepository.findByItemType(itemType)
+                .stream()
+                .collect(Collectors.toMap(WorkItemDueStat::getId, WorkItemDueStat::getItemCount));
+        int fixed = 0;
+
+        for (Object[] row : rows) {
+            Long userStory = (Long) row[0];
+            LocalDate dueDate = (LocalDate) row[1];
+            Long current = observed.remove(Key.dueId(itemType, userStory, dueDate));
+            long delta = (Long) row[2] - (current == null ? 0 : current);
+            if (delta != 0) {
+                applyDue(itemType, userStory, dueDate, delta);
+                fixed++;
+            }
+        }
+        for (Map.Entry<String, Long> stale : observed.entrySet()) {
+            if (stale.getValue() != 0) {
+                workItemDueStatRepository.increment(stale.getKey(), -stale.getValue());
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,112 @@
+package com.task.taskservice.Service;
+
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Entity.WorkItem;
+import com.task.taskservice.Repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Résolution des références à des tâches par titre (colonne normalizedTitle indexée) ou par id (#T&lt;id&gt;) :
+ * une requête par type de référence pour tout un lot de commits, au lieu de charger toutes les tâches
+ * d'une user story pour comparer les titres un à un.
+ */
+@Service
+public class WorkItemTitleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkItemTitleIndex.class);
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public WorkItemTitleIndex(TaskRepository taskRepository, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Tâches d'un projet référencées par un lot : par titre normalisé et par id.
+     */
+    public static final class Lookup {
+        private final Map<String, List<Task>> byTitle;
+        private final Map<Long, Task> byId;
+
+        Lookup(Map<String, List<Task>> byTitle, Map<Long, Task> byId) {
+            this.byTitle = byTitle;
+            this.byId = byId;
+        }
+
+        // Tâche de la user story portant ce titre (même clé normalisée)
+        public Optional<Task> byTitle(String title, Long userStoryId) {
+            return byTitle.getOrDefault(WorkItem.normalizeTitle(title), List.of()).stream()
+                    .filter(task -> Objects.equals(task.getUserStory(), userStoryId))
+                    .findFirst();
+        }
+
+        public Optional<Task> byId(Long taskId) {
+            return Optional.ofNullable(byId.get(taskId));
+        }
+    }
+
+    public Lookup resolve(Long projectId, Collection<String> titles, Collection<Long> taskIds) {
+        Set<String> normalizedTitles = titles.stream()
+                .map(WorkItem::normalizeTitle)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, List<Task>> byTitle = normalizedTitles.isEmpty()
+                ? new HashMap<>()
+                : taskRepository.findByProjectIdAndNormalizedTitleIn(projectId, normalizedTitles).stream()
+                        .collect(Collectors.groupingBy(Task::getNormalizedTitle));
+        Map<Long, Task> byId = taskIds.isEmpty()
+                ? new HashMap<>()
+                : taskRepository.findByProjectIdAndIdIn(projectId, Set.copyOf(taskIds)).stream()
+                        .collect(Collectors.toMap(Task::getId, task -> task));
+        return new Lookup(byTitle, byId);
+    }
+
+    // Première tâche (la plus ancienne) portant ce titre, tous projets confondus
+    public Optional<Task> findByTitle(String title) {
+        String normalized = WorkItem.normalizeTitle(title);
+        return normalized == null ? Optional.empty() : taskRepository.findFirstByNormalizedTitleOrderByIdAsc(normalized);
+    }
+
+    /**
+     * Remplit normalizedTitle pour les lignes créées avant la colonne (ddl-auto=update l'ajoute à null),
+     * par lots de BACKFILL_BATCH_SIZE, une transaction par lot ; sans effet une fois la colonne remplie.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int updated;
+        do {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Object[]> rows = taskRepository.findTitlesWithoutNormalizedTitle(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    taskRepository.updateNormalizedTitle((Long) row[0], WorkItem.normalizeTitle((String) row[1]));
+                }
+                return rows.size();
+            });
+            updated = batch != null ? batch : 0;
+            total += updated;
+        } while (updated == BACKFILL_BATCH_SIZE);
+        if (total > 0) {
+            logger.info("Titre normalisé renseigné pour {} work item(s) existant(s)", total);
+        }
+    }
+}
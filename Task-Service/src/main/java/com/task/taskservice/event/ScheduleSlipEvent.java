@@ -0,0 +1,71 @@
+package com.task.taskservice.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Événement publié sur le topic schedule-events quand une modification de tâche repousse la fin projetée
+ * du projet au-delà du seuil configuré, ou fait passer des tâches en retard sur leur échéance.
+ * Les durées sont en minutes de travail.
+ */
+public class ScheduleSlipEvent {
+    @JsonProperty("projectId")
+    private final Long projectId;
+
+    @JsonProperty("taskId")
+    private final Long taskId;
+
+    @JsonProperty("slipMinutes")
+    private final long slipMinutes;
+
+    @JsonProperty("projectedEndDate")
+    private final LocalDate projectedEndDate;
+
+    @JsonProperty("lateTaskIds")
+    private final List<Long> lateTaskIds;
+
+    @JsonProperty("occurredAt")
+    private final LocalDateTime occurredAt;
+
+    public ScheduleSlipEvent(
+            @JsonProperty("projectId") Long projectId,
+            @JsonProperty("taskId") Long taskId,
+            @JsonProperty("slipMinutes") long slipMinutes,
+            @JsonProperty("projectedEndDate") LocalDate projectedEndDate,
+            @JsonProperty("lateTaskIds") List<Long> lateTaskIds,
+            @JsonProperty("occurredAt") LocalDateTime occurredAt) {
+        this.projectId = projectId;
+        this.taskId = taskId;
+        this.slipMinutes = slipMinutes;
+        this.projectedEndDate = projectedEndDate;
+        this.lateTaskIds = lateTaskIds;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public long getSlipMinutes() {
+        return slipMinutes;
+    }
+
+    public LocalDate getProjectedEndDate() {
+        return projectedEndDate;
+    }
+
+    public List<Long> getLateTaskIds() {
+        return lateTaskIds;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -3,10 +3,13 @@ package com.task.taskservice.unit.Controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.task.taskservice.Controller.TaskController;
+import com.task.taskservice.DTO.CursorPageDTO;
 import com.task.taskservice.DTO.DashboardStatsDTO;
 import com.task.taskservice.DTO.TaskCalendarDTO;
 import com.task.taskservice.DTO.TaskDTO;
+import com.task.taskservice.DTO.TaskSummaryDTO;
 import com.task.taskservice.DTO.TimeEntryDTO;
+import com.task.taskservice.DTO.WorkItemFilterDTO;
 import com.task.taskservice.DTO.WorkItemHistoryDTO;
 import com.task.taskservice.Entity.Task;
 import com.task.taskservice.Enumeration.WorkItemStatus;
@@ -250,6 +253,43 @@ class TaskControllerTest {
         verify(taskService).getTasksOfActiveSprint(eq(1L), eq(token));
     }
 
+    @Test
+    void getTasksPage_shouldBindFiltersAndReturnNextCursor() throws Exception {
+        String token = "Bearer valid-token";
+        when(taskService.getTasksPage(eq(1L), any(WorkItemFilterDTO.class), eq("abc"), eq(20), eq(token)))
+                .thenReturn(new CursorPageDTO<>(Arrays.asList(taskDTO), "next"));
+
+        mockMvc.perform(get("/api/project/tasks/1/page")
+                        .param("cursor", "abc")
+                        .param("size", "20")
+                        .param("status", "IN_PROGRESS")
+                        .param("assignee", "user1")
+                        .param("dueFrom", "2025-01-01")
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(taskService).getTasksPage(eq(1L), argThat(filter ->
+                filter.getStatus() == WorkItemStatus.IN_PROGRESS
+                        && "user1".equals(filter.getAssignee())
+                        && LocalDate.of(2025, 1, 1).equals(filter.getDueFrom())
+                        && filter.getDueTo() == null), eq("abc"), eq(20), eq(token));
+    }
+
+    @Test
+    void getTasksPage_shouldReturnBadRequest_whenCursorInvalid() throws Exception {
+        String token = "Bearer valid-token";
+        when(taskService.getTasksPage(eq(1L), any(WorkItemFilterDTO.class), eq("bad"), any(), eq(token)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/project/tasks/1/page")
+                        .param("cursor", "bad")
+                        .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getTasksByUserAndActiveSprints_shouldReturnTaskDTOList() throws Exception {
         String token = "Bearer valid-token";
@@ -424,9 +464,9 @@ class TaskControllerTest {
     }
 
     @Test
-    void getPotentialDependencies_shouldReturnTaskDTOList() throws Exception {
+    void getPotentialDependencies_shouldReturnTaskSummaryList() throws Exception {
         String token = "Bearer valid-token";
-        List<TaskDTO> tasks = Arrays.asList(taskDTO);
+        List<TaskSummaryDTO> tasks = Arrays.asList(new TaskSummaryDTO(1L, "Test Task", WorkItemStatus.TO_DO, 1L, 1L));
         when(taskService.getPotentialDependencies(eq(1L), eq(token))).thenReturn(tasks);
 
         mockMvc.perform(get("/api/project/tasks/1/potential-dependencies")
@@ -470,6 +510,27 @@ class TaskControllerTest {
         verify(taskService).getTaskHistoryWithAuthorNames(eq(1L), eq(token));
     }
 
+    @Test
+    void getTaskHistoryPage_shouldReturnPage_andRejectInvalidCursor() throws Exception {
+        String token = "Bearer valid-token";
+        when(taskService.getTaskHistoryPage(eq(1L), isNull(), eq(20), eq(token)))
+                .thenReturn(new CursorPageDTO<>(Arrays.asList(historyDTO), "next"));
+        when(taskService.getTaskHistoryPage(eq(1L), eq("bad"), isNull(), eq(token)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/project/tasks/1/history/page")
+                        .param("size", "20")
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        mockMvc.perform(get("/api/project/tasks/1/history/page")
+                        .param("cursor", "bad")
+                        .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getTasksByProjectId_shouldReturnTaskList() throws Exception {
         List<Task> tasks = Arrays.asList(task);
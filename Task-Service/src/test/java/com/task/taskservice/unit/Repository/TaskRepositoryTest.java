@@ -1,24 +1,38 @@
 package com.task.taskservice.unit.Repository;
 
+import com.task.taskservice.DTO.TaskBriefProjection;
+import com.task.taskservice.DTO.TaskCalendarDTO;
+import com.task.taskservice.DTO.TaskDTO;
+import com.task.taskservice.DTO.TaskSummaryDTO;
+import com.task.taskservice.DTO.WorkItemFilterDTO;
 import com.task.taskservice.Entity.FileAttachment;
+import com.task.taskservice.Entity.Tag;
 import com.task.taskservice.Entity.Task;
 import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Mapper.TaskMapper;
 import com.task.taskservice.Repository.TaskRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class TaskRepositoryTest {
 
     @Autowired
@@ -110,6 +124,35 @@ class TaskRepositoryTest {
         assertTrue(tasks.stream().anyMatch(t -> t.getTitle().equals("Task 2")));
     }
 
+    @Test
+    void findByProjectIdAndNormalizedTitleIn_shouldIgnoreCaseAccentsAndSpaces() {
+        // Arrange
+        Task task1 = new Task();
+        task1.setTitle("  Écran   de Connexion ");
+        task1.setProjectId(1L);
+        Task task2 = new Task();
+        task2.setTitle("Ecran de connexion");
+        task2.setProjectId(2L);
+        Task task3 = new Task();
+        task3.setTitle("Export CSV");
+        task3.setProjectId(1L);
+        entityManager.persist(task1);
+        entityManager.persist(task2);
+        entityManager.persist(task3);
+        entityManager.flush();
+
+        // Act
+        List<Task> tasks = taskRepository.findByProjectIdAndNormalizedTitleIn(1L,
+                List.of(Task.normalizeTitle("ecran de connexion"), Task.normalizeTitle("EXPORT  csv")));
+        Optional<Task> first = taskRepository.findFirstByNormalizedTitleOrderByIdAsc("ecran de connexion");
+
+        // Assert
+        assertEquals(2, tasks.size());
+        assertEquals("ecran de connexion", task1.getNormalizedTitle());
+        assertTrue(first.isPresent());
+        assertEquals(task1.getId(), first.get().getId());
+    }
+
     @Test
     void findByProjectId_shouldReturnTasks_whenMatching() {
         // Arrange
@@ -395,4 +438,193 @@ class TaskRepositoryTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllWithDetailsByIdIn_shouldMapSprintOf500Tasks_inConstantNumberOfStatements() {
+        // Arrange : 500 tâches avec assigné, tag, pièce jointe et dépendance
+        Tag tag = new Tag();
+        tag.setName("backend");
+        entityManager.persist(tag);
+        Task previous = null;
+        for (int i = 0; i < 500; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setProjectId(1L);
+            task.setUserStory(2L);
+            task.setAssignedUserIds(new HashSet<>(Collections.singletonList("user" + (i % 10))));
+            task.setTags(new HashSet<>(Collections.singletonList(tag)));
+            task.setAttachments(new ArrayList<>(Collections.singletonList(new FileAttachment(
+                    "file" + i + ".png", "image/png", 10L, "http://files/file" + i + ".png", "public" + i, "user1"))));
+            task.setDependencies(previous != null ? new ArrayList<>(Collections.singletonList(previous)) : new ArrayList<>());
+            entityManager.persist(task);
+            previous = task;
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        TaskMapper taskMapper = new TaskMapper(); // pas de PDF : CloudinaryService n'est pas sollicité
+
+        // Act
+        List<TaskDTO> dtos = taskRepository.findAllWithDetailsByIdIn(taskRepository.findIdsByUserStoryIn(Arrays.asList(2L)))
+                .stream()
+                .map(taskMapper::toDTO)
+                .collect(Collectors.toList());
+
+        // Assert : ids + une requête par collection (assignés, tags, dépendances, pièces jointes)
+        assertEquals(500, dtos.size());
+        assertTrue(dtos.stream().allMatch(dto -> dto.getAssignedUserIds().size() == 1
+                && dto.getTags().size() == 1
+                && dto.getAttachments().size() == 1));
+        assertEquals(499, dtos.stream().filter(dto -> dto.getDependencyIds().size() == 1).count());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 5, "Expected at most 5 statements to map 500 tasks but got " + statements);
+    }
+
+    @Test
+    void findCalendarByUserStoryIn_shouldProjectDatesOnly() {
+        // Arrange
+        Task task = new Task();
+        task.setTitle("Calendar Task");
+        task.setUserStory(2L);
+        task.setStartDate(LocalDate.of(2025, 1, 1));
+        task.setDueDate(LocalDate.of(2025, 1, 5));
+        entityManager.persist(task);
+        entityManager.flush();
+
+        // Act
+        List<TaskCalendarDTO> results = taskRepository.findCalendarByUserStoryIn(Arrays.asList(2L));
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals("Calendar Task", results.get(0).getTitle());
+        assertEquals(LocalDate.of(2025, 1, 1), results.get(0).getStartDate());
+        assertEquals(LocalDate.of(2025, 1, 5), results.get(0).getDueDate());
+    }
+
+    @Test
+    void findPotentialDependencies_shouldExcludeTaskAndExistingDependencies() {
+        // Arrange
+        Task dependency = new Task();
+        dependency.setTitle("Already a dependency");
+        dependency.setProjectId(1L);
+        entityManager.persist(dependency);
+        Task candidate = new Task();
+        candidate.setTitle("Candidate");
+        candidate.setProjectId(1L);
+        candidate.setStatus(WorkItemStatus.TO_DO);
+        entityManager.persist(candidate);
+        Task otherProject = new Task();
+        otherProject.setTitle("Other project");
+        otherProject.setProjectId(2L);
+        entityManager.persist(otherProject);
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setProjectId(1L);
+        task.setDependencies(new ArrayList<>(Collections.singletonList(dependency)));
+        entityManager.persist(task);
+        entityManager.flush();
+
+        // Act
+        List<TaskSummaryDTO> results = taskRepository.findPotentialDependencies(1L, task.getId());
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(candidate.getId(), results.get(0).getId());
+        assertEquals("Candidate", results.get(0).getTitle());
+        assertEquals(WorkItemStatus.TO_DO, results.get(0).getStatus());
+    }
+
+    @Test
+    void lockDependencyIdsByTaskIdIn_shouldReturnDependenciesAcrossProjects() {
+        // Arrange : tâche du projet 1 dépendant d'une tâche du projet 2
+        Task dependency = new Task();
+        dependency.setTitle("Other project dependency");
+        dependency.setProjectId(2L);
+        entityManager.persist(dependency);
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setProjectId(1L);
+        task.setDependencies(new ArrayList<>(Collections.singletonList(dependency)));
+        entityManager.persist(task);
+        entityManager.flush();
+
+        // Act
+        List<Object[]> rows = taskRepository.lockDependencyIdsByTaskIdIn(List.of(task.getId(), dependency.getId()));
+
+        // Assert : une ligne par arc, (id, null) pour la tâche sans dépendance
+        assertEquals(2, rows.size());
+        Map<Long, Long> dependencies = new HashMap<>();
+        rows.forEach(row -> dependencies.put((Long) row[0], (Long) row[1]));
+        assertEquals(dependency.getId(), dependencies.get(task.getId()));
+        assertTrue(dependencies.containsKey(dependency.getId()));
+        assertNull(dependencies.get(dependency.getId()));
+    }
+
+    @Test
+    void findBriefByPriority_shouldReturnProjection() {
+        // Arrange
+        Task task = new Task();
+        task.setTitle("Urgent");
+        task.setPriority(WorkItemPriority.HIGH);
+        task.setDueDate(LocalDate.of(2025, 2, 1));
+        entityManager.persist(task);
+        entityManager.flush();
+
+        // Act
+        List<TaskBriefProjection> results = taskRepository.findBriefByPriority(WorkItemPriority.HIGH);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(task.getId(), results.get(0).getId());
+        assertEquals("Urgent", results.get(0).getTitle());
+        assertEquals(LocalDate.of(2025, 2, 1), results.get(0).getDueDate());
+    }
+
+    @Test
+    void findPageIdsByProjectId_shouldPageByIdAfterCursor_withFilters() {
+        // Arrange : 5 tâches du projet 1, dont 3 HIGH ; la 4e HIGH a le tag et l'assigné recherchés
+        Tag backend = new Tag();
+        backend.setName("backend");
+        entityManager.persist(backend);
+        List<Long> highIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setProjectId(1L);
+            task.setPriority(i % 2 == 0 ? WorkItemPriority.HIGH : WorkItemPriority.LOW);
+            task.setDueDate(LocalDate.of(2025, 1, 10 + i));
+            if (i == 4) {
+                task.setTags(new HashSet<>(Collections.singletonList(backend)));
+                task.setAssignedUserIds(new HashSet<>(Collections.singletonList("user1")));
+            }
+            entityManager.persist(task);
+            if (i % 2 == 0) {
+                highIds.add(task.getId());
+            }
+        }
+        Task otherProject = new Task();
+        otherProject.setProjectId(2L);
+        otherProject.setPriority(WorkItemPriority.HIGH);
+        entityManager.persist(otherProject);
+        entityManager.flush();
+
+        WorkItemFilterDTO high = new WorkItemFilterDTO(null, WorkItemPriority.HIGH, null, null, null, null);
+
+        // Act : pages de 2 (limite 3 pour détecter la page suivante)
+        List<Long> first = taskRepository.findPageIdsByProjectId(1L, 0L, high, 3);
+        List<Long> second = taskRepository.findPageIdsByProjectId(1L, highIds.get(1), high, 3);
+        List<Long> tagged = taskRepository.findPageIdsByProjectId(1L, 0L,
+                new WorkItemFilterDTO(null, null, "user1", "backend", LocalDate.of(2025, 1, 14), LocalDate.of(2025, 1, 14)), 3);
+        List<Long> dueRange = taskRepository.findPageIdsByProjectId(1L, 0L,
+                new WorkItemFilterDTO(null, null, null, null, LocalDate.of(2025, 1, 11), LocalDate.of(2025, 1, 12)), 10);
+
+        // Assert
+        assertEquals(highIds, first);
+        assertEquals(Collections.singletonList(highIds.get(2)), second);
+        assertEquals(Collections.singletonList(highIds.get(2)), tagged);
+        assertEquals(2, dueRange.size());
+    }
+}
@@ -0,0 +1,179 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Configuration.ProjectClient;
+import com.task.taskservice.Service.ActiveSprintCache;
+import com.task.taskservice.event.ActiveSprintChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ActiveSprintCacheTest {
+
+    @Mock
+    private ProjectClient projectClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ActiveSprintCache activeSprintCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        activeSprintCache = new ActiveSprintCache(projectClient, meterRegistry, 600_000, 30_000, 1_000);
+    }
+
+    @Test
+    void getActiveStoryIds_shouldCallProjectServiceOnce_forRepeatedBoardReads() {
+        // Arrange
+        when(projectClient.getUserStoriesOfActiveSprint(1L)).thenReturn(Arrays.asList(10L, 11L));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(10L, 11L), activeSprintCache.getActiveStoryIds(1L));
+        }
+
+        // Assert
+        verify(projectClient, times(1)).getUserStoriesOfActiveSprint(1L);
+        assertEquals(4.0, meterRegistry.counter("active.sprint.cache.requests", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("active.sprint.cache.requests", "result", "miss").count());
+    }
+
+    @Test
+    void onActiveSprintChanged_shouldReplaceCachedIds_withoutRemoteCall() {
+        // Arrange
+        when(projectClient.getUserStoriesOfActiveSprint(1L)).thenReturn(Arrays.asList(10L, 11L));
+        activeSprintCache.getActiveStoryIds(1L);
+
+        // Act : une user story est ajoutée au sprint actif
+        activeSprintCache.onActiveSprintChanged(new ActiveSprintChangedEvent(
+                1L, 5L, "STORY_ASSIGNED", Arrays.asList(10L, 11L, 12L), LocalDateTime.now()));
+
+        // Assert
+        assertEquals(List.of(10L, 11L, 12L), activeSprintCache.getActiveStoryIds(1L));
+        verify(projectClient, times(1)).getUserStoriesOfActiveSprint(1L);
+    }
+
+    @Test
+    void onActiveSprintChanged_shouldPopulateCache_forProjectNeverRead() {
+        // Act : activation d'un sprint
+        activeSprintCache.onActiveSprintChanged(new ActiveSprintChangedEvent(
+                2L, 7L, "SPRINT_ACTIVATED", Arrays.asList(20L, 21L), LocalDateTime.now()));
+
+        // Assert
+        assertEquals(List.of(20L, 21L), activeSprintCache.getActiveStoryIds(2L));
+        verifyNoInteractions(projectClient);
+    }
+
+    @Test
+    void onActiveSprintChanged_shouldEmptyCache_whenSprintCompleted() {
+        // Arrange
+        when(projectClient.getUserStoriesOfActiveSprint(1L)).thenReturn(Arrays.asList(10L, 11L));
+        activeSprintCache.getActiveStoryIds(1L);
+
+        // Act
+        activeSprintCache.onActiveSprintChanged(new ActiveSprintChangedEvent(
+                1L, 5L, "SPRINT_COMPLETED", Collections.emptyList(), LocalDateTime.now()));
+
+        // Assert
+        assertTrue(activeSprintCache.getActiveStoryIds(1L).isEmpty());
+        verify(projectClient, times(1)).getUserStoriesOfActiveSprint(1L);
+    }
+
+    @Test
+    void onActiveSprintChanged_shouldInvalidate_whenEventHasNoSnapshot() {
+        // Arrange
+        when(projectClient.getUserStoriesOfActiveSprint(1L))
+                .thenReturn(Arrays.asList(10L))
+                .thenReturn(Arrays.asList(10L, 12L));
+        activeSprintCache.getActiveStoryIds(1L);
+
+        // Act
+        activeSprintCache.onActiveSprintChanged(new ActiveSprintChangedEvent(1L, 5L, "STORY_DELETED", null, LocalDateTime.now()));
+
+        // Assert
+        assertEquals(List.of(10L, 12L), activeSprintCache.getActiveStoryIds(1L));
+        verify(projectClient, times(2)).getUserStoriesOfActiveSprint(1L);
+        assertEquals(1.0, meterRegistry.counter("active.sprint.cache.events", "action", "invalidate").count());
+    }
+
+    @Test
+    void getActiveStoryIds_shouldReloadEmptyList_afterShortTtl() throws InterruptedException {
+        // Arrange : liste vide (pas de sprint actif) gardée peu de temps
+        activeSprintCache = new ActiveSprintCache(projectClient, meterRegistry, 600_000, 1, 1_000);
+        when(projectClient.getUserStoriesOfActiveSprint(1L))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Arrays.asList(10L));
+
+        // Act
+        List<Long> first = activeSprintCache.getActiveStoryIds(1L);
+        Thread.sleep(20);
+        List<Long> second = activeSprintCache.getActiveStoryIds(1L);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertEquals(List.of(10L), second);
+    }
+
+    @Test
+    void getActiveStoryIdsByProject_shouldFetchOnlyMissingProjects_inOneCall() {
+        // Arrange : le projet 1 est déjà en cache
+        when(projectClient.getUserStoriesOfActiveSprint(1L)).thenReturn(Arrays.asList(10L));
+        activeSprintCache.getActiveStoryIds(1L);
+        when(projectClient.getUserStoriesOfActiveSprints(Arrays.asList(2L, 3L)))
+                .thenReturn(Map.of(2L, Arrays.asList(20L, 21L)));
+
+        // Act
+        Map<Long, List<Long>> result = activeSprintCache.getActiveStoryIdsByProject(Arrays.asList(1L, 2L, 3L));
+
+        // Assert : le projet 3 absent de la réponse n'a pas de sprint actif
+        assertEquals(List.of(10L), result.get(1L));
+        assertEquals(List.of(20L, 21L), result.get(2L));
+        assertTrue(result.get(3L).isEmpty());
+        verify(projectClient, times(1)).getUserStoriesOfActiveSprints(Arrays.asList(2L, 3L));
+
+        // Un second appel est servi entièrement par le cache
+        activeSprintCache.getActiveStoryIdsByProject(Arrays.asList(1L, 2L, 3L));
+        verify(projectClient, times(1)).getUserStoriesOfActiveSprints(anyList());
+    }
+
+    @Test
+    void getActiveStoryIdsByProject_shouldNotCacheFallbackResponse() {
+        // Arrange : Project_Service indisponible (fallback Feign), puis de retour
+        when(projectClient.getUserStoriesOfActiveSprints(Arrays.asList(2L, 3L)))
+                .thenReturn(null)
+                .thenReturn(Map.of(2L, Arrays.asList(20L)));
+
+        // Act
+        Map<Long, List<Long>> degraded = activeSprintCache.getActiveStoryIdsByProject(Arrays.asList(2L, 3L));
+        Map<Long, List<Long>> recovered = activeSprintCache.getActiveStoryIdsByProject(Arrays.asList(2L, 3L));
+
+        // Assert : réponse vide sans entrée en cache, le second appel relit Project_Service
+        assertTrue(degraded.get(2L).isEmpty());
+        assertTrue(degraded.get(3L).isEmpty());
+        assertEquals(List.of(20L), recovered.get(2L));
+        verify(projectClient, times(2)).getUserStoriesOfActiveSprints(anyList());
+    }
+
+    @Test
+    void getActiveStoryIds_shouldNotCacheFallbackResponse() {
+        // Arrange
+        when(projectClient.getUserStoriesOfActiveSprint(1L))
+                .thenReturn(null)
+                .thenReturn(Arrays.asList(10L));
+
+        // Act & Assert
+        assertTrue(activeSprintCache.getActiveStoryIds(1L).isEmpty());
+        assertEquals(List.of(10L), activeSprintCache.getActiveStoryIds(1L));
+    }
+}
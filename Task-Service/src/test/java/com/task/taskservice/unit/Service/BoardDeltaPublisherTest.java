@@ -0,0 +1,202 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.DTO.BoardDeltaDTO;
+import com.task.taskservice.DTO.BoardFrameDTO;
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Service.ActiveSprintCache;
+import com.task.taskservice.Service.BoardDeltaPublisher;
+import com.task.taskservice.Service.ChangeVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BoardDeltaPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ActiveSprintCache activeSprintCache;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoardDeltaPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new BoardDeltaPublisher(messagingTemplate, activeSprintCache, changeVersionService, meterRegistry,
+                50, 100, 60_000);
+        when(activeSprintCache.getActiveStoryIds(1L)).thenReturn(List.of(10L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    private static Task task(long id, Long userStoryId) {
+        Task task = new Task();
+        task.setId(id);
+        task.setProjectId(1L);
+        task.setUserStory(userStoryId);
+        task.setTitle("Task " + id);
+        task.setStatus(WorkItemStatus.TO_DO);
+        task.setPriority(WorkItemPriority.MEDIUM);
+        task.setAssignedUserIds(Set.of("dev1"));
+        return task;
+    }
+
+    private List<BoardFrameDTO> frames(int expected) {
+        ArgumentCaptor<BoardFrameDTO> frames = ArgumentCaptor.forClass(BoardFrameDTO.class);
+        verify(messagingTemplate, timeout(2000).times(expected)).convertAndSend(eq("/topic/boards/1"), frames.capture());
+        return frames.getAllValues();
+    }
+
+    @Test
+    void updated_shouldCoalesceBulkMoveIntoOneFrameWithChangedFieldsOnly() {
+        // Arrange
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 80; id++) {
+            tasks.add(task(id, 10L));
+        }
+
+        // Act : 80 tâches passent à IN_PROGRESS dans la même fenêtre
+        for (Task task : tasks) {
+            Map<String, Object> before = publisher.snapshot(task);
+            task.setStatus(WorkItemStatus.IN_PROGRESS);
+            publisher.updated(before, task);
+        }
+
+        // Assert : une seule trame, deltas réduits au statut
+        BoardFrameDTO frame = frames(1).get(0);
+        assertEquals(1L, frame.getSeq());
+        assertFalse(frame.isResync());
+        assertEquals(80, frame.getDeltas().size());
+        BoardDeltaDTO delta = frame.getDeltas().get(0);
+        assertEquals(BoardDeltaDTO.UPSERT, delta.getOp());
+        assertEquals("TASK", delta.getItemType());
+        assertEquals(Map.of("status", "IN_PROGRESS"), delta.getFields());
+        assertEquals(80.0, meterRegistry.counter("board.deltas.enqueued").count());
+    }
+
+    @Test
+    void updated_shouldMergeChangesOfTheSameItemAndLetDeleteWin() {
+        // Arrange
+        Task task = task(1L, 10L);
+        Bug bug = new Bug();
+        bug.setId(2L);
+        bug.setProjectId(1L);
+        bug.setUserStory(10L);
+
+        // Act
+        Map<String, Object> before = publisher.snapshot(task);
+        task.setStatus(WorkItemStatus.IN_PROGRESS);
+        publisher.updated(before, task);
+        before = publisher.snapshot(task);
+        task.setTitle("Renamed");
+        publisher.updated(before, task);
+        publisher.updated(publisher.snapshot(task), task); // sans changement : ignoré
+        publisher.created(bug);
+        publisher.deleted(bug);
+
+        // Assert
+        List<BoardDeltaDTO> deltas = frames(1).get(0).getDeltas();
+        assertEquals(2, deltas.size());
+        assertEquals(Map.of("status", "IN_PROGRESS", "title", "Renamed"), deltas.get(0).getFields());
+        assertEquals(BoardDeltaDTO.DELETE, deltas.get(1).getOp());
+        assertEquals("BUG", deltas.get(1).getItemType());
+        assertNull(deltas.get(1).getFields());
+    }
+
+    @Test
+    void flush_shouldSkipItemsOutsideActiveSprintAndNumberFramesPerBoard() throws InterruptedException {
+        // Act : une tâche du backlog seule, puis deux fenêtres pour le sprint actif
+        publisher.created(task(1L, 99L));
+        publisher.created(task(2L, null));
+        Thread.sleep(200);
+        publisher.created(task(3L, 10L));
+        Thread.sleep(200);
+        publisher.created(task(4L, 10L));
+
+        // Assert : aucun numéro consommé par la fenêtre vide
+        List<BoardFrameDTO> frames = frames(2);
+        assertEquals(1L, frames.get(0).getSeq());
+        assertEquals(2L, frames.get(1).getSeq());
+        assertEquals(frames.get(0).getEpoch(), frames.get(1).getEpoch());
+        assertEquals(3L, frames.get(0).getDeltas().get(0).getId());
+        assertEquals("Task 3", frames.get(0).getDeltas().get(0).getFields().get("title"));
+    }
+
+    @Test
+    void flush_shouldAskForResync_whenWindowExceedsMaxDeltas() {
+        // Act
+        for (long id = 1; id <= 150; id++) {
+            publisher.created(task(id, 10L));
+        }
+
+        // Assert
+        BoardFrameDTO frame = frames(1).get(0);
+        assertTrue(frame.isResync());
+        assertTrue(frame.getDeltas().isEmpty());
+        assertEquals(1.0, meterRegistry.counter("board.frames.sent", "resync", "true").count());
+    }
+
+    private static Message<byte[]> stomp(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void announceVersions_shouldSendVersionOfSubscribedBoardsOnlyWhenItChanged() {
+        // Arrange : un client abonné au tableau du projet 1, écritures faites sur une autre instance
+        publisher.subscribed(new SessionSubscribeEvent(this, stomp(StompCommand.SUBSCRIBE, "/topic/boards/1")));
+        when(changeVersionService.currentVersion(1L)).thenReturn(7L, 7L, 9L);
+
+        // Act
+        publisher.announceVersions();
+        publisher.announceVersions();
+        publisher.announceVersions();
+
+        // Assert : versions 7 puis 9, trames sans deltas numérotées comme les autres
+        List<BoardFrameDTO> frames = frames(2);
+        assertEquals(7L, frames.get(0).getVersion());
+        assertEquals(9L, frames.get(1).getVersion());
+        assertTrue(frames.get(1).getDeltas().isEmpty());
+        assertEquals(2L, frames.get(1).getSeq());
+
+        // Plus d'abonné : plus d'annonce
+        publisher.unsubscribed(new SessionUnsubscribeEvent(this, stomp(StompCommand.UNSUBSCRIBE, null)));
+        publisher.announceVersions();
+        verify(changeVersionService, times(3)).currentVersion(1L);
+    }
+}
@@ -1,7 +1,8 @@
 package com.task.taskservice.unit.Service;
 
-import com.task.taskservice.Configuration.AuthClient;
-import com.task.taskservice.Configuration.ProjectClient;
+import com.common.security.JwtTokenVerifier;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import com.task.taskservice.DTO.*;
 import com.task.taskservice.Entity.*;
 import com.task.taskservice.Enumeration.WorkItemPriority;
@@ -10,8 +11,14 @@ import com.task.taskservice.Mapper.BugMapper;
 import com.task.taskservice.Repository.BugRepository;
 import com.task.taskservice.Repository.FileAttachmentRepository;
 import com.task.taskservice.Repository.TagRepository;
+import com.task.taskservice.Service.ActiveSprintCache;
+import com.task.taskservice.Service.BoardDeltaPublisher;
+import com.task.taskservice.Service.ChangeVersionService;
 import com.task.taskservice.Service.BugService;
 import com.task.taskservice.Service.CloudinaryService;
+import com.task.taskservice.Service.WorkItemFacetIndex;
+import com.task.taskservice.Service.WorkItemSearchIndexer;
+import com.task.taskservice.Service.WorkItemStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -40,10 +47,10 @@ public class BugServiceTest {
     private BugMapper bugMapper;
 
     @Mock
-    private AuthClient authClient;
+    private UserDirectoryClient userDirectoryClient;
 
     @Mock
-    private ProjectClient projectClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private CloudinaryService cloudinaryService;
@@ -51,6 +58,24 @@ public class BugServiceTest {
     @Mock
     private FileAttachmentRepository fileAttachmentRepository;
 
+    @Mock
+    private ActiveSprintCache activeSprintCache;
+
+    @Mock
+    private WorkItemStatsService workItemStatsService;
+
+    @Mock
+    private BoardDeltaPublisher boardDeltaPublisher;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private WorkItemSearchIndexer searchIndexer;
+
+    @Mock
+    private WorkItemFacetIndex facetIndex;
+
     @InjectMocks
     private BugService bugService;
 
@@ -115,7 +140,7 @@ public class BugServiceTest {
         savedBugDTO.setAssignedUserIds(Arrays.asList("user2", "user3"));
         savedBugDTO.setTags(new HashSet<>(Arrays.asList("tag1", "tag2")));
 
-        when(authClient.decodeToken(token)).thenReturn(createdBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(createdBy);
         when(bugMapper.toEntity(bugDTO)).thenReturn(bug);
         when(tagRepository.findByName("tag1")).thenReturn(Optional.of(tag1));
         when(tagRepository.findByName("tag2")).thenReturn(Optional.of(tag2));
@@ -136,7 +161,7 @@ public class BugServiceTest {
         assertEquals(savedBugDTO.getTags(), result.getTags());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugMapper).toEntity(bugDTO);
         verify(tagRepository).findByName("tag1");
         verify(tagRepository).findByName("tag2");
@@ -193,13 +218,14 @@ public class BugServiceTest {
         updatedBugDTO.setTags(new HashSet<>(Arrays.asList("tag1")));
         updatedBugDTO.setAssignedUsers(Arrays.asList(new UserDTO(), new UserDTO()));
 
-        when(authClient.decodeToken(token)).thenReturn(updatedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(updatedBy);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(existingBug));
         when(tagRepository.findByName("tag1")).thenReturn(Optional.of(new Tag()));
         when(bugRepository.save(any(Bug.class))).thenReturn(updatedBug);
         when(bugMapper.toDTO(updatedBug)).thenReturn(updatedBugDTO);
-        when(authClient.getUsersByIds(anyString(), eq(Arrays.asList("user2", "user3"))))
-                .thenReturn(Arrays.asList(new UserDTO(), new UserDTO()));
+        when(userDirectoryClient.getUsers(anyCollection())).thenReturn(Map.of(
+                "user2", new UserSummary("user2", "First", "User", "", true),
+                "user3", new UserSummary("user3", "Second", "User", "", true)));
 
         // Act
         BugDTO result = bugService.updateBug(bugId, bugDTO, token);
@@ -214,12 +240,13 @@ public class BugServiceTest {
         assertEquals(updatedBugDTO.getTags(), result.getTags());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verify(tagRepository).findByName("tag1");
         verify(bugRepository).save(any(Bug.class));
         verify(bugMapper).toDTO(updatedBug);
-        verify(authClient).getUsersByIds(anyString(), eq(Arrays.asList("user2", "user3")));
+        assertEquals(2, result.getAssignedUsers().size());
+        verify(userDirectoryClient).getUsers(anyCollection());
 
         // Verify history logging
         assertFalse(updatedBug.getHistory().isEmpty());
@@ -235,7 +262,7 @@ public class BugServiceTest {
         Long bugId = 1L;
         String token = "Bearer valid-token";
         BugDTO bugDTO = new BugDTO();
-        when(authClient.decodeToken(token)).thenReturn("user1");
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
         when(bugRepository.findById(bugId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -244,7 +271,7 @@ public class BugServiceTest {
         assertEquals("Bug not found with ID: " + bugId, exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verifyNoMoreInteractions(bugRepository, bugMapper, tagRepository);
     }
@@ -270,7 +297,7 @@ public class BugServiceTest {
         bugDTO.setUserStoryId(userStoryId);
         bugDTO.setTitle("Test Bug");
 
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
         when(bugMapper.toDTO(bug)).thenReturn(bugDTO);
 
@@ -284,7 +311,7 @@ public class BugServiceTest {
         assertEquals(bugDTO.getUserStoryId(), result.getUserStoryId());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verify(bugMapper).toDTO(bug);
     }
@@ -303,7 +330,7 @@ public class BugServiceTest {
         bug.setProjectId(999L); // Different project
         bug.setUserStory(999L); // Different user story
 
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
 
         // Act & Assert
@@ -312,7 +339,7 @@ public class BugServiceTest {
         assertEquals("Bug does not belong to the specified project or user story", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verifyNoInteractions(bugMapper);
     }
@@ -332,7 +359,7 @@ public class BugServiceTest {
         bugDTO.setId(bugId);
         bugDTO.setTitle("Test Bug");
 
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
         when(bugMapper.toDTO(bug)).thenReturn(bugDTO);
 
@@ -345,7 +372,7 @@ public class BugServiceTest {
         assertEquals(bugDTO.getTitle(), result.getTitle());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verify(bugMapper).toDTO(bug);
     }
@@ -385,8 +412,9 @@ public class BugServiceTest {
         bugDTO.setProjectId(projectId);
         bugDTO.setUserStoryId(userStoryId);
 
-        when(authClient.decodeToken(token)).thenReturn(userId);
-        when(bugRepository.findByProjectIdAndUserStory(projectId, userStoryId)).thenReturn(Arrays.asList(bug));
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
+        when(bugRepository.findIdsByProjectIdAndUserStory(projectId, userStoryId)).thenReturn(Arrays.asList(1L));
+        when(bugRepository.findAllWithDetailsByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(bug));
         when(bugMapper.toDTO(bug)).thenReturn(bugDTO);
 
         // Act
@@ -398,8 +426,9 @@ public class BugServiceTest {
         assertEquals(bugDTO.getId(), result.get(0).getId());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
-        verify(bugRepository).findByProjectIdAndUserStory(projectId, userStoryId);
+        verify(jwtTokenVerifier).currentUserId(token);
+        verify(bugRepository).findIdsByProjectIdAndUserStory(projectId, userStoryId);
+        verify(bugRepository).findAllWithDetailsByIdIn(Arrays.asList(1L));
         verify(bugMapper).toDTO(bug);
     }
 
@@ -418,8 +447,9 @@ public class BugServiceTest {
         bugDTO.setId(1L);
         bugDTO.setProjectId(projectId);
 
-        when(authClient.decodeToken(token)).thenReturn(userId);
-        when(bugRepository.findByProjectId(projectId)).thenReturn(Arrays.asList(bug));
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
+        when(bugRepository.findPageIdsByProjectId(eq(projectId), eq(0L), any(WorkItemFilterDTO.class), eq(1001))).thenReturn(Arrays.asList(1L));
+        when(bugRepository.findAllWithDetailsByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(bug));
         when(bugMapper.toDTO(bug)).thenReturn(bugDTO);
 
         // Act
@@ -431,11 +461,43 @@ public class BugServiceTest {
         assertEquals(bugDTO.getId(), result.get(0).getId());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
-        verify(bugRepository).findByProjectId(projectId);
+        verify(jwtTokenVerifier).currentUserId(token);
+        verify(bugRepository).findPageIdsByProjectId(eq(projectId), eq(0L), any(WorkItemFilterDTO.class), eq(1001));
+        verify(bugRepository).findAllWithDetailsByIdIn(Arrays.asList(1L));
         verify(bugMapper).toDTO(bug);
     }
 
+    @Test
+    void getBugsPage_shouldReturnNextCursor_whenMoreBugsRemain() {
+        // Arrange : size = 2, trois ids lus (size + 1) => une page suivante existe
+        Long projectId = 1L;
+        String token = "Bearer valid-token";
+        WorkItemFilterDTO filter = new WorkItemFilterDTO(WorkItemStatus.TO_DO, null, "user1", null, null, null);
+        Bug bug1 = new Bug();
+        bug1.setId(4L);
+        Bug bug2 = new Bug();
+        bug2.setId(7L);
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(bugRepository.findPageIdsByProjectId(projectId, 0L, filter, 3)).thenReturn(Arrays.asList(4L, 7L, 9L));
+        when(bugRepository.findAllWithDetailsByIdIn(Arrays.asList(4L, 7L))).thenReturn(Arrays.asList(bug1, bug2));
+        when(bugMapper.toDTO(any(Bug.class))).thenReturn(new BugDTO());
+
+        // Act
+        CursorPageDTO<BugDTO> page = bugService.getBugsPage(projectId, filter, null, 2, token);
+
+        // Assert : le 3e id n'est pas chargé, la page suivante reprend après le 7
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        verify(bugRepository).findAllWithDetailsByIdIn(Arrays.asList(4L, 7L));
+
+        when(bugRepository.findPageIdsByProjectId(projectId, 7L, filter, 3)).thenReturn(Arrays.asList(9L));
+        when(bugRepository.findAllWithDetailsByIdIn(Arrays.asList(9L))).thenReturn(Arrays.asList(new Bug()));
+        CursorPageDTO<BugDTO> last = bugService.getBugsPage(projectId, filter, page.getNextCursor(), 2, token);
+        assertEquals(1, last.getItems().size());
+        assertNull(last.getNextCursor());
+    }
+
     @Test
     void getBugsOfActiveSprint_shouldReturnBugDTOsWithUsers_whenValidInput() {
         // Arrange
@@ -453,16 +515,13 @@ public class BugServiceTest {
         bugDTO.setUserStoryId(userStoryId);
         bugDTO.setAssignedUserIds(Arrays.asList("user1", "user2"));
 
-        UserDTO user1 = new UserDTO();
-        user1.setId("user1");
-        UserDTO user2 = new UserDTO();
-        user2.setId("user2");
-
-        when(projectClient.getUserStoriesOfActiveSprint(projectId)).thenReturn(Arrays.asList(userStoryId));
-        when(bugRepository.findByUserStoryIn(Arrays.asList(userStoryId))).thenReturn(Arrays.asList(bug));
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(Arrays.asList(userStoryId));
+        when(bugRepository.findPageIdsByUserStoryIn(eq(Arrays.asList(userStoryId)), eq(0L), any(WorkItemFilterDTO.class), eq(1001))).thenReturn(Arrays.asList(1L));
+        when(bugRepository.findAllWithDetailsByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(bug));
         when(bugMapper.toDTO(bug)).thenReturn(bugDTO);
-        when(authClient.getUsersByIds(token, Arrays.asList("user1", "user2")))
-                .thenReturn(Arrays.asList(user1, user2));
+        when(userDirectoryClient.getUsers(new HashSet<>(Arrays.asList("user1", "user2")))).thenReturn(Map.of(
+                "user1", new UserSummary("user1", "First", "User", "", true),
+                "user2", new UserSummary("user2", "Second", "User", "", true)));
 
         // Act
         List<BugDTO> result = bugService.getBugsOfActiveSprint(projectId, token);
@@ -474,10 +533,11 @@ public class BugServiceTest {
         assertEquals(2, result.get(0).getAssignedUsers().size());
 
         // Verify interactions
-        verify(projectClient).getUserStoriesOfActiveSprint(projectId);
-        verify(bugRepository).findByUserStoryIn(Arrays.asList(userStoryId));
+        verify(activeSprintCache).getActiveStoryIds(projectId);
+        verify(bugRepository).findPageIdsByUserStoryIn(eq(Arrays.asList(userStoryId)), eq(0L), any(WorkItemFilterDTO.class), eq(1001));
+        verify(bugRepository).findAllWithDetailsByIdIn(Arrays.asList(1L));
         verify(bugMapper).toDTO(bug);
-        verify(authClient).getUsersByIds(token, Arrays.asList("user1", "user2"));
+        verify(userDirectoryClient).getUsers(new HashSet<>(Arrays.asList("user1", "user2")));
     }
 
     @Test
@@ -495,7 +555,7 @@ public class BugServiceTest {
         uploadResult.put("secure_url", "http://cloudinary.com/file");
         uploadResult.put("public_id", "file123");
 
-        when(authClient.decodeToken(token)).thenReturn(uploadedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(uploadedBy);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
         when(file.isEmpty()).thenReturn(false);
         when(file.getOriginalFilename()).thenReturn("test.pdf");
@@ -515,7 +575,7 @@ public class BugServiceTest {
         assertEquals("http://cloudinary.com/file", attachment.getFileUrl());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verify(cloudinaryService).uploadFile(file);
         verify(bugRepository).saveAndFlush(bug);
@@ -531,7 +591,7 @@ public class BugServiceTest {
         Bug bug = new Bug();
         bug.setId(bugId);
 
-        when(authClient.decodeToken(token)).thenReturn(uploadedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(uploadedBy);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
         when(file.isEmpty()).thenReturn(true);
 
@@ -541,7 +601,7 @@ public class BugServiceTest {
         assertEquals("File cannot be empty", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verifyNoInteractions(cloudinaryService, fileAttachmentRepository);
     }
@@ -576,31 +636,23 @@ public class BugServiceTest {
         Long projectId = 1L;
         String token = "Bearer valid-token";
         Long userStoryId = 2L;
+        DashboardStatsDTO stats = new DashboardStatsDTO(5L, 3L, 1L, 8L,
+                Map.of(WorkItemStatus.DONE.name(), 5L, WorkItemStatus.IN_PROGRESS.name(), 3L),
+                Map.of(WorkItemPriority.HIGH.name(), 4L, WorkItemPriority.MEDIUM.name(), 4L));
 
-        when(projectClient.getUserStoriesOfActiveSprint(projectId)).thenReturn(Arrays.asList(userStoryId));
-        when(bugRepository.countByUserStoryInAndStatus(Arrays.asList(userStoryId), WorkItemStatus.DONE)).thenReturn(5L);
-        when(bugRepository.countByUserStoryInAndStatusNot(Arrays.asList(userStoryId), WorkItemStatus.DONE)).thenReturn(3L);
-        when(bugRepository.countOverdueByUserStoryIn(Arrays.asList(userStoryId), WorkItemStatus.DONE, LocalDate.now())).thenReturn(1L);
-        when(bugRepository.countByUserStoryIn(Arrays.asList(userStoryId))).thenReturn(8L);
-        when(bugRepository.countBugsByStatus(Arrays.asList(userStoryId)))
-                .thenReturn(Arrays.asList(new Object[]{WorkItemStatus.DONE, 5L}, new Object[]{WorkItemStatus.IN_PROGRESS, 3L}));
-        when(bugRepository.countBugsByPriority(Arrays.asList(userStoryId)))
-                .thenReturn(Arrays.asList(new Object[]{WorkItemPriority.HIGH, 4L}, new Object[]{WorkItemPriority.MEDIUM, 4L}));
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(Arrays.asList(userStoryId));
+        when(workItemStatsService.getDashboardStats(WorkItemStatsService.BUG, Arrays.asList(userStoryId))).thenReturn(stats);
 
         // Act
         DashboardStatsDTO result = bugService.getDashboardStats(projectId, token);
 
         // Assert
-        assertNotNull(result);
+        assertSame(stats, result);
 
         // Verify interactions
-        verify(projectClient).getUserStoriesOfActiveSprint(projectId);
-        verify(bugRepository).countByUserStoryInAndStatus(Arrays.asList(userStoryId), WorkItemStatus.DONE);
-        verify(bugRepository).countByUserStoryInAndStatusNot(Arrays.asList(userStoryId), WorkItemStatus.DONE);
-        verify(bugRepository).countOverdueByUserStoryIn(Arrays.asList(userStoryId), WorkItemStatus.DONE, LocalDate.now());
-        verify(bugRepository).countByUserStoryIn(Arrays.asList(userStoryId));
-        verify(bugRepository).countBugsByStatus(Arrays.asList(userStoryId));
-        verify(bugRepository).countBugsByPriority(Arrays.asList(userStoryId));
+        verify(activeSprintCache).getActiveStoryIds(projectId);
+        verify(workItemStatsService).getDashboardStats(WorkItemStatsService.BUG, Arrays.asList(userStoryId));
+        verifyNoInteractions(bugRepository);
     }
 
     @Test
@@ -616,8 +668,9 @@ public class BugServiceTest {
         bug.setStartDate(LocalDate.now());
         bug.setDueDate(LocalDate.now().plusDays(1));
 
-        when(projectClient.getUserStoriesOfActiveSprint(projectId)).thenReturn(Arrays.asList(userStoryId));
-        when(bugRepository.findByUserStoryIn(Arrays.asList(userStoryId))).thenReturn(Arrays.asList(bug));
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(Arrays.asList(userStoryId));
+        when(bugRepository.findCalendarByUserStoryIn(Arrays.asList(userStoryId))).thenReturn(Arrays.asList(
+                new BugCalendarDTO(bug.getId(), bug.getTitle(), bug.getStartDate(), bug.getDueDate())));
 
         // Act
         List<BugCalendarDTO> result = bugService.getBugsForCalendar(projectId, token);
@@ -631,8 +684,9 @@ public class BugServiceTest {
         assertEquals(bug.getDueDate(), result.get(0).getDueDate());
 
         // Verify interactions
-        verify(projectClient).getUserStoriesOfActiveSprint(projectId);
-        verify(bugRepository).findByUserStoryIn(Arrays.asList(userStoryId));
+        verify(activeSprintCache).getActiveStoryIds(projectId);
+        verify(bugRepository).findCalendarByUserStoryIn(Arrays.asList(userStoryId));
+        verify(bugRepository, never()).findByUserStoryIn(anyList());
     }
 
     @Test
@@ -655,7 +709,7 @@ public class BugServiceTest {
         BugDTO bugDTO = new BugDTO();
         bugDTO.setId(bugId);
 
-        when(authClient.decodeToken(token)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
         when(bugMapper.toDTO(bug)).thenReturn(bugDTO);
 
@@ -670,7 +724,7 @@ public class BugServiceTest {
         assertEquals(timeEntry.getType(), result.get(0).getType());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository, times(2)).findById(bugId); // Called by getBugByBugId and getTimeEntries
         verify(bugMapper).toDTO(bug);
     }
@@ -689,7 +743,7 @@ public class BugServiceTest {
         bug.setTimeEntries(new ArrayList<>());
         bug.setTotalTimeSpent(0L);
 
-        when(authClient.decodeToken(token)).thenReturn(addedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(addedBy);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
         when(bugRepository.save(bug)).thenReturn(bug);
 
@@ -705,7 +759,7 @@ public class BugServiceTest {
         assertEquals(60L, bug.getTotalTimeSpent());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verify(bugRepository).save(bug);
     }
@@ -722,7 +776,7 @@ public class BugServiceTest {
         Bug bug = new Bug();
         bug.setId(bugId);
 
-        when(authClient.decodeToken(token)).thenReturn(addedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(addedBy);
         when(bugRepository.findById(bugId)).thenReturn(Optional.of(bug));
 
         // Act & Assert
@@ -731,7 +785,7 @@ public class BugServiceTest {
         assertEquals("Duration must be positive", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(bugRepository).findById(bugId);
         verifyNoMoreInteractions(bugRepository);
     }
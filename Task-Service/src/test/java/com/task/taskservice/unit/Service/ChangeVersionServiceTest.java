@@ -0,0 +1,111 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.ProjectChangeVersion;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Entity.WorkItemTombstone;
+import com.task.taskservice.Repository.ProjectChangeVersionRepository;
+import com.task.taskservice.Repository.WorkItemTombstoneRepository;
+import com.task.taskservice.Service.ChangeVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ChangeVersionServiceTest {
+
+    @Mock
+    private ProjectChangeVersionRepository versionRepository;
+
+    @Mock
+    private WorkItemTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeVersionService changeVersionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        changeVersionService = new ChangeVersionService(versionRepository, tombstoneRepository, transactionManager, 30);
+    }
+
+    private static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setProjectId(1L);
+        task.setUserStory(10L);
+        return task;
+    }
+
+    @Test
+    void stamp_shouldCreateCounterOnFirstWriteOfProject() {
+        // Arrange
+        when(versionRepository.existsById(1L)).thenReturn(false);
+        when(versionRepository.increment(1L)).thenReturn(1);
+        when(versionRepository.findVersion(1L)).thenReturn(1L);
+        Task task = task(42L);
+
+        // Act
+        changeVersionService.stamp(task);
+
+        // Assert
+        assertEquals(1L, task.getChangeVersion());
+        verify(versionRepository).saveAndFlush(any(ProjectChangeVersion.class));
+    }
+
+    @Test
+    void stamp_shouldShareOneVersionPerProjectWithinATransaction() {
+        // Arrange
+        when(versionRepository.existsById(1L)).thenReturn(true);
+        when(versionRepository.increment(1L)).thenReturn(1);
+        when(versionRepository.findVersion(1L)).thenReturn(8L);
+        Task first = task(42L);
+        Task second = task(43L);
+
+        // Act : deux écritures dans la même transaction
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeVersionService.stamp(first);
+            changeVersionService.stamp(second);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(0));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(8L, first.getChangeVersion());
+        assertEquals(8L, second.getChangeVersion());
+        verify(versionRepository, times(1)).increment(1L);
+        verify(versionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void tombstone_shouldRecordDeletedItemWithNewVersion() {
+        // Arrange
+        when(versionRepository.existsById(1L)).thenReturn(true);
+        when(versionRepository.increment(1L)).thenReturn(1);
+        when(versionRepository.findVersion(1L)).thenReturn(9L);
+        Bug bug = new Bug();
+        bug.setId(7L);
+        bug.setProjectId(1L);
+
+        // Act
+        changeVersionService.tombstone(bug);
+
+        // Assert
+        ArgumentCaptor<WorkItemTombstone> saved = ArgumentCaptor.forClass(WorkItemTombstone.class);
+        verify(tombstoneRepository).save(saved.capture());
+        assertEquals(7L, saved.getValue().getWorkItemId());
+        assertEquals("BUG", saved.getValue().getItemType());
+        assertEquals(9L, saved.getValue().getChangeVersion());
+    }
+}
@@ -1,6 +1,6 @@
 package com.task.taskservice.unit.Service;
 
-import com.task.taskservice.Configuration.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.task.taskservice.DTO.CommentDTO;
 import com.task.taskservice.Entity.Comment;
 import com.task.taskservice.Entity.Task;
@@ -9,7 +9,9 @@ import com.task.taskservice.Entity.WorkItemHistory;
 import com.task.taskservice.Mapper.TaskMapper;
 import com.task.taskservice.Repository.CommentRepository;
 import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Service.ChangeVersionService;
 import com.task.taskservice.Service.CommentService;
+import com.task.taskservice.Service.WorkItemSearchIndexer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -36,11 +38,17 @@ public class CommentServiceTest {
     private SimpMessagingTemplate messagingTemplate;
 
     @Mock
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private WorkItemSearchIndexer searchIndexer;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -79,7 +87,7 @@ public class CommentServiceTest {
         commentDTO.setAuthor(author);
         commentDTO.setCreatedAt(savedComment.getCreatedAt());
 
-        when(authClient.decodeToken(token)).thenReturn(author);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(author);
         when(taskRepository.findById(workItemId)).thenReturn(Optional.of(task));
         when(commentRepository.save(any(Comment.class))).thenReturn(savedComment);
         when(taskMapper.mapToDTO(savedComment)).thenReturn(commentDTO);
@@ -91,7 +99,7 @@ public class CommentServiceTest {
         assertTrue(exception.getCause() instanceof NullPointerException);
 
         // Verify interactions up to the exception
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(workItemId);
         verify(commentRepository).save(any(Comment.class));
         verifyNoMoreInteractions(commentRepository, taskMapper, messagingTemplate);
@@ -107,6 +115,7 @@ public class CommentServiceTest {
         task.setId(workItemId);
         comment.setWorkItem(task);
 
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
         when(taskRepository.findById(workItemId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -116,7 +125,7 @@ public class CommentServiceTest {
 
         // Verify interactions
         verify(taskRepository).findById(workItemId);
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verifyNoInteractions(commentRepository, messagingTemplate, taskMapper);
     }
 
@@ -134,7 +143,7 @@ public class CommentServiceTest {
         comment.setWorkItem(task);
         comment.setContent("");
 
-        when(authClient.decodeToken(token)).thenReturn(author);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(author);
         when(taskRepository.findById(workItemId)).thenReturn(Optional.of(task));
 
         // Act & Assert
@@ -143,7 +152,7 @@ public class CommentServiceTest {
         assertEquals("Failed to create comment", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(workItemId);
         verifyNoInteractions(commentRepository, messagingTemplate, taskMapper);
     }
@@ -163,7 +172,7 @@ public class CommentServiceTest {
         comment.setWorkItem(task);
         comment.setContent(content);
 
-        when(authClient.decodeToken(token)).thenReturn(author);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(author);
         when(taskRepository.findById(workItemId)).thenReturn(Optional.of(task));
         when(commentRepository.save(any(Comment.class))).thenThrow(new RuntimeException("Database error"));
 
@@ -174,7 +183,7 @@ public class CommentServiceTest {
         assertEquals("Database error", exception.getCause().getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(workItemId);
         verify(commentRepository).save(any(Comment.class));
         verifyNoInteractions(messagingTemplate, taskMapper);
@@ -236,7 +245,7 @@ public class CommentServiceTest {
         // Verify interactions
         verify(commentRepository).findByWorkItemIdOrderByCreatedAtAsc(workItemId);
         verify(taskMapper, times(2)).mapToDTO(any(Comment.class));
-        verifyNoInteractions(taskRepository, authClient, messagingTemplate);
+        verifyNoInteractions(taskRepository, jwtTokenVerifier, messagingTemplate);
     }
 
     @Test
@@ -255,6 +264,6 @@ public class CommentServiceTest {
 
         // Verify interactions
         verify(commentRepository).findByWorkItemIdOrderByCreatedAtAsc(workItemId);
-        verifyNoInteractions(taskMapper, taskRepository, authClient, messagingTemplate);
+        verifyNoInteractions(taskMapper, taskRepository, jwtTokenVerifier, messagingTemplate);
     }
 }
\ No newline at end of file
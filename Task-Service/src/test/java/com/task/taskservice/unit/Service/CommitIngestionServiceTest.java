@@ -0,0 +1,320 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Configuration.GitHubIntegrationClient;
+import com.task.taskservice.Configuration.ProjectClient;
+import com.task.taskservice.DTO.GitHubLinkDTO;
+import com.task.taskservice.DTO.TaskDTO;
+import com.task.taskservice.Entity.CommitSyncState;
+import com.task.taskservice.Entity.ProcessedCommit;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Mapper.TaskMapper;
+import com.task.taskservice.Repository.CommitSyncStateRepository;
+import com.task.taskservice.Repository.ProcessedCommitRepository;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Service.ActiveSprintCache;
+import com.task.taskservice.Service.CommitIngestionService;
+import com.task.taskservice.Service.CommitMessageParser;
+import com.task.taskservice.Service.TaskService;
+import com.task.taskservice.Service.WorkItemTitleIndex;
+import com.task.taskservice.event.GitHubWebhookEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CommitIngestionServiceTest {
+
+    @Mock
+    private ProjectClient projectClient;
+
+    @Mock
+    private GitHubIntegrationClient gitHubIntegrationClient;
+
+    @Mock
+    private ProcessedCommitRepository processedCommitRepository;
+
+    @Mock
+    private CommitSyncStateRepository commitSyncStateRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private ActiveSprintCache activeSprintCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CommitIngestionService commitIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        commitIngestionService = new CommitIngestionService(projectClient, gitHubIntegrationClient, processedCommitRepository,
+                commitSyncStateRepository, new WorkItemTitleIndex(taskRepository, transactionManager), taskMapper, taskService, activeSprintCache, transactionManager,
+                meterRegistry, 2, 5, 60000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        commitIngestionService.shutdown();
+    }
+
+    private static Map<String, Object> commit(String sha, String message, Instant date) {
+        return Map.of("sha", sha, "commit", Map.of("message", message, "committer", Map.of("date", date.toString())));
+    }
+
+    @Test
+    void ingestProject_shouldResumeFromHighWaterMark_andCheckShasInBulk() {
+        // Arrange
+        Instant lastRun = Instant.parse("2025-01-01T00:00:00Z");
+        Instant older = Instant.parse("2025-01-02T10:00:00Z");
+        Instant newer = Instant.parse("2025-01-02T11:00:00Z");
+        CommitSyncState state = new CommitSyncState(5L);
+        state.setLastCommitAt(lastRun);
+        Task task = new Task();
+        task.setId(9L);
+        task.setTitle("login");
+        task.setUserStory(7L);
+
+        when(commitSyncStateRepository.findById(5L)).thenReturn(Optional.of(state));
+        when(gitHubIntegrationClient.getCommitsByUserId("acme", "app", "gh-user", lastRun.toString(), null, 30))
+                .thenReturn(ResponseEntity.ok(List.of(
+                        commit("sha2", "task 'Login' #US7", newer),
+                        commit("sha1", "task 'Old' #US7", older))));
+        when(processedCommitRepository.findProcessedShas(eq(5L), anyCollection())).thenReturn(List.of("sha1"));
+        when(taskRepository.findByProjectIdAndNormalizedTitleIn(eq(5L), anyCollection())).thenReturn(List.of(task));
+        when(taskMapper.toDTO(task)).thenReturn(new TaskDTO());
+
+        // Act
+        int applied = commitIngestionService.ingestProject(new GitHubLinkDTO(5L, "https://github.com/acme/app.git", "gh-user"));
+
+        // Assert
+        assertEquals(1, applied);
+        verify(taskService).updateTask_bycommit(eq(9L), argThat(dto -> dto.getStatus() == WorkItemStatus.DONE));
+        verify(processedCommitRepository, never()).existsByCommitShaAndProjectId(anyString(), anyLong());
+        ArgumentCaptor<List<ProcessedCommit>> processed = ArgumentCaptor.forClass(List.class);
+        verify(processedCommitRepository).saveAll(processed.capture());
+        assertEquals(1, processed.getValue().size());
+        assertEquals("sha2", processed.getValue().get(0).getCommitSha());
+        verify(commitSyncStateRepository).save(state);
+        assertEquals(newer, state.getLastCommitAt());
+        assertEquals(1.0, meterRegistry.counter("github.commits.ingested", "source", "poll").count());
+    }
+
+    @Test
+    void ingestProject_shouldPageBackwardsWithUntil_whenPageIsFull() {
+        // Arrange : première page pleine (30 commits, du plus récent au plus ancien), puis 2 commits
+        Instant newest = Instant.parse("2025-01-02T12:00:00Z");
+        List<Map<String, Object>> firstPage = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            firstPage.add(commit("sha" + i, "wip", newest.minusSeconds(60L * i)));
+        }
+        Instant oldestOfFirstPage = newest.minusSeconds(60L * 29);
+        when(commitSyncStateRepository.findById(5L)).thenReturn(Optional.empty());
+        when(gitHubIntegrationClient.getCommitsByUserId("acme", "app", "gh-user", null, null, 30))
+                .thenReturn(ResponseEntity.ok(firstPage));
+        when(gitHubIntegrationClient.getCommitsByUserId("acme", "app", "gh-user", null, oldestOfFirstPage.toString(), 30))
+                .thenReturn(ResponseEntity.ok(List.of(
+                        commit("sha29", "wip", oldestOfFirstPage),
+                        commit("sha30", "wip", oldestOfFirstPage.minusSeconds(60)))));
+        when(processedCommitRepository.findProcessedShas(eq(5L), anyCollection())).thenReturn(Collections.emptyList());
+
+        // Act
+        commitIngestionService.ingestProject(new GitHubLinkDTO(5L, "https://github.com/acme/app", "gh-user"));
+
+        // Assert : 31 commits distincts vérifiés en une requête, point de reprise sur le plus récent
+        ArgumentCaptor<List<String>> shas = ArgumentCaptor.forClass(List.class);
+        verify(processedCommitRepository).findProcessedShas(eq(5L), shas.capture());
+        assertEquals(31, shas.getValue().size());
+        assertEquals("sha30", shas.getValue().get(0));
+        verify(gitHubIntegrationClient, times(2)).getCommitsByUserId(anyString(), anyString(), anyString(), any(), any(), anyInt());
+        ArgumentCaptor<CommitSyncState> state = ArgumentCaptor.forClass(CommitSyncState.class);
+        verify(commitSyncStateRepository).save(state.capture());
+        assertEquals(newest, state.getValue().getLastCommitAt());
+    }
+
+    @Test
+    void ingestProject_shouldResumeTruncatedWindow_beforeMovingHighWaterMark() {
+        // Arrange : 5 pages pleines (max-pages) puis, à l'exécution suivante, la fin de la fenêtre
+        Instant lastRun = Instant.parse("2025-01-01T00:00:00Z");
+        Instant newest = Instant.parse("2025-01-03T12:00:00Z");
+        CommitSyncState state = new CommitSyncState(5L);
+        state.setLastCommitAt(lastRun);
+        when(commitSyncStateRepository.findById(5L)).thenReturn(Optional.of(state));
+        String until = null;
+        for (int page = 0; page < 5; page++) {
+            List<Map<String, Object>> commits = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                int index = page * 29 + i;
+                commits.add(commit("sha" + index, "wip", newest.minusSeconds(60L * index)));
+            }
+            when(gitHubIntegrationClient.getCommitsByUserId("acme", "app", "gh-user", lastRun.toString(), until, 30))
+                    .thenReturn(ResponseEntity.ok(commits));
+            until = newest.minusSeconds(60L * (page * 29 + 29)).toString();
+        }
+        Instant oldestRead = Instant.parse(until);
+        when(processedCommitRepository.findProcessedShas(eq(5L), anyCollection())).thenReturn(Collections.emptyList());
+        GitHubLinkDTO link = new GitHubLinkDTO(5L, "https://github.com/acme/app", "gh-user");
+
+        // Act : fenêtre coupée
+        commitIngestionService.ingestProject(link);
+
+        // Assert : « since » inchangé, reprise avant le plus ancien commit lu
+        assertEquals(lastRun, state.getLastCommitAt());
+        assertEquals(oldestRead, state.getBackfillUntil());
+        assertEquals(newest, state.getBackfillNewest());
+        assertEquals(1.0, meterRegistry.counter("github.commits.ingestion.truncated").count());
+
+        // Act : exécution suivante, les commits restants de la fenêtre
+        when(gitHubIntegrationClient.getCommitsByUserId("acme", "app", "gh-user", lastRun.toString(), oldestRead.toString(), 30))
+                .thenReturn(ResponseEntity.ok(List.of(
+                        commit("sha145", "wip", oldestRead),
+                        commit("sha146", "wip", oldestRead.minusSeconds(60)))));
+        commitIngestionService.ingestProject(link);
+
+        // Assert : fenêtre terminée, le point de reprise passe au plus récent commit de la fenêtre
+        assertEquals(newest, state.getLastCommitAt());
+        assertNull(state.getBackfillUntil());
+        assertNull(state.getBackfillNewest());
+        verify(commitSyncStateRepository, times(2)).save(state);
+    }
+
+    @Test
+    void ingestAll_shouldIsolateProjectFailures_andRecordDurations() {
+        // Arrange
+        when(projectClient.getGitHubLinks()).thenReturn(ResponseEntity.ok(List.of(
+                new GitHubLinkDTO(1L, "https://github.com/acme/broken", "gh-user"),
+                new GitHubLinkDTO(2L, "https://github.com/acme/app", "gh-user"))));
+        when(commitSyncStateRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(gitHubIntegrationClient.getCommitsByUserId(eq("acme"), eq("broken"), anyString(), any(), any(), anyInt()))
+                .thenThrow(new RuntimeException("GitHub unavailable"));
+        when(gitHubIntegrationClient.getCommitsByUserId(eq("acme"), eq("app"), anyString(), any(), any(), anyInt()))
+                .thenReturn(ResponseEntity.ok(Collections.emptyList()));
+
+        // Act
+        commitIngestionService.ingestAll();
+
+        // Assert
+        verify(projectClient, times(1)).getGitHubLinks();
+        verify(projectClient, never()).getActiveProjectIds();
+        assertEquals(1, meterRegistry.find("github.commits.ingestion.project.duration").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.find("github.commits.ingestion.project.duration").tag("outcome", "success").timer().count());
+        verify(commitSyncStateRepository, never()).save(any());
+    }
+
+    @Test
+    void onGitHubEvents_shouldApplyPushedCommitsOncePerProject_withoutMovingHighWaterMark() {
+        // Arrange : deux livraisons du même dépôt (URL écrite différemment du lien), dont un commit en double
+        Task task = new Task();
+        task.setId(9L);
+        task.setTitle("Login page");
+        task.setUserStory(12L);
+        when(projectClient.getGitHubLinks()).thenReturn(ResponseEntity.ok(List.of(
+                new GitHubLinkDTO(5L, "https://github.com/Acme/App.git", "gh-user"))));
+        when(processedCommitRepository.findProcessedShas(eq(5L), anyCollection())).thenReturn(Collections.emptyList());
+        when(taskRepository.findByProjectIdAndNormalizedTitleIn(eq(5L), anyCollection())).thenReturn(List.of(task));
+        when(taskMapper.toDTO(task)).thenReturn(new TaskDTO());
+        GitHubWebhookEvent.CommitInfo fix = new GitHubWebhookEvent.CommitInfo("sha1", "fix 'Login page' #US12", "2025-01-02T10:00:00Z", "dev-one");
+        GitHubWebhookEvent first = new GitHubWebhookEvent("d1", "push", null, "https://github.com/acme/app",
+                "refs/heads/main", null, List.of(fix), LocalDateTime.now());
+        GitHubWebhookEvent second = new GitHubWebhookEvent("d2", "push", null, "https://github.com/acme/app",
+                "refs/heads/release", null, List.of(fix), LocalDateTime.now());
+        GitHubWebhookEvent unlinked = new GitHubWebhookEvent("d3", "push", null, "https://github.com/other/repo",
+                "refs/heads/main", null, List.of(new GitHubWebhookEvent.CommitInfo("sha9", "task 'X'", null, null)), LocalDateTime.now());
+
+        // Act
+        commitIngestionService.onGitHubEvents(Arrays.asList(first, null, second, unlinked));
+
+        // Assert
+        verify(taskService, times(1)).updateTask_bycommit(eq(9L), any(TaskDTO.class));
+        verify(processedCommitRepository, times(1)).findProcessedShas(eq(5L), eq(List.of("sha1")));
+        verify(processedCommitRepository, never()).findProcessedShas(eq(6L), anyCollection());
+        verify(commitSyncStateRepository, never()).save(any());
+        verify(gitHubIntegrationClient, never()).getCommitsByUserId(anyString(), anyString(), anyString(), any(), any(), anyInt());
+        assertEquals(1.0, meterRegistry.counter("github.commits.ingested", "source", "webhook").count());
+    }
+
+    @Test
+    void ingestProject_shouldResolveAllReferencesOfTheBatchInTwoQueries() {
+        // Arrange : un titre (casse et accents différents), un #T<id>, une issue
+        Task login = new Task();
+        login.setId(9L);
+        login.setTitle("Écran de connexion");
+        login.setUserStory(7L);
+        Task export = new Task();
+        export.setId(42L);
+        export.setTitle("Export CSV");
+        when(commitSyncStateRepository.findById(5L)).thenReturn(Optional.empty());
+        when(gitHubIntegrationClient.getCommitsByUserId("acme", "app", "gh-user", null, null, 30))
+                .thenReturn(ResponseEntity.ok(List.of(
+                        commit("sha3", "issue 'Crash on save' #US7", Instant.parse("2025-01-02T12:00:00Z")),
+                        commit("sha2", "fix #T42", Instant.parse("2025-01-02T11:00:00Z")),
+                        commit("sha1", "task 'ECRAN  de connexion' #US7", Instant.parse("2025-01-02T10:00:00Z")))));
+        when(processedCommitRepository.findProcessedShas(eq(5L), anyCollection())).thenReturn(Collections.emptyList());
+        when(taskRepository.findByProjectIdAndNormalizedTitleIn(eq(5L), eq(Set.of("ecran de connexion")))).thenReturn(List.of(login));
+        when(taskRepository.findByProjectIdAndIdIn(eq(5L), eq(Set.of(42L)))).thenReturn(List.of(export));
+        when(taskMapper.toDTO(any(Task.class))).thenAnswer(invocation -> new TaskDTO());
+
+        // Act
+        int applied = commitIngestionService.ingestProject(new GitHubLinkDTO(5L, "https://github.com/acme/app", "gh-user"));
+
+        // Assert
+        assertEquals(3, applied);
+        verify(taskService).updateTask_bycommit(eq(9L), any(TaskDTO.class));
+        verify(taskService).updateTask_bycommit(eq(42L), any(TaskDTO.class));
+        verify(taskService).createTask_bycommit(eq(5L), eq(7L), argThat(dto -> "Crash on save".equals(dto.getTitle())));
+        verify(taskRepository, times(1)).findByProjectIdAndNormalizedTitleIn(eq(5L), anyCollection());
+        verify(taskRepository, times(1)).findByProjectIdAndIdIn(eq(5L), anyCollection());
+        verify(taskRepository, never()).findByProjectIdAndUserStory(anyLong(), anyLong());
+    }
+
+    @Test
+    void parse_shouldExtractTypeTitleAndUserStory() {
+        CommitMessageParser.CommitReference fix = CommitMessageParser.parse("Fix 'Login page' #US12 and more").orElseThrow();
+        assertEquals("task", fix.type());
+        assertEquals("Login page", fix.title());
+        assertEquals(12L, fix.userStoryId());
+
+        CommitMessageParser.CommitReference issue = CommitMessageParser.parse("issue 'Crash on save'").orElseThrow();
+        assertEquals("issue", issue.type());
+        assertNull(issue.userStoryId());
+
+        CommitMessageParser.CommitReference byId = CommitMessageParser.parse("Task #T42: done").orElseThrow();
+        assertEquals("task", byId.type());
+        assertEquals(42L, byId.taskId());
+        assertNull(byId.title());
+
+        assertTrue(CommitMessageParser.parse("issue #T42").isEmpty());
+        assertTrue(CommitMessageParser.parse("refactor tests").isEmpty());
+        assertTrue(CommitMessageParser.parse(null).isEmpty());
+    }
+}
@@ -0,0 +1,84 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Service.ProjectDependencyGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectDependencyGraphTest {
+
+    // 2 dépend de 1, 3 dépend de 2, 4 dépend de 1 ; 1 est terminée
+    private ProjectDependencyGraph graph() {
+        return ProjectDependencyGraph.build(
+                new long[]{1, 2, 3, 4},
+                new boolean[]{true, false, false, false},
+                new long[]{2, 3, 4},
+                new long[]{1, 2, 1});
+    }
+
+    @Test
+    void wouldCreateCycle_shouldDetectDirectAndTransitiveCycles() {
+        ProjectDependencyGraph graph = graph();
+
+        assertTrue(graph.wouldCreateCycle(1, new long[]{3}));
+        assertTrue(graph.wouldCreateCycle(2, new long[]{2}));
+        assertFalse(graph.wouldCreateCycle(3, new long[]{4}));
+        // Tâche absente du graphe : en cours de création, personne n'en dépend
+        assertFalse(graph.wouldCreateCycle(99, new long[]{1}));
+    }
+
+    @Test
+    void blockedTaskIds_shouldFollowStatusAndEdgeChanges() {
+        ProjectDependencyGraph graph = graph();
+        assertArrayEquals(new long[]{3}, graph.blockedTaskIds());
+
+        assertTrue(graph.setDone(2, true));
+        assertArrayEquals(new long[0], graph.blockedTaskIds());
+
+        assertTrue(graph.setDone(1, false));
+        assertArrayEquals(new long[]{2, 4}, graph.blockedTaskIds());
+
+        assertTrue(graph.removeDependency(4, 1));
+        assertTrue(graph.addDependency(4, 2));
+        assertArrayEquals(new long[]{2}, graph.blockedTaskIds());
+        assertFalse(graph.isBlocked(4));
+
+        // Tâche inconnue : l'appelant doit reconstruire le graphe
+        assertFalse(graph.addDependency(4, 99));
+    }
+
+    @Test
+    void topologicalOrder_shouldPlaceDependenciesFirst_andRejectCycles() {
+        ProjectDependencyGraph graph = graph();
+        long[] order = graph.topologicalOrder();
+
+        assertEquals(4, order.length);
+        assertTrue(position(order, 1) < position(order, 2));
+        assertTrue(position(order, 2) < position(order, 3));
+        assertTrue(position(order, 1) < position(order, 4));
+
+        graph.addDependency(1, 3);
+        assertThrows(IllegalStateException.class, graph::topologicalOrder);
+    }
+
+    @Test
+    void transitiveDependents_shouldReturnAllDownstreamTasks() {
+        ProjectDependencyGraph graph = graph();
+
+        long[] dependents = graph.transitiveDependents(1);
+        Arrays.sort(dependents);
+        assertArrayEquals(new long[]{2, 3, 4}, dependents);
+        assertArrayEquals(new long[0], graph.transitiveDependents(3));
+    }
+
+    private static int position(long[] order, long id) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,123 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Service.ProjectDependencyGraph;
+import com.task.taskservice.Service.ProjectSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectScheduleTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2025, 1, 6);
+
+    // 2 dépend de 1, 3 dépend de 2, 4 dépend de 1 ; travail restant 120, 240, 60, 60 minutes
+    private ProjectSchedule schedule(LocalDate dueDateOfTask3) {
+        ProjectDependencyGraph graph = ProjectDependencyGraph.build(
+                new long[]{1, 2, 3, 4},
+                new boolean[4],
+                new long[]{2, 3, 4},
+                new long[]{1, 2, 1});
+        return ProjectSchedule.build(graph, ORIGIN, 480,
+                new long[]{1, 2, 3, 4},
+                new long[]{120, 240, 60, 60},
+                new LocalDate[]{null, null, dueDateOfTask3, null});
+    }
+
+    @Test
+    void build_shouldComputeEarliestLatestSlackAndCriticalPath() {
+        ProjectSchedule schedule = schedule(null);
+
+        assertEquals(420, schedule.getProjectFinish());
+        assertArrayEquals(new long[]{1, 2, 3}, schedule.criticalPath());
+        ProjectSchedule.TaskTiming task3 = schedule.timing(3);
+        assertEquals(360, task3.earliestStart());
+        assertEquals(0, task3.slack());
+        ProjectSchedule.TaskTiming task4 = schedule.timing(4);
+        assertEquals(120, task4.earliestStart());
+        assertEquals(360, task4.latestStart());
+        assertEquals(240, task4.slack());
+        assertFalse(task4.critical());
+    }
+
+    @Test
+    void update_shouldShiftDownstreamAndMoveCriticalPath() {
+        ProjectSchedule schedule = schedule(null);
+
+        ProjectSchedule.Change change = schedule.update(4, 400, null);
+
+        assertEquals(100, change.slip());
+        assertEquals(520, schedule.getProjectFinish());
+        assertArrayEquals(new long[]{1, 4}, schedule.criticalPath());
+        assertEquals(100, schedule.timing(2).slack());
+        assertNull(schedule.update(99, 10, null));
+    }
+
+    @Test
+    void update_shouldReportTasksNewlyLateOnTheirDueDate() {
+        ProjectSchedule schedule = schedule(ORIGIN);
+        assertEquals(0, schedule.lateTaskIds().length);
+
+        // 3 finit désormais à 660 minutes, soit le deuxième jour
+        ProjectSchedule.Change change = schedule.update(2, 480, null);
+
+        assertArrayEquals(new long[]{3}, change.newlyLateTaskIds());
+        assertEquals(ORIGIN.plusDays(1), schedule.timing(3).projectedFinishDate());
+        assertTrue(schedule.timing(3).late());
+    }
+
+    @Test
+    void impactOfDelay_shouldOnlyShiftTasksWithoutEnoughSlack() {
+        ProjectSchedule schedule = schedule(null);
+
+        ProjectSchedule.Impact onCriticalPath = schedule.impactOfDelay(1, 60);
+        assertEquals(60, onCriticalPath.projectDelay());
+        assertEquals(4, onCriticalPath.taskIds().length);
+
+        ProjectSchedule.Impact withinSlack = schedule.impactOfDelay(4, 200);
+        assertEquals(0, withinSlack.projectDelay());
+        assertArrayEquals(new long[]{4}, withinSlack.taskIds());
+        assertArrayEquals(new long[]{200}, withinSlack.shifts());
+        // Simulation seulement : l'ordonnancement n'est pas modifié
+        assertEquals(420, schedule.getProjectFinish());
+    }
+
+    @Test
+    void incrementalUpdates_shouldMatchFullRecompute_onLargeProject() {
+        int size = 10_000;
+        Random random = new Random(42);
+        long[] ids = new long[size];
+        long[] remaining = new long[size];
+        LocalDate[] dueDates = new LocalDate[size];
+        long[] edgeFrom = new long[size * 2];
+        long[] edgeTo = new long[size * 2];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i + 1;
+            remaining[i] = random.nextInt(600);
+        }
+        // Arcs d'un id vers un id plus petit : le graphe est acyclique
+        for (int e = 0; e < edgeFrom.length; e++) {
+            long from = 2 + random.nextInt(size - 1);
+            edgeFrom[e] = from;
+            edgeTo[e] = 1 + random.nextInt((int) from - 1);
+        }
+        ProjectDependencyGraph graph = ProjectDependencyGraph.build(ids, new boolean[size], edgeFrom, edgeTo);
+        ProjectSchedule schedule = ProjectSchedule.build(graph, ORIGIN, 480, ids, remaining, dueDates);
+
+        for (int k = 0; k < 200; k++) {
+            int index = random.nextInt(size);
+            remaining[index] = random.nextInt(600);
+            schedule.update(ids[index], remaining[index], null);
+            if (k % 50 == 0) {
+                long from = 2 + random.nextInt(size - 1);
+                graph.addDependency(from, 1 + random.nextInt((int) from - 1));
+            }
+        }
+
+        ProjectSchedule expected = ProjectSchedule.build(graph, ORIGIN, 480, ids, remaining, dueDates);
+        assertEquals(expected.getProjectFinish(), schedule.getProjectFinish());
+        assertEquals(expected.timings(), schedule.timings());
+    }
+}
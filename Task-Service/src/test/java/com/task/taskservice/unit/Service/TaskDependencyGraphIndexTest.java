@@ -0,0 +1,70 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Service.TaskDependencyGraphIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskDependencyGraphIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskDependencyGraphIndex dependencyGraph;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dependencyGraph = new TaskDependencyGraphIndex(taskRepository, new SimpleMeterRegistry(), 300_000, 100);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    @Test
+    void wouldCreateCycleLocked_shouldWalkDependenciesAcrossProjectsFromDatabase() {
+        // Arrange : graphe en cache du projet 1 sans arc ; en base 2 (projet 2) -> 3 (projet 3) -> 1
+        when(taskRepository.findDependencyGraphNodes(1L)).thenReturn(rows(new Object[]{1L, WorkItemStatus.TO_DO}));
+        when(taskRepository.findDependencyGraphEdges(1L)).thenReturn(rows());
+        when(taskRepository.lockDependencyIdsByTaskIdIn(List.of(1L))).thenReturn(rows(new Object[]{1L, null}));
+        when(taskRepository.lockDependencyIdsByTaskIdIn(List.of(2L))).thenReturn(rows(new Object[]{2L, 3L}));
+        when(taskRepository.lockDependencyIdsByTaskIdIn(List.of(3L))).thenReturn(rows(new Object[]{3L, 1L}));
+        when(taskRepository.lockDependencyIdsByTaskIdIn(List.of(4L))).thenReturn(rows(new Object[]{4L, null}));
+
+        // Act & Assert : 1 -> 2 fermerait le cycle, seule la relecture en base le voit
+        assertFalse(dependencyGraph.wouldCreateCycle(1L, 1L, List.of(2L)));
+        assertTrue(dependencyGraph.wouldCreateCycleLocked(1L, List.of(2L)));
+        assertFalse(dependencyGraph.wouldCreateCycleLocked(1L, List.of(4L)));
+        // La tâche modifiée est verrouillée avant le parcours
+        verify(taskRepository, times(2)).lockDependencyIdsByTaskIdIn(List.of(1L));
+    }
+
+    @Test
+    void statusChanged_shouldUnblockDependentsInOtherProjects() {
+        // Arrange : la tâche 20 du projet 2 dépend de la tâche 10 du projet 1, non terminée
+        when(taskRepository.findDependencyGraphNodes(1L)).thenReturn(rows(new Object[]{10L, WorkItemStatus.IN_PROGRESS}));
+        when(taskRepository.findDependencyGraphEdges(1L)).thenReturn(rows());
+        when(taskRepository.findDependencyGraphNodes(2L)).thenReturn(rows(new Object[]{20L, WorkItemStatus.TO_DO}));
+        when(taskRepository.findDependencyGraphEdges(2L)).thenReturn(rows(new Object[]{20L, 10L, WorkItemStatus.IN_PROGRESS}));
+        assertTrue(dependencyGraph.isBlocked(2L, 20L));
+        assertFalse(dependencyGraph.isBlocked(1L, 10L));
+
+        // Act : hors transaction, appliqué aussitôt
+        dependencyGraph.statusChanged(1L, 10L, WorkItemStatus.DONE);
+
+        // Assert : graphes mis à jour sans reconstruction
+        assertFalse(dependencyGraph.isBlocked(2L, 20L));
+        verify(taskRepository, times(1)).findDependencyGraphEdges(2L);
+    }
+}
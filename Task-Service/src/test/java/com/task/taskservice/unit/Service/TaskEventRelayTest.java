@@ -0,0 +1,132 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Entity.OutboxEvent;
+import com.task.taskservice.Repository.OutboxEventRepository;
+import com.task.taskservice.Service.TaskEventRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskEventRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new TaskEventRelay(outboxEventRepository, kafkaTemplate, transactionManager, meterRegistry, 2, 1000);
+    }
+
+    private static OutboxEvent outboxEvent(Long id, String key) {
+        OutboxEvent event = new OutboxEvent("task-events", key, "{\"v\":1,\"taskId\":" + key + "}",
+                LocalDateTime.now().minusSeconds(5));
+        event.setId(id);
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(mock(SendResult.class));
+    }
+
+    @Test
+    void relay_shouldPublishBatchesUntilOutboxIsDrained_andDeletePublishedRows() {
+        // Arrange : un lot plein (2) puis un lot partiel (1)
+        when(outboxEventRepository.lockOldest(any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(1L, "10"), outboxEvent(2L, "11")))
+                .thenReturn(List.of(outboxEvent(3L, "10")));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(acked());
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(outboxEventRepository, times(2)).lockOldest(any(Pageable.class));
+        // Deux événements de la tâche 10 (lignes 1 et 3), envoyés avec la même clé
+        verify(kafkaTemplate, times(2)).send("task-events", "10", "{\"v\":1,\"taskId\":10}");
+        verify(kafkaTemplate).send("task-events", "11", "{\"v\":1,\"taskId\":11}");
+        verify(kafkaTemplate, times(2)).flush();
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        assertEquals(3.0, meterRegistry.counter("task.events.outbox.published").count());
+        assertEquals(3, meterRegistry.timer("task.events.outbox.relay.lag").count());
+        assertEquals(0.0, meterRegistry.get("task.events.outbox.oldest.age").gauge().value());
+    }
+
+    @Test
+    void relay_shouldStopOnFirstFailure_andKeepUnpublishedRows() {
+        // Arrange : le deuxième envoi échoue
+        when(outboxEventRepository.lockOldest(any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(1L, "10"), outboxEvent(2L, "11")));
+        CompletableFuture<SendResult<String, String>> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new RuntimeException("broker unavailable"));
+        when(kafkaTemplate.send(anyString(), eq("10"), anyString()))
+                .thenReturn(acked());
+        when(kafkaTemplate.send(anyString(), eq("11"), anyString())).thenReturn(failure);
+
+        // Act
+        relay.relay();
+
+        // Assert : un seul passage, seule la ligne publiée est supprimée
+        verify(outboxEventRepository, times(1)).lockOldest(any(Pageable.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1.0, meterRegistry.counter("task.events.outbox.failed").count());
+        assertTrue(meterRegistry.get("task.events.outbox.oldest.age").gauge().value() >= 5.0);
+    }
+
+    @Test
+    void relay_shouldHoldBackEvents_whoseKeyHasAnOlderEventLockedElsewhere() {
+        // Arrange : la ligne 3 de la tâche 10 est verrouillée par une autre instance
+        when(outboxEventRepository.lockOldest(any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(5L, "10"), outboxEvent(6L, "11")));
+        when(outboxEventRepository.findOldestPendingByKeyOutside(anyCollection(), anyCollection()))
+                .thenReturn(Collections.singletonList(new Object[]{"10", 3L}));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+
+        // Act
+        relay.relay();
+
+        // Assert : seule la tâche 11 est publiée, la ligne 5 repart au prochain passage
+        verify(kafkaTemplate, never()).send(anyString(), eq("10"), anyString());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(6L));
+        verify(outboxEventRepository, times(1)).lockOldest(any(Pageable.class));
+        assertEquals(0.0, meterRegistry.counter("task.events.outbox.failed").count());
+    }
+
+    @Test
+    void relay_shouldDoNothing_whenOutboxIsEmpty() {
+        when(outboxEventRepository.lockOldest(any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        relay.relay();
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyIterable());
+    }
+}
@@ -0,0 +1,115 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.DTO.ProjectScheduleDTO;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Service.ProjectDependencyGraph;
+import com.task.taskservice.Service.TaskDependencyGraphIndex;
+import com.task.taskservice.Service.TaskScheduleService;
+import com.task.taskservice.event.ScheduleSlipEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskScheduleServiceTest {
+
+    @Mock
+    private TaskDependencyGraphIndex dependencyGraph;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private KafkaTemplate<String, ScheduleSlipEvent> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskScheduleService taskScheduleService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        taskScheduleService = new TaskScheduleService(dependencyGraph, taskRepository, kafkaTemplate, meterRegistry,
+                480, 480, 100, "schedule-events");
+
+        // 2 dépend de 1 ; 1 : 600 min estimées dont 120 passées, 2 : 300 min
+        ProjectDependencyGraph graph = ProjectDependencyGraph.build(
+                new long[]{1, 2}, new boolean[2], new long[]{2}, new long[]{1});
+        when(dependencyGraph.getGraph(5L)).thenReturn(graph);
+        when(taskRepository.findScheduleRows(5L)).thenReturn(Arrays.asList(
+                new Object[]{1L, 600L, 120L, WorkItemStatus.IN_PROGRESS, null},
+                new Object[]{2L, 300L, 0L, WorkItemStatus.TO_DO, null}
+        ));
+    }
+
+    private Task task(Long id, Long estimationTime, Long totalTimeSpent, WorkItemStatus status) {
+        Task task = new Task();
+        task.setId(id);
+        task.setProjectId(5L);
+        task.setEstimationTime(estimationTime);
+        task.setTotalTimeSpent(totalTimeSpent);
+        task.setStatus(status);
+        return task;
+    }
+
+    @Test
+    void getProjectSchedule_shouldUseRemainingWork() {
+        // Act
+        ProjectScheduleDTO result = taskScheduleService.getProjectSchedule(5L);
+
+        // Assert
+        assertEquals(780L, result.getRemainingMinutes());
+        assertEquals(List.of(1L, 2L), result.getCriticalPath());
+        assertEquals(480L, result.getTasks().get(1).getEarliestStart());
+        verify(taskRepository, times(1)).findScheduleRows(5L);
+    }
+
+    @Test
+    void taskChanged_shouldPublishSlipEvent_whenProjectEndMovesBeyondThreshold() {
+        // Arrange
+        taskScheduleService.getProjectSchedule(5L);
+
+        // Act : 600 minutes de plus sur la première tâche de la chaîne
+        taskScheduleService.taskChanged(task(1L, 1200L, 120L, WorkItemStatus.IN_PROGRESS));
+
+        // Assert
+        ArgumentCaptor<ScheduleSlipEvent> captor = ArgumentCaptor.forClass(ScheduleSlipEvent.class);
+        verify(kafkaTemplate).send(eq("schedule-events"), eq("5"), captor.capture());
+        assertEquals(600L, captor.getValue().getSlipMinutes());
+        assertEquals(1L, captor.getValue().getTaskId());
+        assertEquals(1.0, meterRegistry.counter("task.schedule.slips").count());
+        verify(taskRepository, times(1)).findScheduleRows(5L);
+    }
+
+    @Test
+    void taskChanged_shouldNotPublish_whenSlipBelowThresholdOrScheduleNotComputed() {
+        // Ordonnancement jamais lu : rien n'est calculé
+        taskScheduleService.taskChanged(task(1L, 1200L, 120L, WorkItemStatus.IN_PROGRESS));
+        verify(taskRepository, never()).findScheduleRows(anyLong());
+
+        // Recul de 60 minutes, sous le seuil de 480
+        taskScheduleService.getProjectSchedule(5L);
+        taskScheduleService.taskChanged(task(1L, 660L, 120L, WorkItemStatus.IN_PROGRESS));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void remainingMinutes_shouldBeZeroForDoneOrUnestimatedTasks() {
+        assertEquals(0, TaskScheduleService.remainingMinutes(600L, 100L, WorkItemStatus.DONE));
+        assertEquals(0, TaskScheduleService.remainingMinutes(null, 100L, WorkItemStatus.TO_DO));
+        assertEquals(0, TaskScheduleService.remainingMinutes(60L, 100L, WorkItemStatus.IN_PROGRESS));
+        assertEquals(500, TaskScheduleService.remainingMinutes(600L, 100L, WorkItemStatus.IN_PROGRESS));
+    }
+}
@@ -1,10 +1,18 @@
 package com.task.taskservice.unit.Service;
-import com.task.taskservice.Configuration.AuthClient;
-import com.task.taskservice.Configuration.GitHubIntegrationClient;
+import com.common.security.JwtTokenVerifier;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import com.task.taskservice.Configuration.ProjectClient;
+import com.task.taskservice.DTO.BoardChangesDTO;
+import com.task.taskservice.DTO.CursorPageDTO;
 import com.task.taskservice.DTO.DashboardStatsDTO;
+import com.task.taskservice.DTO.ProjectResponseWithRoleDTO;
+import com.task.taskservice.DTO.ProjectWithRoleDTO;
 import com.task.taskservice.DTO.TaskDTO;
+import com.task.taskservice.DTO.TaskSummaryDTO;
 import com.task.taskservice.DTO.UserDTO;
+import com.task.taskservice.DTO.WorkItemFilterDTO;
+import com.task.taskservice.DTO.WorkItemHistoryDTO;
 import com.task.taskservice.Entity.FileAttachment;
 import com.task.taskservice.Entity.Tag;
 import com.task.taskservice.Entity.Task;
@@ -13,11 +21,22 @@ import com.task.taskservice.Enumeration.WorkItemPriority;
 import com.task.taskservice.Enumeration.WorkItemStatus;
 import com.task.taskservice.Mapper.TaskMapper;
 import com.task.taskservice.Repository.FileAttachmentRepository;
-import com.task.taskservice.Repository.ProcessedCommitRepository;
 import com.task.taskservice.Repository.TagRepository;
 import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Repository.WorkItemHistoryRepository;
+import com.task.taskservice.Service.ActiveSprintCache;
+import com.task.taskservice.Service.BoardDeltaPublisher;
+import com.task.taskservice.Service.ChangeVersionService;
 import com.task.taskservice.Service.CloudinaryService;
+import com.task.taskservice.Service.TaskDependencyGraphIndex;
+import com.task.taskservice.Service.TaskEventOutbox;
+import com.task.taskservice.Service.TaskScheduleService;
 import com.task.taskservice.Service.TaskService;
+import com.task.taskservice.Service.WorkItemHistoryWriter;
+import com.task.taskservice.Service.WorkItemFacetIndex;
+import com.task.taskservice.Service.WorkItemSearchIndex;
+import com.task.taskservice.Service.WorkItemSearchIndexer;
+import com.task.taskservice.Service.WorkItemStatsService;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,7 +67,10 @@ public class TaskServiceTest {
     private TaskMapper taskMapper;
 
     @Mock
-    private AuthClient authClient;
+    private UserDirectoryClient userDirectoryClient;
+
+    @Mock
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private ProjectClient projectClient;
@@ -60,13 +82,43 @@ public class TaskServiceTest {
     private FileAttachmentRepository fileAttachmentRepository;
 
     @Mock
-    private GitHubIntegrationClient gitHubIntegrationClient;
+    private EntityManager entityManager;
 
     @Mock
-    private ProcessedCommitRepository processedCommitRepository;
+    private ActiveSprintCache activeSprintCache;
 
     @Mock
-    private EntityManager entityManager;
+    private WorkItemStatsService workItemStatsService;
+
+    @Mock
+    private TaskDependencyGraphIndex dependencyGraph;
+
+    @Mock
+    private TaskScheduleService taskScheduleService;
+
+    @Mock
+    private WorkItemHistoryWriter historyWriter;
+
+    @Mock
+    private TaskEventOutbox taskEventOutbox;
+
+    @Mock
+    private WorkItemHistoryRepository workItemHistoryRepository;
+
+    @Mock
+    private BoardDeltaPublisher boardDeltaPublisher;
+
+    @Mock
+    private ChangeVersionService changeVersionService;
+
+    @Mock
+    private WorkItemSearchIndexer searchIndexer;
+
+    @Mock
+    private WorkItemSearchIndex searchIndex;
+
+    @Mock
+    private WorkItemFacetIndex facetIndex;
 
     @InjectMocks
     private TaskService taskService;
@@ -93,7 +145,7 @@ public class TaskServiceTest {
         Task task = new Task();
         task.setTitle("Test Task");
 
-        when(authClient.decodeToken(token)).thenReturn(createdBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(createdBy);
         when(taskMapper.toEntity(taskDTO)).thenReturn(task);
         when(taskRepository.findAllById(Arrays.asList(3L, 4L))).thenReturn(Arrays.asList(new Task())); // Only one dependency found
 
@@ -103,7 +155,7 @@ public class TaskServiceTest {
         assertEquals("One or more dependency IDs are invalid", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskMapper).toEntity(taskDTO);
         verify(taskRepository).findAllById(Arrays.asList(3L, 4L));
         verifyNoMoreInteractions(taskRepository, tagRepository, taskMapper);
@@ -118,7 +170,7 @@ public class TaskServiceTest {
         String updatedBy = "user1";
         TaskDTO taskDTO = new TaskDTO();
 
-        when(authClient.decodeToken(token)).thenReturn(updatedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(updatedBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -127,9 +179,9 @@ public class TaskServiceTest {
         assertEquals("Task not found with ID: " + taskId, exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(taskId);
-        verifyNoMoreInteractions(taskRepository, tagRepository, taskMapper, authClient);
+        verifyNoMoreInteractions(taskRepository, tagRepository, taskMapper, userDirectoryClient);
     }
 
     @Test
@@ -153,7 +205,7 @@ public class TaskServiceTest {
         taskDTO.setUserStoryId(userStoryId);
         taskDTO.setTitle("Test Task");
 
-        when(authClient.decodeToken(token)).thenReturn(createdBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(createdBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         when(taskMapper.toDTO(task)).thenReturn(taskDTO);
 
@@ -168,7 +220,7 @@ public class TaskServiceTest {
         assertEquals(taskDTO.getTitle(), result.getTitle());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(taskId);
         verify(taskMapper).toDTO(task);
     }
@@ -187,7 +239,7 @@ public class TaskServiceTest {
         task.setProjectId(999L); // Different projectId
         task.setUserStory(userStoryId);
 
-        when(authClient.decodeToken(token)).thenReturn(createdBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(createdBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
 
         // Act & Assert
@@ -196,7 +248,7 @@ public class TaskServiceTest {
         assertEquals("Task does not belong to the specified project or user story", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(taskId);
         verifyNoInteractions(taskMapper);
     }
@@ -229,12 +281,8 @@ public class TaskServiceTest {
         verify(taskRepository).delete(task);
 
         // Verify history logging
-        assertFalse(task.getHistory().isEmpty());
-        WorkItemHistory history = task.getHistory().iterator().next();
-        assertEquals("SUPPRESSION", history.getAction());
-        assertEquals("Tâche supprimée: Test Task", history.getDescription());
-        assertEquals("user1", history.getAuthorId());
-        assertNotNull(history.getTimestamp());
+        verify(historyWriter).record(task, "SUPPRESSION", "Tâche supprimée: Test Task", "user1");
+        verify(taskEventOutbox).taskDeleted(task, "user1");
 
         // Verify dependencies updated
         assertFalse(dependentTask.getDependencies().contains(task));
@@ -272,7 +320,7 @@ public class TaskServiceTest {
         uploadResult.put("secure_url", "https://cloudinary.com/file");
         uploadResult.put("public_id", "file123");
 
-        when(authClient.decodeToken(token)).thenReturn(uploadedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(uploadedBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         when(file.isEmpty()).thenReturn(false);
         when(file.getOriginalFilename()).thenReturn("test.pdf");
@@ -298,18 +346,13 @@ public class TaskServiceTest {
         assertNotNull(attachment.getUploadedAt());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(taskId);
         verify(cloudinaryService).uploadFile(file);
         verify(taskRepository).saveAndFlush(task);
 
         // Verify history logging
-        assertFalse(task.getHistory().isEmpty());
-        WorkItemHistory history = task.getHistory().iterator().next();
-        assertEquals("AJOUT_PIECE_JOINTE", history.getAction());
-        assertEquals("Pièce jointe ajoutée: test.pdf", history.getDescription());
-        assertEquals(uploadedBy, history.getAuthorId());
-        assertNotNull(history.getTimestamp());
+        verify(historyWriter).record(task, "AJOUT_PIECE_JOINTE", "Pièce jointe ajoutée: test.pdf", uploadedBy);
     }
 
     @Test
@@ -318,45 +361,21 @@ public class TaskServiceTest {
         Long projectId = 1L;
         String token = "Bearer valid-token";
         List<Long> activeStoryIds = Arrays.asList(1L, 2L);
+        DashboardStatsDTO stats = new DashboardStatsDTO(5L, 10L, 2L, 15L,
+                Map.of(WorkItemStatus.TO_DO.name(), 5L, WorkItemStatus.IN_PROGRESS.name(), 5L),
+                Map.of(WorkItemPriority.HIGH.name(), 7L, WorkItemPriority.MEDIUM.name(), 8L));
 
-        when(projectClient.getUserStoriesOfActiveSprint(projectId)).thenReturn(activeStoryIds);
-        when(taskRepository.countByUserStoryInAndStatus(activeStoryIds, WorkItemStatus.DONE)).thenReturn(5L);
-        when(taskRepository.countByUserStoryInAndStatusNot(activeStoryIds, WorkItemStatus.DONE)).thenReturn(10L);
-        when(taskRepository.countOverdueByUserStoryIn(activeStoryIds, WorkItemStatus.DONE, LocalDate.now())).thenReturn(2L);
-        when(taskRepository.countByUserStoryIn(activeStoryIds)).thenReturn(15L);
-        when(taskRepository.countTasksByStatus(activeStoryIds)).thenReturn(Arrays.asList(
-                new Object[]{WorkItemStatus.TO_DO, 5L},
-                new Object[]{WorkItemStatus.IN_PROGRESS, 5L}
-        ));
-        when(taskRepository.countTasksByPriority(activeStoryIds)).thenReturn(Arrays.asList(
-                new Object[]{WorkItemPriority.HIGH, 7L},
-                new Object[]{WorkItemPriority.MEDIUM, 8L}
-        ));
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(activeStoryIds);
+        when(workItemStatsService.getDashboardStats(WorkItemStatsService.TASK, activeStoryIds)).thenReturn(stats);
 
         // Act
         DashboardStatsDTO result = taskService.getDashboardStats(projectId, token);
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(5L, result.getCompletedTasks());
-        assertEquals(10L, result.getNotCompletedTasks());
-        assertEquals(2L, result.getOverdueTasks());
-        assertEquals(15L, result.getTotalTasks());
-        assertEquals(2, result.getTasksByStatus().size());
-        assertEquals(5L, result.getTasksByStatus().get(WorkItemStatus.TO_DO.name()));
-        assertEquals(5L, result.getTasksByStatus().get(WorkItemStatus.IN_PROGRESS.name()));
-        assertEquals(2, result.getTasksByPriority().size());
-        assertEquals(7L, result.getTasksByPriority().get(WorkItemPriority.HIGH.name()));
-        assertEquals(8L, result.getTasksByPriority().get(WorkItemPriority.MEDIUM.name()));
-
-        // Verify interactions
-        verify(projectClient).getUserStoriesOfActiveSprint(projectId);
-        verify(taskRepository).countByUserStoryInAndStatus(activeStoryIds, WorkItemStatus.DONE);
-        verify(taskRepository).countByUserStoryInAndStatusNot(activeStoryIds, WorkItemStatus.DONE);
-        verify(taskRepository).countOverdueByUserStoryIn(activeStoryIds, WorkItemStatus.DONE, LocalDate.now());
-        verify(taskRepository).countByUserStoryIn(activeStoryIds);
-        verify(taskRepository).countTasksByStatus(activeStoryIds);
-        verify(taskRepository).countTasksByPriority(activeStoryIds);
+        // Assert : lecture des compteurs, aucune requête COUNT sur task
+        assertSame(stats, result);
+        verify(activeSprintCache).getActiveStoryIds(projectId);
+        verify(workItemStatsService).getDashboardStats(WorkItemStatsService.TASK, activeStoryIds);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -365,7 +384,7 @@ public class TaskServiceTest {
         Long projectId = 1L;
         String token = "Bearer valid-token";
 
-        when(projectClient.getUserStoriesOfActiveSprint(projectId)).thenReturn(Collections.emptyList());
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(Collections.emptyList());
 
         // Act
         DashboardStatsDTO result = taskService.getDashboardStats(projectId, token);
@@ -380,7 +399,7 @@ public class TaskServiceTest {
         assertTrue(result.getTasksByPriority().isEmpty());
 
         // Verify interactions
-        verify(projectClient).getUserStoriesOfActiveSprint(projectId);
+        verify(activeSprintCache).getActiveStoryIds(projectId);
         verifyNoInteractions(taskRepository);
     }
 
@@ -397,7 +416,7 @@ public class TaskServiceTest {
         task.setId(taskId);
         task.setProjectId(1L);
 
-        when(authClient.decodeToken(token)).thenReturn(updatedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(updatedBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
 
         // Act & Assert
@@ -406,7 +425,7 @@ public class TaskServiceTest {
         assertEquals("A task cannot depend on itself", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository, times(2)).findById(taskId); // Expect two calls (taskId and dependencyId are the same)
         verifyNoMoreInteractions(taskRepository, taskMapper);
     }
@@ -422,7 +441,7 @@ public class TaskServiceTest {
         Task task = new Task();
         task.setId(taskId);
 
-        when(authClient.decodeToken(token)).thenReturn(uploadedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(uploadedBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         when(file.isEmpty()).thenReturn(true);
 
@@ -432,7 +451,7 @@ public class TaskServiceTest {
         assertEquals("File cannot be empty", exception.getMessage());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(taskId);
         verifyNoInteractions(cloudinaryService, fileAttachmentRepository);
     }
@@ -504,7 +523,7 @@ public class TaskServiceTest {
         savedTaskDTO.setAssignedUserIds(Arrays.asList("user2", "user3"));
         savedTaskDTO.setTags(new HashSet<>(Arrays.asList("tag1", "tag2")));
 
-        when(authClient.decodeToken(token)).thenReturn(createdBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(createdBy);
         when(taskMapper.toEntity(taskDTO)).thenReturn(task);
         when(taskRepository.findAllById(Arrays.asList(3L, 4L))).thenReturn(Arrays.asList(dependency1, dependency2));
         when(tagRepository.findByName("tag1")).thenReturn(Optional.of(tag1));
@@ -527,7 +546,7 @@ public class TaskServiceTest {
         assertEquals(savedTaskDTO.getTags(), result.getTags());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskMapper).toEntity(taskDTO);
         verify(taskRepository).findAllById(Arrays.asList(3L, 4L));
         verify(tagRepository).findByName("tag1");
@@ -536,12 +555,8 @@ public class TaskServiceTest {
         verify(taskMapper).toDTO(savedTask);
 
         // Verify history logging
-        assertFalse(savedTask.getHistory().isEmpty()); // Expect non-empty history
-        WorkItemHistory actualHistory = savedTask.getHistory().iterator().next();
-        assertEquals("CREATION", actualHistory.getAction());
-        assertEquals("Task created: Test Task", actualHistory.getDescription());
-        assertEquals(createdBy, actualHistory.getAuthorId());
-        assertNotNull(actualHistory.getTimestamp());
+        verify(historyWriter).record(any(Task.class), eq("CREATION"), eq("Task created: Test Task"), eq(createdBy));
+        verify(taskEventOutbox).taskCreated(savedTask, createdBy);
     }
 
     @Test
@@ -578,12 +593,12 @@ public class TaskServiceTest {
         taskDTO.setId(taskId);
         taskDTO.setDependencyIds(Arrays.asList(dependencyId));
 
-        when(authClient.decodeToken(token)).thenReturn(updatedBy);
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(updatedBy);
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         when(taskRepository.findById(dependencyId)).thenReturn(Optional.of(dependency));
         when(taskRepository.save(task)).thenReturn(updatedTask);
         when(taskMapper.toDTO(updatedTask)).thenReturn(taskDTO);
-        when(authClient.getUsersByIds(anyString(), anyList())).thenReturn(Collections.emptyList());
+        when(userDirectoryClient.getUsers(anyCollection())).thenReturn(Collections.emptyMap());
 
         // Act
         TaskDTO result = taskService.addDependency(taskId, dependencyId, token);
@@ -594,19 +609,328 @@ public class TaskServiceTest {
         assertEquals(Arrays.asList(dependencyId), result.getDependencyIds());
 
         // Verify interactions
-        verify(authClient).decodeToken(token);
+        verify(jwtTokenVerifier).currentUserId(token);
         verify(taskRepository).findById(taskId);
         verify(taskRepository).findById(dependencyId);
         verify(taskRepository).save(task);
         verify(taskMapper).toDTO(updatedTask);
+        verify(dependencyGraph).wouldCreateCycle(1L, taskId, List.of(dependencyId));
+        verify(dependencyGraph).dependencyAdded(1L, taskId, dependencyId);
 
         // Verify history logging
-        assertFalse(updatedTask.getHistory().isEmpty()); // Expect non-empty history
-        WorkItemHistory actualHistory = updatedTask.getHistory().iterator().next();
-        assertEquals("AJOUT_DEPENDANCE", actualHistory.getAction());
-        assertEquals("Dépendance ajoutée: Tâche ID " + dependencyId, actualHistory.getDescription());
-        assertEquals(updatedBy, actualHistory.getAuthorId());
-        assertNotNull(actualHistory.getTimestamp());
+        verify(historyWriter).record(any(Task.class), eq("AJOUT_DEPENDANCE"), eq("Dépendance ajoutée: Tâche ID " + dependencyId), eq(updatedBy));
+    }
+
+    @Test
+    void getTasksByUserAndActiveSprints_shouldUseBatchLookupAndAssigneeQuery() {
+        // Arrange : utilisateur présent sur deux projets
+        String token = "Bearer valid-token";
+        String userId = "user1";
+        ProjectResponseWithRoleDTO projects = new ProjectResponseWithRoleDTO("company", Arrays.asList(
+                new ProjectWithRoleDTO(1L, "P1", null, "DEVELOPER", null, null, null, null, null, null),
+                new ProjectWithRoleDTO(2L, "P2", null, "DEVELOPER", null, null, null, null, null, null)));
+        Map<Long, List<Long>> activeStories = new LinkedHashMap<>();
+        activeStories.put(1L, Arrays.asList(10L, 11L));
+        activeStories.put(2L, Collections.emptyList());
+
+        Task task = new Task();
+        task.setId(100L);
+        task.setAssignedUserIds(new HashSet<>(Collections.singletonList(userId)));
+        TaskDTO taskDTO = new TaskDTO();
+        taskDTO.setId(100L);
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn(userId);
+        when(projectClient.getProjectsByUser(userId)).thenReturn(projects);
+        when(activeSprintCache.getActiveStoryIdsByProject(Arrays.asList(1L, 2L))).thenReturn(activeStories);
+        when(taskRepository.findIdsByUserStoryInAndAssignedUserId(Arrays.asList(10L, 11L), userId))
+                .thenReturn(Collections.singletonList(100L));
+        when(taskRepository.findAllWithDetailsByIdIn(Collections.singletonList(100L)))
+                .thenReturn(Collections.singletonList(task));
+        when(taskMapper.toDTO(task)).thenReturn(taskDTO);
+        when(userDirectoryClient.getUsers(anyCollection())).thenReturn(Collections.emptyMap());
+
+        // Act
+        List<TaskDTO> result = taskService.getTasksByUserAndActiveSprints(token);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(100L, result.get(0).getId());
+        verify(activeSprintCache, never()).getActiveStoryIds(anyLong());
+        verify(projectClient, never()).getUserStoriesOfActiveSprint(anyLong());
+        verify(taskRepository, never()).findByUserStoryIn(anyList());
+    }
+
+    @Test
+    void getTasksOfActiveSprintPage_shouldPageByIdAndApplyFilters() {
+        // Arrange
+        Long projectId = 1L;
+        String token = "Bearer valid-token";
+        List<Long> activeStoryIds = Arrays.asList(10L, 11L);
+        WorkItemFilterDTO filter = new WorkItemFilterDTO(null, WorkItemPriority.HIGH, null, "backend",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        Task task = new Task();
+        task.setId(42L);
+        task.setAssignedUserIds(new HashSet<>(Arrays.asList("user1")));
+
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(activeStoryIds);
+        when(taskRepository.findPageIdsByUserStoryIn(activeStoryIds, 0L, filter, 2)).thenReturn(Arrays.asList(42L));
+        when(taskRepository.findAllWithDetailsByIdIn(Arrays.asList(42L))).thenReturn(Arrays.asList(task));
+        when(taskMapper.toDTO(task)).thenReturn(new TaskDTO());
+        when(userDirectoryClient.getUsers(anyCollection())).thenReturn(Collections.emptyMap());
+
+        // Act
+        CursorPageDTO<TaskDTO> page = taskService.getTasksOfActiveSprintPage(projectId, filter, null, 1, token);
+
+        // Assert : un seul id pour une taille de 1, c'est la dernière page
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(userDirectoryClient, times(1)).getUsers(anyCollection());
+    }
+
+    @Test
+    void getActiveSprintChanges_shouldReturnOnlyItemsChangedAndDeletedSinceVersion() {
+        // Arrange
+        Long projectId = 1L;
+        String token = "Bearer valid-token";
+        List<Long> activeStoryIds = Arrays.asList(10L, 11L);
+        Task changed = new Task();
+        changed.setId(42L);
+        changed.setAssignedUserIds(new HashSet<>());
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(changeVersionService.currentVersion(projectId)).thenReturn(57L);
+        when(changeVersionService.purgedVersion(projectId)).thenReturn(12L);
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(activeStoryIds);
+        when(taskRepository.findIdsChangedSince(eq(projectId), eq(50L), eq(activeStoryIds), any())).thenReturn(Arrays.asList(42L));
+        when(changeVersionService.deletedSince(projectId, "TASK", 50L, 1001)).thenReturn(Arrays.asList(7L));
+        when(taskRepository.findAllWithDetailsByIdIn(Arrays.asList(42L))).thenReturn(Arrays.asList(changed));
+        when(taskMapper.toDTO(changed)).thenReturn(new TaskDTO());
+
+        // Act
+        BoardChangesDTO changes = taskService.getActiveSprintChanges(projectId, 50L, token);
+
+        // Assert
+        assertFalse(changes.isResync());
+        assertEquals(57L, changes.getVersion());
+        assertEquals(1, changes.getItems().size());
+        assertEquals(Arrays.asList(7L), changes.getDeletedIds());
+        verify(taskRepository, never()).findPageIdsByUserStoryIn(anyList(), anyLong(), any(WorkItemFilterDTO.class), anyInt());
+    }
+
+    @Test
+    void getActiveSprintChanges_shouldReturnWholeBoard_whenVersionIsOlderThanPurgedTombstones() {
+        // Arrange
+        Long projectId = 1L;
+        String token = "Bearer valid-token";
+        List<Long> activeStoryIds = Arrays.asList(10L);
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(changeVersionService.currentVersion(projectId)).thenReturn(57L);
+        when(changeVersionService.purgedVersion(projectId)).thenReturn(30L);
+        when(activeSprintCache.getActiveStoryIds(projectId)).thenReturn(activeStoryIds);
+        when(taskRepository.findPageIdsByUserStoryIn(eq(activeStoryIds), eq(0L), any(WorkItemFilterDTO.class), eq(1001)))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        BoardChangesDTO changes = taskService.getActiveSprintChanges(projectId, 20L, token);
+
+        // Assert
+        assertTrue(changes.isResync());
+        assertEquals(57L, changes.getVersion());
+        verify(taskRepository, never()).findIdsChangedSince(anyLong(), anyLong(), anyList(), any());
+        assertThrows(IllegalArgumentException.class, () -> taskService.getActiveSprintChanges(projectId, -1L, token));
+    }
+
+    @Test
+    void getTasksPage_shouldRejectInvalidCursorAndDateRange() {
+        // Arrange
+        when(jwtTokenVerifier.currentUserId("Bearer valid-token")).thenReturn("user1");
+        WorkItemFilterDTO inverted = new WorkItemFilterDTO(null, null, null, null,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksPage(1L, null, "not-a-cursor", 10, "Bearer valid-token"));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksPage(1L, inverted, null, 10, "Bearer valid-token"));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksPage(1L, null, null, 0, "Bearer valid-token"));
+        verify(taskRepository, never()).findAllWithDetailsByIdIn(anyList());
+    }
+
+    @Test
+    void getTaskHistoryPage_shouldReadNewestFirstWithoutLoadingTask() {
+        // Arrange : 3 entrées lues pour une taille de 2, la troisième signale seulement une page suivante
+        String token = "Bearer valid-token";
+        LocalDateTime now = LocalDateTime.now();
+        List<WorkItemHistoryDTO> rows = Arrays.asList(
+                new WorkItemHistoryDTO(30L, "MISE_A_JOUR", "Statut modifié", "user1", now),
+                new WorkItemHistoryDTO(20L, "AJOUT_TEMPS", "Temps ajouté", null, now),
+                new WorkItemHistoryDTO(10L, "CREATION", "Task created", "user1", now));
+        UserSummary author = new UserSummary("user1", "Jane", "Doe", "", true);
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(workItemHistoryRepository.findPageByWorkItemId(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(rows);
+        when(userDirectoryClient.getUsers(anyCollection())).thenReturn(Map.of("user1", author));
+
+        // Act
+        CursorPageDTO<WorkItemHistoryDTO> page = taskService.getTaskHistoryPage(1L, null, 2, token);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("Jane Doe", page.getItems().get(0).getAuthorName());
+        assertEquals(20L, page.getItems().get(1).getId());
+        assertNotNull(page.getNextCursor());
+        verify(taskRepository, never()).findById(anyLong());
+
+        // Page suivante : entrées d'id inférieur au curseur
+        when(workItemHistoryRepository.findPageByWorkItemId(eq(1L), eq(20L), any())).thenReturn(rows.subList(2, 3));
+        CursorPageDTO<WorkItemHistoryDTO> next = taskService.getTaskHistoryPage(1L, page.getNextCursor(), 2, token);
+        assertEquals(1, next.getItems().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getTaskHistory_shouldKeepNewestEntriesInChronologicalOrder() {
+        // Arrange : la lecture bornée part des entrées les plus récentes
+        String token = "Bearer valid-token";
+        LocalDateTime now = LocalDateTime.now();
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(workItemHistoryRepository.findPageByWorkItemId(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(Arrays.asList(
+                new WorkItemHistoryDTO(30L, "MISE_A_JOUR", "Statut modifié", "user1", now),
+                new WorkItemHistoryDTO(20L, "AJOUT_TEMPS", "Temps ajouté", "user1", now)));
+
+        // Act
+        List<WorkItemHistoryDTO> history = taskService.getTaskHistory(1L, token);
+
+        // Assert
+        assertEquals(Arrays.asList(20L, 30L), history.stream().map(WorkItemHistoryDTO::getId).toList());
+    }
+
+    @Test
+    void getTaskHistory_shouldThrowNoSuchElementException_whenTaskNotFound() {
+        when(taskRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NoSuchElementException.class, () -> taskService.getTaskHistory(99L, "Bearer valid-token"));
+        verifyNoInteractions(workItemHistoryRepository);
+    }
+
+    @Test
+    void getPotentialDependencies_shouldReturnSummaries_withoutLoadingEntities() {
+        // Arrange
+        Long taskId = 1L;
+        String token = "Bearer valid-token";
+        List<TaskSummaryDTO> summaries = Arrays.asList(new TaskSummaryDTO(2L, "Other", WorkItemStatus.TO_DO, 5L, 3L));
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(taskRepository.findProjectIdById(taskId)).thenReturn(Optional.of(5L));
+        when(taskRepository.findPotentialDependencies(5L, taskId)).thenReturn(summaries);
+
+        // Act
+        List<TaskSummaryDTO> result = taskService.getPotentialDependencies(taskId, token);
+
+        // Assert
+        assertEquals(summaries, result);
+        verify(taskRepository, never()).findById(anyLong());
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void getPotentialDependencies_shouldThrowNoSuchElementException_whenTaskNotFound() {
+        // Arrange
+        String token = "Bearer valid-token";
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(taskRepository.findProjectIdById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> taskService.getPotentialDependencies(1L, token));
+    }
+
+    @Test
+    void addDependency_shouldThrowIllegalArgumentException_whenCycleDetected() {
+        // Arrange
+        String token = "Bearer valid-token";
+        Task task = new Task();
+        task.setId(1L);
+        task.setProjectId(5L);
+        task.setDependencies(new ArrayList<>());
+        Task dependency = new Task();
+        dependency.setId(2L);
+        dependency.setProjectId(5L);
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(dependency));
+        when(dependencyGraph.wouldCreateCycle(5L, 1L, List.of(2L))).thenReturn(true);
+
+        // Act & Assert : rien n'est ajouté ni sauvegardé
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                taskService.addDependency(1L, 2L, token));
+        assertEquals("Dependency cycle detected involving task ID: 1", exception.getMessage());
+        assertTrue(task.getDependencies().isEmpty());
+        verify(taskRepository, never()).save(any());
+        verify(dependencyGraph, never()).dependencyAdded(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void addDependency_shouldRecheckCycleInDatabase_whenCachedGraphMissesIt() {
+        // Arrange : graphe en cache sans l'arc écrit par une autre instance, cycle visible en base
+        String token = "Bearer valid-token";
+        Task task = new Task();
+        task.setId(1L);
+        task.setProjectId(5L);
+        task.setDependencies(new ArrayList<>());
+        Task dependency = new Task();
+        dependency.setId(2L);
+        dependency.setProjectId(5L);
+
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(dependency));
+        when(dependencyGraph.wouldCreateCycle(5L, 1L, List.of(2L))).thenReturn(false);
+        when(dependencyGraph.wouldCreateCycleLocked(1L, List.of(2L))).thenReturn(true);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                taskService.addDependency(1L, 2L, token));
+        assertEquals("Dependency cycle detected involving task ID: 1", exception.getMessage());
+        verify(dependencyGraph).wouldCreateCycleLocked(1L, List.of(2L));
+        assertTrue(task.getDependencies().isEmpty());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void getBlockedTasks_shouldLoadSummariesOfBlockedIdsOnly() {
+        // Arrange
+        String token = "Bearer valid-token";
+        List<TaskSummaryDTO> summaries = Arrays.asList(new TaskSummaryDTO(3L, "Blocked", WorkItemStatus.TO_DO, 5L, 7L));
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(dependencyGraph.getBlockedTaskIds(5L)).thenReturn(List.of(3L));
+        when(taskRepository.findSummariesByIdIn(List.of(3L))).thenReturn(summaries);
+
+        // Act
+        List<TaskSummaryDTO> result = taskService.getBlockedTasks(5L, token);
+
+        // Assert
+        assertEquals(summaries, result);
+        verify(taskRepository, never()).findByProjectId(anyLong());
+    }
+
+    @Test
+    void getBlockedTasks_shouldSkipQuery_whenNothingBlocked() {
+        // Arrange
+        String token = "Bearer valid-token";
+        when(jwtTokenVerifier.currentUserId(token)).thenReturn("user1");
+        when(dependencyGraph.getBlockedTaskIds(5L)).thenReturn(Collections.emptyList());
+
+        // Act
+        List<TaskSummaryDTO> result = taskService.getBlockedTasks(5L, token);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(taskRepository, never()).findSummariesByIdIn(any());
     }
 
-}
\ No newline at end of file
+}
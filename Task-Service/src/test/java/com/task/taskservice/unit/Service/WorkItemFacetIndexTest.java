@@ -0,0 +1,162 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.DTO.FacetFilterDTO;
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.Tag;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Service.WorkItemFacetIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.task.taskservice.DTO.FacetFilterDTO.facet;
+import static com.task.taskservice.DTO.FacetFilterDTO.op;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WorkItemFacetIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkItemFacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        facetIndex = new WorkItemFacetIndex(taskRepository, transactionManager, meterRegistry, 300_000);
+
+        // 1 : tâche TO_DO HIGH dev1 [backend] ; 2 : tâche IN_PROGRESS HIGH dev2 [frontend] ;
+        // 3 : bug TO_DO CRITICAL dev1, dev2 [backend, urgent] ; 4 : tâche DONE sans priorité ni assigné
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "TASK", WorkItemStatus.TO_DO, WorkItemPriority.HIGH, 10L});
+        rows.add(new Object[]{2L, "TASK", WorkItemStatus.IN_PROGRESS, WorkItemPriority.HIGH, 10L});
+        rows.add(new Object[]{3L, "BUG", WorkItemStatus.TO_DO, WorkItemPriority.CRITICAL, 11L});
+        rows.add(new Object[]{4L, "TASK", WorkItemStatus.DONE, null, null});
+        List<Object[]> assignees = new ArrayList<>();
+        assignees.add(new Object[]{1L, "dev1"});
+        assignees.add(new Object[]{2L, "dev2"});
+        assignees.add(new Object[]{3L, "dev1"});
+        assignees.add(new Object[]{3L, "dev2"});
+        List<Object[]> tags = new ArrayList<>();
+        tags.add(new Object[]{1L, "backend"});
+        tags.add(new Object[]{2L, "frontend"});
+        tags.add(new Object[]{3L, "backend"});
+        tags.add(new Object[]{3L, "urgent"});
+        when(taskRepository.findFacetRows(1L)).thenReturn(rows);
+        when(taskRepository.findFacetAssignees(1L)).thenReturn(assignees);
+        when(taskRepository.findFacetTags(1L)).thenReturn(tags);
+    }
+
+    @Test
+    void query_shouldCombineAndOrNotAndCountFacetsOfMatchingItems() {
+        // (status TO_DO ou IN_PROGRESS) ET tag backend ET NON type BUG
+        FacetFilterDTO filter = op("AND",
+                facet("status", "to_do", "IN_PROGRESS"),
+                facet("tag", "backend"),
+                op("NOT", facet("type", "bug")));
+
+        // Act
+        WorkItemFacetIndex.Result result = facetIndex.query(1L, filter, List.of("assignee", "priority"));
+
+        // Assert
+        assertEquals(1, result.total());
+        assertEquals(List.of(1L), result.idsAfter(0, 10));
+        assertEquals(Map.of("dev1", 1L), result.counts().get("assignee"));
+        assertEquals(Map.of("HIGH", 1L), result.counts().get("priority"));
+
+        // Sans filtre : tous les items, comptes par compte décroissant, valeur "none" pour les absents
+        WorkItemFacetIndex.Result all = facetIndex.query(1L, null, List.of("status", "priority"));
+        assertEquals(4, all.total());
+        assertEquals(List.of("TO_DO", "DONE", "IN_PROGRESS"), new ArrayList<>(all.counts().get("status").keySet()));
+        assertEquals(1L, all.counts().get("priority").get(WorkItemFacetIndex.NONE));
+
+        // OR de deux assignés, NOT d'une story
+        assertEquals(List.of(1L, 2L, 3L), facetIndex.query(1L, facet("assignee", "dev1", "dev2"), null).idsAfter(0, 10));
+        assertEquals(List.of(3L, 4L), facetIndex.query(1L, op("NOT", facet("story", "10")), null).idsAfter(0, 10));
+
+        // Projet lu une seule fois
+        verify(taskRepository, times(1)).findFacetRows(1L);
+        assertEquals(4, meterRegistry.get("work.items.facets.query").timer().count());
+    }
+
+    @Test
+    void changedAndRemoved_shouldUpdateLoadedProjectWithoutReloading() {
+        facetIndex.query(1L, null, null);
+        Bug bug = new Bug();
+        bug.setId(3L);
+        bug.setProjectId(1L);
+        bug.setStatus(WorkItemStatus.DONE);
+        bug.setPriority(WorkItemPriority.LOW);
+        bug.setUserStory(11L);
+        bug.setAssignedUserIds(Set.of("dev3"));
+        Tag tag = new Tag();
+        tag.setName("regression");
+        bug.setItemtags(Set.of(tag));
+        Task task = new Task();
+        task.setId(2L);
+        task.setProjectId(1L);
+
+        // Act
+        facetIndex.changed(bug);
+        facetIndex.removed(task);
+
+        // Assert
+        assertEquals(List.of(3L, 4L), facetIndex.query(1L, facet("status", "DONE"), null).idsAfter(0, 10));
+        assertEquals(List.of(1L), facetIndex.query(1L, facet("tag", "backend"), null).idsAfter(0, 10));
+        assertEquals(List.of(3L), facetIndex.query(1L, facet("assignee", "dev3"), null).idsAfter(0, 10));
+        assertEquals(0, facetIndex.query(1L, facet("assignee", "dev2"), null).total());
+        assertEquals(3, facetIndex.query(1L, null, null).total());
+        verify(taskRepository, times(1)).findFacetRows(1L);
+    }
+
+    @Test
+    void query_shouldReloadOnNextQuery_whenEveryLoadAttemptWasOvertakenByAWrite() {
+        // Chaque lecture du projet est dépassée par une écriture concurrente
+        Task task = new Task();
+        task.setId(5L);
+        task.setProjectId(1L);
+        task.setStatus(WorkItemStatus.TO_DO);
+        List<Object[]> rows = taskRepository.findFacetRows(1L);
+        when(taskRepository.findFacetRows(1L)).thenAnswer(invocation -> {
+            facetIndex.changed(task);
+            return rows;
+        });
+
+        // Act
+        facetIndex.query(1L, null, null);
+        // Lecture des lignes ci-dessus + 3 essais de chargement
+        verify(taskRepository, times(4)).findFacetRows(1L);
+        facetIndex.query(1L, null, null);
+
+        // Assert : le dernier instantané n'est pas conservé jusqu'à refresh-after-ms
+        verify(taskRepository, times(7)).findFacetRows(1L);
+    }
+
+    @Test
+    void idsAfter_shouldPageByIdAndRejectUnknownFacets() {
+        WorkItemFacetIndex.Result result = facetIndex.query(1L, null, null);
+
+        assertEquals(List.of(1L, 2L), result.idsAfter(0, 2));
+        assertEquals(List.of(3L, 4L), result.idsAfter(2, 2));
+        assertTrue(result.idsAfter(4, 2).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> facetIndex.query(1L, facet("color", "red"), null));
+        assertThrows(IllegalArgumentException.class, () -> facetIndex.query(1L, op("XOR", facet("tag", "backend")), null));
+    }
+}
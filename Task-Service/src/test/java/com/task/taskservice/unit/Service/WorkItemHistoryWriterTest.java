@@ -0,0 +1,94 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Service.WorkItemHistoryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WorkItemHistoryWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkItemHistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new WorkItemHistoryWriter(jdbcTemplate, entityManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(writer);
+    }
+
+    private static Task task(Long id) {
+        Task task = new Task();
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_shouldBatchEntriesBeforeCommit_andSkipDeletedItems() {
+        // Arrange : 1 géré, 2 détaché mais toujours en base (session vidée), 3 détaché et supprimé
+        Task managed = task(1L);
+        Task detached = task(2L);
+        Task deleted = task(3L);
+        when(entityManager.contains(managed)).thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenReturn(List.of(2L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.record(managed, "CREATION", "Task created: A", "user1");
+        writer.record(detached, "MISE_A_JOUR", "Titre changé", "user1");
+        writer.record(deleted, "SUPPRESSION", "Tâche supprimée: C", "user1");
+
+        // Assert : rien n'est écrit avant le commit
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(entityManager).flush();
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO WorkItemHistory"), batch.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        assertEquals(2.0, meterRegistry.counter("work.item.history.written").count());
+    }
+
+    @Test
+    void record_shouldInsertImmediately_whenNoTransaction() {
+        writer.record(task(1L), "AJOUT_TEMPS", "Temps ajouté", null);
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO WorkItemHistory"), anyCollection(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,94 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.DTO.WorkItemSearchHitDTO;
+import com.task.taskservice.Service.WorkItemSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkItemSearchIndexTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchIndex = new WorkItemSearchIndex(meterRegistry, "", 50, 50, 150);
+        searchIndex.apply(List.of(
+                entry(1L, "TASK", 1L, "Écran de connexion", "Formulaire login et mot de passe", "TO_DO",
+                        List.of("dev1"), List.of("frontend"), List.of()),
+                entry(2L, "BUG", 1L, "Erreur 500 au paiement", "Le panier plante", "IN_PROGRESS",
+                        List.of("dev2"), List.of("paiement"), List.of("Reproduit sur la connexion invitée")),
+                entry(3L, "TASK", 1L, "Configurer la base", "Connexion JDBC au serveur", "DONE",
+                        List.of("dev1"), List.of("backend"), List.of()),
+                entry(4L, "TASK", 2L, "Écran de connexion", null, "TO_DO",
+                        List.of("dev1"), List.of(), List.of())), List.of());
+        searchIndex.commit();
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchIndex.close();
+    }
+
+    private static WorkItemSearchIndex.Entry entry(Long id, String type, Long projectId, String title, String description,
+                                                   String status, List<String> assignees, List<String> tags, List<String> comments) {
+        return new WorkItemSearchIndex.Entry(id, type, projectId, 10L, title, description, status, assignees, tags, comments);
+    }
+
+    private static List<Long> ids(List<WorkItemSearchHitDTO> hits) {
+        return hits.stream().map(WorkItemSearchHitDTO::getId).toList();
+    }
+
+    @Test
+    void typeahead_shouldMatchTitlePrefixesWithoutCaseOrAccents() {
+        // Act
+        List<WorkItemSearchHitDTO> hits = searchIndex.typeahead(1L, "ecran conn", 10);
+
+        // Assert : seul le projet 1, champs stockés restitués
+        assertEquals(List.of(1L), ids(hits));
+        assertEquals("Écran de connexion", hits.get(0).getTitle());
+        assertEquals("TASK", hits.get(0).getItemType());
+        assertEquals(10L, hits.get(0).getUserStoryId());
+        assertEquals(List.of(2L), ids(searchIndex.typeahead(1L, "PAIE", 10)));
+        assertTrue(searchIndex.typeahead(1L, "   ", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldRankTitleAboveDescriptionAndCommentAndApplyFilters() {
+        // Act
+        List<WorkItemSearchHitDTO> all = searchIndex.search(1L, "connexion", null, null, null, 10);
+        List<WorkItemSearchHitDTO> dev1Open = searchIndex.search(1L, "connexion", List.of("TO_DO", "IN_PROGRESS"), "dev1", null, 10);
+        List<WorkItemSearchHitDTO> bugs = searchIndex.search(1L, "connexion", null, null, "BUG", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 3L, 2L), ids(all));
+        assertEquals(List.of(1L), ids(dev1Open));
+        assertEquals(List.of(2L), ids(bugs));
+        assertEquals(List.of(2L), ids(searchIndex.search(1L, "panier plante", null, null, null, 10)));
+        assertEquals(4L, meterRegistry.get("work.items.search.latency").tag("mode", WorkItemSearchIndex.FULL_TEXT).timer().count());
+    }
+
+    @Test
+    void endRebuild_shouldDropDocumentsNotRewrittenSinceBeginRebuild() {
+        // Act : reconstruction qui ne retrouve plus l'item 3
+        searchIndex.beginRebuild();
+        searchIndex.apply(List.of(
+                entry(1L, "TASK", 1L, "Écran de connexion", null, "DONE", List.of(), List.of(), List.of()),
+                entry(2L, "BUG", 1L, "Erreur 500 au paiement", null, "IN_PROGRESS", List.of(), List.of(), List.of()),
+                entry(4L, "TASK", 2L, "Écran de connexion", null, "TO_DO", List.of(), List.of(), List.of())), List.of());
+        searchIndex.endRebuild();
+        searchIndex.commit();
+
+        // Assert
+        assertEquals(3, searchIndex.size());
+        assertEquals(List.of(1L), ids(searchIndex.search(1L, "connexion", null, null, null, 10)));
+        assertEquals("DONE", searchIndex.search(1L, "connexion", null, null, null, 10).get(0).getStatus());
+    }
+}
@@ -0,0 +1,188 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.DTO.WorkItemSearchHitDTO;
+import com.task.taskservice.Entity.Tag;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.CommentRepository;
+import com.task.taskservice.Repository.ProjectChangeVersionRepository;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Repository.WorkItemTombstoneRepository;
+import com.task.taskservice.Service.WorkItemSearchIndex;
+import com.task.taskservice.Service.WorkItemSearchIndexer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WorkItemSearchIndexerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ProjectChangeVersionRepository versionRepository;
+
+    @Mock
+    private WorkItemTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WorkItemSearchIndex searchIndex;
+    private WorkItemSearchIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        searchIndex = spy(new WorkItemSearchIndex(meterRegistry, "", 50, 50, 150));
+        indexer = new WorkItemSearchIndexer(searchIndex, taskRepository, commentRepository, versionRepository,
+                tombstoneRepository, transactionManager, meterRegistry, 60_000, 60_000, 2, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexer.shutdown();
+        searchIndex.close();
+    }
+
+    private static Task task(long id, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setProjectId(1L);
+        task.setTitle(title);
+        task.setStatus(WorkItemStatus.TO_DO);
+        task.setAssignedUserIds(Set.of("dev1"));
+        return task;
+    }
+
+    @Test
+    void flush_shouldIndexChangedItemsWithTagsAndCommentsInOneCommit() {
+        // Arrange
+        Task first = task(1L, "Écran de connexion");
+        Tag tag = new Tag();
+        tag.setName("frontend");
+        first.setItemtags(Set.of(tag));
+        Task second = task(2L, "Export CSV");
+        Task third = task(3L, "Import CSV");
+        List<Object[]> comments = new ArrayList<>();
+        comments.add(new Object[]{2L, "Attention aux séparateurs"});
+        when(taskRepository.findWorkItemsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Task> found = new ArrayList<>();
+            for (Task task : List.of(first, second, third)) {
+                if (((Collection<?>) invocation.getArgument(0)).contains(task.getId())) {
+                    found.add(task);
+                }
+            }
+            return found;
+        });
+        when(commentRepository.findContentsByWorkItemIdIn(anyCollection())).thenReturn(comments);
+
+        // Act : trois items, lots de deux, hors transaction (marqués aussitôt)
+        indexer.changed(first);
+        indexer.changed(second);
+        indexer.changed(third);
+        int processed = indexer.flush();
+
+        // Assert
+        assertEquals(3, processed);
+        verify(searchIndex, times(1)).commit();
+        assertEquals(List.of(1L), searchIndex.search(1L, "frontend", null, "dev1", null, 10).stream().map(WorkItemSearchHitDTO::getId).toList());
+        assertEquals(1, searchIndex.search(1L, "separateurs", null, null, null, 10).size());
+        assertEquals(0, indexer.flush());
+    }
+
+    @Test
+    void flush_shouldRemoveItemsThatNoLongerExist() {
+        // Arrange : item indexé puis supprimé en base
+        Task task = task(1L, "Écran de connexion");
+        when(taskRepository.findWorkItemsByIdIn(anyCollection())).thenReturn(List.of(task)).thenReturn(List.of());
+        when(commentRepository.findContentsByWorkItemIdIn(anyCollection())).thenReturn(List.of());
+        indexer.changed(task);
+        indexer.flush();
+        assertEquals(1, searchIndex.size());
+
+        // Act
+        indexer.changed(task);
+        indexer.flush();
+
+        // Assert
+        assertEquals(0, searchIndex.size());
+        assertTrue(searchIndex.typeahead(1L, "ecr", 10).isEmpty());
+    }
+
+    @Test
+    void catchUp_shouldIndexWritesOfOtherInstancesSinceIndexedVersion() {
+        // Arrange : item 3 indexé localement, puis projet 1 en version 5 (items 1 et 2 écrits, 3 supprimé ailleurs)
+        Task first = task(1L, "Écran de connexion");
+        Task second = task(2L, "Export CSV");
+        Task third = task(3L, "Import CSV");
+        when(taskRepository.findWorkItemsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Task> found = new ArrayList<>();
+            for (Task task : List.of(first, second, third)) {
+                if (((Collection<?>) invocation.getArgument(0)).contains(task.getId())) {
+                    found.add(task);
+                }
+            }
+            return found;
+        });
+        when(commentRepository.findContentsByWorkItemIdIn(anyCollection())).thenReturn(List.of());
+        indexer.changed(third);
+        indexer.flush();
+        List<Object[]> versions = new ArrayList<>();
+        versions.add(new Object[]{1L, 5L, 0L});
+        when(versionRepository.findAllVersions()).thenReturn(versions);
+        when(taskRepository.findWorkItemIdsChangedBetween(eq(1L), eq(0L), eq(5L), eq(0L), any())).thenReturn(List.of(1L, 2L));
+        when(taskRepository.findWorkItemIdsChangedBetween(eq(1L), eq(0L), eq(5L), eq(2L), any())).thenReturn(List.of());
+        when(tombstoneRepository.findIdsDeletedBetween(1L, 0L, 5L)).thenReturn(List.of(3L));
+
+        // Act
+        int processed = indexer.catchUp();
+
+        // Assert : versions indexées enregistrées dans le commit, rien à rattraper ensuite
+        assertEquals(3, processed);
+        assertEquals(2, searchIndex.size());
+        assertEquals(1, searchIndex.search(1L, "export", null, null, null, 10).size());
+        assertEquals(Map.of(1L, 5L), searchIndex.indexedVersions());
+        assertEquals(0, indexer.catchUp());
+        verify(tombstoneRepository, times(1)).findIdsDeletedBetween(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void catchUp_shouldRebuild_whenNeededTombstonesWerePurged() {
+        // Arrange : index jamais rattrapé, pierres tombales du projet purgées jusqu'à la version 3
+        Task task = task(1L, "Écran de connexion");
+        List<Object[]> versions = new ArrayList<>();
+        versions.add(new Object[]{1L, 8L, 3L});
+        when(versionRepository.findAllVersions()).thenReturn(versions);
+        when(taskRepository.findWorkItemIdsAfter(eq(0L), any())).thenReturn(List.of(1L));
+        when(taskRepository.findWorkItemsByIdIn(anyCollection())).thenReturn(List.of(task));
+        when(commentRepository.findContentsByWorkItemIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        int processed = indexer.catchUp();
+
+        // Assert
+        assertEquals(1, processed);
+        assertEquals(1, searchIndex.size());
+        assertEquals(Map.of(1L, 8L), searchIndex.indexedVersions());
+        verify(taskRepository, never()).findWorkItemIdsChangedBetween(anyLong(), anyLong(), anyLong(), anyLong(), any());
+    }
+}
@@ -0,0 +1,286 @@
+package com.task.taskservice.unit.Service;
+
+import com.task.taskservice.DTO.DashboardStatsDTO;
+import com.task.taskservice.Entity.Bug;
+import com.task.taskservice.Entity.Task;
+import com.task.taskservice.Entity.WorkItemDueStat;
+import com.task.taskservice.Entity.WorkItemStat;
+import com.task.taskservice.Enumeration.WorkItemPriority;
+import com.task.taskservice.Enumeration.WorkItemStatus;
+import com.task.taskservice.Repository.BugRepository;
+import com.task.taskservice.Repository.TaskRepository;
+import com.task.taskservice.Repository.WorkItemDueStatRepository;
+import com.task.taskservice.Repository.WorkItemStatRepository;
+import com.task.taskservice.Service.WorkItemStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WorkItemStatsServiceTest {
+
+    @Mock
+    private WorkItemStatRepository workItemStatRepository;
+
+    @Mock
+    private WorkItemDueStatRepository workItemDueStatRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private BugRepository bugRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkItemStatsService workItemStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        workItemStatsService = new WorkItemStatsService(workItemStatRepository, workItemDueStatRepository, taskRepository, bugRepository,
+                transactionManager, meterRegistry);
+    }
+
+    private Task task(Long userStory, WorkItemStatus status, WorkItemPriority priority, LocalDate dueDate) {
+        Task task = new Task();
+        task.setUserStory(userStory);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    @Test
+    void recordCreated_shouldIncrementExistingRow() {
+        // Arrange
+        Task task = task(1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, LocalDate.of(2025, 1, 10));
+        String id = WorkItemStatsService.Key.of(task).id();
+        when(workItemStatRepository.existsById(id)).thenReturn(true);
+        when(workItemStatRepository.increment(id, 1)).thenReturn(1);
+
+        // Act
+        workItemStatsService.recordCreated(task);
+
+        // Assert
+        verify(workItemStatRepository).increment(id, 1);
+        verify(workItemStatRepository, never()).saveAndFlush(any());
+        verify(workItemDueStatRepository).increment(WorkItemStatsService.Key.of(task).dueId(), 1);
+    }
+
+    @Test
+    void recordCreated_shouldCreateMissingRow_thenIncrement() {
+        // Arrange
+        Bug bug = new Bug();
+        bug.setUserStory(3L);
+        bug.setStatus(WorkItemStatus.IN_PROGRESS);
+        bug.setPriority(WorkItemPriority.LOW);
+        String id = WorkItemStatsService.Key.of(bug).id();
+        when(workItemStatRepository.existsById(id)).thenReturn(false);
+        when(workItemStatRepository.increment(id, 1)).thenReturn(1);
+
+        // Act
+        workItemStatsService.recordCreated(bug);
+
+        // Assert : la ligne est créée à zéro, l'incrément reste un UPDATE
+        ArgumentCaptor<WorkItemStat> captor = ArgumentCaptor.forClass(WorkItemStat.class);
+        verify(workItemStatRepository).saveAndFlush(captor.capture());
+        assertEquals(WorkItemStatsService.BUG, captor.getValue().getItemType());
+        assertEquals(0L, captor.getValue().getItemCount());
+        verify(workItemStatRepository).increment(id, 1);
+    }
+
+    @Test
+    void recordCreated_shouldStillIncrement_whenRowCreatedConcurrently() {
+        // Arrange
+        Task task = task(1L, WorkItemStatus.TO_DO, null, null);
+        String id = WorkItemStatsService.Key.of(task).id();
+        when(workItemStatRepository.existsById(id)).thenReturn(false);
+        when(workItemStatRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(workItemStatRepository.increment(id, 1)).thenReturn(1);
+
+        // Act
+        workItemStatsService.recordCreated(task);
+
+        // Assert
+        verify(workItemStatRepository).increment(id, 1);
+    }
+
+    @Test
+    void recordUpdated_shouldMoveCount_whenStatusChanges() {
+        // Arrange
+        Task task = task(1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, null);
+        WorkItemStatsService.Key before = workItemStatsService.snapshot(task);
+        task.setStatus(WorkItemStatus.DONE);
+        String afterId = WorkItemStatsService.Key.of(task).id();
+        when(workItemStatRepository.existsById(anyString())).thenReturn(true);
+        when(workItemStatRepository.increment(anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        workItemStatsService.recordUpdated(before, task);
+
+        // Assert
+        verify(workItemStatRepository).increment(before.id(), -1);
+        verify(workItemStatRepository).increment(afterId, 1);
+    }
+
+    @Test
+    void recordUpdated_shouldDoNothing_whenDimensionsUnchanged() {
+        // Arrange
+        Task task = task(1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, null);
+        WorkItemStatsService.Key before = workItemStatsService.snapshot(task);
+        task.setTitle("Nouveau titre");
+
+        // Act
+        workItemStatsService.recordUpdated(before, task);
+
+        // Assert
+        verifyNoInteractions(workItemStatRepository, workItemDueStatRepository);
+    }
+
+    @Test
+    void recordUpdated_shouldOnlyMoveDueCounter_whenOnlyDueDateChanges() {
+        // Arrange
+        Task task = task(1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, LocalDate.of(2025, 1, 10));
+        WorkItemStatsService.Key before = workItemStatsService.snapshot(task);
+        task.setDueDate(LocalDate.of(2025, 1, 20));
+        String afterDueId = WorkItemStatsService.Key.of(task).dueId();
+        when(workItemDueStatRepository.existsById(anyString())).thenReturn(true);
+        when(workItemDueStatRepository.increment(anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        workItemStatsService.recordUpdated(before, task);
+
+        // Assert : une seule ligne work_item_stats par (statut, priorité), quelle que soit l'échéance
+        verifyNoInteractions(workItemStatRepository);
+        verify(workItemDueStatRepository).increment(before.dueId(), -1);
+        verify(workItemDueStatRepository).increment(afterDueId, 1);
+    }
+
+    @Test
+    void recordUpdated_shouldReleaseDueCounter_whenItemIsDone() {
+        // Arrange
+        Task task = task(1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, LocalDate.of(2025, 1, 10));
+        WorkItemStatsService.Key before = workItemStatsService.snapshot(task);
+        task.setStatus(WorkItemStatus.DONE);
+        when(workItemStatRepository.existsById(anyString())).thenReturn(true);
+        when(workItemStatRepository.increment(anyString(), anyLong())).thenReturn(1);
+        when(workItemDueStatRepository.existsById(anyString())).thenReturn(true);
+        when(workItemDueStatRepository.increment(anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        workItemStatsService.recordUpdated(before, task);
+
+        // Assert : un item terminé n'est plus compté dans les échéances
+        assertNull(WorkItemStatsService.Key.of(task).dueId());
+        verify(workItemDueStatRepository).increment(before.dueId(), -1);
+        verify(workItemDueStatRepository, times(1)).increment(anyString(), anyLong());
+    }
+
+    @Test
+    void recordCreated_shouldIgnoreItemWithoutUserStory() {
+        // Act
+        workItemStatsService.recordCreated(task(null, WorkItemStatus.TO_DO, null, null));
+
+        // Assert
+        verifyNoInteractions(workItemStatRepository, workItemDueStatRepository);
+    }
+
+    @Test
+    void getDashboardStats_shouldAggregateCountersInOneRead() {
+        // Arrange
+        List<Long> storyIds = Arrays.asList(1L, 2L);
+        when(workItemStatRepository.findByItemTypeAndUserStoryIn(WorkItemStatsService.TASK, storyIds)).thenReturn(Arrays.asList(
+                new WorkItemStat("a", "TASK", 1L, WorkItemStatus.DONE, WorkItemPriority.HIGH, 5),
+                new WorkItemStat("b", "TASK", 1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, 2),
+                new WorkItemStat("c", "TASK", 2L, WorkItemStatus.IN_PROGRESS, WorkItemPriority.MEDIUM, 3),
+                new WorkItemStat("d", "TASK", 2L, null, null, 1)
+        ));
+        when(workItemDueStatRepository.sumOverdue(WorkItemStatsService.TASK, storyIds, LocalDate.now())).thenReturn(2L);
+
+        // Act
+        DashboardStatsDTO result = workItemStatsService.getDashboardStats(WorkItemStatsService.TASK, storyIds);
+
+        // Assert : les retards viennent des compteurs d'échéance, le statut null ne compte que dans le total
+        assertEquals(5L, result.getCompletedTasks());
+        assertEquals(5L, result.getNotCompletedTasks());
+        assertEquals(2L, result.getOverdueTasks());
+        assertEquals(11L, result.getTotalTasks());
+        assertEquals(5L, result.getTasksByStatus().get("DONE"));
+        assertEquals(3L, result.getTasksByStatus().get("IN_PROGRESS"));
+        assertEquals(7L, result.getTasksByPriority().get("HIGH"));
+        assertEquals(3L, result.getTasksByPriority().get("MEDIUM"));
+        verify(workItemStatRepository, times(1)).findByItemTypeAndUserStoryIn(anyString(), anyList());
+    }
+
+    @Test
+    void reconcile_shouldApplyDeltasToDriftedMissingAndStaleRows() {
+        // Arrange
+        WorkItemStatsService.Key drifted = new WorkItemStatsService.Key("TASK", 1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, null);
+        WorkItemStatsService.Key stale = new WorkItemStatsService.Key("TASK", 1L, WorkItemStatus.DONE, WorkItemPriority.HIGH, null);
+        WorkItemStatsService.Key missing = new WorkItemStatsService.Key("TASK", 2L, WorkItemStatus.IN_PROGRESS, WorkItemPriority.LOW, null);
+        when(taskRepository.aggregateStatsByUserStory()).thenReturn(Arrays.asList(
+                new Object[]{1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, 4L},
+                new Object[]{2L, WorkItemStatus.IN_PROGRESS, WorkItemPriority.LOW, 1L}
+        ));
+        when(bugRepository.aggregateStatsByUserStory()).thenReturn(Collections.emptyList());
+        when(workItemStatRepository.findByItemType(WorkItemStatsService.TASK)).thenReturn(Arrays.asList(
+                new WorkItemStat(drifted.id(), "TASK", 1L, WorkItemStatus.TO_DO, WorkItemPriority.HIGH, 3),
+                new WorkItemStat(stale.id(), "TASK", 1L, WorkItemStatus.DONE, WorkItemPriority.HIGH, 2)
+        ));
+        when(workItemStatRepository.findByItemType(WorkItemStatsService.BUG)).thenReturn(Collections.emptyList());
+        when(workItemStatRepository.existsById(drifted.id())).thenReturn(true);
+        when(workItemStatRepository.increment(anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        workItemStatsService.reconcile();
+
+        // Assert : seul l'écart est appliqué, un incrément concurrent n'est donc pas écrasé
+        verify(workItemStatRepository).increment(drifted.id(), 1L);
+        verify(workItemStatRepository).increment(stale.id(), -2L);
+        verify(workItemStatRepository).increment(missing.id(), 1L);
+        ArgumentCaptor<WorkItemStat> captor = ArgumentCaptor.forClass(WorkItemStat.class);
+        verify(workItemStatRepository).saveAndFlush(captor.capture());
+        assertEquals(2L, captor.getValue().getUserStory());
+        assertEquals(0L, captor.getValue().getItemCount());
+        assertEquals(3.0, meterRegistry.counter("work.item.stats.reconciled").count());
+    }
+
+    @Test
+    void reconcile_shouldApplyDeltasToDueCounters() {
+        // Arrange
+        LocalDate dueDate = LocalDate.of(2025, 1, 10);
+        String dueId = new WorkItemStatsService.Key("BUG", 3L, WorkItemStatus.TO_DO, null, dueDate).dueId();
+        when(taskRepository.aggregateStatsByUserStory()).thenReturn(Collections.emptyList());
+        when(bugRepository.aggregateStatsByUserStory()).thenReturn(Collections.emptyList());
+        when(bugRepository.aggregateOpenDueDatesByUserStory(WorkItemStatus.DONE))
+                .thenReturn(Collections.singletonList(new Object[]{3L, dueDate, 5L}));
+        when(workItemDueStatRepository.findByItemType(WorkItemStatsService.BUG))
+                .thenReturn(Collections.singletonList(new WorkItemDueStat(dueId, "BUG", 3L, dueDate, 7)));
+        when(workItemDueStatRepository.existsById(dueId)).thenReturn(true);
+        when(workItemDueStatRepository.increment(anyString(), anyLong())).thenReturn(1);
+
+        // Act
+        workItemStatsService.reconcile();
+
+        // Assert
+        verify(workItemDueStatRepository).increment(dueId, -2L);
+        assertEquals(1.0, meterRegistry.counter("work.item.stats.reconciled").count());
+    }
+}
@@ -6,7 +6,7 @@ import com.collaboration.collaborationservice.call.repository.CallRepository;
 import com.collaboration.collaborationservice.call.repository.CallSessionRepository;
 import com.collaboration.collaborationservice.channel.entity.Channel;
 import com.collaboration.collaborationservice.channel.repository.ChannelRepository;
-import com.collaboration.collaborationservice.channel.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.collaboration.collaborationservice.common.enums.CallStatus;
 import com.collaboration.collaborationservice.common.enums.CallType;
 import com.collaboration.collaborationservice.common.valueobjects.SdpInfo;
@@ -44,13 +44,13 @@ public class CallService {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Transactional
     public CallDTO initiateCall(Long channelId, CallType callType, String token) {
         logger.info("Initiation d'un appel de {} pour channelId: {}", callType, channelId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             logger.error("Échec du décodage du token: userId est null");
             throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -88,7 +88,7 @@ public class CallService {
     public CallDTO joinCall(Long callId, String token) {
         logger.info("Utilisateur rejoint l'appel {}", callId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             logger.error("Échec du décodage du token: userId est null");
             throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -116,7 +116,7 @@ public class CallService {
     public void endCall(Long callId, String token) {
         logger.info("Utilisateur termine l'appel {}", callId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             logger.error("Échec du décodage du token: userId est null");
             throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -140,7 +140,7 @@ public class CallService {
     public void handleSignaling(Long callId, SdpInfo sdpInfo, String type, String token) {
         logger.info("Traitement de la signalisation pour callId: {}, type: {}", callId, type);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             logger.error("Échec du décodage du token: userId est null");
             throw new IllegalArgumentException("Utilisateur non authentifié");
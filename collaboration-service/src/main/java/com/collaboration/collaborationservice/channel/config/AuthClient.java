@@ -18,8 +18,6 @@ public interface AuthClient {
             @PathVariable("authId") String authId,
             @RequestHeader("Authorization") String authorization
     );
-    @GetMapping("/api/auth/decode-token")
-    String decodeToken(@RequestHeader("Authorization") String authorization);
 
 
 
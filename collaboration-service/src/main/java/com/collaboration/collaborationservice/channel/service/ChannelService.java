@@ -1,6 +1,6 @@
 package com.collaboration.collaborationservice.channel.service;
 
-import com.collaboration.collaborationservice.channel.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.collaboration.collaborationservice.channel.controller.ChannelController;
 import com.collaboration.collaborationservice.channel.dto.ChannelDTO;
 import com.collaboration.collaborationservice.channel.dto.CreateChannelRequest;
@@ -34,19 +34,19 @@ public class ChannelService {
 
 
     private final ParticipantRepository participantRepository;
-    private final AuthClient authClient;
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final ChannelMapper channelMapper;
 
     @Autowired
     public ChannelService(
             ChannelRepository channelRepository,
             ParticipantRepository participantRepository,
-            AuthClient authClient,
+            JwtTokenVerifier jwtTokenVerifier,
             ChannelMapper channelMapper
            ) {
         this.channelRepository = channelRepository;
         this.participantRepository = participantRepository;
-        this.authClient = authClient;
+        this.jwtTokenVerifier = jwtTokenVerifier;
         this.channelMapper = channelMapper;
     }
 
@@ -55,7 +55,7 @@ public class ChannelService {
     public Channel createChannel(CreateChannelRequest request, String authorizationHeader) {
         Logger log = LoggerFactory.getLogger(ChannelService.class);
 
-        String userId = authClient.decodeToken(authorizationHeader);
+        String userId = jwtTokenVerifier.currentUserId(authorizationHeader);
         if (userId == null) {
             log.error("Échec du décodage du token: userId est null");
             throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
@@ -157,7 +157,7 @@ public class ChannelService {
     @Transactional(readOnly = true)
     public List<Channel> getAccessibleChannels(String authorizationHeader) {
         // Décoder le token pour obtenir l'ID de l'utilisateur
-        String userId = authClient.decodeToken(authorizationHeader);
+        String userId = jwtTokenVerifier.currentUserId(authorizationHeader);
         if (userId == null) {
             throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
         }
@@ -175,7 +175,7 @@ public class ChannelService {
 
     @Transactional(readOnly = true)
     public ChannelDTO getChannelById(Long id, String authorizationHeader) throws IllegalAccessException {
-        String userId = authClient.decodeToken(authorizationHeader);
+        String userId = jwtTokenVerifier.currentUserId(authorizationHeader);
         if (userId == null) {
             throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
         }
@@ -195,7 +195,7 @@ public class ChannelService {
     }
     @Transactional
     public Channel updateChannel(Long id, UpdateChannelRequest request, String authorizationHeader) throws IllegalAccessException {
-        String userId = authClient.decodeToken(authorizationHeader);
+        String userId = jwtTokenVerifier.currentUserId(authorizationHeader);
         if (userId == null) {
             throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
         }
@@ -248,7 +248,7 @@ public class ChannelService {
     }
     @Transactional
     public void deleteChannel(Long id, String authorizationHeader) throws IllegalAccessException {
-        String userId = authClient.decodeToken(authorizationHeader);
+        String userId = jwtTokenVerifier.currentUserId(authorizationHeader);
         if (userId == null) {
             throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
         }
@@ -284,7 +284,7 @@ public class ChannelService {
 
     @Transactional
     public Channel updateChannelVisibility(Long id, boolean isPrivate, String authorizationHeader) throws IllegalAccessException {
-        String userId = authClient.decodeToken(authorizationHeader);
+        String userId = jwtTokenVerifier.currentUserId(authorizationHeader);
         if (userId == null) {
             throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
         }
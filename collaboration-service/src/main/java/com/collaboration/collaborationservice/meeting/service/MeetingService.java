@@ -1,7 +1,8 @@
 package com.collaboration.collaborationservice.meeting.service;
 
 
-import com.collaboration.collaborationservice.channel.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
+import com.common.userdirectory.UserDirectoryClient;
 import com.collaboration.collaborationservice.meeting.dto.MeetingDTO;
 import com.collaboration.collaborationservice.meeting.entity.Meeting;
 import com.collaboration.collaborationservice.meeting.enums.MeetingStatus;
@@ -20,10 +21,15 @@ public class MeetingService {
     private MeetingRepository meetingRepository;
 
     @Autowired
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
+    @Autowired
+    private UserDirectoryClient userDirectoryClient;
 
     public MeetingDTO createMeeting(MeetingDTO meetingDTO, String authorizationHeader) {
-        String creatorId = authClient.decodeToken(authorizationHeader);
+        String creatorId = jwtTokenVerifier.currentUserId(authorizationHeader);
+        if (creatorId == null) {
+            throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
+        }
         Meeting meeting = new Meeting(
                 meetingDTO.getTitle(),
                 meetingDTO.getDate(),
@@ -44,8 +50,7 @@ public class MeetingService {
         Set<String> authIds = new HashSet<>();
         authIds.add(creatorId);
         authIds.addAll(meeting.getParticipantIds());
-        String idsParam = String.join(",", authIds);
-        Map<String, Map<String, Object>> userDetailsMap = authClient.getUserDetailsByIds(idsParam);
+        Map<String, Map<String, Object>> userDetailsMap = getUserDetails(authIds);
 
         return convertToDTO(savedMeeting, userDetailsMap);
     }
@@ -71,8 +76,7 @@ public class MeetingService {
         Set<String> authIds = new HashSet<>();
         authIds.add(meeting.getCreatorId());
         authIds.addAll(meeting.getParticipantIds());
-        String idsParam = String.join(",", authIds);
-        Map<String, Map<String, Object>> userDetailsMap = authClient.getUserDetailsByIds(idsParam);
+        Map<String, Map<String, Object>> userDetailsMap = getUserDetails(authIds);
 
         return convertToDTO(updatedMeeting, userDetailsMap);
     }
@@ -80,8 +84,8 @@ public class MeetingService {
     public void deleteMeeting(Long id, String authorizationHeader) {
         Meeting meeting = meetingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Meeting not found"));
-        String creatorId = authClient.decodeToken(authorizationHeader);
-        if (!creatorId.equals(meeting.getCreatorId())) {
+        String creatorId = jwtTokenVerifier.currentUserId(authorizationHeader);
+        if (creatorId == null || !creatorId.equals(meeting.getCreatorId())) {
             throw new RuntimeException("Unauthorized to delete this meeting");
         }
         meetingRepository.deleteById(id);
@@ -90,8 +94,8 @@ public class MeetingService {
     public MeetingDTO cancelMeeting(Long id, String authorizationHeader) {
         Meeting meeting = meetingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Meeting not found"));
-        String creatorId = authClient.decodeToken(authorizationHeader);
-        if (!creatorId.equals(meeting.getCreatorId())) {
+        String creatorId = jwtTokenVerifier.currentUserId(authorizationHeader);
+        if (creatorId == null || !creatorId.equals(meeting.getCreatorId())) {
             throw new RuntimeException("Unauthorized to cancel this meeting");
         }
         meeting.setStatus(MeetingStatus.CANCELLED);
@@ -101,8 +105,7 @@ public class MeetingService {
         Set<String> authIds = new HashSet<>();
         authIds.add(meeting.getCreatorId());
         authIds.addAll(meeting.getParticipantIds());
-        String idsParam = String.join(",", authIds);
-        Map<String, Map<String, Object>> userDetailsMap = authClient.getUserDetailsByIds(idsParam);
+        Map<String, Map<String, Object>> userDetailsMap = getUserDetails(authIds);
 
         return convertToDTO(updatedMeeting, userDetailsMap);
     }
@@ -110,8 +113,8 @@ public class MeetingService {
     public MeetingDTO rescheduleMeeting(Long id, String newDate, String newTime, String authorizationHeader) {
         Meeting meeting = meetingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Meeting not found"));
-        String creatorId = authClient.decodeToken(authorizationHeader);
-        if (!creatorId.equals(meeting.getCreatorId())) {
+        String creatorId = jwtTokenVerifier.currentUserId(authorizationHeader);
+        if (creatorId == null || !creatorId.equals(meeting.getCreatorId())) {
             throw new RuntimeException("Unauthorized to reschedule this meeting");
         }
         meeting.setDate(newDate);
@@ -125,8 +128,7 @@ public class MeetingService {
         Set<String> authIds = new HashSet<>();
         authIds.add(meeting.getCreatorId());
         authIds.addAll(meeting.getParticipantIds());
-        String idsParam = String.join(",", authIds);
-        Map<String, Map<String, Object>> userDetailsMap = authClient.getUserDetailsByIds(idsParam);
+        Map<String, Map<String, Object>> userDetailsMap = getUserDetails(authIds);
 
         return convertToDTO(updatedMeeting, userDetailsMap);
     }
@@ -140,7 +142,9 @@ public class MeetingService {
     }
 
     public List<MeetingDTO> getAllMeetings(String authorizationHeader) {
-        authClient.decodeToken(authorizationHeader); // Validation du token
+        if (jwtTokenVerifier.currentUserId(authorizationHeader) == null) { // Validation du token
+            throw new IllegalArgumentException("Impossible de récupérer l'ID de l'utilisateur à partir du token");
+        }
         List<Meeting> meetings = meetingRepository.findAll();
 
         // Collecter tous les authIds uniques (créateur + participants)
@@ -150,11 +154,8 @@ public class MeetingService {
             authIds.addAll(meeting.getParticipantIds());
         }
 
-        // Convertir le Set en une chaîne séparée par des virgules pour l'appel Feign
-        String idsParam = String.join(",", authIds);
-
-        // Récupérer les détails des utilisateurs
-        Map<String, Map<String, Object>> userDetailsMap = authClient.getUserDetailsByIds(idsParam);
+        // Récupérer les détails des utilisateurs (un seul appel pour les ids absents du cache)
+        Map<String, Map<String, Object>> userDetailsMap = getUserDetails(authIds);
 
         // Convertir les réunions en DTO avec les détails des utilisateurs
         return meetings.stream()
@@ -162,6 +163,16 @@ public class MeetingService {
                 .collect(Collectors.toList());
     }
 
+    private Map<String, Map<String, Object>> getUserDetails(Set<String> authIds) {
+        Map<String, Map<String, Object>> userDetailsMap = new HashMap<>();
+        userDirectoryClient.getUsers(authIds).forEach((id, user) -> userDetailsMap.put(id, Map.of(
+                "firstName", user.firstName(),
+                "lastName", user.lastName(),
+                "avatar", user.avatar()
+        )));
+        return userDetailsMap;
+    }
+
     private MeetingDTO convertToDTO(Meeting meeting, Map<String, Map<String, Object>> userDetailsMap) {
         Map<String, Object> creatorDetails = userDetailsMap.getOrDefault(
                 meeting.getCreatorId(),
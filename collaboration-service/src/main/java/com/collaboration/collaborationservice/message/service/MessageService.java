@@ -1,6 +1,8 @@
 package com.collaboration.collaborationservice.message.service;
 
-import com.collaboration.collaborationservice.channel.config.AuthClient;
+import com.common.security.JwtTokenVerifier;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import com.collaboration.collaborationservice.channel.entity.Channel;
 import com.collaboration.collaborationservice.channel.repository.ChannelRepository;
 import com.collaboration.collaborationservice.common.enums.MessageType;
@@ -24,9 +26,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -56,42 +59,42 @@ public class MessageService {
     private MessageMapper messageMapper;
 
     @Autowired
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
-    private final Map<String, String> userNameCache = new ConcurrentHashMap<>();
+    @Autowired
+    private UserDirectoryClient userDirectoryClient;
 
     private MessageDTO enrichMessageDTO(MessageDTO messageDTO, String token) {
-        try {
-            String senderName = userNameCache.get(messageDTO.getSenderId());
-            if (senderName == null) {
-                Map<String, Object> userDetails = authClient.getUserDetailsByAuthId(messageDTO.getSenderId(), token);
-                String firstName = (String) userDetails.get("firstName");
-                String lastName = (String) userDetails.get("lastName");
-                senderName = firstName + " " + lastName;
-                userNameCache.put(messageDTO.getSenderId(), senderName);
-            }
-            messageDTO.setSenderName(senderName);
+        return enrichMessageDTOs(List.of(messageDTO), token).get(0);
+    }
 
+    // Résout les noms de tous les expéditeurs (et auteurs des messages cités) en un seul appel à l'annuaire
+    private List<MessageDTO> enrichMessageDTOs(List<MessageDTO> messageDTOs, String token) {
+        Set<String> userIds = new HashSet<>();
+        for (MessageDTO messageDTO : messageDTOs) {
+            userIds.add(messageDTO.getSenderId());
             if (messageDTO.getReplyToId() != null) {
-                String replyToSenderName = userNameCache.get(messageDTO.getReplyToSenderName());
-                if (replyToSenderName == null) {
-                    Map<String, Object> replyToUserDetails = authClient.getUserDetailsByAuthId(
-                            messageDTO.getReplyToSenderName(), token);
-                    String replyToFirstName = (String) replyToUserDetails.get("firstName");
-                    String replyToLastName = (String) replyToUserDetails.get("lastName");
-                    replyToSenderName = replyToFirstName + " " + replyToLastName;
-                    userNameCache.put(messageDTO.getReplyToSenderName(), replyToSenderName);
-                }
-                messageDTO.setReplyToSenderName(replyToSenderName);
+                // replyToSenderName contient l'id de l'auteur du message cité tant qu'il n'est pas enrichi
+                userIds.add(messageDTO.getReplyToSenderName());
             }
-        } catch (Exception e) {
-            logger.warn("Impossible de récupérer les détails de l'utilisateur: {}", e.getMessage());
-            messageDTO.setSenderName("Utilisateur Inconnu");
+        }
+        Map<String, UserSummary> users = userDirectoryClient.getUsers(userIds);
+
+        for (MessageDTO messageDTO : messageDTOs) {
+            messageDTO.setSenderName(displayName(users, messageDTO.getSenderId()));
             if (messageDTO.getReplyToId() != null) {
-                messageDTO.setReplyToSenderName("Utilisateur Inconnu");
+                messageDTO.setReplyToSenderName(displayName(users, messageDTO.getReplyToSenderName()));
             }
         }
-        return messageDTO;
+        return messageDTOs;
+    }
+
+    private String displayName(Map<String, UserSummary> users, String userId) {
+        UserSummary user = users.get(userId);
+        if (user == null || !user.known()) {
+            return "Utilisateur Inconnu";
+        }
+        return user.fullName();
     }
 
     @Transactional
@@ -99,7 +102,7 @@ public class MessageService {
         try {
             logger.info("Envoi d'un message pour channelId: {}", messageDTO.getChannelId());
 
-            String userId = authClient.decodeToken(token);
+            String userId = jwtTokenVerifier.currentUserId(token);
             if (userId == null) {
                 logger.error("Échec du décodage du token: userId est null");
                 throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -139,7 +142,7 @@ public class MessageService {
         try {
             logger.info("Récupération des messages pour channelId: {}", channelId);
 
-            String userId = authClient.decodeToken(token);
+            String userId = jwtTokenVerifier.currentUserId(token);
             if (userId == null) {
                 logger.error("Échec du décodage du token: userId est null");
                 throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -154,10 +157,9 @@ public class MessageService {
             List<Message> messages = messageRepository.findByChannelIdOrderByCreatedAtAsc(channelId);
             logger.info("Récupéré {} messages pour channelId: {}", messages.size(), channelId);
 
-            return messages.stream()
+            return enrichMessageDTOs(messages.stream()
                     .map(messageMapper::toDTO)
-                    .map(dto -> enrichMessageDTO(dto, token))
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()), token);
         } catch (Exception e) {
             logger.error("Échec de la récupération des messages: {}", e.getMessage(), e);
             throw new RuntimeException("Échec de la récupération des messages", e);
@@ -169,7 +171,7 @@ public class MessageService {
         try {
             logger.info("Mise à jour du message {} pour channelId: {}", messageId, channelId);
 
-            String userId = authClient.decodeToken(token);
+            String userId = jwtTokenVerifier.currentUserId(token);
             if (userId == null) {
                 throw new IllegalArgumentException("Utilisateur non authentifié");
             }
@@ -214,7 +216,7 @@ public class MessageService {
         try {
             logger.info("Suppression du message {} pour channelId: {}", messageId, channelId);
 
-            String userId = authClient.decodeToken(token);
+            String userId = jwtTokenVerifier.currentUserId(token);
             if (userId == null) {
                 logger.error("Échec du décodage du token: userId est null");
                 throw new IllegalArgumentException("Utilisateur non authentifié");
@@ -255,7 +257,7 @@ public class MessageService {
     public MessageDTO addReaction(Long channelId, Long messageId, ReactionDTO reactionDTO, String token) {
         logger.info("Ajout d'une réaction au message {} pour channelId: {}", messageId, channelId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Utilisateur non authentifié");
         }
@@ -287,7 +289,7 @@ public class MessageService {
     public MessageDTO removeReaction(Long channelId, Long messageId, ReactionDTO reactionDTO, String token) {
         logger.info("Suppression d'une réaction au message {} pour channelId: {}", messageId, channelId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Utilisateur non authentifié");
         }
@@ -321,7 +323,7 @@ public class MessageService {
     public MessageDTO pinMessage(Long channelId, Long messageId, String token) {
         logger.info("Épinglage du message {} pour channelId: {}", messageId, channelId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Utilisateur non authentifié");
         }
@@ -352,7 +354,7 @@ public class MessageService {
         logger.info("Téléversement d'un message audio pour channelId: {}", channelId);
         logger.info("Valeur de duration reçue: {}", duration);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Utilisateur non authentifié");
         }
@@ -410,7 +412,7 @@ public class MessageService {
     public MessageDTO uploadImageMessage(Long channelId, MultipartFile imageFile, String token, Long replyToId) throws IOException {
         logger.info("Téléversement d'une image pour channelId: {}", channelId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Utilisateur non authentifié");
         }
@@ -464,7 +466,7 @@ public class MessageService {
     public MessageDTO uploadFileMessage(Long channelId, MultipartFile file, String token, Long replyToId) throws IOException {
         logger.info("Téléversement d'un fichier pour channelId: {}", channelId);
 
-        String userId = authClient.decodeToken(token);
+        String userId = jwtTokenVerifier.currentUserId(token);
         if (userId == null) {
             throw new IllegalArgumentException("Utilisateur non authentifié");
         }
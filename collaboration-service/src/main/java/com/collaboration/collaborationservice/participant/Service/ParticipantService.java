@@ -7,6 +7,8 @@ import com.collaboration.collaborationservice.participant.dto.AddParticipantRequ
 import com.collaboration.collaborationservice.participant.dto.ParticipantDTO;
 import com.collaboration.collaborationservice.participant.entity.Participant;
 import com.collaboration.collaborationservice.participant.repository.ParticipantRepository;
+import com.common.userdirectory.UserDirectoryClient;
+import com.common.userdirectory.UserSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -24,21 +26,24 @@ public class ParticipantService {
     @Autowired
     private AuthClient authClient;
 
+    @Autowired
+    private UserDirectoryClient userDirectoryClient;
+
     @Autowired
     private UserStatusService userStatusService;
 
     public List<ParticipantDTO> getParticipantsByChannelId(Long channelId, String accessToken) {
         List<Participant> participants = participantRepository.findByChannelId(channelId);
+        Map<String, UserSummary> users = userDirectoryClient.getUsers(participants.stream()
+                .map(Participant::getUserId)
+                .collect(Collectors.toSet()));
         return participants.stream().map(participant -> {
-            Map<String, Object> userDetails = authClient.getUserDetailsByAuthId(
-                    participant.getUserId(),
-                    "Bearer " + accessToken
-            );
+            UserSummary user = users.getOrDefault(participant.getUserId(), UserSummary.unknown(participant.getUserId()));
             ParticipantDTO dto = new ParticipantDTO();
             dto.setId(participant.getId());
             dto.setUserId(participant.getUserId());
-            dto.setFirstName((String) userDetails.get("firstName"));
-            dto.setLastName((String) userDetails.get("lastName"));
+            dto.setFirstName(user.firstName());
+            dto.setLastName(user.lastName());
             dto.setRole(participant.getRole().name());
             dto.setJoinedAt(participant.getJoinedAt());
             dto.setStatus(userStatusService.getUserStatus(participant.getUserId()));
@@ -0,0 +1,131 @@
+package com.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérifie localement les access tokens Keycloak (signature RS256, issuer, exp)
+ * à partir des clés publiques du realm, sans appel à Authentification_Service.
+ * Les claims d'un token déjà vérifié sont gardés en cache, indexés par le SHA-256
+ * du token, jusqu'à son expiration.
+ */
+public class JwtTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenVerifier.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final DefaultJWTProcessor<SecurityContext> jwtProcessor;
+    private final Cache<String, JWTClaimsSet> claimsCache;
+
+    public JwtTokenVerifier(JWKSource<SecurityContext> keySource, String issuer, long claimsCacheSize) {
+        this.jwtProcessor = new DefaultJWTProcessor<>();
+        this.jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+        JWTClaimsSet exactMatchClaims = (issuer == null || issuer.isBlank())
+                ? new JWTClaimsSet.Builder().build()
+                : new JWTClaimsSet.Builder().issuer(issuer).build();
+        this.jwtProcessor.setJWTClaimsSetVerifier(
+                new DefaultJWTClaimsVerifier<>(null, exactMatchClaims, Set.of("sub", "exp")));
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    /**
+     * Remplace l'ancien appel Feign AuthClient.decodeToken : retourne le "sub" du token
+     * (avec ou sans préfixe "Bearer "), ou null si le token est absent ou invalide.
+     */
+    public String currentUserId(String token) {
+        JWTClaimsSet claims = verify(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * Retourne les claims du token après vérification, ou null si le token est rejeté.
+     */
+    public JWTClaimsSet verify(String token) {
+        String rawToken = stripBearer(token);
+        if (rawToken == null || rawToken.isBlank()) {
+            return null;
+        }
+        String key = sha256(rawToken);
+        JWTClaimsSet cached = claimsCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            JWTClaimsSet claims = jwtProcessor.process(rawToken, null);
+            claimsCache.put(key, claims);
+            return claims;
+        } catch (ParseException | BadJOSEException | JOSEException e) {
+            logger.warn("Token JWT rejeté : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    long cachedTokenCount() {
+        claimsCache.cleanUp();
+        return claimsCache.estimatedSize();
+    }
+
+    private static String stripBearer(String token) {
+        if (token == null) {
+            return null;
+        }
+        String trimmed = token.trim();
+        return trimmed.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                ? trimmed.substring(BEARER_PREFIX.length()).trim()
+                : trimmed;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    }
+
+    /**
+     * Une entrée du cache expire exactement au "exp" du token qu'elle représente.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, JWTClaimsSet> {
+
+        @Override
+        public long expireAfterCreate(String key, JWTClaimsSet claims, long currentTime) {
+            long remainingMillis = claims.getExpirationTime().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JWTClaimsSet claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JWTClaimsSet claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
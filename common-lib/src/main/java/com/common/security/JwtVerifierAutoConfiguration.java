@@ -0,0 +1,39 @@
+package com.common.security;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+
+/**
+ * Active JwtTokenVerifier dans tout service qui déclare
+ * spring.security.oauth2.resourceserver.jwt.jwk-set-uri.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "spring.security.oauth2.resourceserver.jwt", name = "jwk-set-uri")
+@EnableConfigurationProperties(JwtVerifierProperties.class)
+public class JwtVerifierAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtTokenVerifier jwtTokenVerifier(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuerUri,
+            JwtVerifierProperties properties) throws MalformedURLException {
+        // Clés mises en cache et rafraîchies en arrière-plan avant leur expiration
+        JWKSource<SecurityContext> keySource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(properties.getJwksTtl().toMillis(), properties.getJwksRefreshTimeout().toMillis())
+                .refreshAheadCache(properties.getJwksRefreshAhead().toMillis(), true)
+                .retrying(true)
+                .build();
+        return new JwtTokenVerifier(keySource, issuerUri, properties.getClaimsCacheSize());
+    }
+}
@@ -0,0 +1,57 @@
+package com.common.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Réglages de la vérification locale des JWT Keycloak.
+ * L'URI JWKS et l'issuer sont lus dans spring.security.oauth2.resourceserver.jwt.*
+ */
+@ConfigurationProperties(prefix = "common.security.jwt")
+public class JwtVerifierProperties {
+
+    /** Durée de vie des clés de signature en cache. */
+    private Duration jwksTtl = Duration.ofMinutes(15);
+
+    /** Délai avant expiration à partir duquel les clés sont rafraîchies en arrière-plan. */
+    private Duration jwksRefreshAhead = Duration.ofMinutes(1);
+
+    /** Temps maximal d'attente d'un rafraîchissement du JWKS. */
+    private Duration jwksRefreshTimeout = Duration.ofSeconds(15);
+
+    /** Nombre maximal de tokens vérifiés gardés en cache. */
+    private long claimsCacheSize = 10_000;
+
+    public Duration getJwksTtl() {
+        return jwksTtl;
+    }
+
+    public void setJwksTtl(Duration jwksTtl) {
+        this.jwksTtl = jwksTtl;
+    }
+
+    public Duration getJwksRefreshAhead() {
+        return jwksRefreshAhead;
+    }
+
+    public void setJwksRefreshAhead(Duration jwksRefreshAhead) {
+        this.jwksRefreshAhead = jwksRefreshAhead;
+    }
+
+    public Duration getJwksRefreshTimeout() {
+        return jwksRefreshTimeout;
+    }
+
+    public void setJwksRefreshTimeout(Duration jwksRefreshTimeout) {
+        this.jwksRefreshTimeout = jwksRefreshTimeout;
+    }
+
+    public long getClaimsCacheSize() {
+        return claimsCacheSize;
+    }
+
+    public void setClaimsCacheSize(long claimsCacheSize) {
+        this.claimsCacheSize = claimsCacheSize;
+    }
+}
@@ -0,0 +1,35 @@
+package com.common.userdirectory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Active UserDirectoryClient dans tout service qui déclare common.user-directory.base-url.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "common.user-directory", name = "base-url")
+@EnableConfigurationProperties(UserDirectoryProperties.class)
+public class UserDirectoryAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public UserDirectoryClient userDirectoryClient(UserDirectoryProperties properties,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        RestClient restClient = RestClient.builder()
+                .baseUrl(properties.getBaseUrl())
+                .requestFactory(requestFactory)
+                .build();
+        return new UserDirectoryClient(restClient, properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,198 @@
+package com.common.userdirectory;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Client de l'annuaire utilisateurs (GET /api/users/details?ids=...) avec cache local.
+ * <ul>
+ *   <li>cache borné en taille et en durée, avec cache négatif plus court pour les ids inconnus ;</li>
+ *   <li>les ids absents du cache sont regroupés dans un seul appel par requête, et les appels
+ *       concurrents pour un même id partagent le même chargement en cours ;</li>
+ *   <li>métriques Micrometer : user.directory.requests (hit/miss), user.directory.remote.calls,
+ *       user.directory.remote.errors, user.directory.cache.size.</li>
+ * </ul>
+ */
+public class UserDirectoryClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectoryClient.class);
+    private static final ParameterizedTypeReference<Map<String, Map<String, Object>>> DETAILS_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final Function<List<String>, Map<String, Map<String, Object>>> remoteLookup;
+    private final int maxBatchSize;
+    private final AsyncLoadingCache<String, UserSummary> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter remoteErrors;
+    private final Timer remoteCalls;
+
+    public UserDirectoryClient(RestClient restClient, UserDirectoryProperties properties, MeterRegistry meterRegistry) {
+        this(ids -> restClient.get()
+                        .uri(uriBuilder -> uriBuilder.path("/api/users/details")
+                                .queryParam("ids", String.join(",", ids))
+                                .build())
+                        .retrieve()
+                        .body(DETAILS_TYPE),
+                properties, meterRegistry);
+    }
+
+    UserDirectoryClient(Function<List<String>, Map<String, Map<String, Object>>> remoteLookup,
+                        UserDirectoryProperties properties, MeterRegistry meterRegistry) {
+        this.remoteLookup = remoteLookup;
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<String, UserSummary>() {
+                    @Override
+                    public long expireAfterCreate(String id, UserSummary user, long currentTime) {
+                        return user.known() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, UserSummary user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, UserSummary user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Le chargement s'exécute dans le thread appelant : pas d'appel HTTP bloquant dans le pool commun
+                .executor(Runnable::run)
+                .buildAsync(new DirectoryLoader());
+
+        this.hits = Counter.builder("user.directory.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.directory.requests").tag("result", "miss").register(meterRegistry);
+        this.remoteErrors = Counter.builder("user.directory.remote.errors").register(meterRegistry);
+        this.remoteCalls = Timer.builder("user.directory.remote.calls")
+                .description("Latence des appels /api/users/details")
+                .register(meterRegistry);
+        Gauge.builder("user.directory.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Résout un lot d'ids en un seul passage. Chaque id demandé est présent dans le résultat ;
+     * un id inconnu (ou non résolu si Authentification_Service est indisponible) vaut UserSummary.unknown.
+     */
+    public Map<String, UserSummary> getUsers(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                wanted.add(id);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, UserSummary> result = new LinkedHashMap<>(cache.synchronous().getAllPresent(wanted));
+        hits.increment(result.size());
+
+        Set<String> missing = new LinkedHashSet<>(wanted);
+        missing.removeAll(result.keySet());
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            try {
+                result.putAll(cache.getAll(missing).join());
+            } catch (CompletionException e) {
+                // Rien n'est mis en cache en cas d'échec : le prochain appel retentera
+                logger.warn("Annuaire utilisateurs indisponible pour {} id(s) : {}", missing.size(), e.getMessage());
+                missing.forEach(id -> result.putIfAbsent(id, UserSummary.unknown(id)));
+            }
+        }
+        return result;
+    }
+
+    public UserSummary getUser(String id) {
+        if (id == null || id.isBlank()) {
+            return UserSummary.unknown(id);
+        }
+        return getUsers(List.of(id)).getOrDefault(id, UserSummary.unknown(id));
+    }
+
+    public String getFullName(String id) {
+        return getUser(id).fullName();
+    }
+
+    /**
+     * À appeler quand un utilisateur change de nom ou d'avatar.
+     */
+    public void invalidate(String id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    private Map<String, Map<String, Object>> fetch(List<String> batch) {
+        try {
+            Map<String, Map<String, Object>> details = remoteCalls.record(() -> remoteLookup.apply(batch));
+            return details != null ? details : Collections.emptyMap();
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            throw e;
+        }
+    }
+
+    private static UserSummary toSummary(String id, Map<String, Object> details) {
+        if (details == null) {
+            return UserSummary.unknown(id);
+        }
+        String firstName = Objects.toString(details.get("firstName"), UserSummary.UNKNOWN_NAME);
+        String lastName = Objects.toString(details.get("lastName"), UserSummary.UNKNOWN_NAME);
+        String avatar = Objects.toString(details.get("avatar"), "");
+        // Authentification_Service renvoie "Inconnu Inconnu" pour un id absent de Keycloak
+        boolean known = !(UserSummary.UNKNOWN_NAME.equals(firstName) && UserSummary.UNKNOWN_NAME.equals(lastName));
+        return new UserSummary(id, firstName, lastName, avatar, known);
+    }
+
+    private final class DirectoryLoader implements CacheLoader<String, UserSummary> {
+
+        @Override
+        public UserSummary load(String id) {
+            return loadAll(Set.of(id)).get(id);
+        }
+
+        @Override
+        public Map<String, UserSummary> loadAll(Set<? extends String> ids) {
+            List<String> pending = new ArrayList<>(ids);
+            Map<String, UserSummary> loaded = new HashMap<>();
+            for (int from = 0; from < pending.size(); from += maxBatchSize) {
+                List<String> batch = pending.subList(from, Math.min(from + maxBatchSize, pending.size()));
+                Map<String, Map<String, Object>> details = fetch(batch);
+                for (String id : batch) {
+                    loaded.put(id, toSummary(id, details.get(id)));
+                }
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.common.userdirectory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Réglages du client d'annuaire utilisateurs (cache local devant Authentification_Service).
+ */
+@ConfigurationProperties(prefix = "common.user-directory")
+public class UserDirectoryProperties {
+
+    /** URL de Authentification_Service, ex. http://localhost:8083 */
+    private String baseUrl;
+
+    /** Nombre maximal d'utilisateurs gardés en cache. */
+    private long maximumSize = 10_000;
+
+    /** Durée de vie d'un utilisateur connu dans le cache. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Durée de vie d'un identifiant inconnu (cache négatif). */
+    private Duration negativeTtl = Duration.ofMinutes(1);
+
+    /** Nombre maximal d'identifiants envoyés dans un seul appel /api/users/details. */
+    private int maxBatchSize = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+}
@@ -0,0 +1,18 @@
+package com.common.userdirectory;
+
+/**
+ * Informations d'affichage d'un utilisateur telles que renvoyées par /api/users/details.
+ * known = false pour un identifiant inconnu de Keycloak (mis en cache négatif).
+ */
+public record UserSummary(String id, String firstName, String lastName, String avatar, boolean known) {
+
+    public static final String UNKNOWN_NAME = "Inconnu";
+
+    public static UserSummary unknown(String id) {
+        return new UserSummary(id, UNKNOWN_NAME, UNKNOWN_NAME, "", false);
+    }
+
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
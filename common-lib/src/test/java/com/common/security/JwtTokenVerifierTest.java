@@ -0,0 +1,106 @@
+package com.common.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenVerifierTest {
+
+    private static final String ISSUER = "http://localhost:8081/realms/platforme-agile";
+
+    private RSAKey signingKey;
+    private JwtTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+        verifier = new JwtTokenVerifier(new ImmutableJWKSet<>(new JWKSet(signingKey.toPublicJWK())), ISSUER, 100);
+    }
+
+    @Test
+    void currentUserId_ValidBearerToken_ReturnsSubject() throws JOSEException {
+        // Arrange
+        String token = sign(signingKey, ISSUER, "user1", new Date(System.currentTimeMillis() + 60_000));
+
+        // Act
+        String userId = verifier.currentUserId("Bearer " + token);
+
+        // Assert
+        assertEquals("user1", userId);
+        assertEquals(1, verifier.cachedTokenCount());
+    }
+
+    @Test
+    void currentUserId_SameTokenTwice_ServedFromCache() throws JOSEException {
+        // Arrange
+        String token = sign(signingKey, ISSUER, "user1", new Date(System.currentTimeMillis() + 60_000));
+
+        // Act
+        JWTClaimsSet first = verifier.verify(token);
+        JWTClaimsSet second = verifier.verify("Bearer " + token);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void currentUserId_ExpiredToken_ReturnsNull() throws JOSEException {
+        // Arrange
+        String token = sign(signingKey, ISSUER, "user1", new Date(System.currentTimeMillis() - 120_000));
+
+        // Act & Assert
+        assertNull(verifier.currentUserId(token));
+        assertEquals(0, verifier.cachedTokenCount());
+    }
+
+    @Test
+    void currentUserId_WrongIssuer_ReturnsNull() throws JOSEException {
+        // Arrange
+        String token = sign(signingKey, "http://evil/realms/other", "user1", new Date(System.currentTimeMillis() + 60_000));
+
+        // Act & Assert
+        assertNull(verifier.currentUserId(token));
+    }
+
+    @Test
+    void currentUserId_UnknownSigningKey_ReturnsNull() throws JOSEException {
+        // Arrange
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+        String token = sign(otherKey, ISSUER, "user1", new Date(System.currentTimeMillis() + 60_000));
+
+        // Act & Assert
+        assertNull(verifier.currentUserId(token));
+    }
+
+    @Test
+    void currentUserId_MalformedOrMissingToken_ReturnsNull() {
+        assertNull(verifier.currentUserId(null));
+        assertNull(verifier.currentUserId("Bearer "));
+        assertNull(verifier.currentUserId("not-a-jwt"));
+    }
+
+    private static String sign(RSAKey key, String issuer, String subject, Date expiration) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(expiration)
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,130 @@
+package com.common.userdirectory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDirectoryClientTest {
+
+    private final List<List<String>> remoteCalls = new ArrayList<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private UserDirectoryClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        UserDirectoryProperties properties = new UserDirectoryProperties();
+        properties.setTtl(Duration.ofMinutes(10));
+        properties.setNegativeTtl(Duration.ofMinutes(1));
+        client = new UserDirectoryClient(ids -> {
+            remoteCalls.add(List.copyOf(ids));
+            if (failures.get() > 0) {
+                failures.decrementAndGet();
+                throw new IllegalStateException("auth-service down");
+            }
+            Map<String, Map<String, Object>> details = new HashMap<>();
+            for (String id : ids) {
+                if (id.startsWith("ghost")) {
+                    details.put(id, Map.of("firstName", "Inconnu", "lastName", "Inconnu", "avatar", ""));
+                } else {
+                    details.put(id, Map.of("firstName", "First-" + id, "lastName", "Last-" + id, "avatar", "a/" + id));
+                }
+            }
+            return details;
+        }, properties, meterRegistry);
+    }
+
+    @Test
+    void getUsers_BoardOf200Tasks_SingleRemoteCall() {
+        // Arrange : 200 tâches réparties sur 40 assignés distincts
+        List<String> assignees = IntStream.range(0, 200)
+                .mapToObj(i -> "user" + (i % 40))
+                .collect(Collectors.toList());
+
+        // Act
+        Map<String, UserSummary> users = client.getUsers(assignees);
+
+        // Assert
+        assertEquals(40, users.size());
+        assertEquals(1, remoteCalls.size());
+        assertEquals(40, remoteCalls.get(0).size());
+        assertEquals("First-user7 Last-user7", users.get("user7").fullName());
+    }
+
+    @Test
+    void getUsers_SecondCall_ServedFromCache() {
+        // Arrange
+        client.getUsers(List.of("u1", "u2"));
+
+        // Act
+        Map<String, UserSummary> users = client.getUsers(List.of("u1", "u2", "u3"));
+
+        // Assert
+        assertEquals(3, users.size());
+        assertEquals(2, remoteCalls.size());
+        assertEquals(List.of("u3"), remoteCalls.get(1));
+        assertEquals(2.0, meterRegistry.counter("user.directory.requests", "result", "hit").count());
+        assertEquals(3.0, meterRegistry.counter("user.directory.requests", "result", "miss").count());
+        assertEquals(2, meterRegistry.timer("user.directory.remote.calls").count());
+    }
+
+    @Test
+    void getUsers_UnknownId_NegativelyCached() {
+        // Act
+        UserSummary first = client.getUser("ghost1");
+        UserSummary second = client.getUser("ghost1");
+
+        // Assert
+        assertFalse(first.known());
+        assertEquals("Inconnu Inconnu", second.fullName());
+        assertEquals(1, remoteCalls.size());
+    }
+
+    @Test
+    void getUsers_RemoteFailure_ReturnsPlaceholdersWithoutCaching() {
+        // Arrange
+        failures.set(1);
+
+        // Act
+        UserSummary degraded = client.getUser("u1");
+        UserSummary recovered = client.getUser("u1");
+
+        // Assert
+        assertFalse(degraded.known());
+        assertTrue(recovered.known());
+        assertEquals(2, remoteCalls.size());
+        assertEquals(1.0, meterRegistry.counter("user.directory.remote.errors").count());
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        // Arrange
+        client.getUser("u1");
+
+        // Act
+        client.invalidate("u1");
+        client.getUser("u1");
+
+        // Assert
+        assertEquals(2, remoteCalls.size());
+    }
+
+    @Test
+    void getUsers_NullOrBlankIds_NoRemoteCall() {
+        assertTrue(client.getUsers(null).isEmpty());
+        assertTrue(client.getUsers(java.util.Arrays.asList(null, " ")).isEmpty());
+        assertTrue(remoteCalls.isEmpty());
+    }
+}
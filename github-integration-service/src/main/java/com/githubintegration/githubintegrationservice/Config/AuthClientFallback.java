@@ -1,11 +0,0 @@
-package com.githubintegration.githubintegrationservice.Config;
-
-
-public class AuthClientFallback implements AuthClient {
-
-    @Override
-    public String decodeToken(String authorization) {
-        // Return a fallback user ID
-        return "fallback-token";
-    }
-}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.githubintegration.githubintegrationservice.Controller;
+
+import com.githubintegration.githubintegrationservice.Service.GitHubWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.logging.Logger;
+
+@RestController
+@RequestMapping("/api/github-integration")
+public class GitHubWebhookController {
+    private static final Logger LOGGER = Logger.getLogger(GitHubWebhookController.class.getName());
+    private final GitHubWebhookService gitHubWebhookService;
+
+    public GitHubWebhookController(GitHubWebhookService gitHubWebhookService) {
+        this.gitHubWebhookService = gitHubWebhookService;
+    }
+
+    @Operation(summary = "Recevoir un webhook GitHub",
+            description = "Point d'entrée des webhooks GitHub (push, pull_request). La signature X-Hub-Signature-256 est vérifiée, " +
+                    "les relivraisons sont ignorées et un événement compact est publié sur Kafka.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Événement publié"),
+            @ApiResponse(responseCode = "200", description = "Livraison déjà traitée ou événement ignoré"),
+            @ApiResponse(responseCode = "400", description = "Requête invalide"),
+            @ApiResponse(responseCode = "401", description = "Signature invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur lors de la publication de l'événement")
+    })
+    @PostMapping("/webhook")
+    public ResponseEntity<Map<String, String>> receiveWebhook(
+            @RequestHeader("X-GitHub-Event") String event,
+            @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId,
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestBody byte[] payload) {
+        if (!gitHubWebhookService.isSignatureValid(payload, signature)) {
+            LOGGER.warning("Signature invalide pour la livraison GitHub " + deliveryId);
+            gitHubWebhookService.recordRejected(event);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid signature"));
+        }
+        try {
+            GitHubWebhookService.Result result = gitHubWebhookService.handle(event, deliveryId, payload);
+            HttpStatus status = result == GitHubWebhookService.Result.ACCEPTED ? HttpStatus.ACCEPTED : HttpStatus.OK;
+            return ResponseEntity.status(status).body(Map.of("result", result.name().toLowerCase()));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Webhook invalide : " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            LOGGER.severe("Erreur lors du traitement du webhook " + deliveryId + " : " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to process webhook"));
+        }
+    }
+}
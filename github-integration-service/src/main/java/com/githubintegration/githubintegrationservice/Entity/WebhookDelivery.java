@@ -0,0 +1,32 @@
+package com.githubintegration.githubintegrationservice.Entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+// Livraison de webhook GitHub déjà publiée (en-tête X-GitHub-Delivery), pour ignorer les relivraisons
+@Entity
+public class WebhookDelivery {
+    @Id
+    private String deliveryId;
+    private String event;
+    private LocalDateTime receivedAt;
+
+    public WebhookDelivery() {
+    }
+
+    public WebhookDelivery(String deliveryId, String event, LocalDateTime receivedAt) {
+        this.deliveryId = deliveryId;
+        this.event = event;
+        this.receivedAt = receivedAt;
+    }
+
+    // Getters et setters
+    public String getDeliveryId() { return deliveryId; }
+    public void setDeliveryId(String deliveryId) { this.deliveryId = deliveryId; }
+    public String getEvent() { return event; }
+    public void setEvent(String event) { this.event = event; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
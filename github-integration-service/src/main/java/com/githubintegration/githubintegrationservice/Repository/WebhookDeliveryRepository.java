@@ -0,0 +1,7 @@
+package com.githubintegration.githubintegrationservice.Repository;
+
+import com.githubintegration.githubintegrationservice.Entity.WebhookDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, String> {
+}
@@ -1,6 +1,6 @@
 package com.githubintegration.githubintegrationservice.Service;
 
-import com.githubintegration.githubintegrationservice.Config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -15,15 +15,15 @@ import java.util.logging.Logger;
 public class GitHubIntegrationService {
     private static final Logger LOGGER = Logger.getLogger(GitHubIntegrationService.class.getName());
 
-    private final AuthClient authClient;
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final GithubTokenService githubTokenService;
     private final RestTemplate restTemplate;
 
     public GitHubIntegrationService(
-            AuthClient authClient,
+            JwtTokenVerifier jwtTokenVerifier,
             GithubTokenService githubTokenService,
             RestTemplate restTemplate) {
-        this.authClient = authClient;
+        this.jwtTokenVerifier = jwtTokenVerifier;
         this.githubTokenService = githubTokenService;
         this.restTemplate = restTemplate;
     }
@@ -31,7 +31,7 @@ public class GitHubIntegrationService {
     public String extractUserId(String authorization) {
         LOGGER.info("Extracting userId from authorization header");
         try {
-            String userId = authClient.decodeToken(authorization);
+            String userId = jwtTokenVerifier.currentUserId(authorization);
             if (userId == null || userId.trim().isEmpty()) {
                 LOGGER.warning("userId null or empty after decoding token");
                 throw new IllegalArgumentException("Invalid or missing userId in token");
@@ -0,0 +1,217 @@
+package com.githubintegration.githubintegrationservice.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.githubintegration.githubintegrationservice.Entity.WebhookDelivery;
+import com.githubintegration.githubintegrationservice.Repository.WebhookDeliveryRepository;
+import com.githubintegration.githubintegrationservice.event.GitHubWebhookEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Réception des webhooks GitHub (push, pull_request) à la place de l'interrogation périodique des commits.
+ * <ul>
+ *   <li>signature X-Hub-Signature-256 (HMAC-SHA256 du corps brut avec github.webhook-secret) vérifiée
+ *       en temps constant ;</li>
+ *   <li>livraisons dédoublonnées par X-GitHub-Delivery : une livraison n'est enregistrée qu'une fois publiée,
+ *       une relivraison après échec est donc republiée ;</li>
+ *   <li>charge utile réduite à un GitHubWebhookEvent publié sur github-events (clé = URL du dépôt).</li>
+ * </ul>
+ * Métrique : github.webhook.deliveries{event, result}.
+ */
+@Service
+public class GitHubWebhookService {
+
+    private static final Logger LOGGER = Logger.getLogger(GitHubWebhookService.class.getName());
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final Set<String> PULL_REQUEST_ACTIONS = Set.of("opened", "reopened", "closed");
+
+    public enum Result { ACCEPTED, DUPLICATE, IGNORED }
+
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final KafkaTemplate<String, GitHubWebhookEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final byte[] secret;
+    private final String topic;
+    private final long publishTimeoutMs;
+
+    public GitHubWebhookService(WebhookDeliveryRepository webhookDeliveryRepository,
+                                KafkaTemplate<String, GitHubWebhookEvent> kafkaTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${github.webhook-secret:}") String secret,
+                                @Value("${github.webhook.events.topic:github-events}") String topic,
+                                @Value("${github.webhook.publish-timeout-ms:5000}") long publishTimeoutMs) {
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.topic = topic;
+        this.publishTimeoutMs = publishTimeoutMs;
+    }
+
+    public boolean isSignatureValid(byte[] payload, String signatureHeader) {
+        if (secret.length == 0) {
+            LOGGER.severe("github.webhook-secret non configuré : webhook refusé");
+            return false;
+        }
+        if (payload == null || signatureHeader == null || !signatureHeader.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+        byte[] expected;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            expected = mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible", e);
+        }
+        byte[] received;
+        try {
+            received = HexFormat.of().parseHex(signatureHeader.substring(SIGNATURE_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, received);
+    }
+
+    public void recordRejected(String event) {
+        count(event, "invalid_signature");
+    }
+
+    /**
+     * Traite une livraison dont la signature a été vérifiée.
+     * @throws IllegalArgumentException si l'identifiant de livraison manque ou si le corps n'est pas du JSON
+     */
+    public Result handle(String event, String deliveryId, byte[] payload) {
+        if (deliveryId == null || deliveryId.isBlank()) {
+            throw new IllegalArgumentException("Missing X-GitHub-Delivery header");
+        }
+        if (webhookDeliveryRepository.existsById(deliveryId)) {
+            LOGGER.info("Livraison GitHub déjà traitée : " + deliveryId);
+            return count(event, Result.DUPLICATE);
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid webhook payload: " + e.getMessage());
+        }
+        GitHubWebhookEvent normalized = normalize(event, deliveryId, root);
+        if (normalized == null) {
+            return count(event, Result.IGNORED);
+        }
+        publish(normalized);
+        webhookDeliveryRepository.save(new WebhookDelivery(deliveryId, event, LocalDateTime.now()));
+        LOGGER.info("Webhook " + event + " publié (livraison " + deliveryId + ", "
+                + normalized.getCommits().size() + " commit(s)) pour " + normalized.getRepositoryUrl());
+        return count(event, Result.ACCEPTED);
+    }
+
+    // null si l'événement n'intéresse pas les consommateurs (ping, branche supprimée, pull request modifiée...)
+    GitHubWebhookEvent normalize(String event, String deliveryId, JsonNode root) {
+        String repositoryUrl = root.path("repository").path("html_url").asText(null);
+        if (repositoryUrl == null) {
+            return null;
+        }
+        if ("push".equals(event)) {
+            if (root.path("deleted").asBoolean(false)) {
+                return null;
+            }
+            List<GitHubWebhookEvent.CommitInfo> commits = new ArrayList<>();
+            for (JsonNode commit : root.path("commits")) {
+                // Commit déjà poussé sur une autre branche : déjà publié
+                if (!commit.path("distinct").asBoolean(true)) {
+                    continue;
+                }
+                JsonNode author = commit.path("author");
+                commits.add(new GitHubWebhookEvent.CommitInfo(
+                        commit.path("id").asText(),
+                        commit.path("message").asText(),
+                        toInstant(commit.path("timestamp").asText(null)),
+                        author.hasNonNull("username") ? author.get("username").asText() : author.path("name").asText(null)));
+            }
+            if (commits.isEmpty()) {
+                return null;
+            }
+            return new GitHubWebhookEvent(deliveryId, event, null, repositoryUrl, root.path("ref").asText(null),
+                    null, commits, LocalDateTime.now());
+        }
+        if ("pull_request".equals(event)) {
+            String action = root.path("action").asText();
+            if (!PULL_REQUEST_ACTIONS.contains(action)) {
+                return null;
+            }
+            JsonNode pullRequest = root.path("pull_request");
+            List<GitHubWebhookEvent.CommitInfo> commits = new ArrayList<>();
+            if ("closed".equals(action) && pullRequest.path("merged").asBoolean(false)
+                    && pullRequest.hasNonNull("merge_commit_sha")) {
+                String body = pullRequest.path("body").asText("");
+                commits.add(new GitHubWebhookEvent.CommitInfo(
+                        pullRequest.get("merge_commit_sha").asText(),
+                        body.isBlank() ? pullRequest.path("title").asText() : pullRequest.path("title").asText() + "\n\n" + body,
+                        toInstant(pullRequest.path("merged_at").asText(null)),
+                        pullRequest.path("user").path("login").asText(null)));
+            }
+            return new GitHubWebhookEvent(deliveryId, event, action, repositoryUrl,
+                    pullRequest.path("base").path("ref").asText(null), pullRequest.path("number").asInt(),
+                    commits, LocalDateTime.now());
+        }
+        return null;
+    }
+
+    private void publish(GitHubWebhookEvent event) {
+        // Attente de l'accusé Kafka : en cas d'échec la livraison n'est pas enregistrée et GitHub la signale en erreur
+        try {
+            kafkaTemplate.send(topic, event.getRepositoryUrl(), event).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Publication interrompue pour la livraison " + event.getDeliveryId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Échec de publication de la livraison " + event.getDeliveryId() + " : " + e.getMessage(), e);
+        }
+    }
+
+    private static String toInstant(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant().toString();
+        } catch (DateTimeParseException e) {
+            return timestamp;
+        }
+    }
+
+    private Result count(String event, Result result) {
+        count(event, result.name().toLowerCase());
+        return result;
+    }
+
+    private void count(String event, String result) {
+        meterRegistry.counter("github.webhook.deliveries", "event", event != null ? event : "unknown", "result", result)
+                .increment();
+    }
+}
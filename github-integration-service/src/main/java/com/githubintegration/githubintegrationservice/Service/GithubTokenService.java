@@ -1,6 +1,6 @@
 package com.githubintegration.githubintegrationservice.Service;
 
-import com.githubintegration.githubintegrationservice.Config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.githubintegration.githubintegrationservice.Entity.GithubToken;
 import com.githubintegration.githubintegrationservice.Repository.GithubTokenRepository;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,14 +27,14 @@ public class GithubTokenService {
     private String clientSecret;
 
     private final GithubTokenRepository tokenRepository;
-    private final AuthClient authClient;
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final RestTemplate restTemplate;
 
     public GithubTokenService(GithubTokenRepository tokenRepository,
-                              AuthClient authClient,
+                              JwtTokenVerifier jwtTokenVerifier,
                               RestTemplate restTemplate) {
         this.tokenRepository = tokenRepository;
-        this.authClient = authClient;
+        this.jwtTokenVerifier = jwtTokenVerifier;
         this.restTemplate = restTemplate;
     }
 
@@ -86,7 +86,7 @@ public class GithubTokenService {
             return null;
         }
         try {
-            String userId = authClient.decodeToken(authorization);
+            String userId = jwtTokenVerifier.currentUserId(authorization);
             if (userId == null || userId.isEmpty()) {
                 LOGGER.warning("UserId null ou vide après décodage du token JWT");
                 return null;
@@ -107,7 +107,7 @@ public class GithubTokenService {
                 throw new IllegalArgumentException("En-tête Authorization invalide");
             }
 
-            String userId = authClient.decodeToken(authorization);
+            String userId = jwtTokenVerifier.currentUserId(authorization);
             if (userId == null || userId.isEmpty()) {
                 LOGGER.warning("UserId null ou vide après décodage du token JWT");
                 throw new RuntimeException("Impossible de récupérer le userId depuis le token JWT");
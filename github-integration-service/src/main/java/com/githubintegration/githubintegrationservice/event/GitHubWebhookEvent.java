@@ -0,0 +1,131 @@
+package com.githubintegration.githubintegrationservice.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Événement compact publié sur le topic github-events pour chaque webhook push ou pull_request accepté
+ * (clé = URL du dépôt). Les charges utiles GitHub (plusieurs dizaines de Ko) ne sont pas relayées :
+ * seuls les commits (SHA, message, date, auteur) et, pour une pull request, son numéro et l'action.
+ * Une pull request fusionnée porte un seul commit : son merge commit, avec le titre et la description en message.
+ */
+public class GitHubWebhookEvent {
+    @JsonProperty("deliveryId")
+    private final String deliveryId;
+
+    @JsonProperty("type")
+    private final String type;
+
+    @JsonProperty("action")
+    private final String action;
+
+    @JsonProperty("repositoryUrl")
+    private final String repositoryUrl;
+
+    @JsonProperty("ref")
+    private final String ref;
+
+    @JsonProperty("pullRequestNumber")
+    private final Integer pullRequestNumber;
+
+    @JsonProperty("commits")
+    private final List<CommitInfo> commits;
+
+    @JsonProperty("receivedAt")
+    private final LocalDateTime receivedAt;
+
+    public GitHubWebhookEvent(
+            @JsonProperty("deliveryId") String deliveryId,
+            @JsonProperty("type") String type,
+            @JsonProperty("action") String action,
+            @JsonProperty("repositoryUrl") String repositoryUrl,
+            @JsonProperty("ref") String ref,
+            @JsonProperty("pullRequestNumber") Integer pullRequestNumber,
+            @JsonProperty("commits") List<CommitInfo> commits,
+            @JsonProperty("receivedAt") LocalDateTime receivedAt) {
+        this.deliveryId = deliveryId;
+        this.type = type;
+        this.action = action;
+        this.repositoryUrl = repositoryUrl;
+        this.ref = ref;
+        this.pullRequestNumber = pullRequestNumber;
+        this.commits = commits;
+        this.receivedAt = receivedAt;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public Integer getPullRequestNumber() {
+        return pullRequestNumber;
+    }
+
+    public List<CommitInfo> getCommits() {
+        return commits;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public static class CommitInfo {
+        @JsonProperty("sha")
+        private final String sha;
+
+        @JsonProperty("message")
+        private final String message;
+
+        // Horodatage ISO-8601 tel que fourni par GitHub
+        @JsonProperty("timestamp")
+        private final String timestamp;
+
+        @JsonProperty("author")
+        private final String author;
+
+        public CommitInfo(
+                @JsonProperty("sha") String sha,
+                @JsonProperty("message") String message,
+                @JsonProperty("timestamp") String timestamp,
+                @JsonProperty("author") String author) {
+            this.sha = sha;
+            this.message = message;
+            this.timestamp = timestamp;
+            this.author = author;
+        }
+
+        public String getSha() {
+            return sha;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.githubintegration.githubintegrationservice.unit.Controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.githubintegration.githubintegrationservice.Controller.GitHubWebhookController;
+import com.githubintegration.githubintegrationservice.Entity.WebhookDelivery;
+import com.githubintegration.githubintegrationservice.Repository.WebhookDeliveryRepository;
+import com.githubintegration.githubintegrationservice.Service.GitHubWebhookService;
+import com.githubintegration.githubintegrationservice.event.GitHubWebhookEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rejoue les charges utiles enregistrées de src/test/resources/webhooks (mêmes fichiers que
+ * scripts/replay_github_webhooks.py) à travers le contrôleur et le service, sans GitHub ni Kafka.
+ */
+@ExtendWith(MockitoExtension.class)
+class GitHubWebhookControllerTest {
+
+    private static final String SECRET = "test-webhook-secret";
+
+    @Mock
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+
+    @Mock
+    private KafkaTemplate<String, GitHubWebhookEvent> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubWebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        GitHubWebhookService service = new GitHubWebhookService(webhookDeliveryRepository, kafkaTemplate,
+                new ObjectMapper(), meterRegistry, SECRET, "github-events", 1000);
+        controller = new GitHubWebhookController(service);
+    }
+
+    private static byte[] recording(String name) throws IOException {
+        try (InputStream in = GitHubWebhookControllerTest.class.getResourceAsStream("/webhooks/" + name)) {
+            assertNotNull(in, "Enregistrement absent : " + name);
+            return in.readAllBytes();
+        }
+    }
+
+    private static String sign(byte[] payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+
+    @Test
+    void receiveWebhook_PushRecording_PublishesDistinctCommits() throws Exception {
+        // Arrange
+        byte[] payload = recording("push.json");
+        when(webhookDeliveryRepository.existsById("delivery-push")).thenReturn(false);
+        when(kafkaTemplate.send(anyString(), anyString(), any(GitHubWebhookEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveWebhook("push", "delivery-push", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        ArgumentCaptor<GitHubWebhookEvent> captor = ArgumentCaptor.forClass(GitHubWebhookEvent.class);
+        verify(kafkaTemplate).send(eq("github-events"), eq("https://github.com/acme/gestion-app"), captor.capture());
+        GitHubWebhookEvent event = captor.getValue();
+        assertEquals("refs/heads/main", event.getRef());
+        // Le commit non distinct (déjà poussé sur une autre branche) n'est pas relayé
+        assertEquals(2, event.getCommits().size());
+        GitHubWebhookEvent.CommitInfo first = event.getCommits().get(0);
+        assertEquals("a10867b14bb761a232cd80139fbd4c0d33264240", first.getSha());
+        assertEquals("fix 'Login page' #US12", first.getMessage());
+        assertEquals("2025-01-02T10:00:00Z", first.getTimestamp());
+        assertEquals("dev-one", first.getAuthor());
+        assertEquals("Dev Two", event.getCommits().get(1).getAuthor());
+        verify(webhookDeliveryRepository).save(any(WebhookDelivery.class));
+    }
+
+    @Test
+    void receiveWebhook_MergedPullRequestRecording_PublishesMergeCommit() throws Exception {
+        // Arrange
+        byte[] payload = recording("pull_request.json");
+        when(webhookDeliveryRepository.existsById("delivery-pr")).thenReturn(false);
+        when(kafkaTemplate.send(anyString(), anyString(), any(GitHubWebhookEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveWebhook("pull_request", "delivery-pr", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        ArgumentCaptor<GitHubWebhookEvent> captor = ArgumentCaptor.forClass(GitHubWebhookEvent.class);
+        verify(kafkaTemplate).send(eq("github-events"), anyString(), captor.capture());
+        GitHubWebhookEvent event = captor.getValue();
+        assertEquals("closed", event.getAction());
+        assertEquals(42, event.getPullRequestNumber());
+        assertEquals(1, event.getCommits().size());
+        assertEquals("9f8e7d6c5b4a39281706f5e4d3c2b1a098765432", event.getCommits().get(0).getSha());
+        assertTrue(event.getCommits().get(0).getMessage().startsWith("task 'Export CSV' #US7"));
+    }
+
+    @Test
+    void receiveWebhook_InvalidSignature_ReturnsUnauthorized() throws Exception {
+        // Arrange
+        byte[] payload = recording("push.json");
+        String signature = sign("{}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveWebhook("push", "delivery-push", signature, payload);
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(kafkaTemplate, webhookDeliveryRepository);
+        assertEquals(1.0, meterRegistry.counter("github.webhook.deliveries", "event", "push", "result", "invalid_signature").count());
+    }
+
+    @Test
+    void receiveWebhook_Redelivery_IsNotPublishedTwice() throws Exception {
+        // Arrange
+        byte[] payload = recording("push.json");
+        when(webhookDeliveryRepository.existsById("delivery-push")).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveWebhook("push", "delivery-push", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("duplicate", response.getBody().get("result"));
+        verifyNoInteractions(kafkaTemplate);
+        verify(webhookDeliveryRepository, never()).save(any());
+    }
+
+    @Test
+    void receiveWebhook_PingRecording_IsIgnored() throws Exception {
+        // Arrange
+        byte[] payload = recording("ping.json");
+        when(webhookDeliveryRepository.existsById("delivery-ping")).thenReturn(false);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveWebhook("ping", "delivery-ping", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("ignored", response.getBody().get("result"));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void receiveWebhook_PublishFailure_DoesNotRecordDelivery() throws Exception {
+        // Arrange
+        byte[] payload = recording("push.json");
+        when(webhookDeliveryRepository.existsById("delivery-push")).thenReturn(false);
+        when(kafkaTemplate.send(anyString(), anyString(), any(GitHubWebhookEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveWebhook("push", "delivery-push", sign(payload), payload);
+
+        // Assert : GitHub signale l'échec et la relivraison sera republiée
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(webhookDeliveryRepository, never()).save(any());
+    }
+}
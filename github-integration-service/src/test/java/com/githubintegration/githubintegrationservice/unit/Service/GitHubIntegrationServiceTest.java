@@ -1,6 +1,6 @@
 package com.githubintegration.githubintegrationservice.unit.Service;
 
-import com.githubintegration.githubintegrationservice.Config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.githubintegration.githubintegrationservice.Service.GitHubIntegrationService;
 import com.githubintegration.githubintegrationservice.Service.GithubTokenService;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,7 +24,7 @@ import static org.mockito.Mockito.*;
 class GitHubIntegrationServiceTest {
 
     @Mock
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private GithubTokenService githubTokenService;
@@ -50,7 +50,7 @@ class GitHubIntegrationServiceTest {
     void extractUserId_ValidToken_ReturnsUserId() {
         // Arrange
         String authorization = "Bearer valid-token";
-        when(authClient.decodeToken(authorization)).thenReturn(USER_ID);
+        when(jwtTokenVerifier.currentUserId(authorization)).thenReturn(USER_ID);
         lenient().when(githubTokenService.getAccessTokenByUserId(USER_ID)).thenReturn(ACCESS_TOKEN);
 
         // Act
@@ -63,7 +63,7 @@ class GitHubIntegrationServiceTest {
     void extractUserId_InvalidToken_ThrowsException() {
         // Arrange
         String authorization = "Bearer invalid-token";
-        when(authClient.decodeToken(authorization)).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtTokenVerifier.currentUserId(authorization)).thenThrow(new RuntimeException("Invalid token"));
         lenient().when(githubTokenService.getAccessTokenByUserId(USER_ID)).thenReturn(ACCESS_TOKEN);
 
         // Act & Assert
@@ -1,5 +1,5 @@
 package com.githubintegration.githubintegrationservice.unit.Service;
-import com.githubintegration.githubintegrationservice.Config.AuthClient;
+import com.common.security.JwtTokenVerifier;
 import com.githubintegration.githubintegrationservice.Entity.GithubToken;
 import com.githubintegration.githubintegrationservice.Repository.GithubTokenRepository;
 import com.githubintegration.githubintegrationservice.Service.GithubTokenService;
@@ -28,7 +28,7 @@ class GithubTokenServiceTest {
     private GithubTokenRepository tokenRepository;
 
     @Mock
-    private AuthClient authClient;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Mock
     private RestTemplate restTemplate;
@@ -100,7 +100,7 @@ class GithubTokenServiceTest {
         // Arrange
         String authorization = "Bearer valid-token";
         String userId = "user123";
-        when(authClient.decodeToken(authorization)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(authorization)).thenReturn(userId);
 
         // Act
         String result = githubTokenService.getUserIdFromToken(authorization);
@@ -129,7 +129,7 @@ class GithubTokenServiceTest {
         GithubToken token = new GithubToken();
         token.setAccessToken("test-access-token");
 
-        when(authClient.decodeToken(authorization)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(authorization)).thenReturn(userId);
         when(tokenRepository.findByUserId(userId)).thenReturn(Optional.of(token));
 
         // Act
@@ -145,7 +145,7 @@ class GithubTokenServiceTest {
         String authorization = "Bearer valid-token";
         String userId = "user123";
 
-        when(authClient.decodeToken(authorization)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(authorization)).thenReturn(userId);
         when(tokenRepository.findByUserId(userId)).thenReturn(Optional.empty());
 
         // Act
@@ -232,7 +232,7 @@ class GithubTokenServiceTest {
         // Arrange
         String authorization = "Bearer valid-token";
         String userId = "user123";
-        when(authClient.decodeToken(authorization)).thenReturn(userId);
+        when(jwtTokenVerifier.currentUserId(authorization)).thenReturn(userId);
 
         // Act
         githubTokenService.removeToken(authorization);
@@ -245,7 +245,7 @@ class GithubTokenServiceTest {
     void removeToken_InvalidToken_ThrowsException() {
         // Arrange
         String authorization = "Bearer invalid-token";
-        when(authClient.decodeToken(authorization)).thenReturn(null);
+        when(jwtTokenVerifier.currentUserId(authorization)).thenReturn(null);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
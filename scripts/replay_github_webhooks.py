@@ -0,0 +1,45 @@
+import argparse
+import hashlib
+import hmac
+import os
+import uuid
+
+import requests
+
+DEFAULT_URL = "http://localhost:8087/api/github-integration/webhook"
+DEFAULT_DIR = os.path.join(os.path.dirname(__file__), "..", "github-integration-service",
+                           "src", "test", "resources", "webhooks")
+
+
+def sign(secret, payload):
+    """Signature X-Hub-Signature-256 calculée comme GitHub (HMAC-SHA256 du corps brut)."""
+    return "sha256=" + hmac.new(secret.encode("utf-8"), payload, hashlib.sha256).hexdigest()
+
+
+def replay(url, secret, path, delivery_id=None):
+    """Rejouer une charge utile enregistrée ; l'événement est le nom du fichier (push.json -> push)."""
+    event = os.path.basename(path).split(".")[0]
+    with open(path, "rb") as f:
+        payload = f.read()
+    headers = {
+        "Content-Type": "application/json",
+        "X-GitHub-Event": event,
+        "X-GitHub-Delivery": delivery_id or str(uuid.uuid4()),
+        "X-Hub-Signature-256": sign(secret, payload),
+    }
+    response = requests.post(url, data=payload, headers=headers)
+    print(f"{event} ({headers['X-GitHub-Delivery']}) -> {response.status_code} {response.text}")
+
+
+if __name__ == "__main__":
+    parser = argparse.ArgumentParser(description="Rejouer des webhooks GitHub enregistrés vers github-integration-service.")
+    parser.add_argument("files", nargs="*", help="Fichiers JSON à rejouer (par défaut : tous les enregistrements)")
+    parser.add_argument("--url", default=DEFAULT_URL)
+    parser.add_argument("--secret", default=os.environ.get("WEBHOOK_SECRET", ""))
+    parser.add_argument("--delivery-id", help="Identifiant de livraison fixe, pour tester le dédoublonnage")
+    args = parser.parse_args()
+
+    files = args.files or sorted(os.path.join(DEFAULT_DIR, name)
+                                 for name in os.listdir(DEFAULT_DIR) if name.endswith(".json"))
+    for path in files:
+        replay(args.url, args.secret, path, args.delivery_id)